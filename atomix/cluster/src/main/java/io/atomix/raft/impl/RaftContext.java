@@ -399,6 +399,10 @@ public class RaftContext implements AutoCloseable {
   /**
    * Sets the commit index.
    *
+   * <p>If the log groups commits, the commit index may not advance until the pending entries are
+   * flushed. Callers must therefore use {@link #getCommitIndex()} to find the index up to which
+   * entries were committed.
+   *
    * @param commitIndex The commit index.
    * @return the previous commit index
    */
@@ -406,8 +410,15 @@ public class RaftContext implements AutoCloseable {
     checkArgument(commitIndex >= 0, "commitIndex must be positive");
     final long previousCommitIndex = this.commitIndex;
     if (commitIndex > previousCommitIndex) {
+      final long logCommitIndex = Math.min(commitIndex, logWriter.getLastIndex());
+      logWriter.commit(logCommitIndex);
+      if (logWriter.getCommitIndex() < logCommitIndex) {
+        // the log groups commits: the index is committed once the entries are flushed together
+        // with later commits, which happens on one of the next calls
+        return previousCommitIndex;
+      }
+
       this.commitIndex = commitIndex;
-      logWriter.commit(Math.min(commitIndex, logWriter.getLastIndex()));
       final long configurationIndex = cluster.getConfiguration().index();
       if (configurationIndex > previousCommitIndex && configurationIndex <= commitIndex) {
         cluster.commit();
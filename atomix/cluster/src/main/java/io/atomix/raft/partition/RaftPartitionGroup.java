@@ -519,6 +519,39 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets the maximum time a commit is delayed to be flushed together with later commits.
+     *
+     * @param groupCommitDelay the group commit delay, zero to flush on every commit
+     * @return the Raft partition group builder
+     */
+    public Builder withGroupCommitDelay(final Duration groupCommitDelay) {
+      config.getStorageConfig().setGroupCommitDelay(groupCommitDelay);
+      return this;
+    }
+
+    /**
+     * Sets the number of appended bytes after which pending group commits are flushed.
+     *
+     * @param groupCommitBytes the group commit size limit in bytes, zero to limit by delay only
+     * @return the Raft partition group builder
+     */
+    public Builder withGroupCommitBytes(final int groupCommitBytes) {
+      config.getStorageConfig().setGroupCommitBytes(groupCommitBytes);
+      return this;
+    }
+
+    /**
+     * Sets whether to use a dense, persisted index for the log segments.
+     *
+     * @param denseIndex whether to use a dense index
+     * @return the Raft partition group builder
+     */
+    public Builder withDenseIndex(final boolean denseIndex) {
+      config.getStorageConfig().setDenseIndex(denseIndex);
+      return this;
+    }
+
     /**
      * Sets the Raft state machine factory to use.
      *
@@ -23,6 +23,7 @@ import io.atomix.raft.storage.snapshot.SnapshotStoreFactory;
 import io.atomix.raft.storage.snapshot.impl.DefaultSnapshotStore;
 import io.atomix.storage.StorageLevel;
 import io.atomix.utils.memory.MemorySize;
+import java.time.Duration;
 
 /** Raft storage configuration. */
 public class RaftStorageConfig {
@@ -32,6 +33,9 @@ public class RaftStorageConfig {
   private static final int DEFAULT_MAX_SEGMENT_SIZE = 1024 * 1024 * 32;
   private static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
   private static final boolean DEFAULT_FLUSH_ON_COMMIT = false;
+  private static final Duration DEFAULT_GROUP_COMMIT_DELAY = Duration.ZERO;
+  private static final int DEFAULT_GROUP_COMMIT_BYTES = 0;
+  private static final boolean DEFAULT_DENSE_INDEX = false;
   private static final SnapshotStoreFactory DEFAULT_SNAPSHOT_STORE_FACTORY =
       DefaultSnapshotStore::new;
 
@@ -40,6 +44,9 @@ public class RaftStorageConfig {
   private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
   private long segmentSize = DEFAULT_MAX_SEGMENT_SIZE;
   private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+  private Duration groupCommitDelay = DEFAULT_GROUP_COMMIT_DELAY;
+  private int groupCommitBytes = DEFAULT_GROUP_COMMIT_BYTES;
+  private boolean denseIndex = DEFAULT_DENSE_INDEX;
 
   @Optional("SnapshotStoreFactory")
   private SnapshotStoreFactory snapshotStoreFactory = DEFAULT_SNAPSHOT_STORE_FACTORY;
@@ -136,6 +143,67 @@ public class RaftStorageConfig {
     return this;
   }
 
+  /**
+   * Returns the maximum time a commit is delayed to be flushed together with later commits.
+   *
+   * @return the group commit delay
+   */
+  public Duration getGroupCommitDelay() {
+    return groupCommitDelay;
+  }
+
+  /**
+   * Sets the maximum time a commit is delayed to be flushed together with later commits. Only
+   * applies if flush on commit is enabled.
+   *
+   * @param groupCommitDelay the group commit delay, zero to flush on every commit
+   * @return the Raft partition group configuration
+   */
+  public RaftStorageConfig setGroupCommitDelay(final Duration groupCommitDelay) {
+    this.groupCommitDelay = checkNotNull(groupCommitDelay);
+    return this;
+  }
+
+  /**
+   * Returns the number of appended bytes after which pending group commits are flushed.
+   *
+   * @return the group commit size limit in bytes
+   */
+  public int getGroupCommitBytes() {
+    return groupCommitBytes;
+  }
+
+  /**
+   * Sets the number of appended bytes after which pending group commits are flushed.
+   *
+   * @param groupCommitBytes the group commit size limit in bytes, zero to limit by delay only
+   * @return the Raft partition group configuration
+   */
+  public RaftStorageConfig setGroupCommitBytes(final int groupCommitBytes) {
+    this.groupCommitBytes = groupCommitBytes;
+    return this;
+  }
+
+  /**
+   * Returns whether to use a dense, persisted index for the log segments.
+   *
+   * @return whether to use a dense index
+   */
+  public boolean isDenseIndex() {
+    return denseIndex;
+  }
+
+  /**
+   * Sets whether to use a dense, persisted index for the log segments.
+   *
+   * @param denseIndex whether to use a dense index
+   * @return the Raft partition group configuration
+   */
+  public RaftStorageConfig setDenseIndex(final boolean denseIndex) {
+    this.denseIndex = denseIndex;
+    return this;
+  }
+
   /**
    * Sets the partition data directory.
    *
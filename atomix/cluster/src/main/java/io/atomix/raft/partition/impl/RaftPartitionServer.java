@@ -306,6 +306,9 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
         .withMaxSegmentSize((int) storageConfig.getSegmentSize().bytes())
         .withMaxEntrySize((int) storageConfig.getMaxEntrySize().bytes())
         .withFlushOnCommit(storageConfig.isFlushOnCommit())
+        .withGroupCommitDelay(storageConfig.getGroupCommitDelay())
+        .withGroupCommitBytes(storageConfig.getGroupCommitBytes())
+        .withDenseIndex(storageConfig.isDenseIndex())
         .withDynamicCompaction(compactionConfig.isDynamic())
         .withFreeDiskBuffer(compactionConfig.getFreeDiskBuffer())
         .withFreeMemoryBuffer(compactionConfig.getFreeMemoryBuffer())
@@ -28,6 +28,7 @@ import io.atomix.raft.protocol.InstallRequest;
 import io.atomix.raft.protocol.InstallResponse;
 import io.atomix.raft.protocol.RaftRequest;
 import io.atomix.raft.storage.snapshot.Snapshot;
+import io.atomix.utils.concurrent.Scheduled;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -52,6 +53,8 @@ final class LeaderAppender extends AbstractAppender {
   private final Map<Long, CompletableFuture<Long>> appendFutures = new HashMap<>();
   private final List<TimestampedFuture<Long>> heartbeatFutures = new ArrayList<>();
   private final long heartbeatTime;
+  private Scheduled groupCommitTimer;
+  private long groupCommitIndex;
 
   LeaderAppender(final LeaderRole leader) {
     super(leader.raft);
@@ -86,6 +89,11 @@ final class LeaderAppender extends AbstractAppender {
     if (raft.getCluster().getActiveMemberStates().isEmpty()) {
       final long previousCommitIndex = raft.getCommitIndex();
       raft.setCommitIndex(index);
+      if (raft.getCommitIndex() < index) {
+        // there are no followers whose responses would complete a grouped commit later on
+        raft.getLogWriter().flushPendingCommit();
+        raft.setCommitIndex(index);
+      }
       completeCommits(previousCommitIndex, index);
       return CompletableFuture.completedFuture(index);
     }
@@ -345,6 +353,7 @@ final class LeaderAppender extends AbstractAppender {
   @Override
   public void close() {
     super.close();
+    cancelGroupCommit();
     appendFutures
         .values()
         .forEach(
@@ -464,12 +473,14 @@ final class LeaderAppender extends AbstractAppender {
     // request/response)
     // ensure all commit futures are completed and cleared.
     if (members.isEmpty()) {
-      final long commitIndex = raft.getLogWriter().getLastIndex();
-      final long previousCommitIndex = raft.setCommitIndex(commitIndex);
+      final long lastIndex = raft.getLogWriter().getLastIndex();
+      final long previousCommitIndex = raft.setCommitIndex(lastIndex);
+      final long commitIndex = raft.getCommitIndex();
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
         completeCommits(previousCommitIndex, commitIndex);
       }
+      scheduleGroupCommit(lastIndex);
       return;
     }
 
@@ -484,9 +495,52 @@ final class LeaderAppender extends AbstractAppender {
     if (commitIndex > 0
         && commitIndex > previousCommitIndex
         && (leaderIndex > 0 && commitIndex >= leaderIndex)) {
-      log.trace("Committed entries up to {}", commitIndex);
       raft.setCommitIndex(commitIndex);
-      completeCommits(previousCommitIndex, commitIndex);
+      if (raft.getCommitIndex() > previousCommitIndex) {
+        log.trace("Committed entries up to {}", raft.getCommitIndex());
+        completeCommits(previousCommitIndex, raft.getCommitIndex());
+      }
+      scheduleGroupCommit(commitIndex);
+    }
+  }
+
+  /**
+   * Schedules a flush of the grouped commit up to the given index, if the log deferred it. Without
+   * it, a leader without further traffic would only commit the entries on the next heartbeat.
+   */
+  private void scheduleGroupCommit(final long commitIndex) {
+    if (raft.getCommitIndex() >= commitIndex) {
+      cancelGroupCommit();
+      return;
+    }
+
+    groupCommitIndex = Math.max(groupCommitIndex, commitIndex);
+    if (groupCommitTimer == null) {
+      groupCommitTimer =
+          raft.getThreadContext()
+              .schedule(raft.getStorage().groupCommitDelay(), this::flushGroupCommit);
+    }
+  }
+
+  private void flushGroupCommit() {
+    groupCommitTimer = null;
+    if (!open || groupCommitIndex <= raft.getCommitIndex()) {
+      return;
+    }
+
+    final long previousCommitIndex = raft.getCommitIndex();
+    raft.getLogWriter().flushPendingCommit();
+    raft.setCommitIndex(groupCommitIndex);
+    if (raft.getCommitIndex() > previousCommitIndex) {
+      log.trace("Committed entries up to {}", raft.getCommitIndex());
+      completeCommits(previousCommitIndex, raft.getCommitIndex());
+    }
+  }
+
+  private void cancelGroupCommit() {
+    if (groupCommitTimer != null) {
+      groupCommitTimer.cancel();
+      groupCommitTimer = null;
     }
   }
 
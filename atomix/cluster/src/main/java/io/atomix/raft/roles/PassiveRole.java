@@ -828,9 +828,9 @@ public class PassiveRole extends InactiveRole {
 
     // Update the context commit and global indices.
     final long previousCommitIndex = raft.setCommitIndex(commitIndex);
-    if (previousCommitIndex < commitIndex) {
-      log.trace("Committed entries up to index {}", commitIndex);
-      raft.getServiceManager().applyAll(commitIndex);
+    if (previousCommitIndex < raft.getCommitIndex()) {
+      log.trace("Committed entries up to index {}", raft.getCommitIndex());
+      raft.getServiceManager().applyAll(raft.getCommitIndex());
     }
 
     // Return a successful append response.
@@ -37,6 +37,7 @@ import io.atomix.utils.serializer.Serializer;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -71,6 +72,9 @@ public final class RaftStorage {
   private final double freeDiskBuffer;
   private final double freeMemoryBuffer;
   private final boolean flushOnCommit;
+  private final Duration groupCommitDelay;
+  private final int groupCommitBytes;
+  private final boolean denseIndex;
   private final boolean retainStaleSnapshots;
   private final StorageStatistics statistics;
   private final SnapshotStore snapshotStore;
@@ -88,6 +92,9 @@ public final class RaftStorage {
       final double freeDiskBuffer,
       final double freeMemoryBuffer,
       final boolean flushOnCommit,
+      final Duration groupCommitDelay,
+      final int groupCommitBytes,
+      final boolean denseIndex,
       final boolean retainStaleSnapshots,
       final StorageStatistics storageStatistics,
       final SnapshotStore snapshotStore,
@@ -103,6 +110,9 @@ public final class RaftStorage {
     this.freeDiskBuffer = freeDiskBuffer;
     this.freeMemoryBuffer = freeMemoryBuffer;
     this.flushOnCommit = flushOnCommit;
+    this.groupCommitDelay = groupCommitDelay;
+    this.groupCommitBytes = groupCommitBytes;
+    this.denseIndex = denseIndex;
     this.retainStaleSnapshots = retainStaleSnapshots;
     this.statistics = storageStatistics;
     this.snapshotStore = snapshotStore;
@@ -319,6 +329,9 @@ public final class RaftStorage {
         .withMaxEntrySize(maxEntrySize)
         .withMaxEntriesPerSegment(maxEntriesPerSegment)
         .withFlushOnCommit(flushOnCommit)
+        .withGroupCommitDelay(groupCommitDelay)
+        .withGroupCommitBytes(groupCommitBytes)
+        .withDenseIndex(denseIndex)
         .withJournalIndexFactory(journalIndexFactory)
         .build();
   }
@@ -331,7 +344,9 @@ public final class RaftStorage {
    * memory.
    */
   public void deleteLog() {
-    deleteFiles(f -> JournalSegmentFile.isSegmentFile(prefix, f));
+    deleteFiles(
+        f ->
+            JournalSegmentFile.isSegmentFile(prefix, f) || JournalSegmentFile.isIndexFile(prefix, f));
   }
 
   @Override
@@ -361,6 +376,33 @@ public final class RaftStorage {
     return flushOnCommit;
   }
 
+  /**
+   * Returns the maximum time a commit is delayed to be flushed together with later commits.
+   *
+   * @return The maximum group commit delay, {@link Duration#ZERO} if every commit is flushed.
+   */
+  public Duration groupCommitDelay() {
+    return groupCommitDelay;
+  }
+
+  /**
+   * Returns the number of appended bytes after which pending group commits are flushed.
+   *
+   * @return The maximum number of appended bytes in a group commit, {@code 0} if unbounded.
+   */
+  public int groupCommitBytes() {
+    return groupCommitBytes;
+  }
+
+  /**
+   * Returns whether the log uses a dense, persisted index for its segments.
+   *
+   * @return Indicates whether the log uses a dense index.
+   */
+  public boolean isDenseIndex() {
+    return denseIndex;
+  }
+
   /**
    * Returns a boolean value indicating whether to retain stale snapshots on disk.
    *
@@ -415,6 +457,9 @@ public final class RaftStorage {
     private double freeDiskBuffer = DEFAULT_FREE_DISK_BUFFER;
     private double freeMemoryBuffer = DEFAULT_FREE_MEMORY_BUFFER;
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private Duration groupCommitDelay = Duration.ZERO;
+    private int groupCommitBytes;
+    private boolean denseIndex;
     private boolean retainStaleSnapshots = DEFAULT_RETAIN_STALE_SNAPSHOTS;
     private StorageStatistics storageStatistics;
     private SnapshotStore snapshotStore;
@@ -635,6 +680,54 @@ public final class RaftStorage {
       return this;
     }
 
+    /**
+     * Sets the maximum time a commit is delayed to be flushed together with later commits,
+     * returning the builder for method chaining.
+     *
+     * <p>Group commits only apply if flush-on-commit is enabled. Commits are collected until the
+     * delay has passed since the first pending commit and are then flushed with a single force.
+     * The commit index only advances once the entries are flushed. Pending commits are completed
+     * by later commit attempts, e.g. on the next append response or heartbeat, so the delay should
+     * be lower than the heartbeat interval.
+     *
+     * @param groupCommitDelay The maximum group commit delay, {@link Duration#ZERO} to flush on
+     *     every commit.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitDelay(final Duration groupCommitDelay) {
+      this.groupCommitDelay = checkNotNull(groupCommitDelay, "groupCommitDelay cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the number of appended bytes after which pending group commits are flushed before the
+     * group commit delay has passed, returning the builder for method chaining.
+     *
+     * @param groupCommitBytes The maximum number of appended bytes in a group commit, {@code 0}
+     *     to limit groups by their delay only.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitBytes(final int groupCommitBytes) {
+      checkArgument(groupCommitBytes >= 0, "groupCommitBytes must not be negative");
+      this.groupCommitBytes = groupCommitBytes;
+      return this;
+    }
+
+    /**
+     * Enables a dense journal index, returning the builder for method chaining.
+     *
+     * <p>The dense index stores the position of every entry in a file next to its segment. Seeking
+     * to an arbitrary index then does not require scanning the segment, and segments do not have
+     * to be read completely when the log is opened again.
+     *
+     * @param denseIndex Whether to use a dense journal index.
+     * @return The storage builder.
+     */
+    public Builder withDenseIndex(final boolean denseIndex) {
+      this.denseIndex = denseIndex;
+      return this;
+    }
+
     /**
      * Enables retaining stale snapshots on disk, returning the builder for method chaining.
      *
@@ -713,6 +806,9 @@ public final class RaftStorage {
           freeDiskBuffer,
           freeMemoryBuffer,
           flushOnCommit,
+          groupCommitDelay,
+          groupCommitBytes,
+          denseIndex,
           retainStaleSnapshots,
           Optional.ofNullable(storageStatistics).orElse(new StorageStatistics(directory)),
           snapshotStore,
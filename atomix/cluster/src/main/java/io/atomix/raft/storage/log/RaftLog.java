@@ -20,10 +20,12 @@ import io.atomix.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.storage.StorageLevel;
 import io.atomix.storage.journal.DelegatingJournal;
 import io.atomix.storage.journal.JournalReader;
+import io.atomix.storage.journal.NamespaceJournalCodec;
 import io.atomix.storage.journal.SegmentedJournal;
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.utils.serializer.Namespace;
 import java.io.File;
+import java.time.Duration;
 import java.util.function.Supplier;
 
 /** Raft log. */
@@ -176,11 +178,17 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
     /**
      * Sets the log serialization namespace, returning the builder for method chaining.
      *
+     * <p>The namespace is only used for entry types which are not encoded natively by the {@link
+     * RaftLogEntryCodec}, and for all entries of segments which were written before that format.
+     *
      * @param namespace The journal namespace.
      * @return The journal builder.
      */
     public Builder withNamespace(final Namespace namespace) {
-      journalBuilder.withNamespace(namespace);
+      // segments written before the native entry format are still read with the namespace
+      journalBuilder
+          .withCodec(new RaftLogEntryCodec(namespace))
+          .withLegacyCodec(new NamespaceJournalCodec<>(namespace));
       return this;
     }
 
@@ -254,6 +262,43 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Sets the maximum time a commit is delayed to be flushed together with later commits,
+     * returning the builder for method chaining.
+     *
+     * @param groupCommitDelay The maximum group commit delay, {@link Duration#ZERO} to flush on
+     *     every commit.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitDelay(final Duration groupCommitDelay) {
+      journalBuilder.withGroupCommitDelay(groupCommitDelay);
+      return this;
+    }
+
+    /**
+     * Sets the number of appended bytes after which pending group commits are flushed, returning
+     * the builder for method chaining.
+     *
+     * @param groupCommitBytes The maximum number of appended bytes in a group commit, {@code 0}
+     *     to limit groups by their delay only.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitBytes(final int groupCommitBytes) {
+      journalBuilder.withGroupCommitBytes(groupCommitBytes);
+      return this;
+    }
+
+    /**
+     * Enables a dense journal index, returning the builder for method chaining.
+     *
+     * @param denseIndex Whether to use a dense journal index.
+     * @return The storage builder.
+     */
+    public Builder withDenseIndex(final boolean denseIndex) {
+      journalBuilder.withDenseIndex(denseIndex);
+      return this;
+    }
+
     public Builder withJournalIndexFactory(final Supplier<JournalIndex> journalIndexFactory) {
       journalBuilder.withJournalIndexFactory(journalIndexFactory);
       return this;
@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.storage.log;
+
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.raft.storage.log.entry.CommandEntry;
+import io.atomix.raft.storage.log.entry.InitializeEntry;
+import io.atomix.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.raft.zeebe.ZeebeEntry;
+import io.atomix.storage.journal.JournalCodec;
+import io.atomix.utils.serializer.Namespace;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Journal codec for {@link RaftLogEntry raft log entries}.
+ *
+ * <p>The entries which are written on every append - {@link ZeebeEntry}, {@link CommandEntry} and
+ * {@link InitializeEntry} - are encoded field by field straight into the segment buffer. All other
+ * entry types are rarely written and are serialized with the given Kryo namespace.
+ *
+ * <p>Every entry starts with a one byte type ID:
+ *
+ * <ul>
+ *   <li>{@link #NAMESPACE_TYPE}: Kryo serialized entry
+ *   <li>{@link #ZEEBE_TYPE}: 64-bit term, 64-bit timestamp, 64-bit lowest position, 64-bit highest
+ *       position, 32-bit data length, n-bit data
+ *   <li>{@link #COMMAND_TYPE}: 64-bit term, 64-bit timestamp, 64-bit session, 64-bit sequence,
+ *       32-bit operation id length, n-bit UTF-8 operation id, 8-bit operation type, 32-bit value
+ *       length (-1 if absent), n-bit value
+ *   <li>{@link #INITIALIZE_TYPE}: 64-bit term, 64-bit timestamp
+ * </ul>
+ */
+public class RaftLogEntryCodec implements JournalCodec<RaftLogEntry> {
+
+  static final byte NAMESPACE_TYPE = 0;
+  static final byte ZEEBE_TYPE = 1;
+  static final byte COMMAND_TYPE = 2;
+  static final byte INITIALIZE_TYPE = 3;
+
+  private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+  private final Namespace namespace;
+
+  public RaftLogEntryCodec(final Namespace namespace) {
+    this.namespace = namespace;
+  }
+
+  @Override
+  public void encode(final RaftLogEntry entry, final ByteBuffer buffer) {
+    // exact class checks, subclasses may carry additional state which is only known to Kryo
+    final Class<? extends RaftLogEntry> type = entry.getClass();
+    if (type == ZeebeEntry.class) {
+      buffer.put(ZEEBE_TYPE);
+      encodeZeebeEntry((ZeebeEntry) entry, buffer);
+    } else if (type == CommandEntry.class) {
+      buffer.put(COMMAND_TYPE);
+      encodeCommandEntry((CommandEntry) entry, buffer);
+    } else if (type == InitializeEntry.class) {
+      buffer.put(INITIALIZE_TYPE);
+      buffer.putLong(entry.term());
+      buffer.putLong(((InitializeEntry) entry).timestamp());
+    } else {
+      buffer.put(NAMESPACE_TYPE);
+      namespace.serialize(entry, buffer);
+    }
+  }
+
+  @Override
+  public RaftLogEntry decode(final ByteBuffer buffer) {
+    final byte type = buffer.get();
+    switch (type) {
+      case ZEEBE_TYPE:
+        return decodeZeebeEntry(buffer);
+      case COMMAND_TYPE:
+        return decodeCommandEntry(buffer);
+      case INITIALIZE_TYPE:
+        return new InitializeEntry(buffer.getLong(), buffer.getLong());
+      case NAMESPACE_TYPE:
+        return namespace.deserialize(buffer);
+      default:
+        throw new IllegalStateException("Unknown raft log entry type " + type);
+    }
+  }
+
+  private void encodeZeebeEntry(final ZeebeEntry entry, final ByteBuffer buffer) {
+    final ByteBuffer data = entry.data();
+
+    buffer.putLong(entry.term());
+    buffer.putLong(entry.timestamp());
+    buffer.putLong(entry.lowestPosition());
+    buffer.putLong(entry.highestPosition());
+    buffer.putInt(data.remaining());
+    // duplicate the data buffer, so the position of the entry's buffer is not modified
+    buffer.put(data.duplicate());
+  }
+
+  private ZeebeEntry decodeZeebeEntry(final ByteBuffer buffer) {
+    final long term = buffer.getLong();
+    final long timestamp = buffer.getLong();
+    final long lowestPosition = buffer.getLong();
+    final long highestPosition = buffer.getLong();
+    final int length = buffer.getInt();
+
+    // the segment buffers are reused by the readers, so the data has to be copied
+    final ByteBuffer data = ByteBuffer.allocate(length);
+    final ByteBuffer source = buffer.slice();
+    source.limit(length);
+    data.put(source).flip();
+    buffer.position(buffer.position() + length);
+
+    return new ZeebeEntry(term, timestamp, lowestPosition, highestPosition, data);
+  }
+
+  private void encodeCommandEntry(final CommandEntry entry, final ByteBuffer buffer) {
+    final PrimitiveOperation operation = entry.operation();
+    final OperationId operationId = operation.id();
+    final byte[] id = operationId.id().getBytes(StandardCharsets.UTF_8);
+    final byte[] value = operation.value();
+
+    buffer.putLong(entry.term());
+    buffer.putLong(entry.timestamp());
+    buffer.putLong(entry.session());
+    buffer.putLong(entry.sequenceNumber());
+    buffer.putInt(id.length);
+    buffer.put(id);
+    buffer.put((byte) operationId.type().ordinal());
+
+    if (value != null) {
+      buffer.putInt(value.length);
+      buffer.put(value);
+    } else {
+      buffer.putInt(-1);
+    }
+  }
+
+  private CommandEntry decodeCommandEntry(final ByteBuffer buffer) {
+    final long term = buffer.getLong();
+    final long timestamp = buffer.getLong();
+    final long session = buffer.getLong();
+    final long sequence = buffer.getLong();
+
+    final byte[] id = new byte[buffer.getInt()];
+    buffer.get(id);
+    final OperationType operationType = OPERATION_TYPES[buffer.get()];
+
+    final int valueLength = buffer.getInt();
+    final byte[] value;
+    if (valueLength >= 0) {
+      value = new byte[valueLength];
+      buffer.get(value);
+    } else {
+      value = null;
+    }
+
+    final OperationId operationId =
+        OperationId.from(new String(id, StandardCharsets.UTF_8), operationType);
+    return new CommandEntry(
+        term, timestamp, session, sequence, new PrimitiveOperation(operationId, value));
+  }
+}
@@ -23,7 +23,25 @@ import io.atomix.storage.journal.SegmentedJournalWriter;
 /** Raft log writer. */
 public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
 
+  private final SegmentedJournalWriter<RaftLogEntry> writer;
+
   public RaftLogWriter(final SegmentedJournalWriter<RaftLogEntry> writer) {
     super(writer);
+    this.writer = writer;
+  }
+
+  /**
+   * Returns the index up to which the log is committed. With group commits enabled, this may lag
+   * behind the last index passed to {@link #commit(long)} until the entries are flushed.
+   *
+   * @return The log commit index.
+   */
+  public long getCommitIndex() {
+    return writer.getCommitIndex();
+  }
+
+  /** Flushes and commits the pending group commit, if any. */
+  public void flushPendingCommit() {
+    writer.flushPendingCommit();
   }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.storage.log;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.raft.partition.impl.RaftNamespaces;
+import io.atomix.raft.storage.log.entry.CommandEntry;
+import io.atomix.raft.storage.log.entry.InitializeEntry;
+import io.atomix.raft.storage.log.entry.MetadataEntry;
+import io.atomix.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.raft.zeebe.ZeebeEntry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class RaftLogEntryCodecTest {
+
+  private final RaftLogEntryCodec codec = new RaftLogEntryCodec(RaftNamespaces.RAFT_STORAGE);
+  private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+  @Test
+  public void shouldEncodeZeebeEntry() {
+    // given
+    final ByteBuffer data = ByteBuffer.wrap("foo".getBytes(StandardCharsets.UTF_8));
+    final ZeebeEntry entry = new ZeebeEntry(1, 2, 3, 4, data);
+
+    // when
+    final ZeebeEntry decoded = (ZeebeEntry) encodeAndDecode(entry);
+
+    // then
+    assertEquals(entry, decoded);
+    assertEquals(0, data.position());
+  }
+
+  @Test
+  public void shouldEncodeCommandEntry() {
+    // given
+    final byte[] value = "bar".getBytes(StandardCharsets.UTF_8);
+    final CommandEntry entry =
+        new CommandEntry(
+            1, 2, 3, 4, PrimitiveOperation.operation(OperationId.command("append"), value));
+
+    // when
+    final CommandEntry decoded = (CommandEntry) encodeAndDecode(entry);
+
+    // then
+    assertEquals(1, decoded.term());
+    assertEquals(2, decoded.timestamp());
+    assertEquals(3, decoded.session());
+    assertEquals(4, decoded.sequenceNumber());
+    assertEquals("append", decoded.operation().id().id());
+    assertEquals(OperationType.COMMAND, decoded.operation().id().type());
+    assertArrayEquals(value, decoded.operation().value());
+  }
+
+  @Test
+  public void shouldEncodeCommandEntryWithoutValue() {
+    // given
+    final CommandEntry entry =
+        new CommandEntry(1, 2, 3, 4, PrimitiveOperation.operation(OperationId.command("append")));
+
+    // when
+    final CommandEntry decoded = (CommandEntry) encodeAndDecode(entry);
+
+    // then
+    assertNull(decoded.operation().value());
+  }
+
+  @Test
+  public void shouldEncodeInitializeEntry() {
+    // when
+    final InitializeEntry decoded = (InitializeEntry) encodeAndDecode(new InitializeEntry(1, 2));
+
+    // then
+    assertEquals(1, decoded.term());
+    assertEquals(2, decoded.timestamp());
+  }
+
+  @Test
+  public void shouldFallBackToNamespace() {
+    // when
+    final RaftLogEntry decoded = encodeAndDecode(new MetadataEntry(1, 2, 3));
+
+    // then
+    assertTrue(decoded instanceof MetadataEntry);
+    assertEquals(3, ((MetadataEntry) decoded).session());
+  }
+
+  private RaftLogEntry encodeAndDecode(final RaftLogEntry entry) {
+    codec.encode(entry, buffer);
+    buffer.flip();
+    final RaftLogEntry decoded = codec.decode(buffer);
+    assertEquals(buffer.limit(), buffer.position());
+    return decoded;
+  }
+}
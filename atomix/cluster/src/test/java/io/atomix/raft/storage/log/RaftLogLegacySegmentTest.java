@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.storage.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.atomix.raft.partition.impl.RaftNamespaces;
+import io.atomix.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.raft.zeebe.ZeebeEntry;
+import io.atomix.storage.journal.SegmentedJournal;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RaftLogLegacySegmentTest {
+
+  private static final String NAME = "raft";
+  private static final int MAX_SEGMENT_SIZE = 1024;
+  private static final int MAX_ENTRY_SIZE = 768;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldReadSegmentWrittenWithNamespaceCodec() throws IOException {
+    // given
+    final File directory = temporaryFolder.newFolder();
+    final ZeebeEntry legacyEntry = new ZeebeEntry(1, 2, 3, 4, ByteBuffer.wrap(new byte[16]));
+    writeLegacySegment(directory, legacyEntry);
+
+    // when
+    try (RaftLog log = openLog(directory)) {
+      final RaftLogReader reader = log.openReader(1);
+
+      // then
+      assertTrue(reader.hasNext());
+      assertEquals(legacyEntry, reader.next().entry());
+      assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test
+  public void shouldWriteNewSegmentsWithNativeCodecAfterLegacySegment() throws IOException {
+    // given
+    final File directory = temporaryFolder.newFolder();
+    final ZeebeEntry legacyEntry = new ZeebeEntry(1, 2, 3, 4, ByteBuffer.wrap(new byte[16]));
+    writeLegacySegment(directory, legacyEntry);
+
+    // when - the first entry still fits into the legacy segment, the second one rolls over
+    final ZeebeEntry largeEntry = new ZeebeEntry(1, 5, 6, 7, ByteBuffer.wrap(new byte[500]));
+    try (RaftLog log = openLog(directory)) {
+      final RaftLogWriter writer = log.writer();
+      writer.append(largeEntry);
+      writer.append(largeEntry);
+      writer.flush();
+    }
+
+    // then
+    assertEquals(1, readSegmentVersion(directory, 1));
+    assertEquals(2, readSegmentVersion(directory, 2));
+
+    try (RaftLog log = openLog(directory)) {
+      final RaftLogReader reader = log.openReader(1);
+      assertEquals(legacyEntry, reader.next().entry());
+      assertEquals(largeEntry, reader.next().entry());
+      assertEquals(largeEntry, reader.next().entry());
+      assertFalse(reader.hasNext());
+    }
+  }
+
+  private void writeLegacySegment(final File directory, final RaftLogEntry entry)
+      throws IOException {
+    try (SegmentedJournal<RaftLogEntry> journal =
+        SegmentedJournal.<RaftLogEntry>builder()
+            .withName(NAME)
+            .withDirectory(directory)
+            .withNamespace(RaftNamespaces.RAFT_STORAGE)
+            .withMaxSegmentSize(MAX_SEGMENT_SIZE)
+            .withMaxEntrySize(MAX_ENTRY_SIZE)
+            .build()) {
+      journal.writer().append(entry);
+      journal.writer().flush();
+    }
+
+    // the segment was written by the namespace codec, mark it as written before the native format
+    try (RandomAccessFile segment = new RandomAccessFile(segmentFile(directory, 1), "rw")) {
+      segment.writeInt(1);
+    }
+  }
+
+  private RaftLog openLog(final File directory) {
+    return RaftLog.builder()
+        .withName(NAME)
+        .withDirectory(directory)
+        .withNamespace(RaftNamespaces.RAFT_STORAGE)
+        .withMaxSegmentSize(MAX_SEGMENT_SIZE)
+        .withMaxEntrySize(MAX_ENTRY_SIZE)
+        .build();
+  }
+
+  private int readSegmentVersion(final File directory, final long id) throws IOException {
+    try (RandomAccessFile segment = new RandomAccessFile(segmentFile(directory, id), "r")) {
+      return segment.readInt();
+    }
+  }
+
+  private File segmentFile(final File directory, final long id) {
+    return new File(directory, String.format("%s-%d.log", NAME, id));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.raft.zeebe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Stopwatch;
+import io.atomix.raft.zeebe.util.TestAppender;
+import io.atomix.raft.zeebe.util.ZeebeTestHelper;
+import io.atomix.raft.zeebe.util.ZeebeTestNode;
+import io.atomix.storage.journal.Indexed;
+import io.atomix.utils.concurrent.Futures;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ZeebeGroupCommitTest {
+
+  private static final int PARTITION_ID = 1;
+  private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(2);
+  private static final Duration ELECTION_TIMEOUT = Duration.ofSeconds(5);
+  private static final Duration GROUP_COMMIT_DELAY = Duration.ofMillis(100);
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final TestAppender appenderWrapper = new TestAppender();
+  private final Collection<ZeebeTestNode> nodes = new ArrayList<>();
+  private ZeebeTestHelper helper;
+
+  @Before
+  public void setUp() throws Exception {
+    for (int id = 1; id <= 3; id++) {
+      nodes.add(newNode(id));
+    }
+    helper = new ZeebeTestHelper(nodes);
+    Futures.allOf(nodes.stream().map(n -> n.start(nodes))).get(30, TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Futures.allOf(nodes.stream().map(ZeebeTestNode::stop)).get(30, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void shouldCommitWithinGroupCommitDelayIfLeaderIsQuiet() {
+    // given
+    final ZeebeLogAppender appender = helper.awaitLeaderAppender(PARTITION_ID);
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+
+    // when
+    final Indexed<ZeebeEntry> appended =
+        appenderWrapper.append(appender, 0, 0, ByteBuffer.allocate(Integer.BYTES).putInt(0, 1));
+    final Indexed<ZeebeEntry> committed = appenderWrapper.pollCommitted();
+
+    // then
+    stopwatch.stop();
+    assertEquals(appended.index(), committed.index());
+    assertTrue(
+        "expected the entry to be committed before the next heartbeat, but took " + stopwatch,
+        stopwatch.elapsed(TimeUnit.MILLISECONDS) < HEARTBEAT_INTERVAL.toMillis() / 2);
+  }
+
+  private ZeebeTestNode newNode(final int id) throws IOException {
+    final File directory = temporaryFolder.newFolder(String.valueOf(id));
+    return new ZeebeTestNode(
+        id,
+        directory,
+        builder ->
+            builder
+                .withHeartbeatInterval(HEARTBEAT_INTERVAL)
+                .withElectionTimeout(ELECTION_TIMEOUT)
+                .withGroupCommitDelay(GROUP_COMMIT_DELAY));
+  }
+}
@@ -39,6 +39,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public class ZeebeTestNode {
@@ -51,6 +52,7 @@ public class ZeebeTestNode {
   private final Member member;
   private final Node node;
   private final File directory;
+  private final UnaryOperator<RaftPartitionGroup.Builder> dataPartitionGroupConfigurator;
 
   private RaftPartitionGroup dataPartitionGroup;
   private RaftPartitionGroup systemPartitionGroup;
@@ -58,9 +60,17 @@ public class ZeebeTestNode {
   private AtomixCluster cluster;
 
   public ZeebeTestNode(final int id, final File directory) {
+    this(id, directory, UnaryOperator.identity());
+  }
+
+  public ZeebeTestNode(
+      final int id,
+      final File directory,
+      final UnaryOperator<RaftPartitionGroup.Builder> dataPartitionGroupConfigurator) {
     final String textualId = String.valueOf(id);
 
     this.directory = directory;
+    this.dataPartitionGroupConfigurator = dataPartitionGroupConfigurator;
     this.node = Node.builder().withId(textualId).withHost(HOST).withPort(BASE_PORT + id).build();
     this.member = Member.member(MemberId.from(textualId), node.address());
   }
@@ -82,8 +92,10 @@ public class ZeebeTestNode {
     systemPartitionGroup =
         buildPartitionGroup(RaftPartitionGroup.builder(SYSTEM_PARTITION_GROUP_NAME), nodes).build();
     dataPartitionGroup =
-        buildPartitionGroup(RaftPartitionGroup.builder(DATA_PARTITION_GROUP_NAME), nodes)
-            .withStateMachineFactory(ZeebeRaftStateMachine::new)
+        dataPartitionGroupConfigurator
+            .apply(
+                buildPartitionGroup(RaftPartitionGroup.builder(DATA_PARTITION_GROUP_NAME), nodes)
+                    .withStateMachineFactory(ZeebeRaftStateMachine::new))
             .build();
     partitionService =
         buildPartitionService(cluster.getMembershipService(), cluster.getCommunicationService());
@@ -19,7 +19,6 @@ package io.atomix.storage.journal;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.storage.journal.index.Position;
-import io.atomix.utils.serializer.Namespace;
 import java.io.IOException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
@@ -37,7 +36,8 @@ class FileChannelJournalSegmentReader<E> implements JournalReader<E> {
   private final FileChannel channel;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
+  private final Checksum crc32 = new CRC32();
   private final ByteBuffer memory;
   private final JournalSegment<E> segment;
   private Indexed<E> currentEntry;
@@ -48,11 +48,11 @@ class FileChannelJournalSegmentReader<E> implements JournalReader<E> {
       final JournalSegment<E> segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.channel = channel;
     this.maxEntrySize = maxEntrySize;
     this.index = index;
-    this.namespace = namespace;
+    this.codec = codec;
     this.memory = ByteBuffer.allocate((maxEntrySize + Integer.BYTES + Integer.BYTES) * 2);
     this.segment = segment;
     reset();
@@ -200,14 +200,14 @@ class FileChannelJournalSegmentReader<E> implements JournalReader<E> {
         final long checksum = memory.getInt() & 0xFFFFFFFFL;
 
         // Compute the checksum for the entry bytes.
-        final Checksum crc32 = new CRC32();
+        crc32.reset();
         crc32.update(memory.array(), memory.position(), length);
 
         // If the stored checksum equals the computed checksum, return the entry.
         if (checksum == crc32.getValue()) {
           final int limit = memory.limit();
           memory.limit(memory.position() + length);
-          final E entry = namespace.deserialize(memory);
+          final E entry = codec.decode(memory);
           memory.limit(limit);
           nextEntry = new Indexed<>(index, entry, length);
         } else {
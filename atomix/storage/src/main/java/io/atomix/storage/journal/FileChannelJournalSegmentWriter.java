@@ -19,7 +19,7 @@ package io.atomix.storage.journal;
 import com.esotericsoftware.kryo.KryoException;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.utils.serializer.Namespace;
+import io.atomix.storage.journal.index.Position;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
@@ -50,7 +50,8 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
   private final JournalSegment segment;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
+  private final Checksum crc32 = new CRC32();
   private final ByteBuffer memory;
   private final long firstIndex;
   private Indexed<E> lastEntry;
@@ -60,14 +61,14 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
       final JournalSegment segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.channel = channel;
     this.segment = segment;
     this.maxEntrySize = maxEntrySize;
     this.index = index;
     this.memory = ByteBuffer.allocate((maxEntrySize + Integer.BYTES + Integer.BYTES) * 2);
     memory.limit(0);
-    this.namespace = namespace;
+    this.codec = codec;
     this.firstIndex = segment.index();
     reset(0);
   }
@@ -102,8 +103,8 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
       memory.clear();
       memory.position(Integer.BYTES + Integer.BYTES);
       try {
-        namespace.serialize(entry, memory);
-      } catch (final KryoException e) {
+        codec.encode(entry, memory);
+      } catch (final KryoException | BufferOverflowException e) {
         throw new StorageException.TooLarge(
             "Entry size exceeds maximum allowed bytes (" + maxEntrySize + ")");
       }
@@ -125,7 +126,7 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
       }
 
       // Compute the checksum for the entry.
-      final Checksum crc32 = new CRC32();
+      crc32.reset();
       crc32.update(
           memory.array(),
           Integer.BYTES + Integer.BYTES,
@@ -170,16 +171,23 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
 
   @Override
   public void reset(final long index) {
-    long nextIndex = firstIndex;
+    // Continue from the closest indexed entry instead of reading the whole segment, if it is valid.
+    final Position indexed = this.index.lookup(index == 0 ? Long.MAX_VALUE : index);
+    if (indexed != null
+        && indexed.index() >= firstIndex
+        && reset(index, indexed.index(), indexed.position()) > indexed.index()) {
+      return;
+    }
+
+    reset(index, firstIndex, JournalSegmentDescriptor.BYTES);
+  }
 
+  private long reset(final long index, long nextIndex, long position) {
     // Clear the buffer indexes.
     try {
-      channel.position(JournalSegmentDescriptor.BYTES);
+      channel.position(position);
       memory.clear().flip();
 
-      // Record the current buffer position.
-      long position = channel.position();
-
       // Read more bytes from the segment if necessary.
       if (memory.remaining() < maxEntrySize) {
         memory.clear();
@@ -199,14 +207,14 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
         final long checksum = memory.getInt() & 0xFFFFFFFFL;
 
         // Compute the checksum for the entry bytes.
-        final Checksum crc32 = new CRC32();
+        crc32.reset();
         crc32.update(memory.array(), memory.position(), length);
 
         // If the stored checksum equals the computed checksum, return the entry.
         if (checksum == crc32.getValue()) {
           final int limit = memory.limit();
           memory.limit(memory.position() + length);
-          final E entry = namespace.deserialize(memory);
+          final E entry = codec.decode(memory);
           memory.limit(limit);
           lastEntry = new Indexed<>(nextIndex, entry, length);
           this.index.index(lastEntry, (int) position);
@@ -242,6 +250,8 @@ class FileChannelJournalSegmentWriter<E> implements JournalWriter<E> {
     } catch (final IOException e) {
       throw new StorageException(e);
     }
+
+    return nextIndex;
   }
 
   @Override
@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes journal entries.
+ *
+ * <p>Entries are written into, and read from, the segment buffers directly. Implementations must
+ * not keep a reference to the given buffers, since the segment readers and writers reuse them.
+ *
+ * @param <E> the entry type
+ */
+public interface JournalCodec<E> {
+
+  /**
+   * Encodes the entry into the given buffer, starting at its current position. After returning,
+   * the position of the buffer must point to the end of the encoded entry.
+   *
+   * @param entry the entry to encode
+   * @param buffer the buffer to write to
+   * @throws java.nio.BufferOverflowException if the entry does not fit into the remaining buffer
+   */
+  void encode(E entry, ByteBuffer buffer);
+
+  /**
+   * Decodes an entry from the given buffer, starting at its current position and ending at its
+   * limit.
+   *
+   * @param buffer the buffer to read from
+   * @return the decoded entry
+   */
+  E decode(ByteBuffer buffer);
+}
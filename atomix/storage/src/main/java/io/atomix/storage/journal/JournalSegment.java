@@ -23,7 +23,6 @@ import com.google.common.collect.Sets;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.StorageLevel;
 import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.utils.serializer.Namespace;
 import java.io.File;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
@@ -45,8 +44,8 @@ public class JournalSegment<E> implements AutoCloseable {
   private final StorageLevel storageLevel;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
-  private final MappableJournalSegmentWriter<E> writer;
+  private final JournalCodec<E> codec;
+  private volatile MappableJournalSegmentWriter<E> writer;
   private final Set<MappableJournalSegmentReader<E>> readers = Sets.newConcurrentHashSet();
   private final AtomicInteger references = new AtomicInteger();
   private boolean open = true;
@@ -56,17 +55,34 @@ public class JournalSegment<E> implements AutoCloseable {
       final JournalSegmentDescriptor descriptor,
       final StorageLevel storageLevel,
       final int maxEntrySize,
-      final Namespace namespace,
+      final JournalCodec<E> codec,
       final JournalIndex journalIndex) {
     this.file = file;
     this.descriptor = descriptor;
     this.storageLevel = storageLevel;
     this.maxEntrySize = maxEntrySize;
     this.index = journalIndex;
-    this.namespace = namespace;
-    this.writer =
-        new MappableJournalSegmentWriter<>(
-            openChannel(file.file()), this, maxEntrySize, index, namespace);
+    this.codec = codec;
+  }
+
+  /**
+   * Returns the segment writer, opening it on first access. Opening the writer reads the segment to
+   * find its last entry, so segments which are never touched after a restart are never read.
+   */
+  private MappableJournalSegmentWriter<E> openWriter() {
+    MappableJournalSegmentWriter<E> writer = this.writer;
+    if (writer == null) {
+      synchronized (this) {
+        writer = this.writer;
+        if (writer == null) {
+          writer =
+              new MappableJournalSegmentWriter<>(
+                  openChannel(file.file()), this, maxEntrySize, index, codec);
+          this.writer = writer;
+        }
+      }
+    }
+    return writer;
   }
 
   private FileChannel openChannel(final File file) {
@@ -114,7 +130,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return The last index in the segment.
    */
   public long lastIndex() {
-    return writer.getLastIndex();
+    return openWriter().getLastIndex();
   }
 
   /**
@@ -123,7 +139,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return the size of the segment
    */
   public int size() {
-    return writer.size();
+    return openWriter().size();
   }
 
   /**
@@ -159,7 +175,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return The segment length.
    */
   public long length() {
-    return writer.getNextIndex() - index();
+    return openWriter().getNextIndex() - index();
   }
 
   /** Acquires a reference to the log segment. */
@@ -179,14 +195,14 @@ public class JournalSegment<E> implements AutoCloseable {
   /** Maps the log segment into memory. */
   private void map() {
     if (storageLevel == StorageLevel.MAPPED) {
-      final MappedByteBuffer buffer = writer.map();
+      final MappedByteBuffer buffer = openWriter().map();
       readers.forEach(reader -> reader.map(buffer));
     }
   }
 
   /** Unmaps the log segment from memory. */
   private void unmap() {
-    if (storageLevel == StorageLevel.MAPPED) {
+    if (storageLevel == StorageLevel.MAPPED && writer != null) {
       writer.unmap();
       readers.forEach(reader -> reader.unmap());
     }
@@ -199,7 +215,7 @@ public class JournalSegment<E> implements AutoCloseable {
    */
   public MappableJournalSegmentWriter<E> writer() {
     checkOpen();
-    return writer;
+    return openWriter();
   }
 
   /**
@@ -211,8 +227,8 @@ public class JournalSegment<E> implements AutoCloseable {
     checkOpen();
     final MappableJournalSegmentReader<E> reader =
         new MappableJournalSegmentReader<>(
-            openChannel(file.file()), this, maxEntrySize, index, namespace);
-    final MappedByteBuffer buffer = writer.buffer();
+            openChannel(file.file()), this, maxEntrySize, index, codec);
+    final MappedByteBuffer buffer = openWriter().buffer();
     if (buffer != null) {
       reader.map(buffer);
     }
@@ -247,8 +263,11 @@ public class JournalSegment<E> implements AutoCloseable {
   @Override
   public void close() {
     unmap();
-    writer.close();
+    if (writer != null) {
+      writer.close();
+    }
     readers.forEach(reader -> reader.close());
+    index.close();
     open = false;
   }
 
@@ -260,6 +279,7 @@ public class JournalSegment<E> implements AutoCloseable {
   public void delete() {
     try {
       Files.deleteIfExists(file.file().toPath());
+      index.delete();
     } catch (final IOException e) {
       throw new StorageException(e);
     }
@@ -61,8 +61,9 @@ import java.nio.ByteBuffer;
 public final class JournalSegmentDescriptor {
   public static final int BYTES = 64;
 
-  // Current segment version.
-  @VisibleForTesting static final int VERSION = 1;
+  // Current segment version. Version 2 segments may use a different entry format than version 1
+  // segments, see SegmentedJournal.Builder#withLegacyCodec.
+  @VisibleForTesting static final int VERSION = 2;
 
   // The lengths of each field in the header.
   private static final int VERSION_LENGTH = Integer.BYTES; // 32-bit signed integer
@@ -29,6 +29,7 @@ public final class JournalSegmentFile {
   private static final char PART_SEPARATOR = '-';
   private static final char EXTENSION_SEPARATOR = '.';
   private static final String EXTENSION = "log";
+  private static final String INDEX_EXTENSION = "idx";
   private final File file;
 
   /** @throws IllegalArgumentException if {@code file} is not a valid segment file */
@@ -77,6 +78,28 @@ public final class JournalSegmentFile {
     return fileName.startsWith(journalName);
   }
 
+  /**
+   * Returns a boolean value indicating whether the given file appears to be a segment index file.
+   *
+   * @param journalName the name of the journal
+   * @param file the file to check
+   * @throws NullPointerException if {@code file} is null
+   */
+  public static boolean isIndexFile(final String journalName, final File file) {
+    checkNotNull(journalName, "journalName cannot be null");
+    final String fileName = checkNotNull(file, "file cannot be null").getName();
+    return fileName.startsWith(journalName)
+        && fileName.endsWith(EXTENSION_SEPARATOR + INDEX_EXTENSION);
+  }
+
+  /** Creates an index file for the segment with the given ID. */
+  static File createIndexFile(final String name, final File directory, final long id) {
+    return new File(
+        directory,
+        String.format(
+            "%s-%d.%s", checkNotNull(name, "name cannot be null"), id, INDEX_EXTENSION));
+  }
+
   /** Creates a segment file for the given directory, log name, segment ID, and segment version. */
   static File createSegmentFile(final String name, final File directory, final long id) {
     return new File(
@@ -18,7 +18,6 @@ package io.atomix.storage.journal;
 
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.utils.serializer.Namespace;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -29,7 +28,7 @@ class MappableJournalSegmentReader<E> implements JournalReader<E> {
   private final FileChannel channel;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
   private JournalReader<E> reader;
 
   MappableJournalSegmentReader(
@@ -37,14 +36,14 @@ class MappableJournalSegmentReader<E> implements JournalReader<E> {
       final JournalSegment<E> segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.channel = channel;
     this.segment = segment;
     this.maxEntrySize = maxEntrySize;
     this.index = index;
-    this.namespace = namespace;
+    this.codec = codec;
     this.reader =
-        new FileChannelJournalSegmentReader<>(channel, segment, maxEntrySize, index, namespace);
+        new FileChannelJournalSegmentReader<>(channel, segment, maxEntrySize, index, codec);
   }
 
   /**
@@ -56,7 +55,7 @@ class MappableJournalSegmentReader<E> implements JournalReader<E> {
     if (!(reader instanceof MappedJournalSegmentReader)) {
       final JournalReader<E> reader = this.reader;
       this.reader =
-          new MappedJournalSegmentReader<>(buffer, segment, maxEntrySize, index, namespace);
+          new MappedJournalSegmentReader<>(buffer, segment, maxEntrySize, index, codec);
       this.reader.reset(reader.getNextIndex());
       reader.close();
     }
@@ -67,7 +66,7 @@ class MappableJournalSegmentReader<E> implements JournalReader<E> {
     if (reader instanceof MappedJournalSegmentReader) {
       final JournalReader<E> reader = this.reader;
       this.reader =
-          new FileChannelJournalSegmentReader<>(channel, segment, maxEntrySize, index, namespace);
+          new FileChannelJournalSegmentReader<>(channel, segment, maxEntrySize, index, codec);
       this.reader.reset(reader.getNextIndex());
       reader.close();
     }
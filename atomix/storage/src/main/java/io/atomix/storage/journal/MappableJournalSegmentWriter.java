@@ -18,7 +18,6 @@ package io.atomix.storage.journal;
 
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.utils.serializer.Namespace;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
@@ -30,7 +29,7 @@ class MappableJournalSegmentWriter<E> implements JournalWriter<E> {
   private final JournalSegment<E> segment;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
   private JournalWriter<E> writer;
 
   MappableJournalSegmentWriter(
@@ -38,14 +37,14 @@ class MappableJournalSegmentWriter<E> implements JournalWriter<E> {
       final JournalSegment<E> segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.channel = channel;
     this.segment = segment;
     this.maxEntrySize = maxEntrySize;
     this.index = index;
-    this.namespace = namespace;
+    this.codec = codec;
     this.writer =
-        new FileChannelJournalSegmentWriter<>(channel, segment, maxEntrySize, index, namespace);
+        new FileChannelJournalSegmentWriter<>(channel, segment, maxEntrySize, index, codec);
   }
 
   /**
@@ -63,7 +62,7 @@ class MappableJournalSegmentWriter<E> implements JournalWriter<E> {
       final MappedByteBuffer buffer =
           channel.map(FileChannel.MapMode.READ_WRITE, 0, segment.descriptor().maxSegmentSize());
       this.writer =
-          new MappedJournalSegmentWriter<>(buffer, segment, maxEntrySize, index, namespace);
+          new MappedJournalSegmentWriter<>(buffer, segment, maxEntrySize, index, codec);
       writer.close();
       return buffer;
     } catch (final IOException e) {
@@ -76,7 +75,7 @@ class MappableJournalSegmentWriter<E> implements JournalWriter<E> {
     if (writer instanceof MappedJournalSegmentWriter) {
       final JournalWriter<E> writer = this.writer;
       this.writer =
-          new FileChannelJournalSegmentWriter<>(channel, segment, maxEntrySize, index, namespace);
+          new FileChannelJournalSegmentWriter<>(channel, segment, maxEntrySize, index, codec);
       writer.close();
     }
   }
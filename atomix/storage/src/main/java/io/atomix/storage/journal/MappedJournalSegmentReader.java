@@ -18,7 +18,6 @@ package io.atomix.storage.journal;
 
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.storage.journal.index.Position;
-import io.atomix.utils.serializer.Namespace;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
@@ -33,7 +32,8 @@ class MappedJournalSegmentReader<E> implements JournalReader<E> {
   private final ByteBuffer buffer;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
+  private final CRC32 crc32 = new CRC32();
   private final JournalSegment<E> segment;
   private Indexed<E> currentEntry;
   private Indexed<E> nextEntry;
@@ -43,11 +43,11 @@ class MappedJournalSegmentReader<E> implements JournalReader<E> {
       final JournalSegment<E> segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.buffer = buffer.slice();
     this.maxEntrySize = maxEntrySize;
     this.index = index;
-    this.namespace = namespace;
+    this.codec = codec;
     this.segment = segment;
     reset();
   }
@@ -168,7 +168,7 @@ class MappedJournalSegmentReader<E> implements JournalReader<E> {
       final long checksum = buffer.getInt() & 0xFFFFFFFFL;
 
       // Compute the checksum for the entry bytes.
-      final CRC32 crc32 = new CRC32();
+      crc32.reset();
       final ByteBuffer slice = buffer.slice();
       slice.limit(length);
       crc32.update(slice);
@@ -176,7 +176,7 @@ class MappedJournalSegmentReader<E> implements JournalReader<E> {
       // If the stored checksum equals the computed checksum, return the entry.
       if (checksum == crc32.getValue()) {
         slice.rewind();
-        final E entry = namespace.deserialize(slice);
+        final E entry = codec.decode(slice);
         nextEntry = new Indexed<>(index, entry, length);
         buffer.position(buffer.position() + length);
       } else {
@@ -19,8 +19,8 @@ package io.atomix.storage.journal;
 import com.esotericsoftware.kryo.KryoException;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.index.JournalIndex;
+import io.atomix.storage.journal.index.Position;
 import io.atomix.utils.memory.BufferCleaner;
-import io.atomix.utils.serializer.Namespace;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
@@ -51,7 +51,8 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
   private final JournalSegment<E> segment;
   private final int maxEntrySize;
   private final JournalIndex index;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
+  private final CRC32 crc32 = new CRC32();
   private final long firstIndex;
   private Indexed<E> lastEntry;
 
@@ -60,13 +61,13 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
       final JournalSegment<E> segment,
       final int maxEntrySize,
       final JournalIndex index,
-      final Namespace namespace) {
+      final JournalCodec<E> codec) {
     this.mappedBuffer = buffer;
     this.buffer = buffer.slice();
     this.segment = segment;
     this.maxEntrySize = maxEntrySize;
     this.index = index;
-    this.namespace = namespace;
+    this.codec = codec;
     this.firstIndex = segment.index();
     reset(0);
   }
@@ -114,7 +115,7 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
     buffer.position(position + Integer.BYTES + Integer.BYTES);
 
     try {
-      namespace.serialize(entry, buffer);
+      codec.encode(entry, buffer);
     } catch (final KryoException e) {
       throw new BufferOverflowException();
     }
@@ -131,7 +132,7 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
     }
 
     // Compute the checksum for the entry.
-    final CRC32 crc32 = new CRC32();
+    crc32.reset();
     buffer.position(position + Integer.BYTES + Integer.BYTES);
     final ByteBuffer slice = buffer.slice();
     slice.limit(length);
@@ -174,13 +175,20 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
 
   @Override
   public void reset(final long index) {
-    long nextIndex = firstIndex;
+    // Continue from the closest indexed entry instead of reading the whole segment, if it is valid.
+    final Position indexed = this.index.lookup(index == 0 ? Long.MAX_VALUE : index);
+    if (indexed != null
+        && indexed.index() >= firstIndex
+        && reset(index, indexed.index(), indexed.position()) > indexed.index()) {
+      return;
+    }
 
-    // Clear the buffer indexes.
-    buffer.position(JournalSegmentDescriptor.BYTES);
+    reset(index, firstIndex, JournalSegmentDescriptor.BYTES);
+  }
 
-    // Record the current buffer position.
-    int position = buffer.position();
+  private long reset(final long index, long nextIndex, int position) {
+    // Clear the buffer indexes.
+    buffer.position(position);
 
     // Read the entry length.
     buffer.mark();
@@ -195,7 +203,7 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
         final long checksum = buffer.getInt() & 0xFFFFFFFFL;
 
         // Compute the checksum for the entry bytes.
-        final CRC32 crc32 = new CRC32();
+        crc32.reset();
         final ByteBuffer slice = buffer.slice();
         slice.limit(length);
         crc32.update(slice);
@@ -203,7 +211,7 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
         // If the stored checksum equals the computed checksum, return the entry.
         if (checksum == crc32.getValue()) {
           slice.rewind();
-          final E entry = namespace.deserialize(slice);
+          final E entry = codec.decode(slice);
           lastEntry = new Indexed<>(nextIndex, entry, length);
           this.index.index(lastEntry, position);
           nextIndex++;
@@ -224,6 +232,8 @@ class MappedJournalSegmentWriter<E> implements JournalWriter<E> {
     } catch (final BufferUnderflowException e) {
       buffer.reset();
     }
+
+    return nextIndex;
   }
 
   @Override
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.utils.serializer.Namespace;
+import java.nio.ByteBuffer;
+
+/** Journal codec which serializes entries with a Kryo {@link Namespace}. */
+public class NamespaceJournalCodec<E> implements JournalCodec<E> {
+
+  private final Namespace namespace;
+
+  public NamespaceJournalCodec(final Namespace namespace) {
+    this.namespace = namespace;
+  }
+
+  @Override
+  public void encode(final E entry, final ByteBuffer buffer) {
+    namespace.serialize(entry, buffer);
+  }
+
+  @Override
+  public E decode(final ByteBuffer buffer) {
+    return namespace.deserialize(buffer);
+  }
+}
@@ -23,6 +23,7 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.common.collect.Sets;
 import io.atomix.storage.StorageException;
 import io.atomix.storage.StorageLevel;
+import io.atomix.storage.journal.index.DenseJournalIndex;
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.storage.journal.index.SparseJournalIndex;
 import io.atomix.storage.statistics.JournalMetrics;
@@ -32,7 +33,10 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -40,7 +44,9 @@ import java.util.NavigableMap;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,17 +54,22 @@ import org.slf4j.LoggerFactory;
 public class SegmentedJournal<E> implements Journal<E> {
   private static final int DEFAULT_INDEX_DENSITY = 200;
   private static final int SEGMENT_BUFFER_FACTOR = 3;
+  private static final int VERIFIED_TAIL_SEGMENTS = 2;
   private final JournalMetrics journalMetrics;
   private final Supplier<JournalIndex> journalIndexFactory;
   private final Logger log = LoggerFactory.getLogger(getClass());
   private final String name;
   private final StorageLevel storageLevel;
   private final File directory;
-  private final Namespace namespace;
+  private final JournalCodec<E> codec;
+  private final JournalCodec<E> legacyCodec;
   private final int maxSegmentSize;
   private final int maxEntrySize;
   private final int maxEntriesPerSegment;
   private final boolean flushOnCommit;
+  private final Duration groupCommitDelay;
+  private final int groupCommitBytes;
+  private final boolean denseIndex;
   private final SegmentedJournalWriter<E> writer;
   private volatile long commitIndex;
   private final NavigableMap<Long, JournalSegment<E>> segments = new ConcurrentSkipListMap<>();
@@ -70,20 +81,28 @@ public class SegmentedJournal<E> implements Journal<E> {
       final String name,
       final StorageLevel storageLevel,
       final File directory,
-      final Namespace namespace,
+      final JournalCodec<E> codec,
+      final JournalCodec<E> legacyCodec,
       final int maxSegmentSize,
       final int maxEntrySize,
       final int maxEntriesPerSegment,
       final boolean flushOnCommit,
+      final Duration groupCommitDelay,
+      final int groupCommitBytes,
+      final boolean denseIndex,
       final Supplier<JournalIndex> journalIndexFactory) {
     this.name = checkNotNull(name, "name cannot be null");
     this.storageLevel = checkNotNull(storageLevel, "storageLevel cannot be null");
     this.directory = checkNotNull(directory, "directory cannot be null");
-    this.namespace = checkNotNull(namespace, "namespace cannot be null");
+    this.codec = checkNotNull(codec, "codec cannot be null");
+    this.legacyCodec = legacyCodec != null ? legacyCodec : codec;
     this.maxSegmentSize = maxSegmentSize;
     this.maxEntrySize = maxEntrySize;
     this.maxEntriesPerSegment = maxEntriesPerSegment;
     this.flushOnCommit = flushOnCommit;
+    this.groupCommitDelay = checkNotNull(groupCommitDelay, "groupCommitDelay cannot be null");
+    this.groupCommitBytes = groupCommitBytes;
+    this.denseIndex = denseIndex;
     journalMetrics = new JournalMetrics(name);
     this.journalIndexFactory =
         journalIndexFactory == null
@@ -473,6 +492,11 @@ public class SegmentedJournal<E> implements Journal<E> {
         log.warn("Unexpected IOException on closing", e);
       }
     }
+    if (denseIndex) {
+      // an index left behind by a previous segment with the same ID must not be reused
+      deleteIndexFile(descriptor.id());
+    }
+
     final JournalSegment<E> segment = newSegment(new JournalSegmentFile(segmentFile), descriptor);
     log.debug("Created segment: {}", segment);
     return segment;
@@ -487,13 +511,34 @@ public class SegmentedJournal<E> implements Journal<E> {
    */
   protected JournalSegment<E> newSegment(
       final JournalSegmentFile segmentFile, final JournalSegmentDescriptor descriptor) {
+    final JournalIndex journalIndex =
+        denseIndex
+            ? new DenseJournalIndex(
+                JournalSegmentFile.createIndexFile(name, directory, descriptor.id()),
+                descriptor.index())
+            : journalIndexFactory.get();
     return new JournalSegment<>(
-        segmentFile, descriptor, storageLevel, maxEntrySize, namespace, journalIndexFactory.get());
+        segmentFile, descriptor, storageLevel, maxEntrySize, codecOf(descriptor), journalIndex);
+  }
+
+  private void deleteIndexFile(final long segmentId) {
+    try {
+      Files.deleteIfExists(JournalSegmentFile.createIndexFile(name, directory, segmentId).toPath());
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  /**
+   * Returns the codec for the entries of the given segment. Segments written before the current
+   * segment version keep the format of the legacy codec.
+   */
+  private JournalCodec<E> codecOf(final JournalSegmentDescriptor descriptor) {
+    return descriptor.version() < JournalSegmentDescriptor.VERSION ? legacyCodec : codec;
   }
 
   /** Loads a segment. */
-  private JournalSegment<E> loadSegment(final long segmentId) {
-    final File segmentFile = JournalSegmentFile.createSegmentFile(name, directory, segmentId);
+  private JournalSegment<E> loadSegment(final File segmentFile) {
     final ByteBuffer buffer = ByteBuffer.allocate(JournalSegmentDescriptor.BYTES);
     try (final FileChannel channel = openChannel(segmentFile)) {
       channel.read(buffer);
@@ -528,38 +573,23 @@ public class SegmentedJournal<E> implements Journal<E> {
     // Ensure log directories are created.
     directory.mkdirs();
 
-    final TreeMap<Long, JournalSegment<E>> segments = new TreeMap<>();
-
-    // Iterate through all files in the log directory.
-    for (final File file : directory.listFiles(File::isFile)) {
-
-      // If the file looks like a segment file, attempt to load the segment.
-      if (JournalSegmentFile.isSegmentFile(name, file)) {
-        final JournalSegmentFile segmentFile = new JournalSegmentFile(file);
-        final ByteBuffer buffer = ByteBuffer.allocate(JournalSegmentDescriptor.BYTES);
-        try (final FileChannel channel = openChannel(file)) {
-          channel.read(buffer);
-          buffer.flip();
-        } catch (final IOException e) {
-          throw new StorageException(e);
-        }
-
-        final JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(buffer);
-
-        // Load the segment.
-        final JournalSegment<E> segment = loadSegment(descriptor.id());
-
-        // Add the segment to the segments list.
-        log.debug(
-            "Found segment: {} ({})", segment.descriptor().id(), segmentFile.file().getName());
-        segments.put(segment.index(), segment);
-      }
-    }
-
-    // Verify that all the segments in the log align with one another.
+    // Read the descriptors of all segment files in the log directory in parallel. The segments
+    // are not read yet; they are opened lazily once they are accessed.
+    final TreeMap<Long, JournalSegment<E>> segments =
+        Arrays.stream(directory.listFiles(File::isFile))
+            .parallel()
+            .filter(file -> JournalSegmentFile.isSegmentFile(name, file))
+            .map(this::loadSegment)
+            .collect(
+                Collectors.toMap(
+                    JournalSegment::index, Function.identity(), (a, b) -> a, TreeMap::new));
+
+    // Verify that the segments in the log align with one another. Older segments were completely
+    // written before the following segment was created, so only the tail of the log is read now.
     JournalSegment<E> previousSegment = null;
     boolean corrupted = false;
-    final Iterator<Map.Entry<Long, JournalSegment<E>>> iterator = segments.entrySet().iterator();
+    final Iterator<Map.Entry<Long, JournalSegment<E>>> iterator =
+        segments.tailMap(verifiedTailStart(segments), true).entrySet().iterator();
     while (iterator.hasNext()) {
       final JournalSegment<E> segment = iterator.next().getValue();
       if (previousSegment != null && previousSegment.lastIndex() != segment.index() - 1) {
@@ -580,6 +610,25 @@ public class SegmentedJournal<E> implements Journal<E> {
     return segments.values();
   }
 
+  /**
+   * Returns the first index of the segments at the tail of the log which are verified on startup.
+   */
+  private long verifiedTailStart(final NavigableMap<Long, JournalSegment<E>> segments) {
+    if (segments.isEmpty()) {
+      return 0;
+    }
+
+    long tailStart = segments.lastKey();
+    for (int i = 1; i < VERIFIED_TAIL_SEGMENTS; i++) {
+      final Long lowerKey = segments.lowerKey(tailStart);
+      if (lowerKey == null) {
+        break;
+      }
+      tailStart = lowerKey;
+    }
+    return tailStart;
+  }
+
   /**
    * Resets journal readers to the given head.
    *
@@ -671,6 +720,36 @@ public class SegmentedJournal<E> implements Journal<E> {
     return flushOnCommit;
   }
 
+  /**
+   * Returns whether commits are flushed in groups. Group commits are only used if {@code
+   * flushOnCommit} is enabled and a group commit delay is configured.
+   *
+   * @return Indicates whether commits are flushed in groups.
+   */
+  boolean isGroupCommit() {
+    return flushOnCommit && !groupCommitDelay.isZero();
+  }
+
+  /**
+   * Returns the maximum time a commit is delayed to be flushed together with later commits.
+   *
+   * @return The maximum group commit delay.
+   */
+  Duration getGroupCommitDelay() {
+    return groupCommitDelay;
+  }
+
+  /**
+   * Returns the number of appended bytes after which pending commits are flushed, regardless of
+   * the group commit delay. A value of {@code 0} means that the group is only limited by the
+   * delay.
+   *
+   * @return The maximum number of bytes in a group commit.
+   */
+  int getGroupCommitBytes() {
+    return groupCommitBytes;
+  }
+
   /**
    * Returns the Raft log commit index.
    *
@@ -702,12 +781,16 @@ public class SegmentedJournal<E> implements Journal<E> {
     protected String name = DEFAULT_NAME;
     protected StorageLevel storageLevel = StorageLevel.DISK;
     protected File directory = new File(DEFAULT_DIRECTORY);
-    protected Namespace namespace;
+    protected JournalCodec<E> codec;
+    protected JournalCodec<E> legacyCodec;
     protected int maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
     protected int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
     protected int maxEntriesPerSegment = DEFAULT_MAX_ENTRIES_PER_SEGMENT;
 
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private Duration groupCommitDelay = Duration.ZERO;
+    private int groupCommitBytes;
+    private boolean denseIndex;
     private Supplier<JournalIndex> journalIndexFactory;
 
     protected Builder() {}
@@ -770,7 +853,38 @@ public class SegmentedJournal<E> implements Journal<E> {
      * @return The journal builder.
      */
     public Builder<E> withNamespace(final Namespace namespace) {
-      this.namespace = checkNotNull(namespace, "namespace cannot be null");
+      checkNotNull(namespace, "namespace cannot be null");
+      final NamespaceJournalCodec<E> namespaceCodec = new NamespaceJournalCodec<>(namespace);
+      return withCodec(namespaceCodec).withLegacyCodec(namespaceCodec);
+    }
+
+    /**
+     * Sets the journal codec, returning the builder for method chaining.
+     *
+     * <p>The codec encodes entries directly into the segment buffers. It replaces any codec or
+     * namespace which was set before.
+     *
+     * @param codec The journal codec.
+     * @return The journal builder.
+     */
+    public Builder<E> withCodec(final JournalCodec<E> codec) {
+      this.codec = checkNotNull(codec, "codec cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the codec for segments which were written with a previous segment version, returning
+     * the builder for method chaining.
+     *
+     * <p>Existing segments keep the entry format they were written with, only new segments are
+     * written with the codec set by {@link #withCodec(JournalCodec)}. If no legacy codec is set,
+     * all segments use that codec.
+     *
+     * @param legacyCodec The codec of segments with a previous version.
+     * @return The journal builder.
+     */
+    public Builder<E> withLegacyCodec(final JournalCodec<E> legacyCodec) {
+      this.legacyCodec = checkNotNull(legacyCodec, "legacyCodec cannot be null");
       return this;
     }
 
@@ -865,6 +979,59 @@ public class SegmentedJournal<E> implements Journal<E> {
       return this;
     }
 
+    /**
+     * Sets the maximum time a commit is delayed to be flushed together with later commits,
+     * returning the builder for method chaining.
+     *
+     * <p>Group commits only apply if flush-on-commit is enabled. Instead of flushing the segment on
+     * every commit, commits are collected until the delay has passed since the first pending
+     * commit, and are then flushed with a single force. The commit index of the journal only
+     * advances once the entries were flushed, so readers in {@link JournalReader.Mode#COMMITS}
+     * mode never see entries which are not durable.
+     *
+     * <p>By default, the delay is {@link Duration#ZERO}, which flushes on every commit.
+     *
+     * @param groupCommitDelay The maximum group commit delay.
+     * @return The journal builder.
+     */
+    public Builder<E> withGroupCommitDelay(final Duration groupCommitDelay) {
+      checkNotNull(groupCommitDelay, "groupCommitDelay cannot be null");
+      checkArgument(!groupCommitDelay.isNegative(), "groupCommitDelay must not be negative");
+      this.groupCommitDelay = groupCommitDelay;
+      return this;
+    }
+
+    /**
+     * Sets the number of appended bytes after which pending group commits are flushed before the
+     * group commit delay has passed, returning the builder for method chaining.
+     *
+     * <p>By default, the value is {@code 0}, which limits groups by the delay only.
+     *
+     * @param groupCommitBytes The maximum number of appended bytes in a group commit.
+     * @return The journal builder.
+     */
+    public Builder<E> withGroupCommitBytes(final int groupCommitBytes) {
+      checkArgument(groupCommitBytes >= 0, "groupCommitBytes must not be negative");
+      this.groupCommitBytes = groupCommitBytes;
+      return this;
+    }
+
+    /**
+     * Enables a dense journal index, returning the builder for method chaining.
+     *
+     * <p>The dense index stores the position of every entry in a file next to its segment, which
+     * makes seeking to an arbitrary index a constant time operation and avoids reading the complete
+     * segment when it is opened again. It replaces the index created by the {@link
+     * #withJournalIndexFactory(Supplier) journal index factory}.
+     *
+     * @param denseIndex Whether to use a dense journal index.
+     * @return The journal builder.
+     */
+    public Builder<E> withDenseIndex(final boolean denseIndex) {
+      this.denseIndex = denseIndex;
+      return this;
+    }
+
     public Builder<E> withJournalIndexFactory(final Supplier<JournalIndex> journalIndexFactory) {
       this.journalIndexFactory = journalIndexFactory;
       return this;
@@ -876,11 +1043,15 @@ public class SegmentedJournal<E> implements Journal<E> {
           name,
           storageLevel,
           directory,
-          namespace,
+          codec,
+          legacyCodec,
           maxSegmentSize,
           maxEntrySize,
           maxEntriesPerSegment,
           flushOnCommit,
+          groupCommitDelay,
+          groupCommitBytes,
+          denseIndex,
           journalIndexFactory);
     }
   }
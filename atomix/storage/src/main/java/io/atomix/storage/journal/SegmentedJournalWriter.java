@@ -25,6 +25,9 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   private final JournalMetrics journalMetrics;
   private JournalSegment<E> currentSegment;
   private MappableJournalSegmentWriter<E> currentWriter;
+  private long pendingCommitIndex;
+  private long pendingCommitTime = -1;
+  private long unflushedBytes;
 
   public SegmentedJournalWriter(final SegmentedJournal<E> journal) {
     this.journal = journal;
@@ -51,8 +54,9 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
 
   @Override
   public <T extends E> Indexed<T> append(final T entry) {
+    Indexed<T> indexed;
     try {
-      return currentWriter.append(entry);
+      indexed = currentWriter.append(entry);
     } catch (final BufferOverflowException e) {
       if (currentSegment.index() == currentWriter.getNextIndex()) {
         throw e;
@@ -60,8 +64,11 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
 
       journalMetrics.observeSegmentCreation(this::createNewSegment);
 
-      return currentWriter.append(entry);
+      indexed = currentWriter.append(entry);
     }
+
+    unflushedBytes += indexed.size();
+    return indexed;
   }
 
   @Override
@@ -76,11 +83,15 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
 
       currentWriter.append(entry);
     }
+
+    unflushedBytes += entry.size();
   }
 
   @Override
   public void commit(final long index) {
-    if (index > journal.getCommitIndex()) {
+    if (journal.isGroupCommit()) {
+      groupCommit(index);
+    } else if (index > journal.getCommitIndex()) {
       journal.setCommitIndex(index);
       if (journal.isFlushOnCommit()) {
         flush();
@@ -88,6 +99,49 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
     }
   }
 
+  /**
+   * Returns the index up to which entries are committed. If group commits are enabled, this
+   * index is only advanced after the entries were flushed.
+   *
+   * @return The commit index.
+   */
+  public long getCommitIndex() {
+    return journal.getCommitIndex();
+  }
+
+  /**
+   * Flushes and commits the pending group commit, if any, even if the group commit window is not
+   * exceeded yet.
+   */
+  public void flushPendingCommit() {
+    if (pendingCommitIndex > journal.getCommitIndex()) {
+      flush();
+      journal.setCommitIndex(pendingCommitIndex);
+    }
+    pendingCommitTime = -1;
+  }
+
+  private void groupCommit(final long index) {
+    if (index > pendingCommitIndex) {
+      pendingCommitIndex = index;
+    }
+
+    if (pendingCommitIndex <= journal.getCommitIndex()) {
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    if (pendingCommitTime < 0) {
+      pendingCommitTime = now;
+    }
+
+    final int groupCommitBytes = journal.getGroupCommitBytes();
+    if (now - pendingCommitTime >= journal.getGroupCommitDelay().toMillis()
+        || (groupCommitBytes > 0 && unflushedBytes >= groupCommitBytes)) {
+      flushPendingCommit();
+    }
+  }
+
   @Override
   public void reset(final long index) {
     if (index > currentSegment.index()) {
@@ -120,6 +174,7 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
 
           // Truncate the current index.
           currentWriter.truncate(index);
+          pendingCommitIndex = Math.min(pendingCommitIndex, index);
 
           // Reset segment readers.
           journal.resetTail(index + 1);
@@ -129,10 +184,12 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   @Override
   public void flush() {
     journalMetrics.observeSegmentFlush(currentWriter::flush);
+    unflushedBytes = 0;
   }
 
   @Override
   public void close() {
+    flushPendingCommit();
     currentWriter.close();
   }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import io.atomix.storage.StorageException;
+import io.atomix.storage.journal.Indexed;
+import io.atomix.utils.memory.BufferCleaner;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Journal index which stores the position of every entry of a segment in a memory mapped file next
+ * to the segment. Lookups are a single array access, and since the index survives restarts, the
+ * segment does not have to be read completely when it is opened again.
+ *
+ * <p>The index file consists of a header with the first index of the segment and the number of
+ * indexed entries, followed by the positions of the entries as 32-bit integers. The file grows as
+ * entries are added.
+ */
+public class DenseJournalIndex implements JournalIndex {
+
+  private static final int FIRST_INDEX_OFFSET = 0;
+  private static final int COUNT_OFFSET = FIRST_INDEX_OFFSET + Long.BYTES;
+  private static final int HEADER_LENGTH = COUNT_OFFSET + Integer.BYTES;
+  private static final int INITIAL_CAPACITY = 4096;
+
+  private final File file;
+  private final long firstIndex;
+  private final FileChannel channel;
+  private volatile MappedByteBuffer buffer;
+  private int capacity;
+  private volatile int count;
+
+  public DenseJournalIndex(final File file, final long firstIndex) {
+    this.file = file;
+    this.firstIndex = firstIndex;
+
+    try {
+      channel =
+          FileChannel.open(
+              file.toPath(),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      final long existingCapacity = (channel.size() - HEADER_LENGTH) / Integer.BYTES;
+      map((int) Math.max(INITIAL_CAPACITY, Math.min(existingCapacity, Integer.MAX_VALUE)));
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+
+    if (buffer.getLong(FIRST_INDEX_OFFSET) == firstIndex) {
+      count = Math.max(0, Math.min(buffer.getInt(COUNT_OFFSET), capacity));
+    } else {
+      // the index was not written for this segment, e.g. it is new or the segment was recreated
+      buffer.putLong(FIRST_INDEX_OFFSET, firstIndex);
+      setCount(0);
+    }
+  }
+
+  @Override
+  public void index(final Indexed indexed, final int position) {
+    final long offset = indexed.index() - firstIndex;
+    if (offset < 0 || offset > count) {
+      // only consecutive entries can be indexed
+      return;
+    }
+
+    final int slot = (int) offset;
+    if (slot == capacity) {
+      grow();
+    }
+
+    buffer.putInt(HEADER_LENGTH + slot * Integer.BYTES, position);
+    setCount(slot + 1);
+  }
+
+  @Override
+  public Position lookup(final long index) {
+    final int count = this.count;
+    final long offset = index - firstIndex;
+    if (offset < 0 || count == 0) {
+      return null;
+    }
+
+    final int slot = (int) Math.min(offset, count - 1);
+    return new Position(firstIndex + slot, buffer.getInt(HEADER_LENGTH + slot * Integer.BYTES));
+  }
+
+  @Override
+  public void truncate(final long index) {
+    final long offset = index - firstIndex;
+    if (offset + 1 >= count) {
+      return;
+    }
+
+    setCount((int) Math.max(0, offset + 1));
+
+    // the truncated entries are zeroed in the segment afterwards; the index must not point to them
+    // anymore if only one of both changes makes it to disk
+    buffer.force();
+  }
+
+  @Override
+  public void compact(final long index) {
+    // positions are addressed by their offset in the segment, there is nothing to free
+  }
+
+  @Override
+  public void close() {
+    try {
+      buffer.force();
+      BufferCleaner.freeBuffer(buffer);
+      channel.close();
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public void delete() {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private void setCount(final int count) {
+    buffer.putInt(COUNT_OFFSET, count);
+    this.count = count;
+  }
+
+  private void grow() {
+    final MappedByteBuffer previous = buffer;
+    try {
+      map(Math.multiplyExact(capacity, 2));
+    } catch (final IOException | ArithmeticException e) {
+      throw new StorageException(e);
+    }
+
+    // readers may still access the previous mapping, so it is not freed explicitly
+    previous.force();
+  }
+
+  private void map(final int capacity) throws IOException {
+    buffer =
+        channel.map(
+            FileChannel.MapMode.READ_WRITE, 0, HEADER_LENGTH + (long) capacity * Integer.BYTES);
+    this.capacity = capacity;
+  }
+}
@@ -56,4 +56,10 @@ public interface JournalIndex {
    * @param index the index to which to compact the index
    */
   void compact(long index);
+
+  /** Closes the index, releasing any resources held by it. */
+  default void close() {}
+
+  /** Deletes any persisted state of the index. */
+  default void delete() {}
 }
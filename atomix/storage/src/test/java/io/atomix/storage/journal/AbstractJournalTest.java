@@ -72,6 +72,10 @@ public abstract class AbstractJournalTest {
 
   protected abstract StorageLevel storageLevel();
 
+  protected boolean denseIndex() {
+    return false;
+  }
+
   @Parameterized.Parameters
   public static Collection primeNumbers() {
     final List<Object[]> runs = new ArrayList<>();
@@ -92,6 +96,7 @@ public abstract class AbstractJournalTest {
         .withStorageLevel(storageLevel())
         .withMaxSegmentSize(maxSegmentSize)
         .withMaxEntrySize(64)
+        .withDenseIndex(denseIndex())
         .withJournalIndexFactory(() -> index)
         .build();
   }
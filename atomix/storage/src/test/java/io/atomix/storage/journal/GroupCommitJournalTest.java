@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import static org.junit.Assert.assertEquals;
+
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.serializer.Namespace;
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroupCommitJournalTest {
+
+  private static final Namespace NAMESPACE =
+      Namespace.builder().register(TestEntry.class).register(byte[].class).build();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private SegmentedJournal<TestEntry> journal;
+
+  @After
+  public void tearDown() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
+  @Test
+  public void shouldCommitImmediatelyWithoutGroupCommitDelay() throws IOException {
+    // given
+    journal = createJournal(Duration.ZERO, 0);
+    final JournalWriter<TestEntry> writer = journal.writer();
+    final long index = writer.append(new TestEntry(32)).index();
+
+    // when
+    writer.commit(index);
+
+    // then
+    assertEquals(index, journal.getCommitIndex());
+  }
+
+  @Test
+  public void shouldDeferCommitUntilGroupCommitDelayPassed() throws IOException {
+    // given
+    journal = createJournal(Duration.ofMinutes(1), 0);
+    final SegmentedJournalWriter<TestEntry> writer = journal.writer();
+    final long first = writer.append(new TestEntry(32)).index();
+    final long second = writer.append(new TestEntry(32)).index();
+
+    // when
+    writer.commit(first);
+    writer.commit(second);
+
+    // then
+    assertEquals(0, journal.getCommitIndex());
+
+    // when
+    writer.flushPendingCommit();
+
+    // then
+    assertEquals(second, journal.getCommitIndex());
+  }
+
+  @Test
+  public void shouldCommitWhenGroupCommitBytesExceeded() throws IOException {
+    // given
+    journal = createJournal(Duration.ofMinutes(1), 64);
+    final SegmentedJournalWriter<TestEntry> writer = journal.writer();
+    final long first = writer.append(new TestEntry(32)).index();
+    writer.commit(first);
+    final long second = writer.append(new TestEntry(32)).index();
+
+    // when
+    writer.commit(second);
+
+    // then
+    assertEquals(second, journal.getCommitIndex());
+  }
+
+  @Test
+  public void shouldNotCommitTruncatedEntries() throws IOException {
+    // given
+    journal = createJournal(Duration.ofMinutes(1), 0);
+    final SegmentedJournalWriter<TestEntry> writer = journal.writer();
+    final long first = writer.append(new TestEntry(32)).index();
+    final long second = writer.append(new TestEntry(32)).index();
+    writer.commit(second);
+
+    // when
+    writer.truncate(first);
+    writer.flushPendingCommit();
+
+    // then
+    assertEquals(first, journal.getCommitIndex());
+  }
+
+  private SegmentedJournal<TestEntry> createJournal(
+      final Duration groupCommitDelay, final int groupCommitBytes) throws IOException {
+    return SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(temporaryFolder.newFolder())
+        .withNamespace(NAMESPACE)
+        .withStorageLevel(StorageLevel.DISK)
+        .withFlushOnCommit()
+        .withGroupCommitDelay(groupCommitDelay)
+        .withGroupCommitBytes(groupCommitBytes)
+        .build();
+  }
+}
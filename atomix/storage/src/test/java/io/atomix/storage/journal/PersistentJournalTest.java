@@ -60,4 +60,25 @@ public abstract class PersistentJournalTest extends AbstractJournalTest {
     assertEquals(reader.getFirstIndex(), reader.getNextIndex());
     assertEquals(entriesPerSegment + 1, reader.next().index());
   }
+
+  @Test
+  public void shouldReadAllSegmentsAfterReopen() throws Exception {
+    // given
+    final JournalWriter<TestEntry> writer = journal.writer();
+    for (int i = 0; i < entriesPerSegment * 3; i++) {
+      writer.append(ENTRY);
+    }
+    journal.close();
+
+    // when
+    journal = createJournal();
+    final JournalReader<TestEntry> reader = journal.openReader(1, JournalReader.Mode.ALL);
+
+    // then
+    for (int i = 1; i <= entriesPerSegment * 3; i++) {
+      assertTrue(reader.hasNext());
+      assertEquals(i, reader.next().index());
+    }
+    assertEquals(entriesPerSegment * 3, journal.writer().getLastIndex());
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2020 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import static io.atomix.storage.journal.index.SparseJournalIndexTest.asIndexedEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Dense journal index test. */
+public class DenseJournalIndexTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(temporaryFolder.newFolder(), "test-1.idx");
+  }
+
+  @Test
+  public void shouldNotFindIndexWhenEmpty() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+
+    // when
+    final Position position = index.lookup(1);
+
+    // then
+    assertNull(position);
+  }
+
+  @Test
+  public void shouldFindEveryIndex() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+
+    // when
+    index.index(asIndexedEntry(1), 64);
+    index.index(asIndexedEntry(2), 80);
+    index.index(asIndexedEntry(3), 96);
+
+    // then
+    assertEquals(2, index.lookup(2).index());
+    assertEquals(80, index.lookup(2).position());
+    assertEquals(3, index.lookup(3).index());
+    assertEquals(96, index.lookup(3).position());
+  }
+
+  @Test
+  public void shouldFindLastIndexWhenLookingUpHigherIndex() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+    index.index(asIndexedEntry(1), 64);
+    index.index(asIndexedEntry(2), 80);
+
+    // when
+    final Position position = index.lookup(Long.MAX_VALUE);
+
+    // then
+    assertEquals(2, position.index());
+    assertEquals(80, position.position());
+  }
+
+  @Test
+  public void shouldNotFindIndexLowerThanFirstIndex() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 10);
+    index.index(asIndexedEntry(10), 64);
+
+    // when
+    final Position position = index.lookup(9);
+
+    // then
+    assertNull(position);
+  }
+
+  @Test
+  public void shouldTruncateIndex() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+    index.index(asIndexedEntry(1), 64);
+    index.index(asIndexedEntry(2), 80);
+    index.index(asIndexedEntry(3), 96);
+
+    // when
+    index.truncate(1);
+
+    // then
+    assertEquals(1, index.lookup(3).index());
+    assertEquals(64, index.lookup(3).position());
+  }
+
+  @Test
+  public void shouldTruncateWholeIndex() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 5);
+    index.index(asIndexedEntry(5), 64);
+
+    // when
+    index.truncate(4);
+
+    // then
+    assertNull(index.lookup(5));
+  }
+
+  @Test
+  public void shouldGrowBeyondInitialCapacity() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+
+    // when
+    for (int i = 1; i <= 10_000; i++) {
+      index.index(asIndexedEntry(i), i * 10);
+    }
+
+    // then
+    assertEquals(9_999, index.lookup(9_999).index());
+    assertEquals(99_990, index.lookup(9_999).position());
+    assertEquals(10_000, index.lookup(Long.MAX_VALUE).index());
+  }
+
+  @Test
+  public void shouldRestoreIndexAfterReopen() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+    index.index(asIndexedEntry(1), 64);
+    index.index(asIndexedEntry(2), 80);
+    index.close();
+
+    // when
+    final JournalIndex reopened = new DenseJournalIndex(file, 1);
+
+    // then
+    assertEquals(2, reopened.lookup(Long.MAX_VALUE).index());
+    assertEquals(80, reopened.lookup(Long.MAX_VALUE).position());
+  }
+
+  @Test
+  public void shouldNotRestoreIndexOfOtherSegment() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+    index.index(asIndexedEntry(1), 64);
+    index.close();
+
+    // when
+    final JournalIndex reopened = new DenseJournalIndex(file, 10);
+
+    // then
+    assertNull(reopened.lookup(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldDeleteIndexFile() {
+    // given
+    final JournalIndex index = new DenseJournalIndex(file, 1);
+    index.index(asIndexedEntry(1), 64);
+    index.close();
+
+    // when
+    index.delete();
+
+    // then
+    assertFalse(file.exists());
+  }
+}
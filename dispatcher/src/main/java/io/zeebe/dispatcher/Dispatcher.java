@@ -15,11 +15,13 @@
  */
 package io.zeebe.dispatcher;
 
+import static io.zeebe.dispatcher.impl.PositionUtil.distance;
 import static io.zeebe.dispatcher.impl.PositionUtil.partitionId;
 import static io.zeebe.dispatcher.impl.PositionUtil.partitionOffset;
 import static io.zeebe.dispatcher.impl.PositionUtil.position;
 import static io.zeebe.dispatcher.impl.log.LogBufferAppender.RESULT_PADDING_AT_END_OF_PARTITION;
 
+import io.zeebe.dispatcher.impl.DispatcherMetrics;
 import io.zeebe.dispatcher.impl.log.LogBuffer;
 import io.zeebe.dispatcher.impl.log.LogBufferAppender;
 import io.zeebe.dispatcher.impl.log.LogBufferPartition;
@@ -27,18 +29,24 @@ import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorCondition;
 import io.zeebe.util.sched.FutureUtil;
 import io.zeebe.util.sched.future.ActorFuture;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.function.BiFunction;
 import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
 
 /** Component for sending and receiving messages between different threads. */
 public class Dispatcher extends Actor implements AutoCloseable {
 
+  private static final Logger LOG = Loggers.DISPATCHER_LOGGER;
+
   private static final String ERROR_MESSAGE_CLAIM_FAILED =
       "Expected to claim segment of size %d, but can't claim more then %d bytes.";
   private static final String ERROR_MESSAGE_SUBSCRIPTION_NOT_FOUND =
       "Expected to find subscription with name '%s', but was not registered.";
 
+  private static final Duration SUBSCRIPTION_LAG_SAMPLE_INTERVAL = Duration.ofSeconds(1);
+
   public static final int MODE_PUB_SUB = 1;
   public static final int MODE_PIPELINE = 2;
 
@@ -59,11 +67,16 @@ public class Dispatcher extends Actor implements AutoCloseable {
 
   protected volatile boolean isClosed = false;
 
+  private final boolean edgeTriggeredSignals;
+  private final int maxSubscriptionLag;
+  private final SubscriptionDetachedListener detachedListener;
+  private final DispatcherMetrics metrics;
+
   private ActorCondition dataConsumed;
 
   private final Runnable backgroundTask = this::runBackgroundTask;
 
-  private final Runnable onClaimComplete = this::signalSubsciptions;
+  private final Runnable onClaimComplete;
 
   public Dispatcher(
       LogBuffer logBuffer,
@@ -74,6 +87,41 @@ public class Dispatcher extends Actor implements AutoCloseable {
       String[] subscriptionNames,
       int mode,
       String name) {
+    this(
+        logBuffer,
+        logAppender,
+        publisherLimit,
+        publisherPosition,
+        logWindowLength,
+        subscriptionNames,
+        mode,
+        name,
+        false,
+        0,
+        null);
+  }
+
+  /**
+   * @param edgeTriggeredSignals if <code>true</code> and in pub-sub mode, a publisher only signals
+   *     the subscriptions which have consumed everything up to its fragment, instead of all
+   *     subscriptions on every claim and commit
+   * @param maxSubscriptionLag if greater than 0 and in pub-sub mode, a subscription which falls
+   *     behind the publisher position by this amount of bytes is detached so that it doesn't hold
+   *     back the publisher limit any longer
+   * @param detachedListener notified when a subscription is detached, may be <code>null</code>
+   */
+  public Dispatcher(
+      LogBuffer logBuffer,
+      LogBufferAppender logAppender,
+      AtomicPosition publisherLimit,
+      AtomicPosition publisherPosition,
+      int logWindowLength,
+      String[] subscriptionNames,
+      int mode,
+      String name,
+      boolean edgeTriggeredSignals,
+      int maxSubscriptionLag,
+      SubscriptionDetachedListener detachedListener) {
     this.logBuffer = logBuffer;
     this.logAppender = logAppender;
     this.publisherLimit = publisherLimit;
@@ -87,6 +135,15 @@ public class Dispatcher extends Actor implements AutoCloseable {
 
     this.subscriptions = new Subscription[0];
     this.defaultSubscriptionNames = subscriptionNames;
+
+    this.edgeTriggeredSignals = edgeTriggeredSignals && mode == MODE_PUB_SUB;
+    this.maxSubscriptionLag = mode == MODE_PUB_SUB ? maxSubscriptionLag : 0;
+    this.detachedListener = detachedListener;
+    this.metrics = new DispatcherMetrics(name);
+
+    // with edge triggered signals, a subscription with uncommitted fragments in front of it is not
+    // waiting: it has data available and keeps on polling until the fragments are committed
+    this.onClaimComplete = this.edgeTriggeredSignals ? () -> {} : this::signalSubsciptions;
   }
 
   @Override
@@ -103,6 +160,8 @@ public class Dispatcher extends Actor implements AutoCloseable {
   protected void onActorStarted() {
     dataConsumed = actor.onCondition("data-consumed", backgroundTask);
     openDefaultSubscriptions();
+
+    actor.runAtFixedRate(SUBSCRIPTION_LAG_SAMPLE_INTERVAL, this::updateSubscriptionLag);
   }
 
   @Override
@@ -183,6 +242,24 @@ public class Dispatcher extends Actor implements AutoCloseable {
     }
   }
 
+  /**
+   * Signals only the subscriptions which have consumed everything up to the given claimed
+   * position. These are the only ones which can be waiting: a subscription behind the claimed
+   * position still has data available and checks the publisher position again before it waits.
+   * Since the publisher position is updated before the subscription positions are read, either
+   * the publisher sees the new subscription position or the subscription sees the new publisher
+   * position.
+   */
+  private void signalIdleSubscriptions(long claimedPosition) {
+    final Subscription[] subscriptions = this.subscriptions;
+    for (int i = 0; i < subscriptions.length; i++) {
+      final Subscription subscription = subscriptions[i];
+      if (subscription.getPosition() >= claimedPosition) {
+        subscription.getActorConditions().signalConsumers();
+      }
+    }
+  }
+
   /**
    * Claim a fragment of the buffer with the given length. Use {@link ClaimedFragment#getBuffer()}
    * to write the message and finish the operation using {@link ClaimedFragment#commit()} or {@link
@@ -258,7 +335,12 @@ public class Dispatcher extends Actor implements AutoCloseable {
         newPosition = updatePublisherPosition(activePartitionId, newOffset);
 
         publisherPosition.proposeMaxOrdered(newPosition);
-        signalSubsciptions();
+
+        if (edgeTriggeredSignals && newPosition > 0) {
+          signalIdleSubscriptions(position);
+        } else {
+          signalSubsciptions();
+        }
       }
     }
 
@@ -282,6 +364,10 @@ public class Dispatcher extends Actor implements AutoCloseable {
     int isUpdated = 0;
 
     if (!isClosed) {
+      if (maxSubscriptionLag > 0) {
+        detachLaggingSubscriptions();
+      }
+
       long lastSubscriberPosition = -1;
 
       if (subscriptions.length > 0) {
@@ -313,6 +399,53 @@ public class Dispatcher extends Actor implements AutoCloseable {
     return isUpdated;
   }
 
+  private void updateSubscriptionLag() {
+    final long publisherPosition = this.publisherPosition.get();
+
+    for (int i = 0; i < subscriptions.length; i++) {
+      final Subscription subscription = subscriptions[i];
+      final long lag = distance(subscription.getPosition(), publisherPosition, partitionSize);
+      metrics.setSubscriptionLag(subscription.getName(), lag);
+    }
+  }
+
+  private void detachLaggingSubscriptions() {
+    final long publisherPosition = this.publisherPosition.get();
+    final Subscription[] subscriptions = this.subscriptions;
+
+    for (int i = 0; i < subscriptions.length; i++) {
+      final Subscription subscription = subscriptions[i];
+      final long lag = distance(subscription.getPosition(), publisherPosition, partitionSize);
+
+      // never detach the last subscription, there is no other one to make progress for
+      if (lag >= maxSubscriptionLag && this.subscriptions.length > 1) {
+        detachSubscription(subscription, lag);
+      }
+    }
+  }
+
+  private void detachSubscription(Subscription subscription, long lag) {
+    LOG.warn(
+        "Detach subscription '{}' of dispatcher '{}' which is {} bytes behind the publisher "
+            + "(max lag {} bytes)",
+        subscription.getName(),
+        name,
+        lag,
+        maxSubscriptionLag);
+
+    subscription.isDetached = true;
+    removeSubscription(subscription);
+    metrics.subscriptionDetached(subscription.getName());
+
+    if (detachedListener != null) {
+      try {
+        detachedListener.onSubscriptionDetached(subscription);
+      } catch (RuntimeException e) {
+        LOG.error("Failed to notify listener about detached subscription", e);
+      }
+    }
+  }
+
   /**
    * Creates a new subscription with the given name.
    *
@@ -427,6 +560,13 @@ public class Dispatcher extends Actor implements AutoCloseable {
       return; // don't need to adjust the subscriptions when closed
     }
 
+    removeSubscription(subscriptionToClose);
+
+    // ensuring that the publisher limit is updated
+    dataConsumed.signal();
+  }
+
+  private void removeSubscription(Subscription subscriptionToClose) {
     // close subscription
     subscriptionToClose.isClosed = true;
     subscriptionToClose.position.reset();
@@ -456,8 +596,7 @@ public class Dispatcher extends Actor implements AutoCloseable {
 
     this.subscriptions = newSubscriptions;
 
-    // ensuring that the publisher limit is updated
-    dataConsumed.signal();
+    metrics.subscriptionClosed(subscriptionToClose.getName());
   }
 
   /**
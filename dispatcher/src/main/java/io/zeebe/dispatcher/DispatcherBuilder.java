@@ -36,6 +36,10 @@ import org.agrona.concurrent.status.CountersManager;
 
 /** Builder for a {@link Dispatcher} */
 public class DispatcherBuilder {
+  private static final String ERROR_MESSAGE_MAX_LAG =
+      "Expected max subscription lag to be smaller than the buffer window of %d bytes, "
+          + "but was %d bytes";
+
   protected boolean allocateInMemory = true;
 
   protected ByteBuffer rawBuffer;
@@ -60,6 +64,12 @@ public class DispatcherBuilder {
 
   protected int initialPartitionId = 0;
 
+  protected boolean edgeTriggeredSignals = false;
+
+  protected int maxSubscriptionLag = 0;
+
+  protected SubscriptionDetachedListener subscriptionDetachedListener;
+
   public DispatcherBuilder(final String dispatcherName) {
     this.dispatcherName = dispatcherName;
   }
@@ -150,6 +160,34 @@ public class DispatcherBuilder {
     return this;
   }
 
+  /**
+   * Only signal the subscriptions which have consumed all fragments when a new fragment is
+   * claimed, instead of all subscriptions on every claim and commit. A subscription which is
+   * behind the publisher keeps on reading without further signals. Only applies in
+   * publish-subscribe-mode.
+   */
+  public DispatcherBuilder edgeTriggeredSignals() {
+    this.edgeTriggeredSignals = true;
+    return this;
+  }
+
+  /**
+   * Detach a subscription if it falls behind the publisher position by the given amount of bytes,
+   * so that a single slow subscription doesn't hold back the publisher. The detached subscription
+   * is closed and the given listener is notified, so that its owner can continue reading from the
+   * underlying log. The last remaining subscription is never detached. Only applies in
+   * publish-subscribe-mode.
+   *
+   * <p>The max lag must be smaller than the window the publisher may run ahead of the slowest
+   * subscription, which is a quarter of the partition size.
+   */
+  public DispatcherBuilder maxSubscriptionLag(
+      final ByteValue maxLag, final SubscriptionDetachedListener listener) {
+    this.maxSubscriptionLag = (int) maxLag.toBytes();
+    this.subscriptionDetachedListener = listener;
+    return this;
+  }
+
   public Dispatcher build() {
     Objects.requireNonNull(actorScheduler, "Actor scheduler cannot be null.");
 
@@ -177,6 +215,11 @@ public class DispatcherBuilder {
 
     final int bufferWindowLength = partitionSize / 4;
 
+    if (maxSubscriptionLag > 0 && maxSubscriptionLag >= bufferWindowLength) {
+      throw new IllegalArgumentException(
+          String.format(ERROR_MESSAGE_MAX_LAG, bufferWindowLength, maxSubscriptionLag));
+    }
+
     final Dispatcher dispatcher =
         new Dispatcher(
             logBuffer,
@@ -186,7 +229,10 @@ public class DispatcherBuilder {
             bufferWindowLength,
             subscriptionNames,
             mode,
-            dispatcherName);
+            dispatcherName,
+            edgeTriggeredSignals,
+            maxSubscriptionLag,
+            subscriptionDetachedListener);
 
     dispatcher.updatePublisherLimit(); // make subscription initially writable without waiting for
     // conductor to do this
@@ -55,6 +55,7 @@ public class Subscription implements ConsumableChannel {
   protected final ByteBuffer rawDispatcherBufferView;
 
   protected volatile boolean isClosed = false;
+  protected volatile boolean isDetached = false;
 
   public Subscription(
       AtomicPosition position,
@@ -80,7 +81,7 @@ public class Subscription implements ConsumableChannel {
 
   @Override
   public boolean hasAvailable() {
-    return getLimit() > getPosition();
+    return !isClosed && getLimit() > getPosition();
   }
 
   protected long getLimit() {
@@ -372,7 +373,16 @@ public class Subscription implements ConsumableChannel {
 
   @Override
   public void removeConsumer(ActorCondition consumer) {
-    actorConditions.registerConsumer(consumer);
+    actorConditions.removeConsumer(consumer);
+  }
+
+  /**
+   * @return <code>true</code> if the subscription was closed by the dispatcher because it fell
+   *     behind the publisher by more than the max lag
+   * @see SubscriptionDetachedListener
+   */
+  public boolean isDetached() {
+    return isDetached;
   }
 
   public int getId() {
@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.dispatcher;
+
+/**
+ * Notified when a subscription is detached from the dispatcher because it fell behind the
+ * publisher by more than the configured max lag (see {@link
+ * DispatcherBuilder#maxSubscriptionLag(io.zeebe.util.ByteValue, SubscriptionDetachedListener)}).
+ *
+ * <p>The subscription is closed at this point and its fragments are no longer protected from being
+ * overwritten. The owner is expected to continue reading from the underlying log instead, starting
+ * after the last fragment it has processed.
+ */
+@FunctionalInterface
+public interface SubscriptionDetachedListener {
+
+  /** Invoked on the dispatcher's actor thread. */
+  void onSubscriptionDetached(Subscription subscription);
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.dispatcher.impl;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+public class DispatcherMetrics {
+
+  private static final Gauge SUBSCRIPTION_LAG =
+      Gauge.build()
+          .namespace("zeebe")
+          .name("dispatcher_subscription_lag_bytes")
+          .help("Number of bytes a subscription is behind the publisher position of the dispatcher")
+          .labelNames("dispatcher", "subscription")
+          .register();
+
+  private static final Counter SUBSCRIPTION_DETACHED =
+      Counter.build()
+          .namespace("zeebe")
+          .name("dispatcher_subscription_detached_total")
+          .help("Number of subscriptions which were detached because they exceeded the max lag")
+          .labelNames("dispatcher", "subscription")
+          .register();
+
+  private final String dispatcherName;
+
+  public DispatcherMetrics(String dispatcherName) {
+    this.dispatcherName = dispatcherName;
+  }
+
+  public void setSubscriptionLag(String subscriptionName, long lag) {
+    SUBSCRIPTION_LAG.labels(dispatcherName, subscriptionName).set(lag);
+  }
+
+  public void subscriptionDetached(String subscriptionName) {
+    SUBSCRIPTION_DETACHED.labels(dispatcherName, subscriptionName).inc();
+  }
+
+  public void subscriptionClosed(String subscriptionName) {
+    SUBSCRIPTION_LAG.remove(dispatcherName, subscriptionName);
+  }
+}
@@ -29,4 +29,13 @@ public class PositionUtil {
   public static int partitionOffset(long position) {
     return (int) (position & 0xFFFFFFFFL);
   }
+
+  /**
+   * @return the number of bytes between the given positions, assuming that every partition has
+   *     the given size
+   */
+  public static long distance(long fromPosition, long toPosition, int partitionSize) {
+    final long partitions = (long) partitionId(toPosition) - partitionId(fromPosition);
+    return partitions * partitionSize + partitionOffset(toPosition) - partitionOffset(fromPosition);
+  }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.dispatcher;
+
+import static io.zeebe.dispatcher.impl.PositionUtil.position;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.zeebe.dispatcher.impl.log.LogBuffer;
+import io.zeebe.dispatcher.impl.log.LogBufferAppender;
+import io.zeebe.dispatcher.impl.log.LogBufferPartition;
+import io.zeebe.util.sched.ActorCondition;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DispatcherFanOutTest {
+
+  static final int A_LOG_WINDOW_LENGTH = 256;
+  static final int A_PARTITION_SIZE = 1024;
+  static final int A_FRAGMENT_LENGTH = 32;
+  static final int A_MAX_LAG = 128;
+  static final UnsafeBuffer A_MSG = new UnsafeBuffer(new byte[8]);
+
+  LogBuffer logBuffer;
+  LogBufferPartition logBufferPartition;
+  LogBufferAppender logAppender;
+  AtomicPosition publisherLimit;
+  AtomicPosition publisherPosition;
+  List<Subscription> detachedSubscriptions;
+
+  @Before
+  public void setup() {
+    logBuffer = mock(LogBuffer.class);
+    logBufferPartition = mock(LogBufferPartition.class);
+    logAppender = mock(LogBufferAppender.class);
+
+    when(logBuffer.getPartitionSize()).thenReturn(A_PARTITION_SIZE);
+    when(logBuffer.getPartition(0)).thenReturn(logBufferPartition);
+    when(logBuffer.createRawBufferView()).thenReturn(ByteBuffer.allocate(32));
+
+    publisherLimit = new AtomicPosition();
+    publisherLimit.set(position(0, 0));
+    publisherPosition = new AtomicPosition();
+    publisherPosition.set(position(0, 0));
+
+    detachedSubscriptions = new ArrayList<>();
+  }
+
+  @Test
+  public void shouldSignalOnlyIdleSubscriptions() {
+    // given
+    final Dispatcher dispatcher = newDispatcher(true, 0);
+    final Subscription idle = dispatcher.doOpenSubscription("idle", mock(ActorCondition.class));
+    final Subscription busy = dispatcher.doOpenSubscription("busy", mock(ActorCondition.class));
+    final ActorCondition idleConsumer = mock(ActorCondition.class);
+    final ActorCondition busyConsumer = mock(ActorCondition.class);
+    idle.registerConsumer(idleConsumer);
+    busy.registerConsumer(busyConsumer);
+
+    publisherPosition.set(position(0, 2 * A_FRAGMENT_LENGTH));
+    idle.position.set(position(0, 2 * A_FRAGMENT_LENGTH));
+    busy.position.set(position(0, A_FRAGMENT_LENGTH));
+    givenTailAt(2 * A_FRAGMENT_LENGTH);
+
+    // when
+    final long newPosition = dispatcher.offer(A_MSG);
+
+    // then
+    assertThat(newPosition).isEqualTo(position(0, 3 * A_FRAGMENT_LENGTH));
+    verify(idleConsumer).signal();
+    verify(busyConsumer, never()).signal();
+  }
+
+  @Test
+  public void shouldSignalAllSubscriptionsByDefault() {
+    // given
+    final Dispatcher dispatcher = newDispatcher(false, 0);
+    final Subscription idle = dispatcher.doOpenSubscription("idle", mock(ActorCondition.class));
+    final Subscription busy = dispatcher.doOpenSubscription("busy", mock(ActorCondition.class));
+    final ActorCondition idleConsumer = mock(ActorCondition.class);
+    final ActorCondition busyConsumer = mock(ActorCondition.class);
+    idle.registerConsumer(idleConsumer);
+    busy.registerConsumer(busyConsumer);
+
+    publisherPosition.set(position(0, 2 * A_FRAGMENT_LENGTH));
+    idle.position.set(position(0, 2 * A_FRAGMENT_LENGTH));
+    busy.position.set(position(0, A_FRAGMENT_LENGTH));
+    givenTailAt(2 * A_FRAGMENT_LENGTH);
+
+    // when
+    dispatcher.offer(A_MSG);
+
+    // then
+    verify(idleConsumer).signal();
+    verify(busyConsumer).signal();
+  }
+
+  @Test
+  public void shouldDetachLaggingSubscription() {
+    // given
+    final Dispatcher dispatcher = newDispatcher(false, A_MAX_LAG);
+    final Subscription fast = dispatcher.doOpenSubscription("fast", mock(ActorCondition.class));
+    final Subscription slow = dispatcher.doOpenSubscription("slow", mock(ActorCondition.class));
+
+    publisherPosition.set(position(0, A_MAX_LAG + A_FRAGMENT_LENGTH));
+    fast.position.set(position(0, A_MAX_LAG + A_FRAGMENT_LENGTH));
+    slow.position.set(position(0, A_FRAGMENT_LENGTH));
+
+    // when
+    dispatcher.updatePublisherLimit();
+
+    // then
+    assertThat(detachedSubscriptions).containsExactly(slow);
+    assertThat(slow.isDetached()).isTrue();
+    assertThat(slow.hasAvailable()).isFalse();
+    assertThat(dispatcher.subscriptions).containsExactly(fast);
+    assertThat(publisherLimit.get())
+        .isEqualTo(position(0, A_MAX_LAG + A_FRAGMENT_LENGTH + A_LOG_WINDOW_LENGTH));
+  }
+
+  @Test
+  public void shouldNotDetachSubscriptionWithinMaxLag() {
+    // given
+    final Dispatcher dispatcher = newDispatcher(false, A_MAX_LAG);
+    final Subscription fast = dispatcher.doOpenSubscription("fast", mock(ActorCondition.class));
+    final Subscription slow = dispatcher.doOpenSubscription("slow", mock(ActorCondition.class));
+
+    publisherPosition.set(position(0, A_MAX_LAG));
+    fast.position.set(position(0, A_MAX_LAG));
+    slow.position.set(position(0, A_FRAGMENT_LENGTH));
+
+    // when
+    dispatcher.updatePublisherLimit();
+
+    // then
+    assertThat(detachedSubscriptions).isEmpty();
+    assertThat(dispatcher.subscriptions).containsExactly(fast, slow);
+  }
+
+  @Test
+  public void shouldNotDetachLastSubscription() {
+    // given
+    final Dispatcher dispatcher = newDispatcher(false, A_MAX_LAG);
+    final Subscription slow = dispatcher.doOpenSubscription("slow", mock(ActorCondition.class));
+
+    publisherPosition.set(position(0, A_MAX_LAG + A_FRAGMENT_LENGTH));
+    slow.position.set(position(0, 0));
+
+    // when
+    dispatcher.updatePublisherLimit();
+
+    // then
+    assertThat(detachedSubscriptions).isEmpty();
+    assertThat(slow.isDetached()).isFalse();
+  }
+
+  private void givenTailAt(int offset) {
+    publisherLimit.set(position(0, A_PARTITION_SIZE));
+    when(logBuffer.getActivePartitionIdVolatile()).thenReturn(0);
+    when(logBufferPartition.getTailCounterVolatile()).thenReturn(offset);
+    when(logAppender.appendFrame(
+            eq(logBufferPartition), eq(0), any(DirectBuffer.class), anyInt(), anyInt(), anyInt()))
+        .thenReturn(offset + A_FRAGMENT_LENGTH);
+  }
+
+  private Dispatcher newDispatcher(boolean edgeTriggeredSignals, int maxSubscriptionLag) {
+    return new Dispatcher(
+        logBuffer,
+        logAppender,
+        publisherLimit,
+        publisherPosition,
+        A_LOG_WINDOW_LENGTH,
+        new String[0],
+        Dispatcher.MODE_PUB_SUB,
+        "test",
+        edgeTriggeredSignals,
+        maxSubscriptionLag,
+        detachedSubscriptions::add);
+  }
+}
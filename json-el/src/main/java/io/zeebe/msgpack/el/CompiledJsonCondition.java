@@ -22,23 +22,30 @@ import scala.collection.JavaConverters;
 public final class CompiledJsonCondition {
   private final String expression;
   private final JsonCondition condition;
+  private final JsonConditionProgram program;
   private final boolean isValid;
   private final String errorMessage;
 
   private CompiledJsonCondition(
-      String expression, JsonCondition condition, boolean isValid, String errorMessage) {
+      String expression,
+      JsonCondition condition,
+      JsonConditionProgram program,
+      boolean isValid,
+      String errorMessage) {
     this.expression = expression;
     this.condition = condition;
+    this.program = program;
     this.isValid = isValid;
     this.errorMessage = errorMessage;
   }
 
-  public static CompiledJsonCondition success(String expression, JsonCondition condition) {
-    return new CompiledJsonCondition(expression, condition, true, null);
+  public static CompiledJsonCondition success(
+      String expression, JsonCondition condition, JsonConditionProgram program) {
+    return new CompiledJsonCondition(expression, condition, program, true, null);
   }
 
   public static CompiledJsonCondition fail(String expression, String errorMessage) {
-    return new CompiledJsonCondition(expression, null, false, errorMessage);
+    return new CompiledJsonCondition(expression, null, null, false, errorMessage);
   }
 
   public String getExpression() {
@@ -49,6 +56,10 @@ public final class CompiledJsonCondition {
     return condition;
   }
 
+  public JsonConditionProgram getProgram() {
+    return program;
+  }
+
   public boolean isValid() {
     return isValid;
   }
@@ -15,10 +15,6 @@
  */
 package io.zeebe.msgpack.el;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import scala.util.parsing.combinator.Parsers.ParseResult;
 
 public class JsonConditionFactory {
@@ -36,10 +32,9 @@ public class JsonConditionFactory {
       final String errorMessage = JsonConditionValidator.validate(condition);
 
       if (errorMessage == null) {
-        // index is used by the interpreter for caching
-        indexJsonPathExpressions(condition);
+        final JsonConditionProgram program = JsonConditionProgram.compile(condition);
 
-        return CompiledJsonCondition.success(expression, condition);
+        return CompiledJsonCondition.success(expression, condition, program);
       } else {
         return CompiledJsonCondition.fail(expression, errorMessage);
       }
@@ -47,30 +42,4 @@ public class JsonConditionFactory {
       return CompiledJsonCondition.fail(expression, result.toString());
     }
   }
-
-  private static void indexJsonPathExpressions(JsonCondition condition) {
-    final List<JsonPath> pathExpressions = new ArrayList<>();
-
-    JsonConditionWalker.walk(
-        condition,
-        object -> {
-          if (object instanceof JsonPath) {
-            pathExpressions.add((JsonPath) object);
-          }
-        });
-
-    final AtomicInteger nextId = new AtomicInteger(1);
-
-    pathExpressions.stream()
-        .collect(Collectors.groupingBy(JsonPath::jsonPath))
-        .values()
-        .stream()
-        .filter(l -> l.size() > 1)
-        .forEach(
-            l -> {
-              final int id = nextId.getAndIncrement();
-
-              l.forEach(p -> p.id(id));
-            });
-  }
 }
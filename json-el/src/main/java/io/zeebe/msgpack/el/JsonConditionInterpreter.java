@@ -19,137 +19,167 @@ import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 
 import io.zeebe.msgpack.jsonpath.JsonPathQuery;
 import io.zeebe.msgpack.query.MsgPackQueryExecutor;
+import io.zeebe.msgpack.query.MsgPackTokenVisitor;
 import io.zeebe.msgpack.query.MsgPackTraverser;
 import io.zeebe.msgpack.spec.MsgPackReader;
 import io.zeebe.msgpack.spec.MsgPackToken;
 import io.zeebe.msgpack.spec.MsgPackType;
 import io.zeebe.util.buffer.BufferUtil;
+import java.util.Arrays;
 import org.agrona.DirectBuffer;
 
+/**
+ * Evaluates the {@link JsonConditionProgram} of a condition. All JSON paths of the condition are
+ * resolved in a single traversal of the document, before the instructions are executed.
+ */
 public class JsonConditionInterpreter {
-  private final MsgPackQueryExecutor visitor = new MsgPackQueryExecutor();
+  private static final int NO_RESULT = -1;
+  private static final int MULTIPLE_RESULTS = -2;
+
   private final MsgPackTraverser traverser = new MsgPackTraverser();
+  private final PathResolver pathResolver = new PathResolver();
 
   private final MsgPackReader msgPackReader1 = new MsgPackReader();
   private final MsgPackReader msgPackReader2 = new MsgPackReader();
 
-  private final JsonPathCache cache = new JsonPathCache();
+  private MsgPackQueryExecutor[] pathExecutors = new MsgPackQueryExecutor[0];
+  private int[] pathResultOffsets = new int[0];
+  private int[] pathResultLengths = new int[0];
 
   public boolean eval(final CompiledJsonCondition condition, final DirectBuffer json) {
-    cache.wrap(json);
     try {
-      return evalCondition(condition.getCondition(), json);
+      final JsonConditionProgram program = condition.getProgram();
+
+      resolvePaths(program, json);
+      return execute(program, json);
     } catch (Exception e) {
       throw new JsonConditionException(condition, e);
     }
   }
 
-  private boolean evalCondition(final JsonCondition condition, final DirectBuffer json) {
-    final boolean isFulFilled;
-
-    if (condition instanceof Comparison) {
-      isFulFilled = evalComparison((Comparison) condition, json);
-    } else if (condition instanceof Disjunction) {
-      final Disjunction disjunction = (Disjunction) condition;
+  private void resolvePaths(JsonConditionProgram program, DirectBuffer json) {
+    final int pathCount = program.getPathCount();
+    ensurePathCapacity(pathCount);
 
-      isFulFilled = evalCondition(disjunction.x(), json) || evalCondition(disjunction.y(), json);
-    } else if (condition instanceof Conjunction) {
-      final Conjunction conjunction = (Conjunction) condition;
-
-      isFulFilled = evalCondition(conjunction.x(), json) && evalCondition(conjunction.y(), json);
-    } else {
-      throw new RuntimeException(String.format("Illegal condition: %s", condition));
+    if (pathCount == 0) {
+      return;
     }
 
-    return isFulFilled;
-  }
+    for (int i = 0; i < pathCount; i++) {
+      final JsonPathQuery query = program.getPath(i);
+      pathExecutors[i].init(query.getFilters(), query.getFilterInstances());
+    }
 
-  private boolean evalComparison(Comparison comparison, DirectBuffer json) {
-    final MsgPackToken x = getToken(comparison.x(), json, msgPackReader1);
-    final MsgPackToken y = getToken(comparison.y(), json, msgPackReader2);
-
-    if (comparison instanceof Equal) {
-      return equals(x, y);
-    } else if (comparison instanceof NotEqual) {
-      return notEquals(x, y);
-    } else if (comparison instanceof LessThan) {
-      return lessThan(x, y);
-    } else if (comparison instanceof LessOrEqual) {
-      return lessThanOrEqual(x, y);
-    } else if (comparison instanceof GreaterThan) {
-      return greaterThan(x, y);
-    } else if (comparison instanceof GreaterOrEqual) {
-      return greaterThanOrEqual(x, y);
-    } else {
-      throw new RuntimeException(String.format("Illegal comparison: %s", comparison));
+    pathResolver.pathCount = pathCount;
+    traverser.wrap(json, 0, json.capacity());
+    traverser.traverse(pathResolver);
+
+    for (int i = 0; i < pathCount; i++) {
+      final MsgPackQueryExecutor executor = pathExecutors[i];
+      final int numResults = executor.numResults();
+
+      if (numResults == 0) {
+        pathResultOffsets[i] = NO_RESULT;
+      } else if (numResults > 1) {
+        // fails only if the path is evaluated, like short-circuited comparisons
+        pathResultOffsets[i] = MULTIPLE_RESULTS;
+      } else {
+        executor.moveToResult(0);
+        pathResultOffsets[i] = executor.currentResultPosition();
+        pathResultLengths[i] = executor.currentResultLength();
+      }
     }
   }
 
-  private MsgPackToken getToken(JsonObject value, DirectBuffer json, MsgPackReader msgPackReader) {
-    if (value instanceof JsonConstant) {
-      final JsonConstant constant = (JsonConstant) value;
+  private void ensurePathCapacity(int pathCount) {
+    final int capacity = pathExecutors.length;
 
-      return constant.token();
-    } else if (value instanceof JsonPath) {
-      final JsonPath jsonPath = (JsonPath) value;
+    if (pathCount > capacity) {
+      pathExecutors = Arrays.copyOf(pathExecutors, pathCount);
+      for (int i = capacity; i < pathCount; i++) {
+        pathExecutors[i] = new MsgPackQueryExecutor();
+      }
 
-      return getPathResult(jsonPath, json, msgPackReader);
-    } else {
-      throw new RuntimeException(String.format("Illegal value: %s", value));
+      pathResultOffsets = new int[pathCount];
+      pathResultLengths = new int[pathCount];
     }
   }
 
-  private MsgPackToken getPathResult(
-      final JsonPath path, DirectBuffer json, MsgPackReader msgPackReader) {
-    final int pathId = path.id();
-    // id > 0 if the path is used more than once in the condition
-    final boolean cachable = pathId > 0;
+  private boolean execute(JsonConditionProgram program, DirectBuffer json) {
+    final int length = program.getInstructionsLength();
+    boolean result = false;
 
-    final DirectBuffer resultBuffer = cachable ? cache.get(pathId) : null;
+    int instruction = 0;
+    while (instruction < length) {
+      final int operation = program.getInstruction(instruction);
+      final int arg1 = program.getInstruction(instruction + 1);
 
-    if (resultBuffer != null) {
-      if (resultBuffer.capacity() == 0) {
-        return MsgPackToken.NIL;
-      }
-      msgPackReader.wrap(resultBuffer, 0, resultBuffer.capacity());
-    } else {
-      if (!readQueryResult(path.query(), json)) {
-        if (cachable) {
-          cache.put(pathId, 0, 0);
-        }
-        return MsgPackToken.NIL;
-      }
+      switch (operation) {
+        case JsonConditionProgram.COMPARE:
+          final MsgPackToken x =
+              getOperand(program, program.getInstruction(instruction + 2), json, msgPackReader1);
+          final MsgPackToken y =
+              getOperand(program, program.getInstruction(instruction + 3), json, msgPackReader2);
+
+          result = compare(arg1, x, y);
+          instruction += JsonConditionProgram.INSTRUCTION_LENGTH;
+          break;
 
-      final int offset = visitor.currentResultPosition();
-      final int length = visitor.currentResultLength();
+        case JsonConditionProgram.JUMP_IF_FALSE:
+          instruction = result ? instruction + JsonConditionProgram.INSTRUCTION_LENGTH : arg1;
+          break;
 
-      msgPackReader.wrap(json, offset, length);
+        case JsonConditionProgram.JUMP_IF_TRUE:
+          instruction = result ? arg1 : instruction + JsonConditionProgram.INSTRUCTION_LENGTH;
+          break;
 
-      if (cachable) {
-        cache.put(pathId, offset, length);
+        default:
+          throw new RuntimeException(String.format("Illegal instruction: %d", operation));
       }
     }
 
-    return msgPackReader.readToken();
+    return result;
   }
 
-  private boolean readQueryResult(JsonPathQuery query, DirectBuffer json) {
-    visitor.init(query.getFilters(), query.getFilterInstances());
-    traverser.wrap(json, 0, json.capacity());
+  private MsgPackToken getOperand(
+      JsonConditionProgram program, int operand, DirectBuffer json, MsgPackReader msgPackReader) {
+    if (!JsonConditionProgram.isPath(operand)) {
+      return program.getConstant(operand);
+    }
 
-    traverser.traverse(visitor);
+    final int offset = pathResultOffsets[operand];
 
-    if (visitor.numResults() == 0) {
-      return false;
-    } else if (visitor.numResults() > 1) {
+    if (offset == NO_RESULT) {
+      return MsgPackToken.NIL;
+    } else if (offset == MULTIPLE_RESULTS) {
       // such a JSON path expression should not be valid
       throw new JsonConditionException(
           String.format(
-              "JSON path '%s' has more than one result.", bufferAsString(query.getExpression())));
+              "JSON path '%s' has more than one result.",
+              bufferAsString(program.getPath(operand).getExpression())));
     }
 
-    visitor.moveToResult(0);
-    return true;
+    msgPackReader.wrap(json, offset, pathResultLengths[operand]);
+    return msgPackReader.readToken();
+  }
+
+  private boolean compare(int comparison, MsgPackToken x, MsgPackToken y) {
+    switch (comparison) {
+      case JsonConditionProgram.EQUAL:
+        return equals(x, y);
+      case JsonConditionProgram.NOT_EQUAL:
+        return notEquals(x, y);
+      case JsonConditionProgram.LESS_THAN:
+        return lessThan(x, y);
+      case JsonConditionProgram.LESS_OR_EQUAL:
+        return lessThanOrEqual(x, y);
+      case JsonConditionProgram.GREATER_THAN:
+        return greaterThan(x, y);
+      case JsonConditionProgram.GREATER_OR_EQUAL:
+        return greaterThanOrEqual(x, y);
+      default:
+        throw new RuntimeException(String.format("Illegal comparison: %d", comparison));
+    }
   }
 
   private boolean equals(MsgPackToken x, MsgPackToken y) {
@@ -247,4 +277,16 @@ public class JsonConditionInterpreter {
           String.format("Cannot compare values. Expected number but found: %s", x.getType()));
     }
   }
+
+  /** Passes each token of the document to the executors of all paths. */
+  private final class PathResolver implements MsgPackTokenVisitor {
+    private int pathCount;
+
+    @Override
+    public void visitElement(int position, MsgPackToken currentValue) {
+      for (int i = 0; i < pathCount; i++) {
+        pathExecutors[i].visitElement(position, currentValue);
+      }
+    }
+  }
 }
@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.msgpack.el;
+
+import io.zeebe.msgpack.jsonpath.JsonPathQuery;
+import io.zeebe.msgpack.spec.MsgPackToken;
+import java.util.ArrayList;
+import java.util.List;
+import org.agrona.collections.IntArrayList;
+
+/**
+ * A condition which is compiled into a flat array of instructions. The program is created once
+ * when the condition is deployed and evaluated by the {@link JsonConditionInterpreter} without
+ * walking the condition tree.
+ *
+ * <p>Each instruction consists of an operation code and up to three arguments:
+ *
+ * <ul>
+ *   <li>{@link #COMPARE} - compares two operands and stores the result
+ *   <li>{@link #JUMP_IF_FALSE} / {@link #JUMP_IF_TRUE} - continues at the given instruction if the
+ *       last result is false / true, which implements short-circuit evaluation of {@code &&} and
+ *       {@code ||}
+ * </ul>
+ *
+ * <p>An operand is either the index of a JSON path ({@code >= 0}) or the encoded index of a
+ * constant ({@code < 0}). Paths which occur multiple times in the condition share an index, so
+ * that the interpreter can resolve all paths in a single pass over the document.
+ */
+public final class JsonConditionProgram {
+  public static final int INSTRUCTION_LENGTH = 4;
+
+  public static final int COMPARE = 0;
+  public static final int JUMP_IF_FALSE = 1;
+  public static final int JUMP_IF_TRUE = 2;
+
+  public static final int EQUAL = 0;
+  public static final int NOT_EQUAL = 1;
+  public static final int LESS_THAN = 2;
+  public static final int LESS_OR_EQUAL = 3;
+  public static final int GREATER_THAN = 4;
+  public static final int GREATER_OR_EQUAL = 5;
+
+  private final int[] instructions;
+  private final JsonPathQuery[] paths;
+  private final MsgPackToken[] constants;
+
+  private JsonConditionProgram(
+      int[] instructions, JsonPathQuery[] paths, MsgPackToken[] constants) {
+    this.instructions = instructions;
+    this.paths = paths;
+    this.constants = constants;
+  }
+
+  public static JsonConditionProgram compile(JsonCondition condition) {
+    final Compiler compiler = new Compiler();
+    compiler.compileCondition(condition);
+    return compiler.build();
+  }
+
+  /** @return the number of ints which form the instructions */
+  public int getInstructionsLength() {
+    return instructions.length;
+  }
+
+  public int getInstruction(int index) {
+    return instructions[index];
+  }
+
+  public int getPathCount() {
+    return paths.length;
+  }
+
+  public JsonPathQuery getPath(int pathIndex) {
+    return paths[pathIndex];
+  }
+
+  public static boolean isPath(int operand) {
+    return operand >= 0;
+  }
+
+  public MsgPackToken getConstant(int operand) {
+    return constants[-operand - 1];
+  }
+
+  private static final class Compiler {
+    private final IntArrayList instructions = new IntArrayList();
+    private final List<JsonPath> paths = new ArrayList<>();
+    private final List<MsgPackToken> constants = new ArrayList<>();
+
+    private void compileCondition(JsonCondition condition) {
+      if (condition instanceof Comparison) {
+        compileComparison((Comparison) condition);
+
+      } else if (condition instanceof Disjunction) {
+        final Disjunction disjunction = (Disjunction) condition;
+        compileOperator(disjunction.x(), disjunction.y(), JUMP_IF_TRUE);
+
+      } else if (condition instanceof Conjunction) {
+        final Conjunction conjunction = (Conjunction) condition;
+        compileOperator(conjunction.x(), conjunction.y(), JUMP_IF_FALSE);
+
+      } else {
+        throw new RuntimeException(String.format("Illegal condition: %s", condition));
+      }
+    }
+
+    private void compileOperator(JsonCondition x, JsonCondition y, int shortCircuitJump) {
+      compileCondition(x);
+
+      // skip the second operand if the first one already decides the result
+      final int jump = addInstruction(shortCircuitJump, -1, 0, 0);
+      compileCondition(y);
+
+      instructions.setInt(jump + 1, instructions.size());
+    }
+
+    private void compileComparison(Comparison comparison) {
+      final int x = compileOperand(comparison.x());
+      final int y = compileOperand(comparison.y());
+
+      final int operation;
+      if (comparison instanceof Equal) {
+        operation = EQUAL;
+      } else if (comparison instanceof NotEqual) {
+        operation = NOT_EQUAL;
+      } else if (comparison instanceof LessThan) {
+        operation = LESS_THAN;
+      } else if (comparison instanceof LessOrEqual) {
+        operation = LESS_OR_EQUAL;
+      } else if (comparison instanceof GreaterThan) {
+        operation = GREATER_THAN;
+      } else if (comparison instanceof GreaterOrEqual) {
+        operation = GREATER_OR_EQUAL;
+      } else {
+        throw new RuntimeException(String.format("Illegal comparison: %s", comparison));
+      }
+
+      addInstruction(COMPARE, operation, x, y);
+    }
+
+    private int compileOperand(JsonObject value) {
+      if (value instanceof JsonConstant) {
+        constants.add(((JsonConstant) value).token());
+        return -constants.size();
+
+      } else if (value instanceof JsonPath) {
+        final JsonPath path = (JsonPath) value;
+
+        for (int i = 0; i < paths.size(); i++) {
+          if (paths.get(i).jsonPath().equals(path.jsonPath())) {
+            return i;
+          }
+        }
+
+        paths.add(path);
+        return paths.size() - 1;
+
+      } else {
+        throw new RuntimeException(String.format("Illegal value: %s", value));
+      }
+    }
+
+    private int addInstruction(int operation, int arg1, int arg2, int arg3) {
+      final int index = instructions.size();
+
+      instructions.addInt(operation);
+      instructions.addInt(arg1);
+      instructions.addInt(arg2);
+      instructions.addInt(arg3);
+
+      return index;
+    }
+
+    private JsonConditionProgram build() {
+      final JsonPathQuery[] pathQueries = new JsonPathQuery[paths.size()];
+      for (int i = 0; i < pathQueries.length; i++) {
+        pathQueries[i] = paths.get(i).query();
+      }
+
+      return new JsonConditionProgram(
+          instructions.toIntArray(), pathQueries, constants.toArray(new MsgPackToken[0]));
+    }
+  }
+}
@@ -84,6 +84,11 @@ public class JsonConditionInterpreterTest {
           {"(foo == 1 || foo > 2) && foo > 3", asMsgPack("foo", 1), false},
           {"(foo == 1 || foo > 2) && foo > 3", asMsgPack("foo", 2), false},
           {"(foo == 1 || foo > 2) && foo > 3", asMsgPack("foo", 3), false},
+          {"foo == 1 && bar == 2", asMsgPack(c -> c.put("foo", 1).put("bar", 2)), true},
+          {"foo == 1 && bar == 2", asMsgPack(c -> c.put("foo", 1).put("bar", 3)), false},
+          {"foo == 1 || bar == 2", asMsgPack(c -> c.put("foo", 2).put("bar", 2)), true},
+          {"foo == 1 || bar == 2", asMsgPack("foo", 2), false},
+          {"foo < bar && bar < 3", asMsgPack(c -> c.put("foo", 1).put("bar", 2)), true},
           {"foo < 5", asMsgPack("foo", Double.NaN), false},
           {"foo > 5", asMsgPack("foo", Double.NaN), false},
           {"foo < 5", asMsgPack("foo", Double.POSITIVE_INFINITY), false},
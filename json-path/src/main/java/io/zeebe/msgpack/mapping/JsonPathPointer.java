@@ -15,20 +15,34 @@
  */
 package io.zeebe.msgpack.mapping;
 
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
 import java.util.Arrays;
+import org.agrona.DirectBuffer;
 
 public class JsonPathPointer {
 
   private final String[] pathElements;
+  private final DirectBuffer[] pathElementBuffers;
 
   public JsonPathPointer(String[] pathElements) {
     this.pathElements = pathElements;
+
+    this.pathElementBuffers = new DirectBuffer[pathElements.length];
+    for (int i = 0; i < pathElements.length; i++) {
+      pathElementBuffers[i] = wrapString(pathElements[i]);
+    }
   }
 
   public String[] getPathElements() {
     return pathElements;
   }
 
+  /** @return the path elements as UTF-8 encoded buffers */
+  public DirectBuffer[] getPathElementBuffers() {
+    return pathElementBuffers;
+  }
+
   @Override
   public String toString() {
     return Arrays.toString(pathElements);
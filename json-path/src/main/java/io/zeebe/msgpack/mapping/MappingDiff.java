@@ -15,8 +15,6 @@
  */
 package io.zeebe.msgpack.mapping;
 
-import static io.zeebe.msgpack.mapping.MsgPackTreeNodeIdConstructor.construct;
-
 import io.zeebe.msgpack.spec.MsgPackWriter;
 import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
@@ -91,10 +89,10 @@ public class MappingDiff implements MsgPackDiff {
     mappingResults.putByte(mappingResultOffset, fromSourceDocument ? (byte) 1 : (byte) 0);
   }
 
-  private boolean isIndex(String nodeName) {
-    final int len = nodeName.length();
+  private boolean isIndex(DirectBuffer nodeName) {
+    final int len = nodeName.capacity();
     for (int i = 0; i < len; i++) {
-      final char currentChar = nodeName.charAt(i);
+      final byte currentChar = nodeName.getByte(i);
       if (currentChar < '0' || currentChar > '9') {
         return false;
       }
@@ -109,12 +107,13 @@ public class MappingDiff implements MsgPackDiff {
 
     for (int i = 0; i < mappings.length; i++) {
       final Mapping mapping = mappings[i];
-      final String[] targetPathElements = mapping.getTargetPointer().getPathElements();
+      final DirectBuffer[] targetPathElements =
+          mapping.getTargetPointer().getPathElementBuffers();
 
-      String parentId = "";
+      int parentId = MsgPackTree.NO_NODE;
 
       for (int j = 0; j < targetPathElements.length; j++) {
-        final String nodeName = targetPathElements[j];
+        final DirectBuffer nodeName = targetPathElements[j];
 
         if (j == targetPathElements.length - 1) {
           final int valueOffset = getResultOffset(i);
@@ -138,12 +137,12 @@ public class MappingDiff implements MsgPackDiff {
     }
   }
 
-  private String mergeContainerInto(
-      MsgPackTree document, String parentId, String nodeName, String nextPathElement) {
+  private int mergeContainerInto(
+      MsgPackTree document, int parentId, DirectBuffer nodeName, DirectBuffer nextPathElement) {
 
-    final String nodeId = construct(parentId, nodeName);
+    final int nodeId = document.getChildNode(parentId, nodeName);
 
-    if (document.hasNode(nodeId)) {
+    if (nodeId != MsgPackTree.NO_NODE) {
       if (!isIndex(nextPathElement)) {
         document.convertToMapNode(nodeId);
       }
@@ -160,8 +159,8 @@ public class MappingDiff implements MsgPackDiff {
 
   private void mergeValueInto(
       MsgPackTree document,
-      String parentId,
-      String nodeName,
+      int parentId,
+      DirectBuffer nodeName,
       Mapping.Type mappingType,
       int documentId,
       int valueOffset,
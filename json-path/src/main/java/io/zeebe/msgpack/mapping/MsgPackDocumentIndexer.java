@@ -15,13 +15,15 @@
  */
 package io.zeebe.msgpack.mapping;
 
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
 import io.zeebe.msgpack.query.MsgPackTokenVisitor;
 import io.zeebe.msgpack.query.MsgPackTraverser;
 import io.zeebe.msgpack.spec.MsgPackCodes;
 import io.zeebe.msgpack.spec.MsgPackToken;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 /**
  * Represents an message pack document indexer. During the indexing of an existing message pack
@@ -56,47 +58,33 @@ import org.agrona.DirectBuffer;
  * }
  * </pre>
  *
- * <p>Then this correspond to the following message pack tree structure:
- *
- * <pre>NodeTypes:
- * {@code
- *
- * 1object1 : MAP_NODE
- * 2field1 : LEAF
- * 2array : ARRAY_NODE
- * 1field2: LEAF
- * }
- * </pre>
- *
- * <pre>NodeChildsMap:
- * {@code
- *
- * 1object1: field1, array
- * 2array : 2array1, 2array2, 2array3,
- * }
- * </pre>
- *
- * <pre>LeafMap:
- * {@code
- *
- * 2field1: mapping
- * 2array1: mapping
- * 2array2: mapping
- * 2array3: mapping
- * 1field2: mapping
- * }
- * </pre>
+ * <p>Each node is identified by an int id and references its parent. The leafs reference the
+ * position and length of their value in the indexed document, the keys are copied into the tree.
+ * The indexer and its tree are reused, so indexing a document does not allocate once the tree has
+ * grown to the size of the documents.
  */
 public final class MsgPackDocumentIndexer implements MsgPackTokenVisitor {
+  private static final DirectBuffer ROOT_NAME = wrapString(Mapping.JSON_ROOT_PATH);
+  private static final int INITIAL_DEPTH = 16;
+
   /** The message pack tree which is constructed via the indexing of the message pack document. */
   private final MsgPackTree msgPackTree;
 
-  private final Deque<TokenParseContext> parsingContextStack = new ArrayDeque<>();
-  private final MapEntryParseContext mapEntryContext = new MapEntryParseContext();
-
   /** The traverser which is used to index the message pack document. */
   private final MsgPackTraverser traverser = new MsgPackTraverser();
 
+  /*
+   * the containers which are currently parsed; for each the node id, whether it is a map and the
+   * number of tokens (keys and values) which are not parsed yet
+   */
+  private int[] containerNodes = new int[INITIAL_DEPTH];
+  private boolean[] containerIsMap = new boolean[INITIAL_DEPTH];
+  private int[] remainingTokens = new int[INITIAL_DEPTH];
+  private int depth;
+
+  private final UnsafeBuffer currentKey = new UnsafeBuffer(0, 0);
+  private boolean isMapKeyExpected;
+
   private int documentId;
 
   public MsgPackDocumentIndexer() {
@@ -110,9 +98,10 @@ public final class MsgPackDocumentIndexer implements MsgPackTokenVisitor {
       return msgPackTree;
     }
 
-    parsingContextStack.push(new TokenParseContext(ParsingMode.MAP_ENTRY, "", 1));
-    mapEntryContext.currentKey = "$";
-    mapEntryContext.parsingMode = MapEntryParsingMode.VALUE;
+    // the document is the value of the root node
+    pushContainer(MsgPackTree.NO_NODE, true, 1);
+    currentKey.wrap(ROOT_NAME);
+    isMapKeyExpected = false;
 
     documentId = msgPackTree.addDocument(document);
     traverser.wrap(document, 0, document.capacity());
@@ -127,123 +116,97 @@ public final class MsgPackDocumentIndexer implements MsgPackTokenVisitor {
 
   @Override
   public void visitElement(int position, MsgPackToken currentValue) {
+    final int container = depth - 1;
+    final int parentNodeId = containerNodes[container];
+    final boolean isMapEntry = containerIsMap[container];
 
-    final TokenParseContext tokenContext = parsingContextStack.peek();
-    tokenContext.consumeRepetition();
-
-    if (tokenContext.remainingRepetitions == 0) {
-      parsingContextStack.remove();
+    remainingTokens[container]--;
+    if (remainingTokens[container] == 0) {
+      depth--;
     }
 
-    switch (tokenContext.parsingMode) {
-      case MAP_ENTRY:
-        switch (mapEntryContext.parsingMode) {
-          case KEY:
-            mapEntryContext.currentKey = parseMapKey(currentValue);
-            mapEntryContext.parsingMode = MapEntryParsingMode.VALUE;
-            break;
-          case VALUE:
-            parseValue(tokenContext, mapEntryContext.currentKey, position, currentValue);
-            mapEntryContext.currentKey = "";
-            mapEntryContext.parsingMode = MapEntryParsingMode.KEY;
-            break;
-        }
-        break;
-      case ARRAY_ENTRY:
-        final int index = tokenContext.repetitions - tokenContext.remainingRepetitions - 1;
-        final String key = Integer.toString(index);
-
-        parseValue(tokenContext, key, position, currentValue);
-
-        break;
+    if (isMapEntry) {
+      if (isMapKeyExpected) {
+        final DirectBuffer keyBuffer = currentValue.getValueBuffer();
+        currentKey.wrap(keyBuffer, 0, keyBuffer.capacity());
+        isMapKeyExpected = false;
+      } else {
+        parseValue(parentNodeId, false, position, currentValue);
+        isMapKeyExpected = true;
+      }
+    } else {
+      parseValue(parentNodeId, true, position, currentValue);
     }
   }
 
   private void parseValue(
-      TokenParseContext tokenContext, String key, int valuePosition, MsgPackToken value) {
+      int parentNodeId, boolean isArrayElement, int valuePosition, MsgPackToken value) {
 
     switch (value.getType()) {
       case MAP:
-        parseMapValue(tokenContext, key, value);
+        parseMapValue(parentNodeId, isArrayElement, value);
         break;
       case ARRAY:
-        parseArrayValue(tokenContext, key, value);
+        parseArrayValue(parentNodeId, isArrayElement, value);
         break;
       default:
-        parsePrimitiveValue(tokenContext, key, valuePosition, value);
+        parsePrimitiveValue(parentNodeId, isArrayElement, valuePosition, value);
         break;
     }
   }
 
   private void parsePrimitiveValue(
-      TokenParseContext tokenContext, String key, int valuePosition, MsgPackToken value) {
-    msgPackTree.addValueNode(
-        tokenContext.parentNodeId, key, documentId, valuePosition, value.getTotalLength());
+      int parentNodeId, boolean isArrayElement, int valuePosition, MsgPackToken value) {
+    final int valueLength = value.getTotalLength();
+
+    if (isArrayElement) {
+      msgPackTree.appendValueNode(parentNodeId, documentId, valuePosition, valueLength);
+    } else {
+      msgPackTree.addValueNode(parentNodeId, currentKey, documentId, valuePosition, valueLength);
+    }
   }
 
-  private void parseArrayValue(TokenParseContext tokenContext, String key, MsgPackToken value) {
-    final String arrayNodeId = msgPackTree.addArrayNode(tokenContext.parentNodeId, key);
+  private void parseArrayValue(int parentNodeId, boolean isArrayElement, MsgPackToken value) {
+    final int arrayNodeId =
+        isArrayElement
+            ? msgPackTree.appendArrayNode(parentNodeId)
+            : msgPackTree.addArrayNode(parentNodeId, currentKey);
     final int arrayElements = value.getSize();
 
     if (arrayElements > 0) {
-      parsingContextStack.push(
-          new TokenParseContext(ParsingMode.ARRAY_ENTRY, arrayNodeId, arrayElements));
+      pushContainer(arrayNodeId, false, arrayElements);
     }
   }
 
-  private void parseMapValue(TokenParseContext tokenContext, String key, MsgPackToken value) {
-    final String nodeId = msgPackTree.addMapNode(tokenContext.parentNodeId, key);
+  private void parseMapValue(int parentNodeId, boolean isArrayElement, MsgPackToken value) {
+    final int nodeId =
+        isArrayElement
+            ? msgPackTree.appendMapNode(parentNodeId)
+            : msgPackTree.addMapNode(parentNodeId, currentKey);
     final int mapElements = value.getSize();
 
     if (mapElements > 0) {
-      parsingContextStack.push(
-          new TokenParseContext(ParsingMode.MAP_ENTRY, nodeId, mapElements * 2));
+      pushContainer(nodeId, true, mapElements * 2);
     }
   }
 
-  private String parseMapKey(MsgPackToken currentValue) {
-    final DirectBuffer valueBuffer = currentValue.getValueBuffer();
+  private void pushContainer(int nodeId, boolean isMap, int tokens) {
+    if (depth == containerNodes.length) {
+      final int capacity = depth * 2;
+      containerNodes = Arrays.copyOf(containerNodes, capacity);
+      containerIsMap = Arrays.copyOf(containerIsMap, capacity);
+      remainingTokens = Arrays.copyOf(remainingTokens, capacity);
+    }
 
-    return valueBuffer.getStringWithoutLengthUtf8(0, valueBuffer.capacity());
+    containerNodes[depth] = nodeId;
+    containerIsMap[depth] = isMap;
+    remainingTokens[depth] = tokens;
+    depth++;
   }
 
   /** Clears the preprocessor and resets to the initial state. */
   private void clear() {
-    parsingContextStack.clear();
+    depth = 0;
     msgPackTree.clear();
   }
-
-  enum ParsingMode {
-    MAP_ENTRY,
-    ARRAY_ENTRY
-  }
-
-  enum MapEntryParsingMode {
-    KEY,
-    VALUE
-  }
-
-  static class MapEntryParseContext {
-    private MapEntryParsingMode parsingMode;
-    private String currentKey;
-  }
-
-  static class TokenParseContext {
-    final ParsingMode parsingMode;
-    final String parentNodeId;
-    final int repetitions;
-
-    int remainingRepetitions;
-
-    TokenParseContext(ParsingMode parsingMode, String parentNodeId, int repetitions) {
-      this.parsingMode = parsingMode;
-      this.parentNodeId = parentNodeId;
-      this.repetitions = repetitions;
-      this.remainingRepetitions = repetitions;
-    }
-
-    void consumeRepetition() {
-      remainingRepetitions--;
-    }
-  }
 }
@@ -15,16 +15,13 @@
  */
 package io.zeebe.msgpack.mapping;
 
-import static io.zeebe.msgpack.mapping.MsgPackTreeNodeIdConstructor.construct;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
 
 import io.zeebe.msgpack.spec.MsgPackWriter;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Set;
+import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
-import org.agrona.collections.Object2IntHashMap;
+import org.agrona.ExpandableArrayBuffer;
 
 /**
  * Represents a tree data structure, for a msg pack document.
@@ -36,87 +33,141 @@ import org.agrona.collections.Object2IntHashMap;
  * can be done with the {@link MsgPackDocumentIndexer}. It can also be constructed from only a port
  * of a message pack document. This can be done with the {@link MsgPackDocumentExtractor}.
  *
- * <p>The message pack tree can consist from two different message pack documents. The underlying
- * document, from which the tree is completely build and the extract document, which can be a part
- * of another message pack document. The tree representation of the extract document will be as well
- * added to the current message pack tree object.
+ * <p>The message pack tree can consist from multiple message pack documents. Since the leafs
+ * contain a mapping, which consists of document, position and length, all documents have to be
+ * available for the message pack tree, so the leaf value can be resolved later.
  *
- * <p>Since the leafs contains a mapping, which consist of position and length, it is necessary that
- * both documents are available for the message pack tree, so the leaf value can be resolved later.
- * The leafs have to be distinguished, is it a leaf from the underlying document or is it from the
- * extract document. For this distinction the {@link MsgPackNodeType#EXISTING_LEAF_NODE} and {@link
- * MsgPackNodeType#EXTRACTED_LEAF_NODE} are used.
+ * <p>The nodes are stored in an arena of primitive arrays and are identified by their index. The
+ * children of a node form a linked list, so that they are written in insertion order. Node names
+ * are copied into a shared name buffer and a node is looked up by its parent and name via an open
+ * addressing index. Nodes which are replaced are only marked as detached, the arena is reused when
+ * the tree is cleared. Hence, building and merging trees does not allocate once the arrays have
+ * grown to the size of the documents.
  */
 public class MsgPackTree implements MsgPackDiff {
-  protected final Map<String, MsgPackNodeType> nodeTypeMap; // Bytes2LongHashIndex nodeTypeMap;
-  protected final Map<String, Set<String>> nodeChildsMap;
-  protected final Map<String, Long> leafMap; // Bytes2LongHashIndex leafMap;
-  protected final Object2IntHashMap<String> leafDocumentSources;
+  /** Indicates the absence of a node, e.g. the parent of the root node. */
+  public static final int NO_NODE = -1;
+
+  /** The parent of nodes which were removed from the tree. */
+  private static final int DETACHED = -2;
+
+  /** Marks the previous children of a node, while its children are replaced. */
+  private static final int UNLINKED = -2;
+
+  private static final int INITIAL_NODE_CAPACITY = 32;
+  private static final int INITIAL_INDEX_CAPACITY = 64;
+
+  private static final DirectBuffer ROOT_NAME = wrapString(Mapping.JSON_ROOT_PATH);
+
+  private MsgPackNodeType[] nodeTypes = new MsgPackNodeType[INITIAL_NODE_CAPACITY];
+  private int[] parentNodes = new int[INITIAL_NODE_CAPACITY];
+  private int[] firstChildren = new int[INITIAL_NODE_CAPACITY];
+  private int[] lastChildren = new int[INITIAL_NODE_CAPACITY];
+  private int[] nextSiblings = new int[INITIAL_NODE_CAPACITY];
+  private int[] childCounts = new int[INITIAL_NODE_CAPACITY];
+  private int[] nameOffsets = new int[INITIAL_NODE_CAPACITY];
+  private int[] nameLengths = new int[INITIAL_NODE_CAPACITY];
+  private int[] nameHashes = new int[INITIAL_NODE_CAPACITY];
+  private int[] valueDocuments = new int[INITIAL_NODE_CAPACITY];
+  private int[] valueOffsets = new int[INITIAL_NODE_CAPACITY];
+  private int[] valueLengths = new int[INITIAL_NODE_CAPACITY];
+  private int nodeCount;
+  private int detachedNodeCount;
 
-  private DirectBuffer[] documents = new DirectBuffer[0];
+  /**
+   * The names of all nodes. A name is first written behind the used part of the buffer, and only
+   * kept if a new node is created for it.
+   */
+  private final ExpandableArrayBuffer names = new ExpandableArrayBuffer();
+
+  private int namesLength;
+
+  /** Index from parent node and name to the node. Can contain detached nodes. */
+  private int[] nodeIndex = new int[INITIAL_INDEX_CAPACITY];
+
+  private int nodeIndexEntries;
+
+  /** Holds the previous children of the nodes whose children are currently replaced. */
+  private int[] replacedChildren = new int[INITIAL_NODE_CAPACITY];
+
+  private int replacedChildrenLength;
+
+  private DirectBuffer[] documents = new DirectBuffer[4];
+  private int documentCount;
 
   public MsgPackTree() {
-    nodeTypeMap = new HashMap<>();
-    nodeChildsMap = new HashMap<>();
-    leafMap = new HashMap<>();
-    leafDocumentSources = new Object2IntHashMap<>(-1);
+    Arrays.fill(nodeIndex, NO_NODE);
   }
 
-  public int size() {
-    return nodeTypeMap.size();
+  public void clear() {
+    nodeCount = 0;
+    detachedNodeCount = 0;
+    namesLength = 0;
+
+    Arrays.fill(nodeIndex, NO_NODE);
+    nodeIndexEntries = 0;
+
+    Arrays.fill(documents, 0, documentCount, null);
+    documentCount = 0;
   }
 
-  public void clear() {
-    nodeChildsMap.clear();
-    nodeTypeMap.clear();
-    leafMap.clear();
-    leafDocumentSources.clear();
-    documents = new DirectBuffer[0];
+  public int addDocument(DirectBuffer document) {
+    if (documentCount == documents.length) {
+      documents = Arrays.copyOf(documents, documentCount * 2);
+    }
+
+    documents[documentCount] = document;
+    return documentCount++;
   }
 
-  /** @return the names (not IDs) of the child nodes */
-  public Set<String> getChildren(String nodeId) {
-    return nodeChildsMap.get(nodeId);
+  /** @return the root node ({@code $}) or {@link #NO_NODE} if the tree is empty */
+  public int getRootNode() {
+    return getChildNode(NO_NODE, ROOT_NAME);
   }
 
-  public int addDocument(DirectBuffer document) {
-    documents = Arrays.copyOf(documents, documents.length + 1);
-    documents[documents.length - 1] = document;
-    return documents.length - 1;
+  /** @return the child with the given name or {@link #NO_NODE} if the node has no such child */
+  public int getChildNode(int parentId, DirectBuffer name) {
+    final int nameLength = putName(name, 0, name.capacity());
+    return findNode(parentId, nameLength, hashName(namesLength, nameLength));
   }
 
-  private void addContainerNode(String nodeId, MsgPackNodeType nodeType) {
-    nodeTypeMap.put(nodeId, nodeType);
-    nodeChildsMap.put(nodeId, new LinkedHashSet<>());
+  public int getChildCount(int nodeId) {
+    return childCounts[nodeId];
   }
 
-  private void addChildToNode(String parentId, String childName) {
-    if (!parentId.isEmpty()) {
-      nodeChildsMap.get(parentId).add(childName);
-    }
+  public int getFirstChild(int nodeId) {
+    return firstChildren[nodeId];
   }
 
-  public boolean isValueNode(String nodeId) {
-    return nodeTypeMap.get(nodeId) == MsgPackNodeType.VALUE;
+  /** @return the next child of the node's parent or {@link #NO_NODE} if it is the last one */
+  public int getNextSibling(int nodeId) {
+    return nextSiblings[nodeId];
   }
 
-  public boolean isArrayNode(String nodeId) {
-    return nodeTypeMap.get(nodeId) == MsgPackNodeType.ARRAY;
+  /** Wraps the given buffer around the name of the node, until the tree is modified. */
+  public void wrapNodeName(int nodeId, DirectBuffer buffer) {
+    buffer.wrap(names, nameOffsets[nodeId], nameLengths[nodeId]);
   }
 
-  public boolean isMapNode(String nodeId) {
-    return nodeTypeMap.get(nodeId) == MsgPackNodeType.MAP;
+  public boolean isValueNode(int nodeId) {
+    return nodeTypes[nodeId] == MsgPackNodeType.VALUE;
   }
 
-  public void writeValueNode(MsgPackWriter writer, String nodeId) {
-    final long mapping = leafMap.get(nodeId);
-    final int position = (int) (mapping >> 32);
-    final int length = (int) mapping;
+  public boolean isArrayNode(int nodeId) {
+    return nodeTypes[nodeId] == MsgPackNodeType.ARRAY;
+  }
 
-    final int documentId = leafDocumentSources.getValue(nodeId);
-    final DirectBuffer sourceDocument = documents[documentId];
+  public boolean isMapNode(int nodeId) {
+    return nodeTypes[nodeId] == MsgPackNodeType.MAP;
+  }
 
-    writer.writeRaw(sourceDocument, position, length);
+  public void writeNodeName(MsgPackWriter writer, int nodeId) {
+    writer.writeString(names, nameOffsets[nodeId], nameLengths[nodeId]);
+  }
+
+  public void writeValueNode(MsgPackWriter writer, int nodeId) {
+    final DirectBuffer sourceDocument = documents[valueDocuments[nodeId]];
+    writer.writeRaw(sourceDocument, valueOffsets[nodeId], valueLengths[nodeId]);
   }
 
   /** Always replaces containers (object/array), unless it is the root object */
@@ -128,138 +179,376 @@ public class MsgPackTree implements MsgPackDiff {
      */
 
     final int newDocumentOffset =
-        other.documents.length; // => so we can map other document ids to this document id
+        other.documentCount; // => so we can map other document ids to this document id
+
+    for (int i = 0; i < documentCount; i++) {
+      other.addDocument(documents[i]);
+    }
 
-    for (DirectBuffer ourDocument : documents) {
-      other.addDocument(ourDocument);
+    final int rootNode = getRootNode();
+    if (rootNode != NO_NODE) {
+      final int otherRootNode = other.getOrCreateNode(this, rootNode, NO_NODE);
+      other.mergeNode(this, rootNode, otherRootNode, newDocumentOffset, true);
     }
+  }
 
-    for (Map.Entry<String, MsgPackNodeType> leafMapEntry : nodeTypeMap.entrySet()) {
-      final String key = leafMapEntry.getKey();
-      final MsgPackNodeType nodeType = leafMapEntry.getValue();
+  private int getOrCreateNode(MsgPackTree source, int sourceNode, int parentId) {
+    final int nameLength =
+        putName(source.names, source.nameOffsets[sourceNode], source.nameLengths[sourceNode]);
+    final int nameHash = source.nameHashes[sourceNode];
 
-      // hack: do not convert maps in the current tree to arrays
-      // use case: map keys that are digits
-      if (!(other.nodeTypeMap.get(key) == MsgPackNodeType.MAP
-          && nodeType == MsgPackNodeType.ARRAY)) {
-        other.nodeTypeMap.put(key, nodeType);
+    final int nodeId = findNode(parentId, nameLength, nameHash);
+    if (nodeId == NO_NODE) {
+      return addNode(parentId, nameLength, nameHash);
+    } else {
+      if (nextSiblings[nodeId] == UNLINKED) {
+        linkChild(parentId, nodeId);
       }
+      return nodeId;
+    }
+  }
 
-      other.leafMap.remove(
-          key); // => remove everything that was a leaf previously => is going to be restored by
-      // putting all leafs from the other map
+  private void mergeNode(
+      MsgPackTree source, int sourceNode, int nodeId, int documentOffset, boolean isRoot) {
+    final MsgPackNodeType sourceType = source.nodeTypes[sourceNode];
+    final MsgPackNodeType nodeType = nodeTypes[nodeId];
+
+    if (sourceType == MsgPackNodeType.VALUE) {
+      removeChildren(nodeId);
+      nodeTypes[nodeId] = MsgPackNodeType.VALUE;
+      valueDocuments[nodeId] = source.valueDocuments[sourceNode] + documentOffset;
+      valueOffsets[nodeId] = source.valueOffsets[sourceNode];
+      valueLengths[nodeId] = source.valueLengths[sourceNode];
+      return;
+    }
 
-      final int otherDocumentSource = leafDocumentSources.getValue(key);
-      if (otherDocumentSource >= 0) {
-        other.leafDocumentSources.put(key, otherDocumentSource + newDocumentOffset);
+    // hack: do not convert maps in the current tree to arrays
+    // use case: map keys that are digits
+    if (!(nodeType == MsgPackNodeType.MAP && sourceType == MsgPackNodeType.ARRAY)) {
+      nodeTypes[nodeId] = sourceType;
+    }
+
+    // the children of the root are merged, the children of other containers are replaced
+    // if we always merged the children, we would get a deep merge
+    final int replacedChildrenStart = replacedChildrenLength;
+    if (!isRoot) {
+      unlinkChildren(nodeId);
+    }
+
+    for (int child = source.firstChildren[sourceNode];
+        child != NO_NODE;
+        child = source.nextSiblings[child]) {
+      final int childId = getOrCreateNode(source, child, nodeId);
+      mergeNode(source, child, childId, documentOffset, false);
+    }
+
+    // previous children which were not reused are removed
+    for (int i = replacedChildrenStart; i < replacedChildrenLength; i++) {
+      final int child = replacedChildren[i];
+      if (nextSiblings[child] == UNLINKED) {
+        detach(child);
       }
     }
-    other.leafMap.putAll(leafMap);
-
-    for (Map.Entry<String, Set<String>> nodeChildsEntry : nodeChildsMap.entrySet()) {
-      final String key = nodeChildsEntry.getKey();
-
-      // if we change the following condition to if (nodeChildsMap.containsKey(key))
-      // we get a deep merge
-      if (key.equals(Mapping.JSON_ROOT_PATH)) {
-        other
-            .nodeChildsMap
-            .computeIfAbsent(key, (k) -> new LinkedHashSet<>())
-            .addAll(nodeChildsEntry.getValue());
-      } else {
-        other.nodeChildsMap.put(key, nodeChildsEntry.getValue());
+    replacedChildrenLength = replacedChildrenStart;
+  }
+
+  /**
+   * Removes the children from the child list of the node, but keeps them in the index, so that
+   * they can be linked again.
+   */
+  private void unlinkChildren(int nodeId) {
+    int child = firstChildren[nodeId];
+    while (child != NO_NODE) {
+      final int nextChild = nextSiblings[child];
+
+      if (replacedChildrenLength == replacedChildren.length) {
+        replacedChildren = Arrays.copyOf(replacedChildren, replacedChildrenLength * 2);
       }
+      replacedChildren[replacedChildrenLength++] = child;
+      nextSiblings[child] = UNLINKED;
+
+      child = nextChild;
     }
+
+    firstChildren[nodeId] = NO_NODE;
+    lastChildren[nodeId] = NO_NODE;
+    childCounts[nodeId] = 0;
   }
 
   /** Keeps any children, e.g. when converting MAP to ARRAY */
-  public void convertToArrayNode(String nodeId) {
-    concertToContainer(nodeId, MsgPackNodeType.ARRAY);
+  public void convertToArrayNode(int nodeId) {
+    // value nodes have no children
+    nodeTypes[nodeId] = MsgPackNodeType.ARRAY;
   }
 
   /** Keeps any children, e.g. when converting ARRAY to MAP */
-  public void convertToMapNode(String nodeId) {
-    concertToContainer(nodeId, MsgPackNodeType.MAP);
-  }
-
-  private void concertToContainer(String nodeId, MsgPackNodeType containerType) {
-    final MsgPackNodeType priorType = nodeTypeMap.get(nodeId);
-
-    if (priorType == MsgPackNodeType.VALUE) {
-      leafMap.remove(nodeId);
-      nodeChildsMap.put(nodeId, new LinkedHashSet<>());
-    }
-
-    nodeTypeMap.put(nodeId, containerType);
+  public void convertToMapNode(int nodeId) {
+    nodeTypes[nodeId] = MsgPackNodeType.MAP;
   }
 
   /**
    * Creates or converts the addressed node to an array and appends the value as a new element.
    * Replaces a previously existing non-array node completely.
    */
-  public String appendToArray(
-      String parentId, String arrayNodeName, int documentId, int elementOffset, int elementLength) {
+  public int appendToArray(
+      int parentId,
+      DirectBuffer arrayNodeName,
+      int documentId,
+      int elementOffset,
+      int elementLength) {
 
-    final String arrayNodeId = construct(parentId, arrayNodeName);
+    int arrayNodeId = getChildNode(parentId, arrayNodeName);
 
-    if (hasNode(arrayNodeId)) {
+    if (arrayNodeId != NO_NODE) {
       if (!isArrayNode(arrayNodeId)) {
         clearChildren(arrayNodeId);
         convertToArrayNode(arrayNodeId);
       }
     } else {
-      addArrayNode(parentId, arrayNodeName);
+      arrayNodeId = addArrayNode(parentId, arrayNodeName);
     }
 
-    final int currentArrayElements = nodeChildsMap.get(arrayNodeId).size();
-    final String nodeName = Integer.toString(currentArrayElements);
+    return appendValueNode(arrayNodeId, documentId, elementOffset, elementLength);
+  }
+
+  public int addArrayNode(int parentId, DirectBuffer nodeName) {
+    final int nameLength = putName(nodeName, 0, nodeName.capacity());
+    return putNode(parentId, nameLength, MsgPackNodeType.ARRAY);
+  }
+
+  public int addMapNode(int parentId, DirectBuffer nodeName) {
+    final int nameLength = putName(nodeName, 0, nodeName.capacity());
+    return putNode(parentId, nameLength, MsgPackNodeType.MAP);
+  }
 
-    return addValueNode(arrayNodeId, nodeName, documentId, elementOffset, elementLength);
+  public int addValueNode(
+      int parentId, DirectBuffer nodeName, int documentId, int valueOffset, int valueLength) {
+    final int nameLength = putName(nodeName, 0, nodeName.capacity());
+    final int nodeId = putNode(parentId, nameLength, MsgPackNodeType.VALUE);
+    setValue(nodeId, documentId, valueOffset, valueLength);
+    return nodeId;
   }
 
-  public String addArrayNode(String parentId, String arrayNodeName) {
-    final String nodeId = construct(parentId, arrayNodeName);
+  /** Adds an array node, which is named by the index of the next element of the parent. */
+  public int appendArrayNode(int parentId) {
+    final int nameLength = putIndexName(childCounts[parentId]);
+    return putNode(parentId, nameLength, MsgPackNodeType.ARRAY);
+  }
 
-    addContainerNode(nodeId, MsgPackNodeType.ARRAY);
-    addChildToNode(parentId, arrayNodeName);
+  /** Adds a map node, which is named by the index of the next element of the parent. */
+  public int appendMapNode(int parentId) {
+    final int nameLength = putIndexName(childCounts[parentId]);
+    return putNode(parentId, nameLength, MsgPackNodeType.MAP);
+  }
 
+  /** Adds a value node, which is named by the index of the next element of the parent. */
+  public int appendValueNode(int parentId, int documentId, int valueOffset, int valueLength) {
+    final int nameLength = putIndexName(childCounts[parentId]);
+    final int nodeId = putNode(parentId, nameLength, MsgPackNodeType.VALUE);
+    setValue(nodeId, documentId, valueOffset, valueLength);
     return nodeId;
   }
 
-  public String addValueNode(
-      String parentId, String nodeName, int documentId, int valueOffset, int valueLength) {
-    final String nodeId = construct(parentId, nodeName);
+  private void setValue(int nodeId, int documentId, int valueOffset, int valueLength) {
+    valueDocuments[nodeId] = documentId;
+    valueOffsets[nodeId] = valueOffset;
+    valueLengths[nodeId] = valueLength;
+  }
+
+  public void clearChildren(int nodeId) {
+    if (!isValueNode(nodeId)) {
+      removeChildren(nodeId);
+    }
+  }
 
-    leafMap.put(nodeId, ((long) valueOffset << 32) | valueLength);
-    leafDocumentSources.put(nodeId, documentId);
-    nodeTypeMap.put(nodeId, MsgPackNodeType.VALUE);
+  /**
+   * Creates a node with the name which was put last, or replaces an existing node with that name.
+   */
+  private int putNode(int parentId, int nameLength, MsgPackNodeType nodeType) {
+    final int nameHash = hashName(namesLength, nameLength);
 
-    addChildToNode(parentId, nodeName);
+    int nodeId = findNode(parentId, nameLength, nameHash);
+    if (nodeId == NO_NODE) {
+      nodeId = addNode(parentId, nameLength, nameHash);
+    } else {
+      removeChildren(nodeId);
+    }
 
+    nodeTypes[nodeId] = nodeType;
     return nodeId;
   }
 
-  public String addMapNode(String parentId, String nodeName) {
-    final String nodeId = construct(parentId, nodeName);
+  private int addNode(int parentId, int nameLength, int nameHash) {
+    if (nodeCount == nodeTypes.length) {
+      growNodes(nodeCount * 2);
+    }
+
+    final int nodeId = nodeCount++;
+
+    nodeTypes[nodeId] = null;
+    parentNodes[nodeId] = parentId;
+    firstChildren[nodeId] = NO_NODE;
+    lastChildren[nodeId] = NO_NODE;
+    nextSiblings[nodeId] = NO_NODE;
+    childCounts[nodeId] = 0;
 
-    addContainerNode(nodeId, MsgPackNodeType.MAP);
-    addChildToNode(parentId, nodeName);
+    // keep the name which was put last
+    nameOffsets[nodeId] = namesLength;
+    nameLengths[nodeId] = nameLength;
+    nameHashes[nodeId] = nameHash;
+    namesLength += nameLength;
+
+    if (parentId != NO_NODE) {
+      linkChild(parentId, nodeId);
+    }
+    indexNode(nodeId);
 
     return nodeId;
   }
 
-  private boolean isContainerNode(String nodeId) {
-    final MsgPackNodeType nodeType = nodeTypeMap.get(nodeId);
-    return nodeType == MsgPackNodeType.ARRAY || nodeType == MsgPackNodeType.MAP;
+  private void linkChild(int parentId, int nodeId) {
+    final int lastChild = lastChildren[parentId];
+    if (lastChild == NO_NODE) {
+      firstChildren[parentId] = nodeId;
+    } else {
+      nextSiblings[lastChild] = nodeId;
+    }
+
+    lastChildren[parentId] = nodeId;
+    nextSiblings[nodeId] = NO_NODE;
+    childCounts[parentId]++;
   }
 
-  public boolean hasNode(String id) {
-    return nodeTypeMap.containsKey(id);
+  private void removeChildren(int nodeId) {
+    for (int child = firstChildren[nodeId]; child != NO_NODE; child = nextSiblings[child]) {
+      detach(child);
+    }
+
+    firstChildren[nodeId] = NO_NODE;
+    lastChildren[nodeId] = NO_NODE;
+    childCounts[nodeId] = 0;
   }
 
-  public void clearChildren(String nodeId) {
-    if (isContainerNode(nodeId)) {
-      nodeChildsMap.get(nodeId).clear();
+  /** Removes the node and its descendants from the index. */
+  private void detach(int nodeId) {
+    parentNodes[nodeId] = DETACHED;
+    detachedNodeCount++;
+
+    for (int child = firstChildren[nodeId]; child != NO_NODE; child = nextSiblings[child]) {
+      detach(child);
+    }
+  }
+
+  private void growNodes(int capacity) {
+    nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+    parentNodes = Arrays.copyOf(parentNodes, capacity);
+    firstChildren = Arrays.copyOf(firstChildren, capacity);
+    lastChildren = Arrays.copyOf(lastChildren, capacity);
+    nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+    childCounts = Arrays.copyOf(childCounts, capacity);
+    nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+    nameLengths = Arrays.copyOf(nameLengths, capacity);
+    nameHashes = Arrays.copyOf(nameHashes, capacity);
+    valueDocuments = Arrays.copyOf(valueDocuments, capacity);
+    valueOffsets = Arrays.copyOf(valueOffsets, capacity);
+    valueLengths = Arrays.copyOf(valueLengths, capacity);
+  }
+
+  /** Writes the name behind the used part of the name buffer, without keeping it. */
+  private int putName(DirectBuffer name, int offset, int length) {
+    names.putBytes(namesLength, name, offset, length);
+    return length;
+  }
+
+  private int putIndexName(int index) {
+    return names.putIntAscii(namesLength, index);
+  }
+
+  private int hashName(int offset, int length) {
+    int hash = 0;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + names.getByte(offset + i);
     }
+    return hash;
+  }
+
+  /** Finds the node with the given parent and the name which was put last. */
+  private int findNode(int parentId, int nameLength, int nameHash) {
+    final int mask = nodeIndex.length - 1;
+
+    for (int slot = indexSlot(parentId, nameHash, mask);
+        nodeIndex[slot] != NO_NODE;
+        slot = (slot + 1) & mask) {
+      final int nodeId = nodeIndex[slot];
+
+      if (parentNodes[nodeId] == parentId
+          && nameHashes[nodeId] == nameHash
+          && hasName(nodeId, nameLength)) {
+        return nodeId;
+      }
+    }
+
+    return NO_NODE;
+  }
+
+  private boolean hasName(int nodeId, int nameLength) {
+    if (nameLengths[nodeId] != nameLength) {
+      return false;
+    }
+
+    final int nameOffset = nameOffsets[nodeId];
+    for (int i = 0; i < nameLength; i++) {
+      if (names.getByte(nameOffset + i) != names.getByte(namesLength + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void indexNode(int nodeId) {
+    if ((nodeIndexEntries + 1) * 2 > nodeIndex.length) {
+      // the new node is already attached, so it is indexed with the others
+      rebuildIndex();
+    } else {
+      insertIntoIndex(nodeId);
+    }
+  }
+
+  /** Rebuilds the index without detached nodes, so that it is at most a quarter full. */
+  private void rebuildIndex() {
+    final int attachedNodes = nodeCount - detachedNodeCount;
+    final int capacity =
+        BitUtil.findNextPositivePowerOfTwo(Math.max(INITIAL_INDEX_CAPACITY, attachedNodes * 4));
+
+    if (capacity == nodeIndex.length) {
+      Arrays.fill(nodeIndex, NO_NODE);
+    } else {
+      nodeIndex = new int[capacity];
+      Arrays.fill(nodeIndex, NO_NODE);
+    }
+    nodeIndexEntries = 0;
+
+    for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+      if (parentNodes[nodeId] != DETACHED) {
+        insertIntoIndex(nodeId);
+      }
+    }
+  }
+
+  private void insertIntoIndex(int nodeId) {
+    final int mask = nodeIndex.length - 1;
+
+    int slot = indexSlot(parentNodes[nodeId], nameHashes[nodeId], mask);
+    while (nodeIndex[slot] != NO_NODE) {
+      slot = (slot + 1) & mask;
+    }
+
+    nodeIndex[slot] = nodeId;
+    nodeIndexEntries++;
+  }
+
+  private static int indexSlot(int parentId, int nameHash, int mask) {
+    final int hash = (31 * parentId + nameHash) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
   }
 }
@@ -15,8 +15,8 @@
  */
 package io.zeebe.msgpack.mapping;
 
-import static io.zeebe.msgpack.mapping.MsgPackTreeNodeIdConstructor.JSON_PATH_SEPARATOR;
-import static io.zeebe.msgpack.mapping.MsgPackTreeNodeIdConstructor.JSON_PATH_SEPARATOR_END;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.core.JsonParser;
@@ -27,9 +27,10 @@ import io.zeebe.msgpack.spec.MsgPackWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -99,27 +100,38 @@ public class MappingTestUtil {
   }
 
   public static void assertThatIsArrayNode(
-      MsgPackTree msgPackTree, String nodeId, String... childs) {
+      MsgPackTree msgPackTree, String[] nodePath, String... childs) {
+    final int nodeId = findNode(msgPackTree, nodePath);
     assertThat(msgPackTree.isArrayNode(nodeId)).isTrue();
     assertChildNodes(msgPackTree, nodeId, childs.length, childs);
   }
 
-  public static void assertThatIsMapNode(MsgPackTree msgPackTree, String nodeId, String... childs) {
+  public static void assertThatIsMapNode(
+      MsgPackTree msgPackTree, String[] nodePath, String... childs) {
+    final int nodeId = findNode(msgPackTree, nodePath);
     assertThat(msgPackTree.isMapNode(nodeId)).isTrue();
     assertChildNodes(msgPackTree, nodeId, childs.length, childs);
   }
 
   private static void assertChildNodes(
-      MsgPackTree msgPackTree, String nodeId, int childCount, String[] childs) {
-    final Set<String> arrayValues = msgPackTree.getChildren(nodeId);
-    assertThat(arrayValues.size()).isEqualTo(childCount);
-    for (String child : childs) {
-      assertThat(arrayValues.contains(child)).isTrue();
+      MsgPackTree msgPackTree, int nodeId, int childCount, String[] childs) {
+    final List<String> childNames = new ArrayList<>();
+    final UnsafeBuffer nameBuffer = new UnsafeBuffer(0, 0);
+
+    for (int child = msgPackTree.getFirstChild(nodeId);
+        child != MsgPackTree.NO_NODE;
+        child = msgPackTree.getNextSibling(child)) {
+      msgPackTree.wrapNodeName(child, nameBuffer);
+      childNames.add(bufferAsString(nameBuffer));
     }
+
+    assertThat(msgPackTree.getChildCount(nodeId)).isEqualTo(childCount);
+    assertThat(childNames).containsExactlyInAnyOrder(childs);
   }
 
   public static void assertThatIsLeafNode(
-      MsgPackTree msgPackTree, String leafId, byte[] expectedBytes) {
+      MsgPackTree msgPackTree, String[] leafPath, byte[] expectedBytes) {
+    final int leafId = findNode(msgPackTree, leafPath);
     assertThat(msgPackTree.isValueNode(leafId)).isTrue();
 
     WRITER.wrap(WRITE_BUFFER, 0);
@@ -129,16 +141,17 @@ public class MappingTestUtil {
     assertThat(WRITE_BUFFER.byteArray()).startsWith(expectedBytes);
   }
 
-  public static String constructNodeId(String... nodeNames) {
-    final StringBuilder builder = new StringBuilder();
-    if (nodeNames.length >= 1) {
-      builder.append(nodeNames[0]);
-
-      for (int i = 1; i < nodeNames.length; i++) {
-        builder.append(JSON_PATH_SEPARATOR).append(nodeNames[i]).append(JSON_PATH_SEPARATOR_END);
-      }
+  private static int findNode(MsgPackTree msgPackTree, String[] nodePath) {
+    int nodeId = MsgPackTree.NO_NODE;
+    for (String nodeName : nodePath) {
+      nodeId = msgPackTree.getChildNode(nodeId, wrapString(nodeName));
+      assertThat(nodeId).describedAs("node '%s'", nodeName).isNotEqualTo(MsgPackTree.NO_NODE);
     }
-    return builder.toString();
+    return nodeId;
+  }
+
+  public static String[] path(String... nodeNames) {
+    return nodeNames;
   }
 
   public static MsgPackAssert assertThatMsgPack(DirectBuffer msgPack) {
@@ -35,7 +35,7 @@ import static io.zeebe.msgpack.mapping.MappingTestUtil.NODE_TEST_ATTR_VALUE;
 import static io.zeebe.msgpack.mapping.MappingTestUtil.assertThatIsArrayNode;
 import static io.zeebe.msgpack.mapping.MappingTestUtil.assertThatIsLeafNode;
 import static io.zeebe.msgpack.mapping.MappingTestUtil.assertThatIsMapNode;
-import static io.zeebe.msgpack.mapping.MappingTestUtil.constructNodeId;
+import static io.zeebe.msgpack.mapping.MappingTestUtil.path;
 
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -55,7 +55,7 @@ public class MsgPackDocumentIndexerTest {
     // then tree is expected as
     assertThatIsMapNode(
         documentTree,
-        "$",
+        path("$"),
         NODE_STRING_KEY,
         NODE_BOOLEAN_KEY,
         NODE_INTEGER_KEY,
@@ -63,40 +63,30 @@ public class MsgPackDocumentIndexerTest {
         NODE_DOUBLE_KEY,
         NODE_ARRAY_KEY,
         NODE_JSON_OBJECT_KEY);
-    assertThatIsMapNode(documentTree, constructNodeId("$", "jsonObject"), NODE_TEST_ATTR_KEY);
-    assertThatIsArrayNode(documentTree, constructNodeId("$", "array"), "0", "1", "2", "3");
+    assertThatIsMapNode(documentTree, path("$", "jsonObject"), NODE_TEST_ATTR_KEY);
+    assertThatIsArrayNode(documentTree, path("$", "array"), "0", "1", "2", "3");
 
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "string"),
-        MSGPACK_MAPPER.writeValueAsBytes(NODE_STRING_VALUE));
+        documentTree, path("$", "string"), MSGPACK_MAPPER.writeValueAsBytes(NODE_STRING_VALUE));
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "boolean"),
-        MSGPACK_MAPPER.writeValueAsBytes(NODE_BOOLEAN_VALUE));
+        documentTree, path("$", "boolean"), MSGPACK_MAPPER.writeValueAsBytes(NODE_BOOLEAN_VALUE));
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "integer"),
-        MSGPACK_MAPPER.writeValueAsBytes(NODE_INTEGER_VALUE));
+        documentTree, path("$", "integer"), MSGPACK_MAPPER.writeValueAsBytes(NODE_INTEGER_VALUE));
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "long"),
-        MSGPACK_MAPPER.writeValueAsBytes(NODE_LONG_VALUE));
+        documentTree, path("$", "long"), MSGPACK_MAPPER.writeValueAsBytes(NODE_LONG_VALUE));
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "double"),
-        MSGPACK_MAPPER.writeValueAsBytes(NODE_DOUBLE_VALUE));
+        documentTree, path("$", "double"), MSGPACK_MAPPER.writeValueAsBytes(NODE_DOUBLE_VALUE));
     assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "array", "0"), MSGPACK_MAPPER.writeValueAsBytes(0));
+        documentTree, path("$", "array", "0"), MSGPACK_MAPPER.writeValueAsBytes(0));
     assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "array", "1"), MSGPACK_MAPPER.writeValueAsBytes(1));
+        documentTree, path("$", "array", "1"), MSGPACK_MAPPER.writeValueAsBytes(1));
     assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "array", "2"), MSGPACK_MAPPER.writeValueAsBytes(2));
+        documentTree, path("$", "array", "2"), MSGPACK_MAPPER.writeValueAsBytes(2));
     assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "array", "3"), MSGPACK_MAPPER.writeValueAsBytes(3));
+        documentTree, path("$", "array", "3"), MSGPACK_MAPPER.writeValueAsBytes(3));
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "jsonObject", "testAttr"),
+        path("$", "jsonObject", "testAttr"),
         MSGPACK_MAPPER.writeValueAsBytes(NODE_TEST_ATTR_VALUE));
   }
 
@@ -114,47 +104,36 @@ public class MsgPackDocumentIndexerTest {
     final MsgPackTree documentTree = indexer.index(document);
 
     // then tree is expected as
-    assertThatIsMapNode(documentTree, "$", "first");
+    assertThatIsMapNode(documentTree, path("$"), "first");
     assertThatIsMapNode(
-        documentTree,
-        constructNodeId("$", "first"),
-        "range",
-        "friends",
-        "greeting",
-        "favoriteFruit");
+        documentTree, path("$", "first"), "range", "friends", "greeting", "favoriteFruit");
 
-    assertThatIsArrayNode(documentTree, constructNodeId("$", "first", "range"), "0", "1");
+    assertThatIsArrayNode(documentTree, path("$", "first", "range"), "0", "1");
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "first", "range", "0"),
-        MSGPACK_MAPPER.writeValueAsBytes(0));
+        documentTree, path("$", "first", "range", "0"), MSGPACK_MAPPER.writeValueAsBytes(0));
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "first", "range", "1"),
-        MSGPACK_MAPPER.writeValueAsBytes(2));
+        documentTree, path("$", "first", "range", "1"), MSGPACK_MAPPER.writeValueAsBytes(2));
 
-    assertThatIsArrayNode(documentTree, constructNodeId("$", "first", "friends"), "0", "1");
+    assertThatIsArrayNode(documentTree, path("$", "first", "friends"), "0", "1");
     assertThatIsLeafNode(
-        documentTree,
-        constructNodeId("$", "first", "friends", "0"),
-        MSGPACK_MAPPER.writeValueAsBytes(-1));
-    assertThatIsMapNode(documentTree, constructNodeId("$", "first", "friends", "1"), "id", "name");
+        documentTree, path("$", "first", "friends", "0"), MSGPACK_MAPPER.writeValueAsBytes(-1));
+    assertThatIsMapNode(documentTree, path("$", "first", "friends", "1"), "id", "name");
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "first", "friends", "1", "id"),
+        path("$", "first", "friends", "1", "id"),
         MSGPACK_MAPPER.writeValueAsBytes(0));
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "first", "friends", "1", "name"),
+        path("$", "first", "friends", "1", "name"),
         MSGPACK_MAPPER.writeValueAsBytes("Rodriguez Richards"));
 
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "first", "greeting"),
+        path("$", "first", "greeting"),
         MSGPACK_MAPPER.writeValueAsBytes("Hello, Bauer! You have 7 unread messages."));
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "first", "favoriteFruit"),
+        path("$", "first", "favoriteFruit"),
         MSGPACK_MAPPER.writeValueAsBytes("apple"));
   }
 
@@ -171,27 +150,27 @@ public class MsgPackDocumentIndexerTest {
     final MsgPackTree documentTree = indexer.index(document);
 
     // then tree is expected as
-    assertThatIsMapNode(documentTree, "$", "friends");
-    assertThatIsArrayNode(documentTree, constructNodeId("$", "friends"), "0", "1");
+    assertThatIsMapNode(documentTree, path("$"), "friends");
+    assertThatIsArrayNode(documentTree, path("$", "friends"), "0", "1");
 
-    assertThatIsMapNode(documentTree, constructNodeId("$", "friends", "0"), "id", "name");
+    assertThatIsMapNode(documentTree, path("$", "friends", "0"), "id", "name");
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "friends", "0", "id"),
+        path("$", "friends", "0", "id"),
         MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("0")));
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "friends", "0", "name"),
+        path("$", "friends", "0", "name"),
         MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("'Rodriguez Richards'")));
 
-    assertThatIsMapNode(documentTree, constructNodeId("$", "friends", "1"), "id", "name");
+    assertThatIsMapNode(documentTree, path("$", "friends", "1"), "id", "name");
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "friends", "1", "id"),
+        path("$", "friends", "1", "id"),
         MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("0")));
     assertThatIsLeafNode(
         documentTree,
-        constructNodeId("$", "friends", "1", "name"),
+        path("$", "friends", "1", "name"),
         MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("'Rodriguez Richards'")));
   }
 
@@ -207,14 +186,31 @@ public class MsgPackDocumentIndexerTest {
     final MsgPackTree documentTree = indexer.index(document);
 
     // then tree is expected as
-    assertThatIsMapNode(documentTree, "$", "a", "a0");
+    assertThatIsMapNode(documentTree, path("$"), "a", "a0");
 
-    assertThatIsArrayNode(documentTree, constructNodeId("$", "a"), "0");
+    assertThatIsArrayNode(documentTree, path("$", "a"), "0");
     assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "a", "0"), MSGPACK_MAPPER.writeValueAsBytes("foo"));
+        documentTree, path("$", "a", "0"), MSGPACK_MAPPER.writeValueAsBytes("foo"));
 
-    assertThatIsMapNode(documentTree, constructNodeId("$", "a0"), "b");
-    assertThatIsLeafNode(
-        documentTree, constructNodeId("$", "a0", "b"), MSGPACK_MAPPER.writeValueAsBytes("c"));
+    assertThatIsMapNode(documentTree, path("$", "a0"), "b");
+    assertThatIsLeafNode(documentTree, path("$", "a0", "b"), MSGPACK_MAPPER.writeValueAsBytes("c"));
+  }
+
+  @Test
+  public void shouldIndexNextDocumentWithReusedTree() throws Exception {
+    // given
+    final DirectBuffer firstDocument =
+        new UnsafeBuffer(MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("{'a':[1, 2]}")));
+    final DirectBuffer secondDocument =
+        new UnsafeBuffer(MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree("{'b':{'a':3}}")));
+    indexer.index(firstDocument);
+
+    // when
+    final MsgPackTree documentTree = indexer.index(secondDocument);
+
+    // then
+    assertThatIsMapNode(documentTree, path("$"), "b");
+    assertThatIsMapNode(documentTree, path("$", "b"), "a");
+    assertThatIsLeafNode(documentTree, path("$", "b", "a"), MSGPACK_MAPPER.writeValueAsBytes(3));
   }
 }
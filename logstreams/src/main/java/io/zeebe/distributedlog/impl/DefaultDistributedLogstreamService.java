@@ -34,6 +34,7 @@ import io.zeebe.distributedlog.restore.RestoreNodeProvider;
 import io.zeebe.distributedlog.restore.impl.RestoreController;
 import io.zeebe.distributedlog.restore.log.LogReplicationAppender;
 import io.zeebe.distributedlog.restore.log.LogReplicator;
+import io.zeebe.distributedlog.restore.log.LogReplicatorMetrics;
 import io.zeebe.distributedlog.restore.snapshot.RestoreSnapshotReplicator;
 import io.zeebe.distributedlog.restore.snapshot.SnapshotRestoreContext;
 import io.zeebe.logstreams.LogStreams;
@@ -61,6 +62,10 @@ public class DefaultDistributedLogstreamService
   private static final Logger LOG =
       LoggerFactory.getLogger(DefaultDistributedLogstreamService.class);
 
+  // the next range is requested while the previous one is appended; each response can be as large
+  // as the read buffer of the restore server, so the window is kept small
+  private static final int LOG_REPLICATION_WINDOW_SIZE = 2;
+
   private LogStream logStream;
   private LogStorage logStorage;
   private String logName;
@@ -206,19 +211,20 @@ public class DefaultDistributedLogstreamService
     }
 
     final ByteBuffer buffer = ByteBuffer.wrap(blockBuffer);
-    final long appendResult = appendBlock(buffer);
+    final long appendResult = appendBlock(buffer, commitPosition);
     updateCommitPosition(commitPosition);
     return appendResult;
   }
 
-  private long appendBlock(ByteBuffer buffer) {
+  private long appendBlock(ByteBuffer buffer, long commitPosition) {
     long appendResult = -1;
     boolean notAppended = true;
     try {
 
       do {
         try {
-          appendResult = logStorage.append(buffer);
+          // the commit position is the position of the last event, which indexes the block
+          appendResult = logStorage.append(buffer, commitPosition);
           notAppended = false;
         } catch (IOException ioe) {
           // we want to retry the append
@@ -314,7 +320,14 @@ public class DefaultDistributedLogstreamService
     final RestoreClient restoreClient = restoreFactory.createClient(partitionId);
     final RestoreNodeProvider nodeProvider = restoreFactory.createNodeProvider(partitionId);
     final LogReplicator logReplicator =
-        new LogReplicator(this, restoreClient, restoreThreadContext);
+        new LogReplicator(
+            this,
+            restoreClient,
+            restoreThreadContext,
+            nodeProvider,
+            LOG_REPLICATION_WINDOW_SIZE,
+            new LogReplicatorMetrics(partitionId),
+            logger);
 
     final SnapshotRestoreContext snapshotRestoreContext =
         restoreFactory.createSnapshotRestoreContext(partitionId, logger);
@@ -17,16 +17,37 @@ package io.zeebe.distributedlog.restore.log;
 
 import io.atomix.cluster.MemberId;
 import io.zeebe.distributedlog.restore.RestoreClient;
+import io.zeebe.distributedlog.restore.RestoreNodeProvider;
 import io.zeebe.distributedlog.restore.log.impl.DefaultLogReplicationRequest;
 import io.zeebe.util.ZbLogger;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 
+/**
+ * Replicates a range of events from a restore server and appends them in order.
+ *
+ * <p>The start of the next request is only known from the previous response, so there is at most
+ * one request in flight. With a window size greater than one, the next request is sent before the
+ * events of the previous responses are appended, which overlaps the network round trip with the
+ * append. The window limits the number of responses which are requested but not appended yet, and
+ * thereby the memory which is used for the received events.
+ */
 public class LogReplicator {
+  /** The default window replicates sequentially: request, append, request the next range. */
+  public static final int DEFAULT_WINDOW_SIZE = 1;
+
+  private static final int MAX_REQUEST_RETRIES = 3;
+  private static final long NO_NEXT_REQUEST = Long.MIN_VALUE;
+
   private final LogReplicationAppender appender;
   private final RestoreClient client;
   private final Executor executor;
+  private final RestoreNodeProvider nodeProvider;
+  private final int windowSize;
+  private final LogReplicatorMetrics metrics;
   private final Logger logger;
 
   public LogReplicator(LogReplicationAppender appender, RestoreClient client, Executor executor) {
@@ -35,9 +56,33 @@ public class LogReplicator {
 
   public LogReplicator(
       LogReplicationAppender appender, RestoreClient client, Executor executor, Logger logger) {
+    this(appender, client, executor, null, DEFAULT_WINDOW_SIZE, LogReplicatorMetrics.NOOP, logger);
+  }
+
+  /**
+   * @param nodeProvider if not null, a failed request is retried on the node which is provided
+   *     next, otherwise the replication fails
+   * @param windowSize the maximum number of responses which are requested but not appended yet
+   */
+  public LogReplicator(
+      LogReplicationAppender appender,
+      RestoreClient client,
+      Executor executor,
+      RestoreNodeProvider nodeProvider,
+      int windowSize,
+      LogReplicatorMetrics metrics,
+      Logger logger) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException(
+          String.format("Expected window size to be at least 1, but was %d", windowSize));
+    }
+
     this.appender = appender;
     this.client = client;
     this.executor = executor;
+    this.nodeProvider = nodeProvider;
+    this.windowSize = windowSize;
+    this.metrics = metrics;
     this.logger = logger;
   }
 
@@ -48,68 +93,155 @@ public class LogReplicator {
   public CompletableFuture<Long> replicate(
       MemberId server, long from, long to, boolean includeFromPosition) {
     final CompletableFuture<Long> result = new CompletableFuture<>();
-    replicateInternal(server, from, to, includeFromPosition, result);
+    final Replication replication = new Replication(server, from, to, result);
+
+    replication.request(new DefaultLogReplicationRequest(from, to, includeFromPosition));
     return result;
   }
 
-  private void replicateInternal(
-      MemberId server,
-      long from,
-      long to,
-      boolean includeFromPosition,
-      CompletableFuture<Long> result) {
-    final LogReplicationRequest request =
-        new DefaultLogReplicationRequest(from, to, includeFromPosition);
-    client
-        .requestLogReplication(server, request)
-        .whenCompleteAsync(
-            (r, e) -> {
-              if (e != null) {
-                logger.debug("Error replicating {} from {}", request, server, e);
-                result.completeExceptionally(e);
-              } else {
-                if (!r.isValid()) {
-                  logger.debug(
-                      "Received invalid response {} when requesting {} from {}",
-                      r,
-                      request,
-                      server);
-                  result.completeExceptionally(
-                      new InvalidLogReplicationResponse(server, request, r));
-                  return;
-                }
+  /** The state of one replicated range, which is only accessed by the executor. */
+  private final class Replication {
+    private final long from;
+    private final long to;
+    private final CompletableFuture<Long> result;
+    private final Queue<LogReplicationResponse> pendingResponses = new ArrayDeque<>();
+
+    private MemberId server;
+    private int retries;
+    private boolean isRequestInFlight;
+    private long nextFromPosition = NO_NEXT_REQUEST;
 
-                if (appendEvents(server, from, to, result, r)) {
-                  if (r.getToPosition() < to && r.hasMoreAvailable()) {
-                    replicateInternal(server, r.getToPosition(), to, false, result);
-                  } else {
-                    result.complete(r.getToPosition());
-                  }
+    Replication(MemberId server, long from, long to, CompletableFuture<Long> result) {
+      this.server = server;
+      this.from = from;
+      this.to = to;
+      this.result = result;
+    }
+
+    private void request(LogReplicationRequest request) {
+      final MemberId requestedServer = server;
+      final long requestTime = System.currentTimeMillis();
+
+      isRequestInFlight = true;
+      client
+          .requestLogReplication(requestedServer, request)
+          .whenCompleteAsync(
+              (r, e) -> {
+                isRequestInFlight = false;
+                metrics.requestCompleted(System.currentTimeMillis() - requestTime);
+
+                if (!result.isDone()) {
+                  onResponse(requestedServer, request, r, e);
                 }
-              }
-            },
-            executor);
-  }
+              },
+              executor);
+      updatePendingResponses();
+    }
 
-  private boolean appendEvents(
-      MemberId server,
-      long from,
-      long to,
-      CompletableFuture<Long> result,
-      LogReplicationResponse response) {
-    try {
-      final long appendResult =
-          appender.append(response.getToPosition(), response.getSerializedEvents());
-      if (appendResult <= 0) {
-        logger.debug("Failed to append events from {} - {} with result {}", from, to, appendResult);
-        result.completeExceptionally(new FailedAppendException(server, from, to, appendResult));
+    private void onResponse(
+        MemberId requestedServer,
+        LogReplicationRequest request,
+        LogReplicationResponse r,
+        Throwable e) {
+      if (e != null) {
+        logger.debug("Error replicating {} from {}", request, requestedServer, e);
+        retryOrFail(request, e);
+        return;
+      } else if (!r.isValid()) {
+        logger.debug(
+            "Received invalid response {} when requesting {} from {}",
+            r,
+            request,
+            requestedServer);
+        retryOrFail(request, new InvalidLogReplicationResponse(requestedServer, request, r));
+        return;
       }
-    } catch (RuntimeException error) {
-      logger.debug("Error when appending events from {} - {}", from, to, error);
-      result.completeExceptionally(error);
-      return false;
+
+      retries = 0;
+      pendingResponses.add(r);
+
+      if (r.getToPosition() < to && r.hasMoreAvailable()) {
+        nextFromPosition = r.getToPosition();
+      } else {
+        nextFromPosition = NO_NEXT_REQUEST;
+      }
+
+      // request the next range before appending, if the window allows it
+      requestNextIfPossible();
+      executor.execute(this::appendNext);
     }
 
-    return true;
+    private void retryOrFail(LogReplicationRequest request, Throwable error) {
+      final MemberId nextServer =
+          nodeProvider != null && retries < MAX_REQUEST_RETRIES
+              ? nodeProvider.provideRestoreNode()
+              : null;
+
+      if (nextServer != null) {
+        logger.debug("Retry log replication request {} on {}", request, nextServer);
+        retries += 1;
+        server = nextServer;
+        request(request);
+      } else {
+        result.completeExceptionally(error);
+      }
+    }
+
+    private void requestNextIfPossible() {
+      final int outstanding = pendingResponses.size() + 1;
+
+      if (!isRequestInFlight && nextFromPosition != NO_NEXT_REQUEST && outstanding <= windowSize) {
+        final long fromPosition = nextFromPosition;
+        nextFromPosition = NO_NEXT_REQUEST;
+
+        request(new DefaultLogReplicationRequest(fromPosition, to, false));
+      }
+    }
+
+    private void appendNext() {
+      final LogReplicationResponse response = pendingResponses.poll();
+      if (result.isDone() || response == null) {
+        return;
+      }
+
+      if (!appendEvents(response)) {
+        return;
+      }
+
+      requestNextIfPossible();
+      updatePendingResponses();
+
+      if (pendingResponses.isEmpty()
+          && !isRequestInFlight
+          && nextFromPosition == NO_NEXT_REQUEST) {
+        result.complete(response.getToPosition());
+      }
+    }
+
+    private boolean appendEvents(LogReplicationResponse response) {
+      final long toPosition = response.getToPosition();
+      final byte[] serializedEvents = response.getSerializedEvents();
+
+      try {
+        final long appendResult = appender.append(toPosition, serializedEvents);
+        if (appendResult <= 0) {
+          logger.debug(
+              "Failed to append events from {} - {} with result {}", from, to, appendResult);
+          result.completeExceptionally(new FailedAppendException(server, from, to, appendResult));
+          return false;
+        }
+      } catch (RuntimeException error) {
+        logger.debug("Error when appending events from {} - {}", from, to, error);
+        result.completeExceptionally(error);
+        return false;
+      }
+
+      metrics.eventsAppended(toPosition, serializedEvents.length);
+      return true;
+    }
+
+    private void updatePendingResponses() {
+      metrics.setPendingResponses(pendingResponses.size() + (isRequestInFlight ? 1 : 0));
+    }
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.distributedlog.restore.log;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+public class LogReplicatorMetrics {
+
+  /** Metrics which are not recorded, e.g. if the partition is not known. */
+  public static final LogReplicatorMetrics NOOP = new LogReplicatorMetrics(null);
+
+  private static final Gauge REPLICATED_POSITION =
+      Gauge.build()
+          .namespace("zeebe")
+          .name("restore_log_replicated_position")
+          .help("Position of the last event which was replicated and appended during restore")
+          .labelNames("partition")
+          .register();
+
+  private static final Counter REPLICATED_BYTES =
+      Counter.build()
+          .namespace("zeebe")
+          .name("restore_log_replicated_bytes_total")
+          .help("Number of bytes of events which were replicated and appended during restore")
+          .labelNames("partition")
+          .register();
+
+  private static final Gauge PENDING_RESPONSES =
+      Gauge.build()
+          .namespace("zeebe")
+          .name("restore_log_pending_responses")
+          .help("Number of log replication responses which are requested but not appended yet")
+          .labelNames("partition")
+          .register();
+
+  private static final Histogram REQUEST_LATENCY =
+      Histogram.build()
+          .namespace("zeebe")
+          .name("restore_log_request_latency_seconds")
+          .help("Latency of a log replication request during restore in seconds")
+          .labelNames("partition")
+          .register();
+
+  private final String partitionIdLabel;
+
+  public LogReplicatorMetrics(int partitionId) {
+    this(String.valueOf(partitionId));
+  }
+
+  private LogReplicatorMetrics(String partitionIdLabel) {
+    this.partitionIdLabel = partitionIdLabel;
+  }
+
+  public void setPendingResponses(int pendingResponses) {
+    if (partitionIdLabel != null) {
+      PENDING_RESPONSES.labels(partitionIdLabel).set(pendingResponses);
+    }
+  }
+
+  public void requestCompleted(long latencyMs) {
+    if (partitionIdLabel != null) {
+      REQUEST_LATENCY.labels(partitionIdLabel).observe(latencyMs / 1000f);
+    }
+  }
+
+  public void eventsAppended(long position, int bytes) {
+    if (partitionIdLabel != null) {
+      REPLICATED_POSITION.labels(partitionIdLabel).set(position);
+      REPLICATED_BYTES.labels(partitionIdLabel).inc(bytes);
+    }
+  }
+}
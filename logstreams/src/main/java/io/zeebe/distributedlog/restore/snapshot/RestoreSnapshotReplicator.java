@@ -26,6 +26,8 @@ import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 
 public class RestoreSnapshotReplicator {
+  // a failed chunk request is retried, so that the restore resumes from the last consumed chunk
+  private static final int MAX_CHUNK_REQUEST_RETRIES = 3;
 
   private final RestoreClient client;
   private final SnapshotRestoreContext restoreContext;
@@ -68,21 +70,33 @@ public class RestoreSnapshotReplicator {
     if (restoreContext.getStateStorage().existSnapshot(snapshotId)) {
       result.complete(restoreContext.getSnapshotPositionSupplier().get());
     } else {
-      restoreInternal(server, snapshotId, 0, result);
+      restoreInternal(server, snapshotId, 0, 0, result);
     }
 
     return result;
   }
 
   private void restoreInternal(
-      MemberId server, long snapshotId, int chunkIdx, CompletableFuture<Tuple<Long, Long>> future) {
+      MemberId server,
+      long snapshotId,
+      int chunkIdx,
+      int retries,
+      CompletableFuture<Tuple<Long, Long>> future) {
     final DefaultSnapshotRestoreRequest request =
         new DefaultSnapshotRestoreRequest(snapshotId, chunkIdx);
     client
         .requestSnapshotChunk(server, request)
         .whenCompleteAsync(
             (r, e) -> {
-              if (e != null) {
+              if ((e != null || !r.isSuccess()) && retries < MAX_CHUNK_REQUEST_RETRIES) {
+                logger.debug(
+                    "Failed to request snapshot chunk {} of {}, retry request.",
+                    chunkIdx,
+                    snapshotId,
+                    e);
+                restoreInternal(server, snapshotId, chunkIdx, retries + 1, future);
+                return;
+              } else if (e != null) {
                 failReplication(snapshotId, future, e);
                 return;
               } else if (!r.isSuccess()) {
@@ -106,7 +120,7 @@ public class RestoreSnapshotReplicator {
               }
 
               if (chunkIdx + 1 < numChunks) {
-                restoreInternal(server, snapshotId, chunkIdx + 1, future);
+                restoreInternal(server, snapshotId, chunkIdx + 1, 0, future);
                 return;
               }
 
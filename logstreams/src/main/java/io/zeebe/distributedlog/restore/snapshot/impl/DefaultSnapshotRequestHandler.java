@@ -45,21 +45,23 @@ public class DefaultSnapshotRequestHandler implements SnapshotRequestHandler {
       if (files != null && files.length > 0) {
         Arrays.sort(files);
 
-        if (request.getChunkIdx() < files.length) {
-          final File chunkFile = files[request.getChunkIdx()];
-          try {
-            final SnapshotChunk snapshotChunk =
-                SnapshotChunkUtil.createSnapshotChunkFromFile(
-                    chunkFile, request.getSnapshotId(), files.length);
+        try {
+          final SnapshotChunk snapshotChunk =
+              SnapshotChunkUtil.createSnapshotChunk(
+                  files,
+                  request.getSnapshotId(),
+                  request.getChunkIdx(),
+                  SnapshotChunkUtil.MAX_CHUNK_SIZE);
+          if (snapshotChunk != null) {
             response = new SuccessSnapshotRestoreResponse(snapshotChunk);
-          } catch (IOException e) {
-            logger.warn(
-                "Unexpected error when reading snapshot chunk file {} ({}) at index {}.",
-                chunkFile.toString(),
-                request.getSnapshotId(),
-                request.getChunkIdx(),
-                e);
           }
+        } catch (IOException e) {
+          logger.warn(
+              "Unexpected error when reading snapshot chunk of {} ({}) at index {}.",
+              snapshotDirectory,
+              request.getSnapshotId(),
+              request.getChunkIdx(),
+              e);
         }
       } else {
         logger.debug(
@@ -18,41 +18,67 @@ package io.zeebe.logstreams.impl;
 import io.zeebe.dispatcher.BlockPeek;
 import io.zeebe.dispatcher.Subscription;
 import io.zeebe.distributedlog.impl.DistributedLogstreamPartition;
+import io.zeebe.logstreams.spi.AppendFailureListener;
 import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.channel.ChannelSubscription;
+import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
-import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.agrona.DirectBuffer;
-import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 
-/** Consume the write buffer and append the blocks to the distributedlog. */
+/**
+ * Consume the write buffer and append the blocks to the distributedlog.
+ *
+ * <p>Appends are pipelined: up to {@code maxAppendsInFlight} blocks can be sent to the
+ * distributedlog before the first one is acknowledged. Each block coalesces the consecutive
+ * fragments of the write buffer up to {@code maxAppendBlockSize} bytes. Acknowledgements are
+ * processed in the order in which the blocks were sent.
+ *
+ * <p>If an append fails and cannot be retried, the appender stops appending and notifies the
+ * {@link AppendFailureListener}.
+ */
 public class LogStorageAppender extends Actor {
   public static final Logger LOG = Loggers.LOGSTREAMS_LOGGER;
 
+  private static final int MAX_APPEND_RETRIES = 3;
+
   private final AtomicBoolean isFailed = new AtomicBoolean(false);
 
   private final BlockPeek blockPeek = new BlockPeek();
-  private byte[] bytesToAppend;
-  private long commitPosition;
+  private final LoggedEventImpl lastEvent = new LoggedEventImpl();
 
   private final String name;
   private final Subscription writeBufferSubscription;
 
-  private final Runnable peekedBlockHandler = this::appendBlock;
   private final int maxAppendBlockSize;
+  private final int maxAppendsInFlight;
+  private final Deque<PendingAppend> appendsInFlight;
+  private ChannelSubscription writeBufferConsumer;
+  private long lastAcknowledgedPosition = -1;
 
   private final DistributedLogstreamPartition distributedLog;
+  private final AppendFailureListener appendFailureListener;
+  private final LogStorageAppenderMetrics metrics;
 
   public LogStorageAppender(
       String name,
+      int partitionId,
       DistributedLogstreamPartition distributedLog,
       Subscription writeBufferSubscription,
-      int maxBlockSize) {
+      int maxBlockSize,
+      int maxAppendsInFlight,
+      AppendFailureListener appendFailureListener) {
     this.name = name;
     this.distributedLog = distributedLog;
     this.writeBufferSubscription = writeBufferSubscription;
     this.maxAppendBlockSize = maxBlockSize;
+    this.maxAppendsInFlight = maxAppendsInFlight;
+    this.appendsInFlight = new ArrayDeque<>(maxAppendsInFlight);
+    this.appendFailureListener = appendFailureListener;
+    this.metrics = new LogStorageAppenderMetrics(partitionId);
   }
 
   @Override
@@ -62,60 +88,142 @@ public class LogStorageAppender extends Actor {
 
   @Override
   protected void onActorStarting() {
+    resumeConsuming();
+  }
 
-    actor.consume(writeBufferSubscription, this::peekBlock);
+  private void resumeConsuming() {
+    if (writeBufferConsumer == null) {
+      writeBufferConsumer = actor.consume(writeBufferSubscription, this::peekBlock);
+    }
+  }
+
+  private void pauseConsuming() {
+    // the consumer is triggered as long as the write buffer has data available, so it is removed
+    // while no block can be appended and registered again when an append is acknowledged
+    if (writeBufferConsumer != null) {
+      writeBufferConsumer.cancel();
+      writeBufferConsumer = null;
+    }
   }
 
   private void peekBlock() {
-    if (writeBufferSubscription.peekBlock(blockPeek, maxAppendBlockSize, true) > 0) {
-      peekedBlockHandler.run();
+    if (isFailed.get() || appendsInFlight.size() >= maxAppendsInFlight) {
+      pauseConsuming();
+    } else if (writeBufferSubscription.peekBlock(blockPeek, maxAppendBlockSize, true) > 0) {
+      appendBlock();
     } else {
       actor.yield();
     }
   }
 
   private void appendBlock() {
-    final ByteBuffer rawBuffer = blockPeek.getRawBuffer();
-
-    bytesToAppend = new byte[rawBuffer.remaining()];
-    rawBuffer.get(bytesToAppend);
+    final DirectBuffer block = blockPeek.getBuffer();
+    final int blockLength = blockPeek.getBlockLength();
 
     // Commit position is the position of the last event. DistributedLogstream uses this position
-    // to identify duplicate append requests during recovery.
-    commitPosition = getLastEventPosition(bytesToAppend);
-    actor.runUntilDone(this::tryWrite);
-  }
+    // to identify duplicate append requests during recovery. It is read directly from the peeked
+    // block, so no intermediate copy or flyweight allocation is needed.
+    final long commitPosition = getLastEventPosition(block, blockLength);
+
+    // the distributed log primitive encodes its command arguments as a byte array, so this is the
+    // only copy of the block before it is handed over to the raft log
+    final byte[] bytesToAppend = new byte[blockLength];
+    block.getBytes(0, bytesToAppend);
 
-  private void tryWrite() {
-    distributedLog.asyncAppend(bytesToAppend, commitPosition);
+    // the block is copied, so the space in the write buffer can be reused
     blockPeek.markCompleted();
-    actor.done();
-    /*// TODO: Handle error codes
-    if (res >= 0) {
-      blockPeek.markCompleted();
-      actor.done();
+
+    final PendingAppend append = new PendingAppend(bytesToAppend, commitPosition);
+    appendsInFlight.addLast(append);
+    metrics.setAppendsInFlight(appendsInFlight.size());
+
+    sendAppend(append);
+  }
+
+  private void sendAppend(PendingAppend append) {
+    append.sendTime = ActorClock.currentTimeMillis();
+    distributedLog
+        .asyncAppend(append.bytes, append.commitPosition)
+        .whenComplete(
+            (result, error) -> actor.run(() -> onAppendCompleted(append, result, error)));
+  }
+
+  private void onAppendCompleted(PendingAppend append, Long result, Throwable error) {
+    if (isFailed.get()) {
+      return;
+    }
+
+    if (error != null || result == null || result < 0) {
+      onAppendFailed(append, error);
+      return;
+    }
+
+    metrics.appendCompleted(ActorClock.currentTimeMillis() - append.sendTime);
+    append.isAcknowledged = true;
+
+    // complete the appends in the order in which they were sent
+    PendingAppend head = appendsInFlight.peekFirst();
+    while (head != null && head.isAcknowledged) {
+      appendsInFlight.removeFirst();
+      lastAcknowledgedPosition = head.commitPosition;
+      head = appendsInFlight.peekFirst();
+    }
+    metrics.setAppendsInFlight(appendsInFlight.size());
+
+    if (appendsInFlight.isEmpty() || !appendsInFlight.peekFirst().isRetrying) {
+      resumeConsuming();
+    }
+  }
+
+  private void onAppendFailed(PendingAppend append, Throwable error) {
+    // The distributed log ignores appends with a commit position which is not greater than the
+    // last appended one. A block can therefore only be sent again if no later block was sent,
+    // otherwise it would be dropped and leave a gap in the log.
+    if (appendsInFlight.size() == 1 && append.retries < MAX_APPEND_RETRIES) {
+      append.retries++;
+      append.isRetrying = true;
+      LOG.debug(
+          "Failed to append block with commit position {}, retrying ({}/{})",
+          append.commitPosition,
+          append.retries,
+          MAX_APPEND_RETRIES,
+          error);
+
+      pauseConsuming();
+      sendAppend(append);
     } else {
-      // retry
-      LOG.debug("Append failed, retrying");
-      actor.yield();
-    }*/
+      LOG.error(
+          "Failed to append block with commit position {}, {} appends in flight. "
+              + "Stop appending to the log.",
+          append.commitPosition,
+          appendsInFlight.size(),
+          error);
+
+      isFailed.set(true);
+      pauseConsuming();
+      appendsInFlight.clear();
+      metrics.setAppendsInFlight(0);
+
+      final Throwable failure =
+          error != null
+              ? error
+              : new IllegalStateException(
+                  "Expected to append block with commit position "
+                      + append.commitPosition
+                      + ", but the distributed log rejected it");
+      appendFailureListener.onAppendFailure(failure);
+    }
   }
 
   /* Iterate over the events in buffer and find the position of the last event */
-  private long getLastEventPosition(byte[] buffer) {
+  private long getLastEventPosition(DirectBuffer buffer, int length) {
     int bufferOffset = 0;
-    final DirectBuffer directBuffer = new UnsafeBuffer(0, 0);
-
-    directBuffer.wrap(buffer);
     long lastEventPosition = -1;
 
-    final LoggedEventImpl nextEvent = new LoggedEventImpl();
-    int remaining = buffer.length - bufferOffset;
-    while (remaining > 0) {
-      nextEvent.wrap(directBuffer, bufferOffset);
-      bufferOffset += nextEvent.getFragmentLength();
-      lastEventPosition = nextEvent.getPosition();
-      remaining = buffer.length - bufferOffset;
+    while (bufferOffset < length) {
+      lastEvent.wrap(buffer, bufferOffset);
+      bufferOffset += lastEvent.getFragmentLength();
+      lastEventPosition = lastEvent.getPosition();
     }
     return lastEventPosition;
   }
@@ -131,4 +239,23 @@ public class LogStorageAppender extends Actor {
   public long getCurrentAppenderPosition() {
     return writeBufferSubscription.getPosition();
   }
+
+  /** @return the commit position of the last block which was acknowledged by the distributedlog */
+  public ActorFuture<Long> getLastAcknowledgedPosition() {
+    return actor.call(() -> lastAcknowledgedPosition);
+  }
+
+  private static final class PendingAppend {
+    private final byte[] bytes;
+    private final long commitPosition;
+    private long sendTime;
+    private int retries;
+    private boolean isRetrying;
+    private boolean isAcknowledged;
+
+    private PendingAppend(byte[] bytes, long commitPosition) {
+      this.bytes = bytes;
+      this.commitPosition = commitPosition;
+    }
+  }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl;
+
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+public class LogStorageAppenderMetrics {
+
+  private static final Gauge APPENDS_IN_FLIGHT =
+      Gauge.build()
+          .namespace("zeebe")
+          .name("log_appender_appends_in_flight")
+          .help("Number of blocks which are sent to the distributed log but not acknowledged yet")
+          .labelNames("partition")
+          .register();
+
+  private static final Histogram APPEND_LATENCY =
+      Histogram.build()
+          .namespace("zeebe")
+          .name("log_appender_append_latency_seconds")
+          .help("Latency to append a block to the distributed log in seconds")
+          .labelNames("partition")
+          .register();
+
+  private final String partitionIdLabel;
+
+  public LogStorageAppenderMetrics(int partitionId) {
+    this.partitionIdLabel = String.valueOf(partitionId);
+  }
+
+  public void setAppendsInFlight(int appendsInFlight) {
+    APPENDS_IN_FLIGHT.labels(partitionIdLabel).set(appendsInFlight);
+  }
+
+  public void appendCompleted(long latencyMs) {
+    APPEND_LATENCY.labels(partitionIdLabel).observe(latencyMs / 1000f);
+  }
+}
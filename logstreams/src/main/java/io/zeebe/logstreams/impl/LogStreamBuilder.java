@@ -18,6 +18,7 @@ package io.zeebe.logstreams.impl;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStorageServiceName;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStreamRootServiceName;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStreamServiceName;
+import static io.zeebe.util.EnsureUtil.ensureGreaterThan;
 import static io.zeebe.util.EnsureUtil.ensureGreaterThanOrEqual;
 
 import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
@@ -25,6 +26,7 @@ import io.zeebe.logstreams.impl.log.fs.FsLogStorageConfiguration;
 import io.zeebe.logstreams.impl.service.FsLogStorageService;
 import io.zeebe.logstreams.impl.service.LogStreamService;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.spi.AppendFailureListener;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.servicecontainer.CompositeServiceBuilder;
 import io.zeebe.servicecontainer.ServiceContainer;
@@ -49,12 +51,14 @@ public class LogStreamBuilder {
   protected boolean deleteOnClose;
 
   protected int maxAppendBlockSize = 1024 * 1024;
+  protected int maxAppendsInFlight = 8;
   protected int writeBufferSize = 1024 * 1024 * 8;
   protected int logSegmentSize = 1024 * 1024 * 128;
 
   protected final AtomicLongPosition commitPosition = new AtomicLongPosition();
   protected final ActorConditions onCommitPositionUpdatedConditions = new ActorConditions();
   protected Function<FsLogStorage, FsLogStorage> logStorageStubber = Function.identity();
+  protected AppendFailureListener appendFailureListener = failure -> {};
 
   public LogStreamBuilder(final int partitionId) {
     this.partitionId = partitionId;
@@ -90,6 +94,11 @@ public class LogStreamBuilder {
     return this;
   }
 
+  public LogStreamBuilder maxAppendsInFlight(final int maxAppendsInFlight) {
+    this.maxAppendsInFlight = maxAppendsInFlight;
+    return this;
+  }
+
   public LogStreamBuilder initialLogSegmentId(final int logFragmentId) {
     this.initialLogSegmentId = logFragmentId;
     return this;
@@ -111,6 +120,12 @@ public class LogStreamBuilder {
     return this;
   }
 
+  public LogStreamBuilder appendFailureListener(
+      final AppendFailureListener appendFailureListener) {
+    this.appendFailureListener = appendFailureListener;
+    return this;
+  }
+
   public String getLogName() {
     return logName;
   }
@@ -130,6 +145,14 @@ public class LogStreamBuilder {
     return maxAppendBlockSize;
   }
 
+  public int getMaxAppendsInFlight() {
+    return maxAppendsInFlight;
+  }
+
+  public AppendFailureListener getAppendFailureListener() {
+    return appendFailureListener;
+  }
+
   public ServiceContainer getServiceContainer() {
     return serviceContainer;
   }
@@ -182,5 +205,7 @@ public class LogStreamBuilder {
   private void validate() {
     Objects.requireNonNull(logName, "logName");
     ensureGreaterThanOrEqual("partitionId", partitionId, 0);
+    ensureGreaterThan("maxAppendsInFlight", maxAppendsInFlight, 0);
+    Objects.requireNonNull(appendFailureListener, "appendFailureListener");
   }
 }
@@ -28,6 +28,7 @@ import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import org.agrona.DirectBuffer;
 import org.agrona.IoUtil;
 import org.agrona.LangUtil;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -47,6 +48,8 @@ public class FsLogSegment {
   private static final short STATE_ACTIVE = 1;
 
   private static final short STATE_FILLED = 2;
+  private static final String DATA_FILE_SUFFIX = ".data";
+  private static final String INDEX_FILE_SUFFIX = ".index";
   private static final String ERROR_MSG_OUT_OF_SPACE =
       "Expected to allocate new segment of size %d, but not enough space available (%d)";
   private static final String ERROR_MSG_INSUFFICIENT_CAPACITY =
@@ -56,12 +59,21 @@ public class FsLogSegment {
 
   private final String fileName;
 
+  private final File indexFile;
+
   private FileChannel fileChannel;
 
   private UnsafeBuffer metadataSection;
 
   private MappedByteBuffer mappedBuffer;
 
+  // read-only mapping of the segment capacity, shared by all readers; never unmapped explicitly as
+  // readers may still hold views on it
+  private volatile MappedByteBuffer readMapping;
+
+  // created on the first indexed append; not unmapped explicitly as readers may still look it up
+  private volatile FsLogSegmentIndex index;
+
   private final Rater rater =
       new Rater(
           1024 * 1024 * 4,
@@ -75,6 +87,12 @@ public class FsLogSegment {
 
   public FsLogSegment(String fileName) {
     this.fileName = fileName;
+
+    final String baseName =
+        fileName.endsWith(DATA_FILE_SUFFIX)
+            ? fileName.substring(0, fileName.length() - DATA_FILE_SUFFIX.length())
+            : fileName;
+    this.indexFile = new File(baseName + INDEX_FILE_SUFFIX);
   }
 
   public boolean openSegment(boolean create) {
@@ -84,6 +102,10 @@ public class FsLogSegment {
       try {
         mappedBuffer = fileChannel.map(MapMode.READ_WRITE, 0, METADATA_LENGTH);
         metadataSection = new UnsafeBuffer(mappedBuffer, 0, METADATA_LENGTH);
+
+        if (!create && indexFile.exists()) {
+          index = FsLogSegmentIndex.open(indexFile, getSize());
+        }
       } catch (IOException e) {
         fileChannel = null;
         metadataSection = null;
@@ -98,6 +120,8 @@ public class FsLogSegment {
     if (fileChannel.isOpen()) {
       try {
         this.metadataSection = null;
+        this.readMapping = null;
+        this.index = null;
         IoUtil.unmap(mappedBuffer);
         fileChannel.close();
       } catch (IOException e) {
@@ -109,6 +133,7 @@ public class FsLogSegment {
   public void delete() {
     final File file = new File(fileName);
     FileUtil.deleteFile(file);
+    FileUtil.deleteFile(indexFile);
   }
 
   public String getFileName() {
@@ -163,6 +188,9 @@ public class FsLogSegment {
       throw new IOException(String.format(ERROR_MSG_OUT_OF_SPACE, segmentSize, availableSpace));
     }
 
+    // an index left over by a previous segment with the same name is stale
+    FileUtil.deleteFile(indexFile);
+
     openSegment(true);
 
     setSegmentId(segmentId);
@@ -175,6 +203,16 @@ public class FsLogSegment {
    * @return the offset at which the block was appended
    */
   public int append(final ByteBuffer block) throws IOException {
+    return append(block, -1);
+  }
+
+  /**
+   * @param block
+   * @param highestPosition the position of the last log entry in the block, or a negative value if
+   *     the block should not be indexed
+   * @return the offset at which the block was appended
+   */
+  public int append(final ByteBuffer block, final long highestPosition) throws IOException {
     final int blockLength = block.remaining();
     final int currentSize = getSize();
     final int remainingCapacity = getCapacity() - currentSize;
@@ -194,12 +232,44 @@ public class FsLogSegment {
     setSizeOrdered(newSize);
     rater.mark(blockLength);
 
+    if (highestPosition >= 0) {
+      indexBlock(highestPosition, currentSize);
+    }
+
     return currentSize;
   }
 
+  private void indexBlock(final long highestPosition, final int blockOffset) {
+    FsLogSegmentIndex index = this.index;
+
+    if (index == null) {
+      index = FsLogSegmentIndex.create(indexFile, getCapacity());
+      this.index = index;
+    }
+
+    index.add(highestPosition, blockOffset);
+  }
+
+  /**
+   * Returns the offset of an indexed block, from which the given position can be searched
+   * sequentially.
+   *
+   * @param position the position to look up
+   * @return the block offset or -1 if the segment has no indexed block with lower positions
+   */
+  public int lookUpBlockOffset(final long position) {
+    final FsLogSegmentIndex index = this.index;
+    return index != null ? index.lookUpBlockOffset(position) : -1;
+  }
+
   public void flush() throws IOException {
     if (fileChannel.isOpen()) {
       fileChannel.force(false);
+
+      final FsLogSegmentIndex index = this.index;
+      if (index != null) {
+        index.flush();
+      }
     }
   }
 
@@ -248,6 +318,65 @@ public class FsLogSegment {
     return opResult;
   }
 
+  /**
+   * Wraps the provided view around the committed bytes starting at the given file offset, without
+   * copying them. Returns the result of the operation which is either
+   *
+   * <ul>
+   *   <li>Number of bytes wrapped in case of a successful operation
+   *   <li>{@link #NO_DATA} in case no data is available
+   *   <li>{@link #END_OF_SEGMENT} in case the end of the segment is reached
+   * </ul>
+   *
+   * @param view the buffer to wrap around the committed bytes
+   * @param fileOffset the offset in the file to start from
+   * @return operation result
+   */
+  public int wrapBytes(DirectBuffer view, int fileOffset) {
+    final int limit = getSizeVolatile();
+
+    int opResult = INVALID_ADDR;
+
+    if (fileOffset >= METADATA_LENGTH && fileOffset <= limit) {
+      final int available = limit - fileOffset;
+
+      if (available > 0) {
+        view.wrap(mapSegment(), fileOffset, available);
+        opResult = available;
+      } else {
+        opResult = isFilled() ? END_OF_SEGMENT : NO_DATA;
+      }
+    }
+
+    return opResult;
+  }
+
+  private MappedByteBuffer mapSegment() {
+    MappedByteBuffer mapping = readMapping;
+
+    if (mapping == null) {
+      synchronized (this) {
+        mapping = readMapping;
+
+        if (mapping == null) {
+          // map the whole capacity once, so readers which follow the appender never remap; this
+          // extends the file to its capacity (sparse), readers still only access committed bytes
+          // and the uncommitted rest is truncated again when the segment is reopened
+          final int capacity = getCapacity();
+          try {
+            mapping = fileChannel.map(MapMode.READ_ONLY, 0, capacity);
+          } catch (IOException e) {
+            throw new RuntimeException(
+                "Failed to map file " + fileName + " with capacity: " + capacity, e);
+          }
+          readMapping = mapping;
+        }
+      }
+    }
+
+    return mapping;
+  }
+
   public void setFilled() {
     // invoked by appender when segment is filled
     state = STATE_FILLED;
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl.log.fs;
+
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.METADATA_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Sparse index of a log segment, which maps the highest position of an appended block to the
+ * offset of the block in the segment. A block is only indexed if it starts at least {@link
+ * #INDEX_INTERVAL} bytes after the last indexed block, so a look up is followed by a short
+ * sequential scan.
+ *
+ * <p>Index layout
+ *
+ * <pre>
+ *   0                   1                   2                   3
+ *   0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                          Entry Count                          |
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                            [unused]                           |
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                        Highest Position                       |
+ *  |                                                               |
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                          Block Offset                         |
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                            [unused]                           |
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                             ...                              ...
+ *  +---------------------------------------------------------------+
+ * </pre>
+ *
+ * The index is written after the block is committed to the segment and is not part of the
+ * segment's consistency. Entries which point behind the committed data, e.g. after the segment
+ * was truncated, are dropped on open. Entries which got lost only lead to longer scans.
+ */
+public class FsLogSegmentIndex {
+  public static final int INDEX_INTERVAL = 64 * 1024;
+
+  private static final int ENTRY_COUNT_OFFSET = 0;
+  private static final int HEADER_LENGTH = SIZE_OF_LONG;
+
+  private static final int ENTRY_POSITION_OFFSET = 0;
+  private static final int ENTRY_BLOCK_OFFSET_OFFSET = SIZE_OF_LONG;
+  private static final int ENTRY_LENGTH = 2 * SIZE_OF_LONG;
+
+  private final MappedByteBuffer mappedBuffer;
+  private final UnsafeBuffer buffer;
+  private final int capacity;
+
+  private FsLogSegmentIndex(MappedByteBuffer mappedBuffer) {
+    this.mappedBuffer = mappedBuffer;
+    this.buffer = new UnsafeBuffer(mappedBuffer);
+    this.capacity = (buffer.capacity() - HEADER_LENGTH) / ENTRY_LENGTH;
+  }
+
+  /**
+   * Creates a new index file which is large enough to index a segment of the given capacity.
+   *
+   * @param file the index file to create
+   * @param segmentCapacity the capacity of the indexed segment
+   * @return the new index
+   */
+  public static FsLogSegmentIndex create(File file, int segmentCapacity) {
+    final int entries = segmentCapacity / INDEX_INTERVAL + 1;
+    final long length = HEADER_LENGTH + (long) entries * ENTRY_LENGTH;
+
+    return new FsLogSegmentIndex(IoUtil.mapNewFile(file, length));
+  }
+
+  /**
+   * Opens an existing index file and drops all entries which do not point to committed data.
+   *
+   * @param file the index file to open
+   * @param committedSize the committed size of the indexed segment
+   * @return the opened index
+   */
+  public static FsLogSegmentIndex open(File file, int committedSize) {
+    final FsLogSegmentIndex index =
+        new FsLogSegmentIndex(IoUtil.mapExistingFile(file, "log segment index"));
+    index.dropInvalidEntries(committedSize);
+
+    return index;
+  }
+
+  private void dropInvalidEntries(int committedSize) {
+    final int entryCount = Math.min(buffer.getInt(ENTRY_COUNT_OFFSET), capacity);
+
+    int validEntries = 0;
+    long lastPosition = -1;
+    int lastBlockOffset = -1;
+
+    while (validEntries < entryCount) {
+      final long position = getPosition(validEntries);
+      final int blockOffset = getBlockOffset(validEntries);
+
+      final boolean isValid =
+          position > lastPosition
+              && blockOffset > lastBlockOffset
+              && blockOffset >= METADATA_LENGTH
+              && blockOffset < committedSize;
+
+      if (!isValid) {
+        break;
+      }
+
+      lastPosition = position;
+      lastBlockOffset = blockOffset;
+      validEntries++;
+    }
+
+    buffer.putIntOrdered(ENTRY_COUNT_OFFSET, validEntries);
+  }
+
+  /**
+   * Indexes the block if it is far enough away from the last indexed block. Must only be invoked
+   * by the appending thread, after the block is committed.
+   *
+   * @param highestPosition the position of the last log entry in the block
+   * @param blockOffset the offset of the block in the segment
+   */
+  public void add(long highestPosition, int blockOffset) {
+    final int entryCount = buffer.getInt(ENTRY_COUNT_OFFSET);
+
+    if (entryCount >= capacity) {
+      return;
+    }
+
+    if (entryCount > 0) {
+      final int lastEntry = entryCount - 1;
+      if (highestPosition <= getPosition(lastEntry)
+          || blockOffset - getBlockOffset(lastEntry) < INDEX_INTERVAL) {
+        return;
+      }
+    }
+
+    final int entryOffset = entryOffset(entryCount);
+    buffer.putLong(entryOffset + ENTRY_POSITION_OFFSET, highestPosition);
+    buffer.putInt(entryOffset + ENTRY_BLOCK_OFFSET_OFFSET, blockOffset);
+
+    // publish the entry to concurrent readers
+    buffer.putIntOrdered(ENTRY_COUNT_OFFSET, entryCount + 1);
+  }
+
+  /**
+   * Returns the offset of the last indexed block which contains only lower positions than the
+   * given one. Reading the segment sequentially from this offset finds the given position, if it
+   * is contained in the segment.
+   *
+   * @param position the position to look up
+   * @return the block offset or -1 if no such block is indexed
+   */
+  public int lookUpBlockOffset(long position) {
+    int low = 0;
+    int high = buffer.getIntVolatile(ENTRY_COUNT_OFFSET) - 1;
+    int blockOffset = -1;
+
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+
+      if (getPosition(mid) < position) {
+        blockOffset = getBlockOffset(mid);
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+
+    return blockOffset;
+  }
+
+  public int getEntryCount() {
+    return buffer.getIntVolatile(ENTRY_COUNT_OFFSET);
+  }
+
+  public void flush() {
+    mappedBuffer.force();
+  }
+
+  private long getPosition(int entry) {
+    return buffer.getLong(entryOffset(entry) + ENTRY_POSITION_OFFSET);
+  }
+
+  private int getBlockOffset(int entry) {
+    return buffer.getInt(entryOffset(entry) + ENTRY_BLOCK_OFFSET_OFFSET);
+  }
+
+  private static int entryOffset(int entry) {
+    return HEADER_LENGTH + entry * ENTRY_LENGTH;
+  }
+}
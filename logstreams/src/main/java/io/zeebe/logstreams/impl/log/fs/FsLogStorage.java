@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 
 public class FsLogStorage implements LogStorage {
@@ -69,6 +70,11 @@ public class FsLogStorage implements LogStorage {
 
   @Override
   public long append(final ByteBuffer buffer) throws IOException {
+    return append(buffer, -1);
+  }
+
+  @Override
+  public long append(final ByteBuffer buffer, final long highestPosition) throws IOException {
     ensureOpenedStorage();
     if (currentSegment == null) {
       throw new IllegalStateException("Current segment is not initialized.");
@@ -89,7 +95,7 @@ public class FsLogStorage implements LogStorage {
       onSegmentFilled();
     }
 
-    final int appendResult = currentSegment.append(buffer);
+    final int appendResult = currentSegment.append(buffer, highestPosition);
     final long opresult = position(currentSegment.getSegmentId(), appendResult);
     markSegmentAsDirty(currentSegment);
 
@@ -179,6 +185,39 @@ public class FsLogStorage implements LogStorage {
     return opStatus;
   }
 
+  @Override
+  public boolean supportsMappedReads() {
+    return true;
+  }
+
+  @Override
+  public long readMapped(final DirectBuffer view, final long addr) {
+    ensureOpenedStorage();
+
+    final int segmentId = partitionId(addr);
+    final int segmentOffset = partitionOffset(addr);
+
+    final FsLogSegment segment = logSegments.getSegment(segmentId);
+
+    long opStatus = OP_RESULT_INVALID_ADDR;
+
+    if (segment != null) {
+      final int wrapResult = segment.wrapBytes(view, segmentOffset);
+
+      if (wrapResult >= 0) {
+        opStatus = position(segmentId, segmentOffset + wrapResult);
+      } else if (wrapResult == END_OF_SEGMENT) {
+        final long nextAddr = position(segmentId + 1, METADATA_LENGTH);
+        // move to next segment
+        return readMapped(view, nextAddr);
+      } else if (wrapResult == NO_DATA) {
+        opStatus = OP_RESULT_NO_DATA;
+      }
+    }
+
+    return opStatus;
+  }
+
   @Override
   public void open() throws IOException {
     ensureNotOpenedStorage();
@@ -321,6 +360,25 @@ public class FsLogStorage implements LogStorage {
     }
   }
 
+  @Override
+  public long lookUpAddress(final long position) {
+    ensureOpenedStorage();
+
+    final FsLogSegments logSegments = this.logSegments;
+    for (int id = logSegments.getLastSegmentId(); id >= logSegments.initialSegmentId; id--) {
+      final FsLogSegment segment = logSegments.getSegment(id);
+
+      if (segment != null) {
+        final int blockOffset = segment.lookUpBlockOffset(position);
+        if (blockOffset >= 0) {
+          return position(id, blockOffset);
+        }
+      }
+    }
+
+    return getFirstBlockAddress();
+  }
+
   private void ensureOpenedStorage() {
     if (state == STATE_CREATED) {
       throw new IllegalStateException("log storage is not open");
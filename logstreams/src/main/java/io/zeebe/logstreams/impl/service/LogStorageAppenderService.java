@@ -18,6 +18,7 @@ package io.zeebe.logstreams.impl.service;
 import io.zeebe.dispatcher.Subscription;
 import io.zeebe.distributedlog.impl.DistributedLogstreamPartition;
 import io.zeebe.logstreams.impl.LogStorageAppender;
+import io.zeebe.logstreams.spi.AppendFailureListener;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
@@ -29,12 +30,22 @@ public class LogStorageAppenderService implements Service<LogStorageAppender> {
   private final Injector<DistributedLogstreamPartition> distributedLogstreamInjector =
       new Injector<>();
 
+  private final int partitionId;
   private final int maxAppendBlockSize;
+  private final int maxAppendsInFlight;
+  private final AppendFailureListener appendFailureListener;
 
   private LogStorageAppender service;
 
-  public LogStorageAppenderService(int maxAppendBlockSize) {
+  public LogStorageAppenderService(
+      int partitionId,
+      int maxAppendBlockSize,
+      int maxAppendsInFlight,
+      AppendFailureListener appendFailureListener) {
+    this.partitionId = partitionId;
     this.maxAppendBlockSize = maxAppendBlockSize;
+    this.maxAppendsInFlight = maxAppendsInFlight;
+    this.appendFailureListener = appendFailureListener;
   }
 
   @Override
@@ -44,9 +55,12 @@ public class LogStorageAppenderService implements Service<LogStorageAppender> {
     service =
         new LogStorageAppender(
             startContext.getName(),
+            partitionId,
             distributedLogstreamInjector.getValue(),
             subscription,
-            maxAppendBlockSize);
+            maxAppendBlockSize,
+            maxAppendsInFlight,
+            appendFailureListener);
 
     startContext.async(startContext.getScheduler().submitActor(service, SchedulingHints.ioBound()));
   }
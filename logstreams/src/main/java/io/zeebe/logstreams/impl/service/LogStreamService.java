@@ -26,6 +26,7 @@ import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.logstreams.impl.Loggers;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.spi.AppendFailureListener;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.util.ByteValue;
@@ -48,6 +49,8 @@ public class LogStreamService implements LogStream, Service<LogStream> {
   private final int partitionId;
   private final ByteValue writeBufferSize;
   private final int maxAppendBlockSize;
+  private final int maxAppendsInFlight;
+  private final AppendFailureListener appendFailureListener;
   private final Position commitPosition;
 
   private BufferedLogStreamReader reader;
@@ -66,6 +69,8 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     this.commitPosition = builder.getCommitPosition();
     this.writeBufferSize = ByteValue.ofBytes(builder.getWriteBufferSize());
     this.maxAppendBlockSize = builder.getMaxAppendBlockSize();
+    this.maxAppendsInFlight = builder.getMaxAppendsInFlight();
+    this.appendFailureListener = builder.getAppendFailureListener();
   }
 
   @Override
@@ -87,8 +92,12 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     final ServiceName<LogStorageAppender> logStorageAppenderServiceName =
         logStorageAppenderServiceName(logName);
 
+    // the readers of the write buffer keep on reading while they are behind, so only the readers
+    // which have caught up need to be woken up by a new event
     final DispatcherBuilder writeBufferBuilder =
-        Dispatchers.create(logWriteBufferServiceName.getName()).bufferSize(writeBufferSize);
+        Dispatchers.create(logWriteBufferServiceName.getName())
+            .bufferSize(writeBufferSize)
+            .edgeTriggeredSignals();
 
     final CompositeServiceBuilder installOperation =
         serviceContext.createComposite(logStorageAppenderRootService);
@@ -110,7 +119,8 @@ public class LogStreamService implements LogStream, Service<LogStream> {
         .install();
 
     final LogStorageAppenderService appenderService =
-        new LogStorageAppenderService(maxAppendBlockSize);
+        new LogStorageAppenderService(
+            partitionId, maxAppendBlockSize, maxAppendsInFlight, this::onAppendFailure);
     appenderFuture =
         installOperation
             .createService(logStorageAppenderServiceName, appenderService)
@@ -124,6 +134,15 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     return installOperation.installAndReturn(logStorageAppenderServiceName);
   }
 
+  private void onAppendFailure(Throwable failure) {
+    LOG.error(
+        "Failed to append to the log '{}', close the appender to reject further writes", logName);
+
+    // the appender stopped, so events which are written to the write buffer would be lost
+    closeAppender();
+    appendFailureListener.onAppendFailure(failure);
+  }
+
   @Override
   public ActorFuture<Void> closeAppender() {
     appenderFuture = null;
@@ -42,6 +42,8 @@ public class BufferedLogStreamReader implements LogStreamReader {
 
   // wrapped logstream
   private LogStorage logStorage;
+  // if set, events are wrapped in place on the storage instead of being copied into the buffer
+  private boolean isMappedRead;
 
   // state
   private IteratorState state;
@@ -57,6 +59,8 @@ public class BufferedLogStreamReader implements LogStreamReader {
   private ByteBuffer byteBuffer;
   private int bufferOffset;
   private final DirectBuffer directBuffer = new UnsafeBuffer(0, 0);
+  // mapped reads re-wrap the direct buffer per block, so the returned event keeps its own view
+  private final DirectBuffer returnedEventBuffer = new UnsafeBuffer(0, 0);
 
   public BufferedLogStreamReader(final LogStream logStream) {
     this();
@@ -83,9 +87,13 @@ public class BufferedLogStreamReader implements LogStreamReader {
 
   public void wrap(final LogStorage logStorage, final long position) {
     this.logStorage = logStorage;
+    this.isMappedRead = logStorage.supportsMappedReads();
 
     if (isClosed()) {
       allocateBuffer(DEFAULT_INITIAL_BUFFER_CAPACITY);
+    } else if (!isMappedRead) {
+      // may still wrap a mapped block of a previous storage
+      directBuffer.wrap(byteBuffer);
     }
 
     seek(position);
@@ -117,7 +125,7 @@ public class BufferedLogStreamReader implements LogStreamReader {
     // invalidate events first as the buffer content may change
     invalidateBufferAndOffsets();
 
-    final long blockAddress = logStorage.getFirstBlockAddress();
+    final long blockAddress = logStorage.lookUpAddress(position);
     if (blockAddress < 0) {
       // no block found => empty log
       state = IteratorState.EMPTY_LOG_STREAM;
@@ -176,6 +184,7 @@ public class BufferedLogStreamReader implements LogStreamReader {
       allocatedBuffer = null;
       byteBuffer = null;
       directBuffer.wrap(0, 0);
+      returnedEventBuffer.wrap(0, 0);
       bufferOffset = 0;
 
       logStorage = null;
@@ -292,6 +301,10 @@ public class BufferedLogStreamReader implements LogStreamReader {
   }
 
   private boolean readBlockIntoBuffer(final long blockAddress) {
+    if (isMappedRead) {
+      return wrapBlockInBuffer(blockAddress);
+    }
+
     if (byteBuffer.remaining() < LogEntryDescriptor.HEADER_BLOCK_LENGTH) {
       compactBuffer();
     }
@@ -318,6 +331,23 @@ public class BufferedLogStreamReader implements LogStreamReader {
     }
   }
 
+  private boolean wrapBlockInBuffer(final long blockAddress) {
+    final long result = logStorage.readMapped(directBuffer, blockAddress);
+
+    if (result == LogStorage.OP_RESULT_INVALID_ADDR) {
+      throw new IllegalStateException("Invalid address to read from " + blockAddress);
+    } else if (result == LogStorage.OP_RESULT_NO_DATA) {
+      state = IteratorState.NOT_ENOUGH_DATA;
+      return false;
+    } else {
+      // the direct buffer now starts at the block address
+      bufferOffset = 0;
+      this.lastReadAddress = blockAddress;
+      this.nextLogStorageReadAddress = result;
+      return true;
+    }
+  }
+
   private boolean searchPositionInBuffer(final long position) {
     while (isNextUncommittedEventAvailable() && nextEvent.getPosition() < position) {
       readNextEvent();
@@ -349,7 +379,8 @@ public class BufferedLogStreamReader implements LogStreamReader {
     // initially we assume there is not enough data
     state = IteratorState.NOT_ENOUGH_DATA;
 
-    final int remaining = byteBuffer.position() - bufferOffset;
+    final int bufferLimit = isMappedRead ? directBuffer.capacity() : byteBuffer.position();
+    final int remaining = bufferLimit - bufferOffset;
     if (remaining > 0) {
       wrapNextEvent(bufferOffset);
       bufferOffset += nextEvent.getFragmentLength();
@@ -394,7 +425,12 @@ public class BufferedLogStreamReader implements LogStreamReader {
   }
 
   private void wrapReturnedEvent(final int offset) {
-    returnedEvent.wrap(directBuffer, offset);
+    if (isMappedRead) {
+      returnedEventBuffer.wrap(directBuffer);
+      returnedEvent.wrap(returnedEventBuffer, offset);
+    } else {
+      returnedEvent.wrap(directBuffer, offset);
+    }
   }
 
   private void checkIfNextEventIsCommitted() {
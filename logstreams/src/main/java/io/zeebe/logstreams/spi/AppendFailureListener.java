@@ -0,0 +1,27 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.spi;
+
+/**
+ * Notified by the log storage appender when a block could not be appended to the distributed log.
+ * The log stream closes its appender and write buffer before the listener is notified, so further
+ * writes are rejected. The owner of the log stream has to step down or reopen the appender.
+ */
+@FunctionalInterface
+public interface AppendFailureListener {
+
+  void onAppendFailure(Throwable failure);
+}
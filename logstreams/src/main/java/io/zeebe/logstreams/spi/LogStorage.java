@@ -17,6 +17,7 @@ package io.zeebe.logstreams.spi;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import org.agrona.DirectBuffer;
 
 /** Log structured storage abstraction */
 public interface LogStorage {
@@ -68,6 +69,22 @@ public interface LogStorage {
    */
   long append(ByteBuffer blockBuffer) throws IOException;
 
+  /**
+   * Like {@link #append(ByteBuffer)}, but additionally provides the position of the last log entry
+   * in the block. The storage may use it to index the block for {@link #lookUpAddress(long)}.
+   *
+   * @param blockBuffer the buffer containing a block of log entries to be written into storage
+   * @param highestPosition the position of the last log entry in the block, or a negative value if
+   *     unknown
+   * @return the address at which the block has been written or error status code
+   * @throws IOException on I/O error during the append operation
+   * @throws IllegalArgumentException when block size is to large
+   * @throws IllegalStateException when logstorage was not opened and not initialized
+   */
+  default long append(ByteBuffer blockBuffer, long highestPosition) throws IOException {
+    return append(blockBuffer);
+  }
+
   /**
    * Deletes from the log storage, uses the given address as upper limit.
    *
@@ -126,6 +143,40 @@ public interface LogStorage {
    */
   long read(ByteBuffer readBuffer, long addr, ReadResultProcessor processor);
 
+  /**
+   * @return true if the storage can expose its committed bytes in place via {@link
+   *     #readMapped(DirectBuffer, long)}
+   */
+  default boolean supportsMappedReads() {
+    return false;
+  }
+
+  /**
+   * Wraps the given view around the committed bytes starting at addr, without copying them into an
+   * intermediate buffer. The view only covers complete blocks and must be treated as read-only; it
+   * stays valid as long as it references the wrapped bytes, even if the storage moves on.
+   *
+   * <p>Returns an operation result status code which is either
+   *
+   * <ul>
+   *   <li>positive long representing the address right after the last wrapped byte
+   *   <li>{@link #OP_RESULT_INVALID_ADDR}: in case the provided address does not exist
+   *   <li>{@link #OP_RESULT_NO_DATA}: in case no data is (yet) available at that address
+   * </ul>
+   *
+   * If this method does not return a positive status code, the view is left untouched.
+   *
+   * <p>This method is invoked concurrently by consumer threads of the log.
+   *
+   * @param view the buffer to wrap around the committed bytes
+   * @param addr the address in the underlying storage from which bytes should be wrapped
+   * @return the next address from which bytes can be read or error status code.
+   * @throws UnsupportedOperationException if {@link #supportsMappedReads()} returns false
+   */
+  default long readMapped(DirectBuffer view, long addr) {
+    throw new UnsupportedOperationException("Storage does not support mapped reads");
+  }
+
   /**
    * @return true if the storage is byte addressable (each byte managed in the underlying storage
    *     can be uniquely addressed using a long addr. False in case the storage is block
@@ -153,6 +204,18 @@ public interface LogStorage {
    */
   long getFirstBlockAddress();
 
+  /**
+   * Returns the address of a block from which the log entry with the given position can be
+   * searched sequentially, i.e. a block which only contains lower positions. If the storage does
+   * not know such a block, the address of the first block is returned.
+   *
+   * @param position the position of the log entry to search
+   * @return the address to start the search from, or -1 if the storage is currently empty
+   */
+  default long lookUpAddress(long position) {
+    return getFirstBlockAddress();
+  }
+
   /**
    * Flushes all appended blocks to ensure that all blocks are written completely. Note that a
    * storage implementation may do nothing if {@link #append(ByteBuffer)} guarantees that all blocks
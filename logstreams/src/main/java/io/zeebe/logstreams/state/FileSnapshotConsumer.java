@@ -15,20 +15,26 @@
  */
 package io.zeebe.logstreams.state;
 
-import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 import io.zeebe.util.FileUtil;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
 import org.slf4j.Logger;
 
 public class FileSnapshotConsumer implements SnapshotConsumer {
 
   private final StateStorage stateStorage;
   private final Logger logger;
+  private final Map<String, Long> fileChecksums = new HashMap<>();
 
   public FileSnapshotConsumer(StateStorage stateStorage, Logger logger) {
     this.stateStorage = stateStorage;
@@ -42,6 +48,9 @@ public class FileSnapshotConsumer implements SnapshotConsumer {
 
   @Override
   public boolean completeSnapshot(long snapshotId) {
+    // forget the checksums of the files of deleted snapshots
+    fileChecksums.keySet().removeIf(path -> !new File(path).exists());
+
     return moveValidSnapshot(stateStorage, snapshotId);
   }
 
@@ -70,6 +79,10 @@ public class FileSnapshotConsumer implements SnapshotConsumer {
       return true;
     }
 
+    if (snapshotChunk.isFileReference()) {
+      return linkReferencedFile(snapshotChunk, storage);
+    }
+
     final long expectedChecksum = snapshotChunk.getChecksum();
     final long actualChecksum = SnapshotChunkUtil.createChecksum(snapshotChunk.getContent());
 
@@ -89,24 +102,101 @@ public class FileSnapshotConsumer implements SnapshotConsumer {
     }
 
     final File snapshotFile = new File(tmpSnapshotDirectory, chunkName);
-    if (snapshotFile.exists()) {
-      logger.debug("Received a snapshot chunk which already exist '{}'.", snapshotFile);
+    logger.debug(
+        "Consume snapshot chunk {} at offset {}", chunkName, snapshotChunk.getFileOffset());
+    return writeReceivedSnapshotChunk(snapshotChunk, snapshotFile);
+  }
+
+  private boolean writeReceivedSnapshotChunk(SnapshotChunk snapshotChunk, File snapshotFile) {
+    final long fileOffset = snapshotChunk.getFileOffset();
+
+    // the chunks of a file can be received in any order, so each is written at its offset
+    try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), CREATE, WRITE)) {
+      final ByteBuffer content = ByteBuffer.wrap(snapshotChunk.getContent());
+      while (content.hasRemaining()) {
+        channel.write(content, fileOffset + content.position());
+      }
+
+      logger.trace(
+          "Wrote replicated snapshot chunk to file {} at offset {}",
+          snapshotFile.toPath(),
+          fileOffset);
+      return true;
+    } catch (IOException ioe) {
+      logger.error(
+          "Unexpected error occurred on writing snapshot chunk to '{}'.", snapshotFile, ioe);
       return false;
     }
+  }
 
-    logger.debug("Consume snapshot chunk {}", chunkName);
-    return writeReceivedSnapshotChunk(snapshotChunk, snapshotFile);
+  private boolean linkReferencedFile(SnapshotChunk snapshotChunk, StateStorage storage) {
+    final String snapshotName = Long.toString(snapshotChunk.getSnapshotPosition());
+    final String chunkName = snapshotChunk.getChunkName();
+    final long expectedChecksum = snapshotChunk.getChecksum();
+
+    for (File snapshotDirectory : storage.listByPositionDesc()) {
+      final File existingFile = new File(snapshotDirectory, chunkName);
+
+      if (existingFile.exists() && getFileChecksum(existingFile) == expectedChecksum) {
+        final File tmpSnapshotDirectory = storage.getTmpSnapshotDirectoryFor(snapshotName);
+        if (!tmpSnapshotDirectory.exists()) {
+          tmpSnapshotDirectory.mkdirs();
+        }
+
+        final File snapshotFile = new File(tmpSnapshotDirectory, chunkName);
+        logger.debug("Consume snapshot chunk {} as link to {}", chunkName, existingFile);
+        return linkFile(existingFile, snapshotFile);
+      }
+    }
+
+    logger.warn(
+        "Expected to find snapshot file {} ({}) with checksum {} in a previous snapshot.",
+        chunkName,
+        snapshotName,
+        expectedChecksum);
+    return false;
   }
 
-  private boolean writeReceivedSnapshotChunk(SnapshotChunk snapshotChunk, File snapshotFile) {
+  private long getFileChecksum(File file) {
+    // files of valid snapshots don't change, so the checksum is calculated only once
+    final String path = file.getAbsolutePath();
+    final Long cachedChecksum = fileChecksums.get(path);
+    if (cachedChecksum != null) {
+      return cachedChecksum;
+    }
+
     try {
-      Files.write(
-          snapshotFile.toPath(), snapshotChunk.getContent(), CREATE_NEW, StandardOpenOption.WRITE);
-      logger.trace("Wrote replicated snapshot chunk to file {}", snapshotFile.toPath());
+      final long checksum = SnapshotChunkUtil.createFileChecksum(file);
+      fileChecksums.put(path, checksum);
+      return checksum;
+    } catch (IOException e) {
+      logger.debug("Failed to calculate checksum of snapshot file {}", file, e);
+      return -1;
+    }
+  }
+
+  private boolean linkFile(File existingFile, File snapshotFile) {
+    try {
+      // files are immutable, so the previous snapshot and the new one can share them
+      Files.createLink(snapshotFile.toPath(), existingFile.toPath());
+      return true;
+    } catch (UnsupportedOperationException | IOException linkException) {
+      logger.debug(
+          "Failed to link snapshot file {} to {}, copy it instead.",
+          existingFile,
+          snapshotFile,
+          linkException);
+    }
+
+    try {
+      Files.copy(existingFile.toPath(), snapshotFile.toPath(), REPLACE_EXISTING);
       return true;
     } catch (IOException ioe) {
       logger.error(
-          "Unexpected error occurred on writing snapshot chunk to '{}'.", snapshotFile, ioe);
+          "Unexpected error occurred on copying snapshot file {} to {}.",
+          existingFile,
+          snapshotFile,
+          ioe);
       return false;
     }
   }
@@ -19,20 +19,21 @@ import io.zeebe.logstreams.impl.Loggers;
 import io.zeebe.logstreams.spi.ValidSnapshotListener;
 import java.io.File;
 import java.io.IOException;
-import org.agrona.collections.Long2LongHashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.slf4j.Logger;
 
 public final class ReplicationController {
 
   private static final Logger LOG = Loggers.SNAPSHOT_LOGGER;
 
-  private static final long START_VALUE = 0L;
-  private static final long INVALID_SNAPSHOT = -1;
-  private static final long MISSING_SNAPSHOT = Long.MIN_VALUE;
   private static final ValidSnapshotListener NOOP_VALID_SNAPSHOT_LISTENER = () -> {};
 
   private final SnapshotReplication replication;
-  private final Long2LongHashMap receivedSnapshots = new Long2LongHashMap(MISSING_SNAPSHOT);
+  private final Long2ObjectHashMap<ReceivedSnapshot> receivedSnapshots =
+      new Long2ObjectHashMap<>();
   private final StateStorage storage;
 
   private final SnapshotConsumer snapshotConsumer;
@@ -53,18 +54,50 @@ public final class ReplicationController {
     this.snapshotConsumer = new FileSnapshotConsumer(storage, LOG);
   }
 
-  public void replicate(long snapshotPosition, int totalCount, File snapshotChunkFile) {
+  /**
+   * Replicates the part of the given file which starts at the given offset. At most {@link
+   * SnapshotChunkUtil#MAX_CHUNK_SIZE} bytes are read and replicated.
+   */
+  public void replicate(
+      long snapshotPosition, int totalCount, File snapshotChunkFile, long fileOffset) {
     try {
       final SnapshotChunk chunkToReplicate =
           SnapshotChunkUtil.createSnapshotChunkFromFile(
-              snapshotChunkFile, snapshotPosition, totalCount);
+              snapshotChunkFile,
+              snapshotPosition,
+              totalCount,
+              fileOffset,
+              SnapshotChunkUtil.MAX_CHUNK_SIZE);
       replication.replicate(chunkToReplicate);
     } catch (IOException ioe) {
       LOG.error(
-          "Unexpected error on reading snapshot chunk from file '{}'.", snapshotChunkFile, ioe);
+          "Unexpected error on reading snapshot chunk from file '{}' at offset {}.",
+          snapshotChunkFile,
+          fileOffset,
+          ioe);
     }
   }
 
+  /**
+   * Replicates a reference to the given file instead of its content, because the file was already
+   * replicated with a previous snapshot.
+   */
+  public void replicateFileReference(
+      long snapshotPosition, int totalCount, File snapshotChunkFile, long fileChecksum) {
+    final SnapshotChunk chunkToReplicate =
+        SnapshotChunkUtil.createFileReferenceChunk(
+            snapshotChunkFile, snapshotPosition, totalCount, fileChecksum);
+    replication.replicate(chunkToReplicate);
+  }
+
+  /**
+   * Registering for requests of receivers, which need the content of all files of a snapshot
+   * because they could not resolve a file reference.
+   */
+  public void consumeFullReplicationRequests(LongConsumer consumer) {
+    replication.consumeFullReplicationRequests(consumer);
+  }
+
   /** Registering for consuming snapshot chunks. */
   public void consumeReplicatedSnapshots() {
     replication.consume(this::consumeSnapshotChunk);
@@ -80,9 +113,9 @@ public final class ReplicationController {
     final String snapshotName = Long.toString(snapshotPosition);
     final String chunkName = snapshotChunk.getChunkName();
 
-    final long snapshotCounter =
-        receivedSnapshots.computeIfAbsent(snapshotPosition, k -> START_VALUE);
-    if (snapshotCounter == INVALID_SNAPSHOT) {
+    final ReceivedSnapshot receivedSnapshot =
+        receivedSnapshots.computeIfAbsent(snapshotPosition, k -> new ReceivedSnapshot());
+    if (receivedSnapshot.isInvalid) {
       LOG.debug(
           "Ignore snapshot chunk {}, because snapshot {} is marked as invalid.",
           chunkName,
@@ -90,21 +123,61 @@ public final class ReplicationController {
       return;
     }
 
+    if (receivedSnapshot.isFullReplicationRequested && snapshotChunk.isFileReference()) {
+      LOG.debug(
+          "Ignore file reference {}, because all files of snapshot {} are requested.",
+          chunkName,
+          snapshotName);
+      return;
+    }
+
+    final String chunkKey = chunkKeyOf(snapshotChunk);
+    if (receivedSnapshot.chunks.contains(chunkKey)) {
+      LOG.debug(
+          "Ignore snapshot chunk {} at offset {}, because it was already received for snapshot {}.",
+          chunkName,
+          snapshotChunk.getFileOffset(),
+          snapshotName);
+      return;
+    }
+
     if (snapshotConsumer.consumeSnapshotChunk(snapshotChunk)) {
-      validateWhenReceivedAllChunks(snapshotChunk);
+      receivedSnapshot.chunks.add(chunkKey);
+      // chunks of the replication with file references can still arrive after all files were
+      // requested, but they count fewer chunks than the replication with the content of all files
+      receivedSnapshot.totalCount =
+          Math.max(receivedSnapshot.totalCount, snapshotChunk.getTotalCount());
+      validateWhenReceivedAllChunks(snapshotChunk, receivedSnapshot);
+    } else if (snapshotChunk.isFileReference()) {
+      LOG.debug(
+          "Failed to resolve file reference {} of snapshot {}, request all files of it.",
+          chunkName,
+          snapshotName);
+      requestFullReplication(snapshotPosition, receivedSnapshot);
     } else {
-      markSnapshotAsInvalid(snapshotChunk);
+      markSnapshotAsInvalid(receivedSnapshot);
     }
   }
 
-  private void markSnapshotAsInvalid(SnapshotChunk chunk) {
-    final long snapshotPosition = chunk.getSnapshotPosition();
-    receivedSnapshots.put(snapshotPosition, INVALID_SNAPSHOT);
+  private void requestFullReplication(long snapshotPosition, ReceivedSnapshot receivedSnapshot) {
+    receivedSnapshot.isFullReplicationRequested = true;
+    receivedSnapshot.totalCount = 0;
+    receivedSnapshot.chunks.clear();
+    // the files which were already linked are shared with other snapshots, so they must not be
+    // overwritten with the content of the full replication
+    snapshotConsumer.invalidateSnapshot(snapshotPosition);
+    replication.requestFullReplication(snapshotPosition);
+  }
+
+  private void markSnapshotAsInvalid(ReceivedSnapshot receivedSnapshot) {
+    receivedSnapshot.isInvalid = true;
+    receivedSnapshot.chunks.clear();
   }
 
-  private void validateWhenReceivedAllChunks(SnapshotChunk snapshotChunk) {
-    final int totalChunkCount = snapshotChunk.getTotalCount();
-    final long currentChunks = incrementAndGetChunkCount(snapshotChunk);
+  private void validateWhenReceivedAllChunks(
+      SnapshotChunk snapshotChunk, ReceivedSnapshot receivedSnapshot) {
+    final int totalChunkCount = receivedSnapshot.totalCount;
+    final int currentChunks = receivedSnapshot.chunks.size();
 
     if (currentChunks == totalChunkCount) {
       final File validSnapshotDirectory =
@@ -115,7 +188,7 @@ public final class ReplicationController {
           totalChunkCount,
           validSnapshotDirectory.toPath());
 
-      final boolean valid = tryToMarkSnapshotAsValid(snapshotChunk);
+      final boolean valid = tryToMarkSnapshotAsValid(snapshotChunk, receivedSnapshot);
 
       if (valid) {
         validSnapshotListener.onNewValidSnapshot();
@@ -128,22 +201,27 @@ public final class ReplicationController {
     }
   }
 
-  private long incrementAndGetChunkCount(SnapshotChunk snapshotChunk) {
-    final long snapshotPosition = snapshotChunk.getSnapshotPosition();
-    final long oldCount = receivedSnapshots.get(snapshotPosition);
-    final long newCount = oldCount + 1;
-    receivedSnapshots.put(snapshotPosition, newCount);
-    return newCount;
+  private static String chunkKeyOf(SnapshotChunk snapshotChunk) {
+    return snapshotChunk.getChunkName() + "@" + snapshotChunk.getFileOffset();
   }
 
-  private boolean tryToMarkSnapshotAsValid(SnapshotChunk snapshotChunk) {
+  private boolean tryToMarkSnapshotAsValid(
+      SnapshotChunk snapshotChunk, ReceivedSnapshot receivedSnapshot) {
     if (snapshotConsumer.completeSnapshot(snapshotChunk.getSnapshotPosition())) {
       receivedSnapshots.remove(snapshotChunk.getSnapshotPosition());
       return true;
 
     } else {
-      markSnapshotAsInvalid(snapshotChunk);
+      markSnapshotAsInvalid(receivedSnapshot);
       return false;
     }
   }
+
+  /** The chunks (name and file offset) which are received for a snapshot. */
+  private static final class ReceivedSnapshot {
+    private final Set<String> chunks = new HashSet<>();
+    private int totalCount;
+    private boolean isInvalid;
+    private boolean isFullReplicationRequested;
+  }
 }
@@ -26,9 +26,21 @@ public interface SnapshotChunk {
   /** @return the name of the current chunk (e.g. file name) */
   String getChunkName();
 
+  /**
+   * @return the offset of the content in the chunk file, large files are replicated in multiple
+   *     chunks with increasing offsets
+   */
+  long getFileOffset();
+
   /** @return the checksum of the content, can be use to verify the integrity of the content */
   long getChecksum();
 
   /** @return the content of the current chunk */
   byte[] getContent();
+
+  /**
+   * @return {@code true} if the chunk contains no content but refers to a file which the receiver
+   *     holds from a previous snapshot, the checksum is the checksum of the whole file
+   */
+  boolean isFileReference();
 }
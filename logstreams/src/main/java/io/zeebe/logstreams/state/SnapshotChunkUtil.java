@@ -15,42 +15,168 @@
  */
 package io.zeebe.logstreams.state;
 
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.zip.CRC32;
 
 public class SnapshotChunkUtil {
 
+  /**
+   * The maximum size of the content of a single snapshot chunk. Larger snapshot files are split
+   * into multiple chunks, which bounds the memory which is used to replicate a snapshot.
+   */
+  public static final int MAX_CHUNK_SIZE = 512 * 1024;
+
   public static long createChecksum(byte[] content) {
     final CRC32 crc32 = new CRC32();
     crc32.update(content);
     return crc32.getValue();
   }
 
+  /** @return the checksum of the whole content of the given file */
+  public static long createFileChecksum(File file) throws IOException {
+    final CRC32 crc32 = new CRC32();
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+      final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), MAX_CHUNK_SIZE));
+
+      while (channel.read(buffer) > 0) {
+        buffer.flip();
+        crc32.update(buffer);
+        buffer.clear();
+      }
+    }
+
+    return crc32.getValue();
+  }
+
+  /** @return the number of chunks which are needed to replicate the given file */
+  public static int getChunkCount(File snapshotFile, int maxChunkSize) {
+    final long length = snapshotFile.length();
+    // an empty file is replicated as one empty chunk
+    return Math.max(1, (int) ((length + maxChunkSize - 1) / maxChunkSize));
+  }
+
+  /** @return the number of chunks which are needed to replicate all files of the snapshot */
+  public static int getChunkCount(File snapshotDirectory) {
+    final File[] files = snapshotDirectory.listFiles();
+    int chunkCount = 0;
+
+    if (files != null) {
+      for (File file : files) {
+        chunkCount += getChunkCount(file, MAX_CHUNK_SIZE);
+      }
+    }
+
+    return chunkCount;
+  }
+
+  /**
+   * Reads the chunk with the given index, counting the chunks of all files in the given order.
+   *
+   * @return the chunk, or {@code null} if the index is out of range
+   */
+  public static SnapshotChunk createSnapshotChunk(
+      File[] snapshotFiles, long snapshotPosition, int chunkIdx, int maxChunkSize)
+      throws IOException {
+    int totalCount = 0;
+    for (File file : snapshotFiles) {
+      totalCount += getChunkCount(file, maxChunkSize);
+    }
+
+    int remainingIdx = chunkIdx;
+    for (File file : snapshotFiles) {
+      final int fileChunkCount = getChunkCount(file, maxChunkSize);
+
+      if (remainingIdx < fileChunkCount) {
+        final long fileOffset = (long) remainingIdx * maxChunkSize;
+        return createSnapshotChunkFromFile(
+            file, snapshotPosition, totalCount, fileOffset, maxChunkSize);
+      }
+
+      remainingIdx -= fileChunkCount;
+    }
+
+    return null;
+  }
+
+  /**
+   * Reads at most {@code maxChunkSize} bytes of the given file, starting at the given offset. The
+   * file is read with a positional read, so only the content of the chunk is held in memory.
+   */
   public static SnapshotChunk createSnapshotChunkFromFile(
-      File snapshotChunkFile, long snapshotPosition, int totalCount) throws IOException {
-    final byte[] content;
-    content = Files.readAllBytes(snapshotChunkFile.toPath());
-    final long checksum = createChecksum(content);
+      File snapshotChunkFile,
+      long snapshotPosition,
+      int totalCount,
+      long fileOffset,
+      int maxChunkSize)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(snapshotChunkFile.toPath(), READ)) {
+      final long remaining = Math.max(0, channel.size() - fileOffset);
+      final byte[] content = new byte[(int) Math.min(remaining, maxChunkSize)];
+      final ByteBuffer buffer = ByteBuffer.wrap(content);
+
+      while (buffer.hasRemaining()) {
+        final int read = channel.read(buffer, fileOffset + buffer.position());
+        if (read < 0) {
+          throw new EOFException(
+              String.format(
+                  "Expected to read %d bytes of snapshot file '%s' at offset %d, but reached end.",
+                  content.length, snapshotChunkFile, fileOffset));
+        }
+      }
+
+      final long checksum = createChecksum(content);
+      return new SnapshotChunkImpl(
+          snapshotPosition,
+          totalCount,
+          snapshotChunkFile.getName(),
+          fileOffset,
+          checksum,
+          content,
+          false);
+    }
+  }
+
+  /**
+   * Creates a chunk which refers to a file without its content. The receiver already holds the
+   * file from a previous snapshot, the checksum is the checksum of the whole file.
+   */
+  public static SnapshotChunk createFileReferenceChunk(
+      File snapshotFile, long snapshotPosition, int totalCount, long fileChecksum) {
     return new SnapshotChunkImpl(
-        snapshotPosition, totalCount, snapshotChunkFile.getName(), checksum, content);
+        snapshotPosition, totalCount, snapshotFile.getName(), 0, fileChecksum, new byte[0], true);
   }
 
   private static final class SnapshotChunkImpl implements SnapshotChunk {
     private final long snapshotPosition;
     private final int totalCount;
     private final String chunkName;
+    private final long fileOffset;
     private final byte[] content;
     private final long checksum;
+    private final boolean isFileReference;
 
     SnapshotChunkImpl(
-        long snapshotPosition, int totalCount, String chunkName, long checksum, byte[] content) {
+        long snapshotPosition,
+        int totalCount,
+        String chunkName,
+        long fileOffset,
+        long checksum,
+        byte[] content,
+        boolean isFileReference) {
       this.snapshotPosition = snapshotPosition;
       this.totalCount = totalCount;
       this.chunkName = chunkName;
+      this.fileOffset = fileOffset;
       this.checksum = checksum;
       this.content = content;
+      this.isFileReference = isFileReference;
     }
 
     @Override
@@ -68,6 +194,11 @@ public class SnapshotChunkUtil {
       return totalCount;
     }
 
+    @Override
+    public long getFileOffset() {
+      return fileOffset;
+    }
+
     @Override
     public long getChecksum() {
       return checksum;
@@ -77,5 +208,10 @@ public class SnapshotChunkUtil {
     public byte[] getContent() {
       return content;
     }
+
+    @Override
+    public boolean isFileReference() {
+      return isFileReference;
+    }
   }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.state;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the names, lengths and checksums of the files of a snapshot. It is used to find the
+ * files which did not change since a previous snapshot, so that they don't need to be replicated
+ * again.
+ */
+public final class SnapshotManifest {
+
+  public static final SnapshotManifest EMPTY = new SnapshotManifest(new HashMap<>());
+
+  private static final String SST_FILE_SUFFIX = ".sst";
+
+  private final Map<String, FileEntry> files;
+
+  private SnapshotManifest(Map<String, FileEntry> files) {
+    this.files = files;
+  }
+
+  /**
+   * Creates the manifest of the given snapshot. The checksums of immutable files which are also
+   * part of the previous manifest are reused, so only new or changed files are read.
+   */
+  public static SnapshotManifest create(File snapshotDirectory, SnapshotManifest previous)
+      throws IOException {
+    final Map<String, FileEntry> files = new HashMap<>();
+    final File[] snapshotFiles = snapshotDirectory.listFiles();
+
+    if (snapshotFiles != null) {
+      for (File file : snapshotFiles) {
+        final String name = file.getName();
+        final long length = file.length();
+
+        final FileEntry previousEntry = previous.files.get(name);
+        final long checksum;
+        if (isImmutableFile(name) && previousEntry != null && previousEntry.length == length) {
+          checksum = previousEntry.checksum;
+        } else {
+          checksum = SnapshotChunkUtil.createFileChecksum(file);
+        }
+
+        files.put(name, new FileEntry(length, checksum));
+      }
+    }
+
+    return new SnapshotManifest(files);
+  }
+
+  /**
+   * SST files are never modified after they are written, a changed content results in a new file
+   * name. Other files (e.g. the RocksDB manifest or options) can change under the same name.
+   */
+  public static boolean isImmutableFile(String fileName) {
+    return fileName.endsWith(SST_FILE_SUFFIX);
+  }
+
+  /**
+   * @return {@code true} if the manifest contains an immutable file with the given name, length
+   *     and checksum
+   */
+  public boolean containsImmutableFile(String fileName, long length, long checksum) {
+    final FileEntry entry = files.get(fileName);
+    return isImmutableFile(fileName)
+        && entry != null
+        && entry.length == length
+        && entry.checksum == checksum;
+  }
+
+  public long getChecksum(String fileName) {
+    final FileEntry entry = files.get(fileName);
+    if (entry == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected snapshot manifest to contain file '%s', but not found.", fileName));
+    }
+
+    return entry.checksum;
+  }
+
+  private static final class FileEntry {
+    private final long length;
+    private final long checksum;
+
+    FileEntry(long length, long checksum) {
+      this.length = length;
+      this.checksum = checksum;
+    }
+  }
+}
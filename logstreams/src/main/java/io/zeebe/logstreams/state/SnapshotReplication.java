@@ -16,6 +16,7 @@
 package io.zeebe.logstreams.state;
 
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public interface SnapshotReplication {
 
@@ -33,6 +34,22 @@ public interface SnapshotReplication {
    */
   void consume(Consumer<SnapshotChunk> consumer);
 
+  /**
+   * Requests that the snapshot with the given position is replicated again with the content of all
+   * files, because the receiver could not resolve a file reference of it. Does nothing if the
+   * replication has no way back to the replicating side.
+   *
+   * @param snapshotPosition the position of the snapshot which could not be completed
+   */
+  default void requestFullReplication(long snapshotPosition) {}
+
+  /**
+   * Registers a consumer, which should be called when a receiver requested a full replication.
+   *
+   * @param consumer the consumer which is called with the position of the requested snapshot
+   */
+  default void consumeFullReplicationRequests(LongConsumer consumer) {}
+
   /** Closes the snapshot replication. */
   void close();
 }
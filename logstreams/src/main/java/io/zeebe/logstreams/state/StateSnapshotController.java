@@ -38,6 +38,12 @@ import org.slf4j.Logger;
 public class StateSnapshotController implements SnapshotController, ValidSnapshotListener {
   private static final Logger LOG = Loggers.SNAPSHOT_LOGGER;
 
+  /**
+   * Unchanged files are not replicated again, but every n-th replication contains all files, so
+   * that a follower which missed a previous snapshot receives a complete snapshot again.
+   */
+  private static final int FULL_REPLICATION_INTERVAL = 10;
+
   private static final String ERROR_MSG_ENSURING_MAX_SNAPSHOT_COUNT =
       "Unexpected exception occurred on ensuring maximum snapshot count.";
 
@@ -49,6 +55,11 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
   private final int maxSnapshotCount;
   private volatile SnapshotRestoreInfo snapshotRestoreInfo = new NullSnapshotRestoreInfo();
 
+  private SnapshotManifest replicatedManifest = SnapshotManifest.EMPTY;
+  private int replicationsSinceFullReplication = FULL_REPLICATION_INTERVAL;
+  private volatile boolean isFullReplicationRequested;
+  private volatile Consumer<Runnable> replicationExecutor;
+
   public StateSnapshotController(final ZeebeDbFactory rocksDbFactory, final StateStorage storage) {
     this(rocksDbFactory, storage, new NoneSnapshotReplication(), 1);
   }
@@ -80,7 +91,8 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
     final File snapshotDir = storage.getSnapshotDirectoryFor(lowerBoundSnapshotPosition);
     db.createSnapshot(snapshotDir);
     snapshotRestoreInfo =
-        new DefaultSnapshotRestoreInfo(lowerBoundSnapshotPosition, snapshotDir.listFiles().length);
+        new DefaultSnapshotRestoreInfo(
+            lowerBoundSnapshotPosition, SnapshotChunkUtil.getChunkCount(snapshotDir));
   }
 
   @Override
@@ -123,6 +135,11 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
   }
 
   public void replicateLatestSnapshot(Consumer<Runnable> executor) {
+    if (replicationExecutor == null) {
+      replicationExecutor = executor;
+      replicationController.consumeFullReplicationRequests(this::onFullReplicationRequest);
+    }
+
     final List<File> snapshots = storage.listByPositionDesc();
 
     if (snapshots != null && !snapshots.isEmpty()) {
@@ -130,14 +147,109 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
       LOG.debug("Start replicating latest snapshot {}", latestSnapshotDirectory.toPath());
       final long snapshotPosition = Long.parseLong(latestSnapshotDirectory.getName());
 
+      final SnapshotManifest manifest = createManifest(latestSnapshotDirectory);
+      final SnapshotManifest previousManifest = getPreviousManifestForReplication();
+
       final File[] files = latestSnapshotDirectory.listFiles();
-      for (File snapshotChunkFile : files) {
-        executor.accept(
-            () -> {
-              LOG.debug("Replicate snapshot chunk {}", snapshotChunkFile.toPath());
-              replicationController.replicate(snapshotPosition, files.length, snapshotChunkFile);
-            });
+      final boolean[] isReplicated = new boolean[files.length];
+      int totalCount = 0;
+
+      for (int i = 0; i < files.length; i++) {
+        final File file = files[i];
+        final String name = file.getName();
+
+        isReplicated[i] =
+            manifest != null
+                && previousManifest.containsImmutableFile(
+                    name, file.length(), manifest.getChecksum(name));
+
+        totalCount +=
+            isReplicated[i]
+                ? 1
+                : SnapshotChunkUtil.getChunkCount(file, SnapshotChunkUtil.MAX_CHUNK_SIZE);
+      }
+
+      for (int i = 0; i < files.length; i++) {
+        final File snapshotChunkFile = files[i];
+
+        if (isReplicated[i]) {
+          replicateFileReference(
+              executor, snapshotPosition, totalCount, snapshotChunkFile, manifest);
+        } else {
+          replicateFile(executor, snapshotPosition, totalCount, snapshotChunkFile);
+        }
       }
+
+      replicatedManifest = manifest != null ? manifest : SnapshotManifest.EMPTY;
+    }
+  }
+
+  private SnapshotManifest createManifest(File snapshotDirectory) {
+    try {
+      return SnapshotManifest.create(snapshotDirectory, replicatedManifest);
+    } catch (IOException e) {
+      LOG.warn(
+          "Failed to create manifest of snapshot {}, replicate all files.", snapshotDirectory, e);
+      return null;
+    }
+  }
+
+  private void onFullReplicationRequest(long snapshotPosition) {
+    LOG.debug(
+        "Receiver could not resolve a file reference of snapshot {}, replicate all files.",
+        snapshotPosition);
+
+    // the latest snapshot is the requested one or a newer one, which the receiver needs as well
+    isFullReplicationRequested = true;
+    final Consumer<Runnable> executor = replicationExecutor;
+    executor.accept(() -> replicateLatestSnapshot(executor));
+  }
+
+  private SnapshotManifest getPreviousManifestForReplication() {
+    // replicate all files from time to time, in case a follower missed a previous snapshot
+    // without noticing, e.g. because it did not receive any chunk of the next snapshot
+    replicationsSinceFullReplication += 1;
+    if (isFullReplicationRequested
+        || replicationsSinceFullReplication >= FULL_REPLICATION_INTERVAL) {
+      isFullReplicationRequested = false;
+      replicationsSinceFullReplication = 0;
+      return SnapshotManifest.EMPTY;
+    }
+
+    return replicatedManifest;
+  }
+
+  private void replicateFileReference(
+      Consumer<Runnable> executor,
+      long snapshotPosition,
+      int totalCount,
+      File snapshotChunkFile,
+      SnapshotManifest manifest) {
+    final long checksum = manifest.getChecksum(snapshotChunkFile.getName());
+
+    executor.accept(
+        () -> {
+          LOG.debug("Replicate reference to unchanged snapshot file {}", snapshotChunkFile);
+          replicationController.replicateFileReference(
+              snapshotPosition, totalCount, snapshotChunkFile, checksum);
+        });
+  }
+
+  private void replicateFile(
+      Consumer<Runnable> executor, long snapshotPosition, int totalCount, File snapshotChunkFile) {
+    final int fileChunkCount =
+        SnapshotChunkUtil.getChunkCount(snapshotChunkFile, SnapshotChunkUtil.MAX_CHUNK_SIZE);
+
+    // the content is read when the chunk is replicated, to avoid holding whole files in memory
+    for (int i = 0; i < fileChunkCount; i++) {
+      final long fileOffset = (long) i * SnapshotChunkUtil.MAX_CHUNK_SIZE;
+      executor.accept(
+          () -> {
+            LOG.debug(
+                "Replicate snapshot chunk {} at offset {}", snapshotChunkFile.toPath(), fileOffset);
+            replicationController.replicate(
+                snapshotPosition, totalCount, snapshotChunkFile, fileOffset);
+          });
     }
   }
 
@@ -165,6 +277,9 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
     final List<File> snapshots = storage.listByPositionDesc();
     LOG.debug("Available snapshots: {}", snapshots);
 
+    // the recovered database can create files with the names of previously replicated files
+    replicatedManifest = SnapshotManifest.EMPTY;
+
     long lowerBoundSnapshotPosition = -1;
 
     final Iterator<File> snapshotIterator = snapshots.iterator();
@@ -183,7 +298,7 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
 
         snapshotRestoreInfo =
             new DefaultSnapshotRestoreInfo(
-                lowerBoundSnapshotPosition, snapshotDirectory.listFiles().length);
+                lowerBoundSnapshotPosition, SnapshotChunkUtil.getChunkCount(snapshotDirectory));
       } catch (Exception e) {
         FileUtil.deleteFolder(runtimeDirectory.getAbsolutePath());
 
@@ -224,7 +339,8 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
       final File latestSnapshot = getLastValidSnapshotDirectory();
       snapshotRestoreInfo =
           new DefaultSnapshotRestoreInfo(
-              Long.parseLong(latestSnapshot.getName()), latestSnapshot.listFiles().length);
+              Long.parseLong(latestSnapshot.getName()),
+              SnapshotChunkUtil.getChunkCount(latestSnapshot));
 
       ensureMaxSnapshotCount();
     } catch (IOException e) {
@@ -338,11 +454,11 @@ public class StateSnapshotController implements SnapshotController, ValidSnapsho
   private void initializeRestoreInfo() {
     final File lastSnapshot = getLastValidSnapshotDirectory();
     if (lastSnapshot != null) {
-      final int numFiles = lastSnapshot.listFiles().length;
+      final int numChunks = SnapshotChunkUtil.getChunkCount(lastSnapshot);
       final long lastSnapshotPosition = Long.parseLong(lastSnapshot.getName());
 
-      if (lastSnapshotPosition > -1L && numFiles > 0) {
-        snapshotRestoreInfo = new DefaultSnapshotRestoreInfo(lastSnapshotPosition, numFiles);
+      if (lastSnapshotPosition > -1L && numChunks > 0) {
+        snapshotRestoreInfo = new DefaultSnapshotRestoreInfo(lastSnapshotPosition, numChunks);
       }
     }
   }
@@ -21,6 +21,9 @@ import io.atomix.cluster.MemberId;
 import io.zeebe.distributedlog.restore.impl.ControllableRestoreClient;
 import io.zeebe.distributedlog.restore.log.impl.DefaultLogReplicationResponse;
 import io.zeebe.distributedlog.restore.log.impl.RecordingLogReplicationAppender;
+import io.zeebe.util.ZbLogger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
@@ -219,6 +222,61 @@ public class LogReplicatorTest {
     assertThat(result).isCompletedExceptionally().hasFailedWithThrowableThat().isEqualTo(error);
   }
 
+  @Test
+  public void shouldRequestNextRangeBeforeAppendingWithWindow() {
+    // given
+    final List<Integer> requestsOnAppend = new ArrayList<>();
+    final LogReplicator replicator =
+        new LogReplicator(
+            (p, b) -> {
+              requestsOnAppend.add(client.getRequestLog().size());
+              return 1;
+            },
+            client,
+            executor,
+            null,
+            2,
+            LogReplicatorMetrics.NOOP,
+            new ZbLogger(LogReplicatorTest.class));
+    final LogReplicationResponse[] response =
+        new LogReplicationResponse[] {newResponse(true, 2), newResponse(false, 4)};
+
+    // when
+    final CompletableFuture<Long> result = replicator.replicate(server, -1, 5);
+    client.completeLogReplication(-1, response[0]);
+    client.completeLogReplication(response[0].getToPosition(), response[1]);
+
+    // then
+    assertThat(requestsOnAppend).containsExactly(2, 2);
+    assertThat(result).isCompletedWithValue(response[1].getToPosition());
+  }
+
+  @Test
+  public void shouldRetryRequestOnOtherNode() {
+    // given
+    final MemberId otherServer = MemberId.from("other");
+    final LogReplicator replicator =
+        new LogReplicator(
+            appender,
+            client,
+            executor,
+            () -> otherServer,
+            LogReplicator.DEFAULT_WINDOW_SIZE,
+            LogReplicatorMetrics.NOOP,
+            new ZbLogger(LogReplicatorTest.class));
+    final LogReplicationResponse response = newResponse(false, 2);
+
+    // when
+    final CompletableFuture<Long> result = replicator.replicate(server, -1, 5);
+    client.completeLogReplication(-1, new IllegalStateException("fail"));
+    client.completeLogReplication(-1, response);
+
+    // then
+    assertThat(client.getRequestLog()).hasSize(2);
+    assertThat(result).isCompletedWithValue(response.getToPosition());
+    assertThat(appender.getInvocations()).hasSize(1);
+  }
+
   private LogReplicationResponse newResponse(boolean moreAvailable) {
     final long toPosition = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
     return newResponse(moreAvailable, toPosition);
@@ -177,6 +177,11 @@ public class RestoreSnapshotReplicatorTest {
       return name;
     }
 
+    @Override
+    public long getFileOffset() {
+      return 0;
+    }
+
     @Override
     public long getChecksum() {
       return checksum;
@@ -186,5 +191,10 @@ public class RestoreSnapshotReplicatorTest {
     public byte[] getContent() {
       return content;
     }
+
+    @Override
+    public boolean isFileReference() {
+      return false;
+    }
   }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.fs.log;
+
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.METADATA_LENGTH;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentIndex.INDEX_INTERVAL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.log.fs.FsLogSegmentIndex;
+import java.io.File;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FsLogSegmentIndexTest {
+  private static final int SEGMENT_CAPACITY = 4 * INDEX_INTERVAL;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File indexFile;
+
+  @Before
+  public void init() {
+    indexFile = new File(tempFolder.getRoot(), "00.index");
+  }
+
+  @Test
+  public void shouldNotLookUpBlockIfEmpty() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+
+    // when
+    final int blockOffset = index.lookUpBlockOffset(Long.MAX_VALUE);
+
+    // then
+    assertThat(blockOffset).isEqualTo(-1);
+  }
+
+  @Test
+  public void shouldLookUpLastBlockWithLowerPositions() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+    index.add(10, METADATA_LENGTH);
+    index.add(20, METADATA_LENGTH + INDEX_INTERVAL);
+    index.add(30, METADATA_LENGTH + 2 * INDEX_INTERVAL);
+
+    // then
+    assertThat(index.lookUpBlockOffset(5)).isEqualTo(-1);
+    assertThat(index.lookUpBlockOffset(10)).isEqualTo(-1);
+    assertThat(index.lookUpBlockOffset(11)).isEqualTo(METADATA_LENGTH);
+    assertThat(index.lookUpBlockOffset(20)).isEqualTo(METADATA_LENGTH);
+    assertThat(index.lookUpBlockOffset(25)).isEqualTo(METADATA_LENGTH + INDEX_INTERVAL);
+    assertThat(index.lookUpBlockOffset(Long.MAX_VALUE))
+        .isEqualTo(METADATA_LENGTH + 2 * INDEX_INTERVAL);
+  }
+
+  @Test
+  public void shouldOnlyIndexBlocksAfterInterval() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+
+    // when
+    index.add(10, METADATA_LENGTH);
+    index.add(20, METADATA_LENGTH + INDEX_INTERVAL - 1);
+    index.add(30, METADATA_LENGTH + INDEX_INTERVAL);
+
+    // then
+    assertThat(index.getEntryCount()).isEqualTo(2);
+    assertThat(index.lookUpBlockOffset(25)).isEqualTo(METADATA_LENGTH);
+    assertThat(index.lookUpBlockOffset(31)).isEqualTo(METADATA_LENGTH + INDEX_INTERVAL);
+  }
+
+  @Test
+  public void shouldNotIndexLowerPositions() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+    index.add(10, METADATA_LENGTH);
+
+    // when
+    index.add(10, METADATA_LENGTH + INDEX_INTERVAL);
+
+    // then
+    assertThat(index.getEntryCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotIndexMoreBlocksThanCapacity() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, INDEX_INTERVAL);
+
+    // when
+    index.add(10, METADATA_LENGTH);
+    index.add(20, METADATA_LENGTH + INDEX_INTERVAL);
+    index.add(30, METADATA_LENGTH + 2 * INDEX_INTERVAL);
+
+    // then
+    assertThat(index.getEntryCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldRestoreEntriesOnOpen() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+    index.add(10, METADATA_LENGTH);
+    index.add(20, METADATA_LENGTH + INDEX_INTERVAL);
+    index.flush();
+
+    // when
+    final FsLogSegmentIndex openedIndex =
+        FsLogSegmentIndex.open(indexFile, METADATA_LENGTH + SEGMENT_CAPACITY);
+
+    // then
+    assertThat(openedIndex.getEntryCount()).isEqualTo(2);
+    assertThat(openedIndex.lookUpBlockOffset(21)).isEqualTo(METADATA_LENGTH + INDEX_INTERVAL);
+  }
+
+  @Test
+  public void shouldDropEntriesOfUncommittedBlocksOnOpen() {
+    // given
+    final FsLogSegmentIndex index = FsLogSegmentIndex.create(indexFile, SEGMENT_CAPACITY);
+    index.add(10, METADATA_LENGTH);
+    index.add(20, METADATA_LENGTH + INDEX_INTERVAL);
+    index.flush();
+
+    // when
+    final FsLogSegmentIndex openedIndex =
+        FsLogSegmentIndex.open(indexFile, METADATA_LENGTH + INDEX_INTERVAL);
+
+    // then
+    assertThat(openedIndex.getEntryCount()).isEqualTo(1);
+    assertThat(openedIndex.lookUpBlockOffset(21)).isEqualTo(METADATA_LENGTH);
+  }
+}
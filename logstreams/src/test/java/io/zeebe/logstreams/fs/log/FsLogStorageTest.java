@@ -36,6 +36,8 @@ import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -336,6 +338,111 @@ public class FsLogStorageTest {
     assertThat(result).isEqualTo(LogStorage.OP_RESULT_NO_DATA);
   }
 
+  @Test
+  public void shouldReadMappedBlock() throws IOException {
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+
+    fsLogStorage.open();
+
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+
+    final long result = fsLogStorage.readMapped(view, address);
+
+    assertThat(fsLogStorage.supportsMappedReads()).isTrue();
+    assertThat(result).isEqualTo(address + MSG.length);
+    assertThat(readView(view)).isEqualTo(MSG);
+  }
+
+  @Test
+  public void shouldReadMappedBlocksAppendedAfterPreviousRead() throws IOException {
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+
+    fsLogStorage.open();
+
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    final long nextAddress = fsLogStorage.readMapped(view, address);
+
+    final byte[] otherMsg = getBytes("other");
+    fsLogStorage.append(ByteBuffer.wrap(otherMsg));
+
+    final long result = fsLogStorage.readMapped(view, nextAddress);
+
+    assertThat(result).isEqualTo(nextAddress + otherMsg.length);
+    assertThat(readView(view)).isEqualTo(otherMsg);
+  }
+
+  @Test
+  public void shouldReadMappedBlocksWhileAppending() throws IOException {
+    // given
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+    fsLogStorage.open();
+
+    long nextAddress = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    nextAddress = fsLogStorage.readMapped(view, nextAddress);
+    final long mappingAddress = view.addressOffset() - partitionOffset(nextAddress - MSG.length);
+
+    for (int i = 0; i < 100; i++) {
+      // when
+      final byte[] block = getBytes("block-" + i);
+      fsLogStorage.append(ByteBuffer.wrap(block));
+      final long readAddress = nextAddress;
+      nextAddress = fsLogStorage.readMapped(view, readAddress);
+
+      // then
+      assertThat(nextAddress).isEqualTo(readAddress + block.length);
+      assertThat(readView(view)).isEqualTo(block);
+      // the segment is mapped once, tailing the log does not remap it
+      assertThat(view.addressOffset() - partitionOffset(readAddress)).isEqualTo(mappingAddress);
+    }
+  }
+
+  @Test
+  public void shouldReadMappedBlockOnNextSegment() throws IOException {
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+
+    fsLogStorage.open();
+
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    final long nextAddress = fsLogStorage.readMapped(view, address);
+
+    final int remainingCapacity =
+        SEGMENT_SIZE - FsLogSegmentDescriptor.METADATA_LENGTH - MSG.length;
+    final byte[] largeBlock = new byte[remainingCapacity + 1];
+    new Random().nextBytes(largeBlock);
+    final long largeBlockAddress = fsLogStorage.append(ByteBuffer.wrap(largeBlock));
+
+    final long result = fsLogStorage.readMapped(view, nextAddress);
+
+    assertThat(result).isEqualTo(largeBlockAddress + largeBlock.length);
+    assertThat(readView(view)).isEqualTo(largeBlock);
+  }
+
+  @Test
+  public void shouldNotReadMappedBlockIfNotAvailable() throws IOException {
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+
+    fsLogStorage.open();
+
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    final long nextAddress = fsLogStorage.readMapped(view, address);
+
+    final long result = fsLogStorage.readMapped(view, nextAddress);
+
+    assertThat(result).isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+    assertThat(readView(view)).isEqualTo(MSG);
+  }
+
+  @Test
+  public void shouldNotReadMappedBlockIfAddressIsInvalid() throws IOException {
+    final DirectBuffer view = new UnsafeBuffer(0, 0);
+
+    fsLogStorage.open();
+
+    final long result = fsLogStorage.readMapped(view, -1);
+
+    assertThat(result).isEqualTo(LogStorage.OP_RESULT_INVALID_ADDR);
+  }
+
   @Test
   public void shouldNotReadBlockIfBufferHasNoRemainingCapacity() throws IOException {
     final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length);
@@ -377,6 +484,68 @@ public class FsLogStorageTest {
     fsLogStorage.read(readBuffer, address);
   }
 
+  @Test
+  public void shouldLookUpFirstBlockAddressIfNotIndexed() throws IOException {
+    // given
+    fsLogStorage.open();
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    fsLogStorage.append(ByteBuffer.wrap(MSG));
+
+    // when
+    final long result = fsLogStorage.lookUpAddress(Long.MAX_VALUE);
+
+    // then
+    assertThat(result).isEqualTo(address);
+  }
+
+  @Test
+  public void shouldLookUpAddressOfIndexedBlockWithLowerPositions() throws IOException {
+    // given
+    fsLogStorage.open();
+    final long firstAddress = fsLogStorage.append(ByteBuffer.wrap(MSG), 1);
+    final long secondAddress = appendBlockOnNextSegment(2);
+    final long thirdAddress = fsLogStorage.append(ByteBuffer.wrap(MSG), 3);
+
+    // then
+    assertThat(fsLogStorage.lookUpAddress(1)).isEqualTo(firstAddress);
+    assertThat(fsLogStorage.lookUpAddress(2)).isEqualTo(firstAddress);
+    assertThat(fsLogStorage.lookUpAddress(3)).isEqualTo(secondAddress);
+    assertThat(fsLogStorage.lookUpAddress(Long.MAX_VALUE)).isEqualTo(thirdAddress);
+  }
+
+  @Test
+  public void shouldRestoreIndexOnReOpenedStorage() throws IOException {
+    // given
+    fsLogStorage.open();
+    fsLogStorage.append(ByteBuffer.wrap(MSG), 1);
+    final long secondAddress = appendBlockOnNextSegment(2);
+    fsLogStorage.close();
+
+    // when
+    fsLogStorage = new FsLogStorage(fsStorageConfig);
+    fsLogStorage.open();
+
+    // then
+    assertThat(new File(logPath, "00.index")).exists();
+    assertThat(new File(logPath, "01.index")).exists();
+    assertThat(fsLogStorage.lookUpAddress(3)).isEqualTo(secondAddress);
+  }
+
+  @Test
+  public void shouldDeleteIndexWithSegment() throws IOException {
+    // given
+    fsLogStorage.open();
+    fsLogStorage.append(ByteBuffer.wrap(MSG), 1);
+    final long secondAddress = appendBlockOnNextSegment(2);
+
+    // when
+    fsLogStorage.delete(secondAddress);
+
+    // then
+    assertThat(new File(logPath, "00.index")).doesNotExist();
+    assertThat(fsLogStorage.lookUpAddress(2)).isEqualTo(secondAddress);
+  }
+
   @Test
   public void shouldRestoreLogOnReOpenedStorage() throws IOException {
     final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length);
@@ -717,4 +886,16 @@ public class FsLogStorageTest {
     fsLogStorage.append(ByteBuffer.wrap(largeBlockBeforeMessage));
     return fsLogStorage.append(ByteBuffer.wrap(MSG));
   }
+
+  private long appendBlockOnNextSegment(final long highestPosition) throws IOException {
+    final byte[] largeBlock = new byte[SEGMENT_SIZE - FsLogSegmentDescriptor.METADATA_LENGTH];
+    new Random().nextBytes(largeBlock);
+    return fsLogStorage.append(ByteBuffer.wrap(largeBlock), highestPosition);
+  }
+
+  private byte[] readView(final DirectBuffer view) {
+    final byte[] bytes = new byte[view.capacity()];
+    view.getBytes(0, bytes);
+    return bytes;
+  }
 }
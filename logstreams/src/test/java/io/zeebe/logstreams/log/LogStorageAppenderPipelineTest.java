@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.dispatcher.Dispatchers;
+import io.zeebe.distributedlog.impl.DistributedLogstreamPartition;
+import io.zeebe.logstreams.impl.LogStorageAppender;
+import io.zeebe.util.ByteValue;
+import io.zeebe.util.sched.testing.ActorSchedulerRule;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import org.agrona.DirectBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class LogStorageAppenderPipelineTest {
+  private static final DirectBuffer EVENT = wrapString("FOO");
+  private static final int MAX_APPENDS_IN_FLIGHT = 2;
+
+  @Rule public ActorSchedulerRule actorSchedulerRule = new ActorSchedulerRule();
+
+  private final List<CompletableFuture<Long>> sentAppends = new CopyOnWriteArrayList<>();
+  private final List<Long> sentCommitPositions = new CopyOnWriteArrayList<>();
+  private final AtomicReference<Throwable> appendFailure = new AtomicReference<>();
+
+  private Dispatcher writeBuffer;
+  private DistributedLogstreamPartition distributedLog;
+  private LogStorageAppender appender;
+  private LogStreamWriterImpl writer;
+
+  @Before
+  public void setup() {
+    writeBuffer =
+        Dispatchers.create("writeBuffer")
+            .actorScheduler(actorSchedulerRule.get())
+            .bufferSize(ByteValue.ofMegabytes(1))
+            .build();
+
+    final LogStream logStream = mock(LogStream.class);
+    when(logStream.getWriteBuffer()).thenReturn(writeBuffer);
+    writer = new LogStreamWriterImpl(logStream);
+
+    distributedLog = mock(DistributedLogstreamPartition.class);
+    doAnswer(
+            invocation -> {
+              final CompletableFuture<Long> future = new CompletableFuture<>();
+              sentCommitPositions.add(invocation.getArgument(1));
+              sentAppends.add(future);
+              return future;
+            })
+        .when(distributedLog)
+        .asyncAppend(any(), anyLong());
+
+    appender =
+        new LogStorageAppender(
+            "appender",
+            0,
+            distributedLog,
+            writeBuffer.openSubscription("appender"),
+            1024,
+            MAX_APPENDS_IN_FLIGHT,
+            appendFailure::set);
+    actorSchedulerRule.submitActor(appender).join();
+  }
+
+  @After
+  public void tearDown() {
+    appender.close().join();
+    writeBuffer.close();
+  }
+
+  @Test
+  public void shouldLimitAppendsInFlight() {
+    // given
+    writeAndAwaitAppend(1);
+    writeAndAwaitAppend(2);
+
+    // when
+    writeEvent();
+
+    // then
+    verify(distributedLog, after(100).times(MAX_APPENDS_IN_FLIGHT)).asyncAppend(any(), anyLong());
+
+    // when
+    acknowledge(0);
+
+    // then
+    waitUntil(() -> sentAppends.size() == 3);
+  }
+
+  @Test
+  public void shouldAcknowledgeAppendsInOrder() {
+    // given
+    writeAndAwaitAppend(1);
+    writeAndAwaitAppend(2);
+
+    // when
+    acknowledge(1);
+
+    // then
+    assertThat(appender.getLastAcknowledgedPosition().join()).isEqualTo(-1L);
+
+    // when
+    acknowledge(0);
+
+    // then
+    assertThat(appender.getLastAcknowledgedPosition().join())
+        .isEqualTo(sentCommitPositions.get(1));
+  }
+
+  @Test
+  public void shouldRetryAppendIfOnlyOneAppendIsInFlight() {
+    // given
+    writeAndAwaitAppend(1);
+
+    // when
+    sentAppends.get(0).completeExceptionally(new RuntimeException("expected"));
+
+    // then
+    waitUntil(() -> sentAppends.size() == 2);
+    assertThat(sentCommitPositions.get(1)).isEqualTo(sentCommitPositions.get(0));
+
+    // when
+    acknowledge(1);
+
+    // then
+    assertThat(appender.getLastAcknowledgedPosition().join())
+        .isEqualTo(sentCommitPositions.get(0));
+    assertThat(appender.isFailed()).isFalse();
+    assertThat(appendFailure.get()).isNull();
+  }
+
+  @Test
+  public void shouldFailIfAppendFailsWhileMultipleAppendsAreInFlight() {
+    // given
+    writeAndAwaitAppend(1);
+    writeAndAwaitAppend(2);
+    final RuntimeException failure = new RuntimeException("expected");
+
+    // when
+    sentAppends.get(0).completeExceptionally(failure);
+
+    // then
+    waitUntil(() -> appendFailure.get() != null);
+    assertThat(appendFailure.get()).isSameAs(failure);
+    assertThat(appender.isFailed()).isTrue();
+
+    // when
+    acknowledge(1);
+    writeEvent();
+
+    // then
+    verify(distributedLog, after(100).times(2)).asyncAppend(any(), anyLong());
+    assertThat(appender.getLastAcknowledgedPosition().join()).isEqualTo(-1L);
+  }
+
+  private void writeAndAwaitAppend(int expectedAppends) {
+    writeEvent();
+    waitUntil(() -> sentAppends.size() == expectedAppends);
+  }
+
+  private void writeEvent() {
+    final long position = writer.keyNull().value(EVENT).tryWrite();
+    assertThat(position).isGreaterThanOrEqualTo(0);
+  }
+
+  private void acknowledge(int append) {
+    sentAppends.get(append).complete(sentCommitPositions.get(append));
+  }
+}
@@ -82,6 +82,15 @@ public class LogStorageAppenderTest {
     waitUntil(() -> storageAppender.getCurrentAppenderPosition() > positionBefore);
   }
 
+  @Test
+  public void shouldUpdateLastAcknowledgedPosition() {
+    final LogStorageAppender storageAppender = logStream.getLogStorageAppender();
+
+    final long position = writer.writeEvents(10, EVENT);
+
+    waitUntil(() -> storageAppender.getLastAcknowledgedPosition().join() == position);
+  }
+
   @Test
   @Ignore // TODO: handle failures in append
   public void shouldDiscardEventsIfFailToAppend() throws Exception {
@@ -32,7 +32,9 @@ import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.servicecontainer.testing.ServiceContainerRule;
 import io.zeebe.test.util.AutoCloseableRule;
 import io.zeebe.util.sched.testing.ActorSchedulerRule;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import org.agrona.DirectBuffer;
 import org.junit.Rule;
@@ -61,6 +63,8 @@ public class LogStreamTest {
           .around(serviceContainer)
           .around(closeables);
 
+  private volatile boolean rejectAppends = false;
+
   protected LogStream buildLogStream(final Consumer<LogStreamBuilder> streamConfig) {
     final LogStreamBuilder builder = new LogStreamBuilder(PARTITION_ID);
     builder
@@ -100,6 +104,10 @@ public class LogStreamTest {
     doAnswer(
             (Answer<CompletableFuture<Long>>)
                 invocation -> {
+                  if (rejectAppends) {
+                    return CompletableFuture.completedFuture(-1L);
+                  }
+
                   final Object[] arguments = invocation.getArguments();
                   if (arguments != null
                       && arguments.length > 1
@@ -211,6 +219,29 @@ public class LogStreamTest {
     assertThat(logStream.getCommitPosition()).isEqualTo(123L);
   }
 
+  @Test
+  public void shouldCloseAppenderIfAppendFails() {
+    // given
+    final List<Throwable> appendFailures = new CopyOnWriteArrayList<>();
+    final LogStream logStream =
+        buildLogStream(builder -> builder.appendFailureListener(appendFailures::add));
+    closeables.manage(logStream);
+
+    logStream.openAppender().join();
+    final Dispatcher writeBuffer = logStream.getWriteBuffer();
+
+    rejectAppends = true;
+
+    // when
+    new LogStreamWriterImpl(logStream).value(wrapString("event")).tryWrite();
+
+    // then
+    waitUntil(() -> !appendFailures.isEmpty());
+    waitUntil(writeBuffer::isClosed);
+
+    assertThat(logStream.getLogStorageAppender()).isNull();
+  }
+
   static long writeEvent(final LogStream logStream) {
     return writeEvent(logStream, wrapString("event"));
   }
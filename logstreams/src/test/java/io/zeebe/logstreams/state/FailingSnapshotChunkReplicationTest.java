@@ -156,6 +156,45 @@ public class FailingSnapshotChunkReplicationTest {
     assertThat(receiverStorage.existSnapshot(3)).isTrue();
   }
 
+  @Test
+  public void shouldNotCountDuplicatedChunks() throws Exception {
+    // given
+    final DuplicatingReplicator replicator = new DuplicatingReplicator(true);
+    setup(replicator);
+
+    receiverSnapshotController.consumeReplicatedSnapshots();
+    replicatorSnapshotController.takeSnapshot(1);
+
+    // when
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    // then
+    final List<SnapshotChunk> replicatedChunks = replicator.replicatedChunks;
+    assertThat(replicatedChunks.size()).isGreaterThan(1);
+
+    final File snapshotDirectory = receiverStorage.getTmpSnapshotDirectoryFor("1");
+    assertThat(snapshotDirectory).exists();
+    assertThat(receiverStorage.existSnapshot(1)).isFalse();
+  }
+
+  @Test
+  public void shouldMarkSnapshotAsValidIfReceivedDuplicatedChunk() throws Exception {
+    // given
+    final DuplicatingReplicator replicator = new DuplicatingReplicator(false);
+    setup(replicator);
+
+    receiverSnapshotController.consumeReplicatedSnapshots();
+    replicatorSnapshotController.takeSnapshot(1);
+
+    // when
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    // then
+    final File snapshotDirectory = receiverStorage.getTmpSnapshotDirectoryFor("1");
+    assertThat(snapshotDirectory).doesNotExist();
+    assertThat(receiverStorage.existSnapshot(1)).isTrue();
+  }
+
   private final class FlakyReplicator implements SnapshotReplication {
 
     final List<SnapshotChunk> replicatedChunks = new ArrayList<>();
@@ -180,6 +219,39 @@ public class FailingSnapshotChunkReplicationTest {
     public void close() {}
   }
 
+  private final class DuplicatingReplicator implements SnapshotReplication {
+
+    final List<SnapshotChunk> replicatedChunks = new ArrayList<>();
+    private final boolean dropLastChunk;
+    private Consumer<SnapshotChunk> chunkConsumer;
+
+    DuplicatingReplicator(boolean dropLastChunk) {
+      this.dropLastChunk = dropLastChunk;
+    }
+
+    @Override
+    public void replicate(SnapshotChunk snapshot) {
+      replicatedChunks.add(snapshot);
+      if (chunkConsumer != null) {
+        final boolean isLastChunk = replicatedChunks.size() == snapshot.getTotalCount();
+        if (replicatedChunks.size() == 1) {
+          chunkConsumer.accept(snapshot);
+          chunkConsumer.accept(snapshot);
+        } else if (!dropLastChunk || !isLastChunk) {
+          chunkConsumer.accept(snapshot);
+        }
+      }
+    }
+
+    @Override
+    public void consume(Consumer<SnapshotChunk> consumer) {
+      chunkConsumer = consumer;
+    }
+
+    @Override
+    public void close() {}
+  }
+
   private final class EvilReplicator implements SnapshotReplication {
 
     final List<SnapshotChunk> replicatedChunks = new ArrayList<>();
@@ -225,6 +297,11 @@ public class FailingSnapshotChunkReplicationTest {
       return snapshotChunk.getChunkName();
     }
 
+    @Override
+    public long getFileOffset() {
+      return snapshotChunk.getFileOffset();
+    }
+
     @Override
     public long getChecksum() {
       return 0;
@@ -234,5 +311,10 @@ public class FailingSnapshotChunkReplicationTest {
     public byte[] getContent() {
       return snapshotChunk.getContent();
     }
+
+    @Override
+    public boolean isFileReference() {
+      return snapshotChunk.isFileReference();
+    }
   }
 }
@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.zip.CRC32;
 import org.junit.Before;
 import org.junit.Rule;
@@ -42,6 +43,8 @@ public class ReplicateSnapshotControllerTest {
 
   private static final int VALUE = 0xCAFE;
   private static final String KEY = "test";
+  private static final int OTHER_VALUE = 0xBEEF;
+  private static final String OTHER_KEY = "other";
 
   @Rule public TemporaryFolder tempFolderRule = new TemporaryFolder();
   @Rule public AutoCloseableRule autoCloseableRule = new AutoCloseableRule();
@@ -175,6 +178,68 @@ public class ReplicateSnapshotControllerTest {
     assertThat(valueFromSnapshot).isEqualTo(VALUE);
   }
 
+  @Test
+  public void shouldReplicateUnchangedFilesAsReference() throws Exception {
+    // given
+    receiverSnapshotController.consumeReplicatedSnapshots();
+    replicatorSnapshotController.takeSnapshot(1);
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    final RocksDBWrapper replicatorWrapper = new RocksDBWrapper();
+    replicatorWrapper.wrap(replicatorSnapshotController.openDb());
+    replicatorWrapper.putInt(OTHER_KEY, OTHER_VALUE);
+    replicatorSnapshotController.takeSnapshot(2);
+
+    // when
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    // then
+    assertThat(replicator.replicatedChunks)
+        .filteredOn(chunk -> chunk.getSnapshotPosition() == 2)
+        .extracting(SnapshotChunk::isFileReference)
+        .contains(true, false);
+
+    final long recoveredSnapshot = receiverSnapshotController.recover();
+    assertThat(recoveredSnapshot).isEqualTo(2);
+
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+    wrapper.wrap(receiverSnapshotController.openDb());
+    assertThat(wrapper.getInt(KEY)).isEqualTo(VALUE);
+    assertThat(wrapper.getInt(OTHER_KEY)).isEqualTo(OTHER_VALUE);
+  }
+
+  @Test
+  public void shouldReplicateAllFilesIfReceiverMissedPreviousSnapshot() throws Exception {
+    // given
+    replicatorSnapshotController.takeSnapshot(1);
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    final RocksDBWrapper replicatorWrapper = new RocksDBWrapper();
+    replicatorWrapper.wrap(replicatorSnapshotController.openDb());
+    replicatorWrapper.putInt(OTHER_KEY, OTHER_VALUE);
+    replicatorSnapshotController.takeSnapshot(2);
+    receiverSnapshotController.consumeReplicatedSnapshots();
+
+    // when
+    replicatorSnapshotController.replicateLatestSnapshot(Runnable::run);
+
+    // then
+    assertThat(replicator.fullReplicationRequests).containsExactly(2L);
+    assertThat(replicator.replicatedChunks)
+        .filteredOn(chunk -> chunk.getSnapshotPosition() == 2)
+        .extracting(SnapshotChunk::isFileReference)
+        .contains(true, false);
+    assertThat(receiverStorage.existSnapshot(1)).isFalse();
+
+    final long recoveredSnapshot = receiverSnapshotController.recover();
+    assertThat(recoveredSnapshot).isEqualTo(2);
+
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+    wrapper.wrap(receiverSnapshotController.openDb());
+    assertThat(wrapper.getInt(KEY)).isEqualTo(VALUE);
+    assertThat(wrapper.getInt(OTHER_KEY)).isEqualTo(OTHER_VALUE);
+  }
+
   @Test
   public void shouldEnsureMaxSnapshotCount() throws Exception {
     // given
@@ -226,7 +291,9 @@ public class ReplicateSnapshotControllerTest {
   protected static final class Replicator implements SnapshotReplication {
 
     final List<SnapshotChunk> replicatedChunks = new ArrayList<>();
+    final List<Long> fullReplicationRequests = new ArrayList<>();
     private Consumer<SnapshotChunk> chunkConsumer;
+    private LongConsumer fullReplicationRequestConsumer;
 
     @Override
     public void replicate(SnapshotChunk snapshot) {
@@ -241,6 +308,19 @@ public class ReplicateSnapshotControllerTest {
       chunkConsumer = consumer;
     }
 
+    @Override
+    public void requestFullReplication(long snapshotPosition) {
+      fullReplicationRequests.add(snapshotPosition);
+      if (fullReplicationRequestConsumer != null) {
+        fullReplicationRequestConsumer.accept(snapshotPosition);
+      }
+    }
+
+    @Override
+    public void consumeFullReplicationRequests(LongConsumer consumer) {
+      fullReplicationRequestConsumer = consumer;
+    }
+
     @Override
     public void close() {}
   }
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.Loggers;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotChunkUtilTest {
+
+  private static final int MAX_CHUNK_SIZE = 4;
+  private static final long SNAPSHOT_POSITION = 1L;
+
+  @Rule public TemporaryFolder tempFolderRule = new TemporaryFolder();
+
+  private File snapshotDirectory;
+  private StateStorage receiverStorage;
+
+  @Before
+  public void setup() throws IOException {
+    snapshotDirectory = tempFolderRule.newFolder("snapshot");
+    receiverStorage =
+        new StateStorage(
+            tempFolderRule.newFolder("runtime"), tempFolderRule.newFolder("snapshots"));
+  }
+
+  @Test
+  public void shouldSplitFileIntoChunks() throws Exception {
+    // given
+    final File file = createFile("a", new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+    // when
+    final List<SnapshotChunk> chunks = readChunks(file);
+
+    // then
+    assertThat(SnapshotChunkUtil.getChunkCount(file, MAX_CHUNK_SIZE)).isEqualTo(3);
+    assertThat(chunks).extracting(SnapshotChunk::getFileOffset).containsExactly(0L, 4L, 8L);
+    assertThat(chunks)
+        .extracting(SnapshotChunk::getContent)
+        .containsExactly(new byte[] {1, 2, 3, 4}, new byte[] {5, 6, 7, 8}, new byte[] {9, 10});
+    assertThat(chunks)
+        .allSatisfy(
+            chunk -> {
+              assertThat(chunk.getTotalCount()).isEqualTo(3);
+              assertThat(chunk.getChecksum())
+                  .isEqualTo(SnapshotChunkUtil.createChecksum(chunk.getContent()));
+            });
+  }
+
+  @Test
+  public void shouldCreateOneChunkForEmptyFile() throws Exception {
+    // given
+    final File file = createFile("a", new byte[0]);
+
+    // when
+    final List<SnapshotChunk> chunks = readChunks(file);
+
+    // then
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0).getContent()).isEmpty();
+  }
+
+  @Test
+  public void shouldCountChunksOverAllFiles() throws Exception {
+    // given
+    final File[] files = {
+      createFile("a", new byte[] {1, 2, 3, 4, 5}), createFile("b", new byte[] {6, 7})
+    };
+
+    // when
+    final SnapshotChunk lastChunk =
+        SnapshotChunkUtil.createSnapshotChunk(files, SNAPSHOT_POSITION, 2, MAX_CHUNK_SIZE);
+    final SnapshotChunk outOfRange =
+        SnapshotChunkUtil.createSnapshotChunk(files, SNAPSHOT_POSITION, 3, MAX_CHUNK_SIZE);
+
+    // then
+    assertThat(lastChunk.getChunkName()).isEqualTo("b");
+    assertThat(lastChunk.getFileOffset()).isEqualTo(0L);
+    assertThat(lastChunk.getTotalCount()).isEqualTo(3);
+    assertThat(outOfRange).isNull();
+  }
+
+  @Test
+  public void shouldWriteChunksReceivedInAnyOrder() throws Exception {
+    // given
+    final byte[] content = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    final File file = createFile("a", content);
+    final List<SnapshotChunk> chunks = readChunks(file);
+    Collections.reverse(chunks);
+
+    final FileSnapshotConsumer consumer =
+        new FileSnapshotConsumer(receiverStorage, Loggers.SNAPSHOT_LOGGER);
+
+    // when
+    for (SnapshotChunk chunk : chunks) {
+      assertThat(consumer.consumeSnapshotChunk(chunk)).isTrue();
+    }
+    consumer.completeSnapshot(SNAPSHOT_POSITION);
+
+    // then
+    final File receivedFile =
+        new File(receiverStorage.getSnapshotDirectoryFor(SNAPSHOT_POSITION), "a");
+    assertThat(Files.readAllBytes(receivedFile.toPath())).isEqualTo(content);
+  }
+
+  private File createFile(String name, byte[] content) throws IOException {
+    final File file = new File(snapshotDirectory, name);
+    Files.write(file.toPath(), content);
+    return file;
+  }
+
+  private List<SnapshotChunk> readChunks(File file) throws IOException {
+    final int chunkCount = SnapshotChunkUtil.getChunkCount(file, MAX_CHUNK_SIZE);
+    final List<SnapshotChunk> chunks = new ArrayList<>();
+
+    for (int i = 0; i < chunkCount; i++) {
+      chunks.add(
+          SnapshotChunkUtil.createSnapshotChunkFromFile(
+              file, SNAPSHOT_POSITION, chunkCount, (long) i * MAX_CHUNK_SIZE, MAX_CHUNK_SIZE));
+    }
+
+    return chunks;
+  }
+}
@@ -270,7 +270,7 @@ public class StateSnapshotControllerTest {
     final SnapshotRestoreInfo restoreInfo = snapshotController.getLatestSnapshotRestoreInfo();
     assertThat(restoreInfo.getSnapshotId()).isEqualTo(1L);
     assertThat(restoreInfo.getNumChunks())
-        .isEqualTo(snapshotDir.listFiles().length)
+        .isEqualTo(SnapshotChunkUtil.getChunkCount(snapshotDir))
         .isGreaterThan(0);
   }
 
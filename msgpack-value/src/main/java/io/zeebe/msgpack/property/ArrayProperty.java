@@ -42,7 +42,7 @@ public class ArrayProperty<T extends BaseValue> extends BaseProperty<ArrayValue<
   @Override
   public T add() {
     try {
-      return value.add();
+      return resolveValue().add();
     } catch (Exception e) {
       throw new MsgpackPropertyException(getKey(), e);
     }
@@ -22,6 +22,8 @@ import io.zeebe.msgpack.spec.MsgPackWriter;
 import io.zeebe.msgpack.value.BaseValue;
 import io.zeebe.msgpack.value.StringValue;
 import java.util.Objects;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
   protected StringValue key;
@@ -29,6 +31,15 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
   protected T defaultValue;
   protected boolean isSet;
 
+  /**
+   * The encoded value if the property was read lazily and has not been accessed since. The view
+   * points into the buffer the property was read from.
+   */
+  private final UnsafeBuffer encodedValue = new UnsafeBuffer(0, 0);
+
+  private boolean hasEncodedValue;
+  private MsgPackReader encodedValueReader;
+
   public BaseProperty(T value) {
     this(StringValue.EMPTY_STRING, value);
   }
@@ -48,12 +59,14 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
 
   public void set() {
     this.isSet = true;
+    discardEncodedValue();
   }
 
   @Override
   public void reset() {
     this.isSet = false;
     this.value.reset();
+    discardEncodedValue();
   }
 
   public boolean hasValue() {
@@ -65,6 +78,10 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
   }
 
   protected T resolveValue() {
+    if (hasEncodedValue) {
+      decodeEncodedValue();
+    }
+
     if (isSet) {
       return value;
     } else if (defaultValue != null) {
@@ -76,6 +93,10 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
   }
 
   public int getEncodedLength() {
+    if (hasEncodedValue) {
+      return key.getEncodedLength() + encodedValue.capacity();
+    }
+
     return key.getEncodedLength() + resolveValue().getEncodedLength();
   }
 
@@ -84,7 +105,53 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
     set();
   }
 
+  /**
+   * Skips the value and only remembers where it is encoded. The value is decoded on first access
+   * and written back as is if it is not accessed. The buffer must therefore not be modified until
+   * the property is reset. Errors in the encoded value only surface when the value is accessed.
+   */
+  public void readLazy(MsgPackReader reader) {
+    final DirectBuffer buffer = reader.getBuffer();
+    final int offset = reader.getOffset();
+    reader.skipValue();
+
+    set();
+    encodedValue.wrap(buffer, offset, reader.getOffset() - offset);
+    hasEncodedValue = true;
+  }
+
+  private void decodeEncodedValue() {
+    if (encodedValueReader == null) {
+      encodedValueReader = new MsgPackReader();
+    }
+
+    // the flag is cleared first, since decoding may resolve the value again
+    hasEncodedValue = false;
+    encodedValueReader.wrap(encodedValue, 0, encodedValue.capacity());
+
+    try {
+      value.read(encodedValueReader);
+    } catch (Exception e) {
+      throw new MsgpackPropertyException(key, e);
+    } finally {
+      encodedValue.wrap(0, 0);
+    }
+  }
+
+  private void discardEncodedValue() {
+    if (hasEncodedValue) {
+      hasEncodedValue = false;
+      encodedValue.wrap(0, 0);
+    }
+  }
+
   public void write(MsgPackWriter writer) {
+    if (hasEncodedValue) {
+      key.write(writer);
+      writer.writeRaw(encodedValue);
+      return;
+    }
+
     T valueToWrite = value;
     if (!isSet) {
       valueToWrite = defaultValue;
@@ -100,6 +167,10 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
   }
 
   public void writeJSON(StringBuilder sb) {
+    if (hasEncodedValue) {
+      decodeEncodedValue();
+    }
+
     key.writeJSON(sb);
     sb.append(":");
     if (hasValue()) {
@@ -111,6 +182,10 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
 
   @Override
   public String toString() {
+    if (hasEncodedValue) {
+      decodeEncodedValue();
+    }
+
     final StringBuilder builder = new StringBuilder();
     builder.append(key.toString());
     builder.append(" => ");
@@ -135,6 +210,10 @@ public abstract class BaseProperty<T extends BaseValue> implements Recyclable {
 
   @Override
   public int hashCode() {
+    if (hasEncodedValue) {
+      decodeEncodedValue();
+    }
+
     return Objects.hash(getKey(), value, defaultValue, isSet);
   }
 }
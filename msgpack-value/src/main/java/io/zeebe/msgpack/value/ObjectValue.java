@@ -20,21 +20,52 @@ import io.zeebe.msgpack.property.UndeclaredProperty;
 import io.zeebe.msgpack.spec.MsgPackReader;
 import io.zeebe.msgpack.spec.MsgPackWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
 
 public class ObjectValue extends BaseValue {
+  private static final int EMPTY_SLOT = -1;
+
   private final List<BaseProperty<? extends BaseValue>> declaredProperties = new ArrayList<>();
   private final List<UndeclaredProperty> undeclaredProperties = new ArrayList<>();
   private final List<UndeclaredProperty> recycledProperties = new ArrayList<>();
 
   private final StringValue decodedKey = new StringValue();
 
+  /**
+   * Open addressing table from the hash of a declared key to the index of the property in {@link
+   * #declaredProperties}. The table is built on the first read after the properties are declared,
+   * so that each decoded key is hashed once and compared to a single candidate in the common case.
+   */
+  private int[] propertyIndex;
+
+  private int[] propertyKeyHashes;
+
+  private boolean lazyDecoding;
+
   public ObjectValue declareProperty(BaseProperty<? extends BaseValue> prop) {
     declaredProperties.add(prop);
+    propertyIndex = null;
     return this;
   }
 
+  /**
+   * If enabled, declared properties are not decoded when the object is read. Instead, each
+   * property remembers where its value is encoded and decodes it on first access. Properties which
+   * are not accessed are written back as they were read. Since the properties reference the read
+   * buffer, it must not be modified until the object is reset or read again.
+   */
+  public void setLazyDecoding(boolean lazyDecoding) {
+    this.lazyDecoding = lazyDecoding;
+  }
+
+  public boolean isLazyDecoding() {
+    return lazyDecoding;
+  }
+
   @Override
   public void reset() {
     for (int i = 0; i < declaredProperties.size(); ++i) {
@@ -97,24 +128,19 @@ public class ObjectValue extends BaseValue {
     for (int i = 0; i < mapSize; ++i) {
       decodedKey.read(reader);
 
-      BaseProperty<? extends BaseValue> prop = null;
-
-      for (int k = 0; k < declaredProperties.size(); ++k) {
-        final BaseProperty<?> declaredProperty = declaredProperties.get(k);
-        final StringValue declaredKey = declaredProperty.getKey();
-
-        if (declaredKey.equals(decodedKey)) {
-          prop = declaredProperty;
-          break;
-        }
-      }
+      BaseProperty<? extends BaseValue> prop = findDeclaredProperty(decodedKey);
+      final boolean readLazy = lazyDecoding && prop != null;
 
       if (prop == null) {
         prop = newUndeclaredProperty(decodedKey);
       }
 
       try {
-        prop.read(reader);
+        if (readLazy) {
+          prop.readLazy(reader);
+        } else {
+          prop.read(reader);
+        }
       } catch (Exception e) {
         throw new RuntimeException(String.format("Could not read property '%s'", prop.getKey()), e);
       }
@@ -130,6 +156,65 @@ public class ObjectValue extends BaseValue {
     }
   }
 
+  private BaseProperty<? extends BaseValue> findDeclaredProperty(StringValue key) {
+    if (propertyIndex == null) {
+      buildPropertyIndex();
+    }
+
+    final int mask = propertyIndex.length - 1;
+    final int hash = hashKey(key);
+
+    for (int slot = hash & mask; propertyIndex[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+      if (propertyKeyHashes[slot] == hash) {
+        final BaseProperty<? extends BaseValue> prop = declaredProperties.get(propertyIndex[slot]);
+        if (prop.getKey().equals(key)) {
+          return prop;
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private void buildPropertyIndex() {
+    // keep the load factor at or below 0.5 so that probe sequences stay short
+    final int capacity =
+        BitUtil.findNextPositivePowerOfTwo(Math.max(2, declaredProperties.size() * 2));
+    final int mask = capacity - 1;
+
+    final int[] index = new int[capacity];
+    final int[] hashes = new int[capacity];
+    Arrays.fill(index, EMPTY_SLOT);
+
+    for (int i = 0; i < declaredProperties.size(); i++) {
+      final int hash = hashKey(declaredProperties.get(i).getKey());
+
+      int slot = hash & mask;
+      while (index[slot] != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+
+      index[slot] = i;
+      hashes[slot] = hash;
+    }
+
+    propertyKeyHashes = hashes;
+    propertyIndex = index;
+  }
+
+  private static int hashKey(StringValue key) {
+    final DirectBuffer bytes = key.getValue();
+    final int length = key.getLength();
+
+    int hash = length;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + bytes.getByte(i);
+    }
+
+    // spread the higher bits, since the table is indexed by the lower ones
+    return hash ^ (hash >>> 16);
+  }
+
   /**
    * Caution: In case not all properties are writeable (i.e. value not set and no default), this
    * method may write some of the values and only then throw an exception. The same exception is
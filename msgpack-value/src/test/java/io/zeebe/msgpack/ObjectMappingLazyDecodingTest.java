@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.msgpack;
+
+import static io.zeebe.msgpack.MsgPackUtil.asMap;
+import static io.zeebe.msgpack.MsgPackUtil.encodeMsgPack;
+import static io.zeebe.test.util.BufferAssert.assertThatBuffer;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.zeebe.msgpack.POJO.POJOEnum;
+import java.util.Map;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ObjectMappingLazyDecodingTest {
+  private static final DirectBuffer BUF1 = wrapString("foo");
+  private static final DirectBuffer NESTED =
+      encodeMsgPack(
+          (w) -> {
+            w.writeMapHeader(1);
+            w.writeString(wrapString("foo"));
+            w.writeInteger(24L);
+          });
+  // encoded in the order in which the properties are declared
+  private static final DirectBuffer MSG_PACK =
+      encodeMsgPack(
+          (w) -> {
+            w.writeMapHeader(7);
+
+            w.writeString(wrapString("enumProp"));
+            w.writeString(wrapString(POJOEnum.BAR.toString()));
+
+            w.writeString(wrapString("longProp"));
+            w.writeInteger(88888L);
+
+            w.writeString(wrapString("intProp"));
+            w.writeInteger(123L);
+
+            w.writeString(wrapString("stringProp"));
+            w.writeString(BUF1);
+
+            w.writeString(wrapString("packedProp"));
+            w.writeRaw(NESTED);
+
+            w.writeString(wrapString("binaryProp"));
+            w.writeBinary(BUF1);
+
+            w.writeString(wrapString("objectProp"));
+            w.writeRaw(NESTED);
+          });
+
+  private final POJO pojo = new POJO();
+
+  @Before
+  public void setUp() {
+    pojo.setLazyDecoding(true);
+  }
+
+  @Test
+  public void shouldDecodePropertiesOnAccess() {
+    // when
+    pojo.wrap(MSG_PACK);
+
+    // then
+    assertThat(pojo.getEnum()).isEqualByComparingTo(POJOEnum.BAR);
+    assertThat(pojo.getLong()).isEqualTo(88888L);
+    assertThat(pojo.getInt()).isEqualTo(123);
+    assertThatBuffer(pojo.getPacked()).hasBytes(NESTED);
+    assertThatBuffer(pojo.getBinary()).hasBytes(BUF1);
+    assertThatBuffer(pojo.getString()).hasBytes(BUF1);
+    assertThat(pojo.nestedObject().getLong()).isEqualTo(24L);
+  }
+
+  @Test
+  public void shouldWriteUntouchedPropertiesAsRead() {
+    // given
+    pojo.wrap(MSG_PACK);
+
+    // when
+    final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[pojo.getLength()]);
+    pojo.write(writeBuffer, 0);
+
+    // then
+    assertThatBuffer(writeBuffer).hasBytes(MSG_PACK);
+  }
+
+  @Test
+  public void shouldWriteModifiedProperties() {
+    // given
+    pojo.wrap(MSG_PACK);
+
+    // when
+    pojo.setLong(5L);
+    pojo.nestedObject().setLong(6L);
+
+    final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[pojo.getLength()]);
+    pojo.write(writeBuffer, 0);
+
+    // then
+    final Map<String, Object> serialized = asMap(writeBuffer);
+    assertThat(serialized).contains(entry("longProp", 5L), entry("intProp", 123L));
+
+    @SuppressWarnings("unchecked")
+    final Map<String, Object> objectProp = (Map<String, Object>) serialized.get("objectProp");
+    assertThat(objectProp).containsExactly(entry("foo", 6L));
+  }
+
+  @Test
+  public void shouldFailOnAccessOfInvalidValue() {
+    // given
+    final MinimalPOJO minimalPOJO = new MinimalPOJO();
+    minimalPOJO.setLazyDecoding(true);
+
+    minimalPOJO.wrap(
+        encodeMsgPack(
+            (w) -> {
+              w.writeMapHeader(1);
+              w.writeString(wrapString("longProp"));
+              w.writeString(BUF1);
+            }));
+
+    // when
+    final Throwable failure = catchThrowable(minimalPOJO::getLongProp);
+
+    // then
+    assertThat(failure).isInstanceOf(MsgpackPropertyException.class);
+  }
+
+  @Test
+  public void shouldNotReuseEncodedValueAfterReset() {
+    // given
+    pojo.wrap(MSG_PACK);
+
+    // when
+    pojo.reset();
+    pojo.setLong(5L);
+
+    // then
+    assertThat(pojo.getLong()).isEqualTo(5L);
+    assertThat(pojo.nestedObject().getLong()).isEqualTo(-1L);
+  }
+}
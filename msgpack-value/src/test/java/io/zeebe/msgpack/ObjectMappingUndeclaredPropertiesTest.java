@@ -21,6 +21,7 @@ import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
+import io.zeebe.msgpack.property.LongProperty;
 import java.util.Map;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
@@ -132,4 +133,49 @@ public class ObjectMappingUndeclaredPropertiesTest {
     // when
     pojo.wrap(msgPack);
   }
+
+  @Test
+  public void shouldNotMatchDeclaredPropertyWithKeyPrefix() {
+    // given
+    final MinimalPOJO pojo = new MinimalPOJO();
+
+    final MutableDirectBuffer msgPack =
+        encodeMsgPack(
+            (w) -> {
+              w.writeMapHeader(2);
+              w.writeString(wrapString("longPro"));
+              w.writeInteger(456L);
+              w.writeString(wrapString("longProp"));
+              w.writeInteger(123L);
+            });
+
+    // when
+    pojo.wrap(msgPack);
+
+    // then
+    assertThat(pojo.getLongProp()).isEqualTo(123L);
+
+    final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[pojo.getLength()]);
+    pojo.write(writeBuffer, 0);
+    assertThat(asMap(writeBuffer))
+        .containsOnly(entry("longProp", 123L), entry("longPro", 456L));
+  }
+
+  @Test
+  public void shouldDeserializePropertyDeclaredAfterRead() {
+    // given
+    final MinimalPOJO pojo = new MinimalPOJO();
+    pojo.wrap(MSG_PACK);
+
+    final LongProperty declaredProp = new LongProperty("undeclaredProp");
+    pojo.declareProperty(declaredProp);
+    pojo.reset();
+
+    // when
+    pojo.wrap(MSG_PACK);
+
+    // then
+    assertThat(pojo.getLongProp()).isEqualTo(123L);
+    assertThat(declaredProp.getValue()).isEqualTo(456L);
+  }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.msgpack.benchmark;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.BaseProperty;
+import io.zeebe.msgpack.property.IntegerProperty;
+import io.zeebe.msgpack.property.LongProperty;
+import io.zeebe.msgpack.property.PackedProperty;
+import io.zeebe.msgpack.property.StringProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how fast records with the shape of the job and workflow instance records are decoded.
+ * The properties are either encoded in declaration order, as written by the broker, or in reverse
+ * order, which is the worst case for a lookup that scans the declared properties.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.zeebe.msgpack.benchmark.ObjectValueReadBenchmark} from the module directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectValueReadBenchmark {
+  private static final DirectBuffer EMPTY_MAP = new UnsafeBuffer(new byte[] {(byte) 0x80});
+
+  @Param({"DECLARATION", "REVERSE"})
+  public PropertyOrder order;
+
+  private final JobRecordShape jobRecord = new JobRecordShape();
+  private final WorkflowInstanceRecordShape workflowInstanceRecord =
+      new WorkflowInstanceRecordShape();
+
+  private DirectBuffer encodedJobRecord;
+  private DirectBuffer encodedWorkflowInstanceRecord;
+
+  @Setup
+  public void setUp() {
+    encodedJobRecord = encode(new JobRecordShape().populate(), order);
+    encodedWorkflowInstanceRecord = encode(new WorkflowInstanceRecordShape().populate(), order);
+  }
+
+  @Benchmark
+  public long readJobRecord() {
+    jobRecord.reset();
+    jobRecord.wrap(encodedJobRecord);
+    return jobRecord.workflowInstanceKey.getValue();
+  }
+
+  @Benchmark
+  public long readWorkflowInstanceRecord() {
+    workflowInstanceRecord.reset();
+    workflowInstanceRecord.wrap(encodedWorkflowInstanceRecord);
+    return workflowInstanceRecord.workflowInstanceKey.getValue();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(ObjectValueReadBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private static DirectBuffer encode(RecordShape record, PropertyOrder order) {
+    final List<BaseProperty<?>> properties = new ArrayList<>(record.properties);
+    if (order == PropertyOrder.REVERSE) {
+      Collections.reverse(properties);
+    }
+
+    // encode the properties into a fresh object, so that they are written in the given order
+    final RecordShape reordered = new RecordShape();
+    properties.forEach(reordered::declareProperty);
+
+    final MutableDirectBuffer buffer = new ExpandableArrayBuffer();
+    reordered.write(buffer, 0);
+    return new UnsafeBuffer(buffer, 0, reordered.getLength());
+  }
+
+  public enum PropertyOrder {
+    DECLARATION,
+    REVERSE
+  }
+
+  private static class RecordShape extends UnpackedObject {
+    private final List<BaseProperty<?>> properties = new ArrayList<>();
+
+    <T extends BaseProperty<?>> T declare(T property) {
+      declareProperty(property);
+      properties.add(property);
+      return property;
+    }
+  }
+
+  private static final class JobRecordShape extends RecordShape {
+    private final LongProperty deadline = declare(new LongProperty("deadline", -1));
+    private final StringProperty worker = declare(new StringProperty("worker", ""));
+    private final IntegerProperty retries = declare(new IntegerProperty("retries", -1));
+    private final StringProperty type = declare(new StringProperty("type", ""));
+    private final PackedProperty customHeaders = declare(new PackedProperty("customHeaders"));
+    private final PackedProperty variables = declare(new PackedProperty("variables"));
+    private final StringProperty errorMessage = declare(new StringProperty("errorMessage", ""));
+    private final StringProperty bpmnProcessId = declare(new StringProperty("bpmnProcessId", ""));
+    private final IntegerProperty workflowDefinitionVersion =
+        declare(new IntegerProperty("workflowDefinitionVersion", -1));
+    private final LongProperty workflowKey = declare(new LongProperty("workflowKey", -1));
+    private final LongProperty workflowInstanceKey =
+        declare(new LongProperty("workflowInstanceKey", -1));
+    private final StringProperty elementId = declare(new StringProperty("elementId", ""));
+    private final LongProperty elementInstanceKey =
+        declare(new LongProperty("elementInstanceKey", -1));
+
+    JobRecordShape populate() {
+      deadline.setValue(1_563_000_000_000L);
+      worker.setValue("payment-worker");
+      retries.setValue(3);
+      type.setValue("payment-service");
+      customHeaders.setValue(EMPTY_MAP, 0, EMPTY_MAP.capacity());
+      variables.setValue(EMPTY_MAP, 0, EMPTY_MAP.capacity());
+      errorMessage.setValue("");
+      bpmnProcessId.setValue("order-process");
+      workflowDefinitionVersion.setValue(2);
+      workflowKey.setValue(2_251_799_813_685_249L);
+      workflowInstanceKey.setValue(2_251_799_813_685_251L);
+      elementId.setValue("collect-money");
+      elementInstanceKey.setValue(2_251_799_813_685_260L);
+      return this;
+    }
+  }
+
+  private static final class WorkflowInstanceRecordShape extends RecordShape {
+    private final StringProperty bpmnProcessId = declare(new StringProperty("bpmnProcessId", ""));
+    private final IntegerProperty version = declare(new IntegerProperty("version", -1));
+    private final LongProperty workflowKey = declare(new LongProperty("workflowKey", -1));
+    private final LongProperty workflowInstanceKey =
+        declare(new LongProperty("workflowInstanceKey", -1));
+    private final StringProperty elementId = declare(new StringProperty("elementId", ""));
+    private final LongProperty flowScopeKey = declare(new LongProperty("flowScopeKey", -1));
+    private final StringProperty bpmnElementType =
+        declare(new StringProperty("bpmnElementType", ""));
+    private final LongProperty parentWorkflowInstanceKey =
+        declare(new LongProperty("parentWorkflowInstanceKey", -1));
+    private final LongProperty parentElementInstanceKey =
+        declare(new LongProperty("parentElementInstanceKey", -1));
+
+    WorkflowInstanceRecordShape populate() {
+      bpmnProcessId.setValue("order-process");
+      version.setValue(2);
+      workflowKey.setValue(2_251_799_813_685_249L);
+      workflowInstanceKey.setValue(2_251_799_813_685_251L);
+      elementId.setValue("collect-money");
+      flowScopeKey.setValue(2_251_799_813_685_251L);
+      bpmnElementType.setValue("SERVICE_TASK");
+      parentWorkflowInstanceKey.setValue(-1L);
+      parentElementInstanceKey.setValue(-1L);
+      return this;
+    }
+  }
+}
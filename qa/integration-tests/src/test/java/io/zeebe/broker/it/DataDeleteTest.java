@@ -72,7 +72,7 @@ public class DataDeleteTest {
     final File segmentsDir = new File(segmentsDirPath);
     int messagesSent = 0;
 
-    while (segmentsDir.list().length <= 2) {
+    while (countSegments(segmentsDir) <= 2) {
       clientRule
           .getClient()
           .newPublishMessageCommand()
@@ -93,7 +93,7 @@ public class DataDeleteTest {
                     .count()
                 == finalMessagesSent);
 
-    final int segments = segmentsDir.list().length;
+    final int segments = countSegments(segmentsDir);
 
     brokerRule.getClock().addTime(Duration.ofSeconds(SNAPSHOT_PERIOD_SECONDS));
     final File snapshotsDir = new File(snapshotDirPath);
@@ -101,7 +101,12 @@ public class DataDeleteTest {
         () -> Arrays.stream(snapshotsDir.listFiles()).anyMatch(f -> !f.getName().equals("/tmp")));
 
     // then
-    TestUtil.waitUntil(() -> segmentsDir.listFiles().length < segments);
+    TestUtil.waitUntil(() -> countSegments(segmentsDir) < segments);
+  }
+
+  public static int countSegments(File segmentsDir) {
+    // the segments directory also contains an index file per segment
+    return segmentsDir.list((dir, name) -> name.endsWith(".data")).length;
   }
 
   public static class TestExporter implements Exporter {
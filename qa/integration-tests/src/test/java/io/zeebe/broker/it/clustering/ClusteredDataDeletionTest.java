@@ -89,7 +89,7 @@ public class ClusteredDataDeletionTest {
     final int leaderNodeId = clusteringRule.getLeaderForPartition(1).getNodeId();
     final Broker leader = clusteringRule.getBroker(leaderNodeId);
 
-    while (getSegmentsDirectory(leader).listFiles().length <= 2) {
+    while (DataDeleteTest.countSegments(getSegmentsDirectory(leader)) <= 2) {
       clusteringRule
           .getClient()
           .newPublishMessageCommand()
@@ -105,7 +105,9 @@ public class ClusteredDataDeletionTest {
 
     // then
     TestUtil.waitUntil(
-        () -> getSegmentsDirectory(leader).listFiles().length < segmentCount.get(leaderNodeId));
+        () ->
+            DataDeleteTest.countSegments(getSegmentsDirectory(leader))
+                < segmentCount.get(leaderNodeId));
   }
 
   @Test
@@ -119,7 +121,7 @@ public class ClusteredDataDeletionTest {
 
     while (followers.stream()
         .map(this::getSegmentsDirectory)
-        .allMatch(dir -> dir.listFiles().length <= 2)) {
+        .allMatch(dir -> DataDeleteTest.countSegments(dir) <= 2)) {
       clusteringRule
           .getClient()
           .newPublishMessageCommand()
@@ -139,7 +141,7 @@ public class ClusteredDataDeletionTest {
             followers.stream()
                 .allMatch(
                     b ->
-                        getSegmentsDirectory(b).listFiles().length
+                        DataDeleteTest.countSegments(getSegmentsDirectory(b))
                             < followerSegmentCounts.get(b.getConfig().getCluster().getNodeId())));
   }
 
@@ -149,7 +151,7 @@ public class ClusteredDataDeletionTest {
     brokers.forEach(
         b -> {
           final int nodeId = b.getConfig().getCluster().getNodeId();
-          segmentCounts.put(nodeId, getSegmentsDirectory(b).list().length);
+          segmentCounts.put(nodeId, DataDeleteTest.countSegments(getSegmentsDirectory(b)));
         });
 
     clusteringRule.getClock().addTime(Duration.ofSeconds(DataDeleteTest.SNAPSHOT_PERIOD_SECONDS));
@@ -51,6 +51,8 @@ public class ClientTransportBuilder {
   private ActorScheduler scheduler;
   protected List<ClientInputListener> listeners;
   protected TransportChannelFactory channelFactory;
+  private int receiveBusyPollRounds = 0;
+  private int receiveBatchSize = 1;
 
   private TransportMemoryPool requestMemoryPool =
       new NonBlockingMemoryPool(ByteValue.ofMegabytes(4));
@@ -116,6 +118,30 @@ public class ClientTransportBuilder {
     return this;
   }
 
+  /**
+   * Optional. The number of times the receiver polls its channels without finding data before it
+   * blocks on the selector. Busy polling trades CPU for lower latency; default is 0.
+   */
+  public ClientTransportBuilder receiveBusyPollRounds(int receiveBusyPollRounds) {
+    if (receiveBusyPollRounds < 0) {
+      throw new IllegalArgumentException("Busy poll rounds must not be negative");
+    }
+    this.receiveBusyPollRounds = receiveBusyPollRounds;
+    return this;
+  }
+
+  /**
+   * Optional. The maximum number of reads from a channel per poll, as long as the channel has data
+   * available; default is 1.
+   */
+  public ClientTransportBuilder receiveBatchSize(int receiveBatchSize) {
+    if (receiveBatchSize < 1) {
+      throw new IllegalArgumentException("Receive batch size must be at least 1");
+    }
+    this.receiveBatchSize = receiveBatchSize;
+    return this;
+  }
+
   public ClientTransportBuilder defaultRequestRetryTimeout(Duration duration) {
     this.defaultRequestRetryTimeout = duration;
     return this;
@@ -160,6 +186,8 @@ public class ClientTransportBuilder {
     context.setEndpointRegistry(endpointRegistry);
     context.setReceiveHandler(receiveHandler);
     context.setChannelKeepAlivePeriod(keepAlivePeriod);
+    context.setReceiveBusyPollRounds(receiveBusyPollRounds);
+    context.setReceiveBatchSize(receiveBatchSize);
 
     if (channelFactory != null) {
       context.setChannelFactory(channelFactory);
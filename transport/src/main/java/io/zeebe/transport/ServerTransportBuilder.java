@@ -18,6 +18,7 @@ package io.zeebe.transport;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.dispatcher.FragmentHandler;
 import io.zeebe.transport.impl.DefaultChannelFactory;
+import io.zeebe.transport.impl.TransportChannelFactory;
 import io.zeebe.transport.impl.ReceiveBufferHandler;
 import io.zeebe.transport.impl.RemoteAddressListImpl;
 import io.zeebe.transport.impl.ServerOutputImpl;
@@ -46,6 +47,9 @@ public class ServerTransportBuilder {
   protected FragmentHandler receiveHandler;
   protected RemoteAddressListImpl remoteAddressList;
   protected ServerControlMessageListener controlMessageListener;
+  protected TransportChannelFactory channelFactory;
+  private int receiveBusyPollRounds = 0;
+  private int receiveBatchSize = 1;
 
   private TransportMemoryPool messageMemoryPool =
       new NonBlockingMemoryPool(ByteValue.ofMegabytes(4));
@@ -75,6 +79,35 @@ public class ServerTransportBuilder {
     return this;
   }
 
+  public ServerTransportBuilder channelFactory(TransportChannelFactory channelFactory) {
+    this.channelFactory = channelFactory;
+    return this;
+  }
+
+  /**
+   * Optional. The number of times the receiver polls its channels without finding data before it
+   * blocks on the selector. Busy polling trades CPU for lower latency; default is 0.
+   */
+  public ServerTransportBuilder receiveBusyPollRounds(int receiveBusyPollRounds) {
+    if (receiveBusyPollRounds < 0) {
+      throw new IllegalArgumentException("Busy poll rounds must not be negative");
+    }
+    this.receiveBusyPollRounds = receiveBusyPollRounds;
+    return this;
+  }
+
+  /**
+   * Optional. The maximum number of reads from a channel per poll, as long as the channel has data
+   * available; default is 1.
+   */
+  public ServerTransportBuilder receiveBatchSize(int receiveBatchSize) {
+    if (receiveBatchSize < 1) {
+      throw new IllegalArgumentException("Receive batch size must be at least 1");
+    }
+    this.receiveBatchSize = receiveBatchSize;
+    return this;
+  }
+
   protected ServerTransportBuilder receiveHandler(FragmentHandler receiveHandler) {
     this.receiveHandler = receiveHandler;
     return this;
@@ -142,7 +175,10 @@ public class ServerTransportBuilder {
     context.setRemoteAddressList(remoteAddressList);
     context.setReceiveHandler(receiveHandler);
     context.setServerSocketBinding(serverSocketBinding);
-    context.setChannelFactory(new DefaultChannelFactory());
+    context.setChannelFactory(
+        channelFactory != null ? channelFactory : new DefaultChannelFactory());
+    context.setReceiveBusyPollRounds(receiveBusyPollRounds);
+    context.setReceiveBatchSize(receiveBatchSize);
 
     return context;
   }
@@ -28,9 +28,6 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import org.agrona.DirectBuffer;
 import org.agrona.LangUtil;
@@ -61,8 +58,6 @@ public class TransportChannel {
 
   private int connectAttempt;
 
-  private List<SelectionKey> registeredKeys = Collections.synchronizedList(new ArrayList<>());
-
   public TransportChannel(
       ChannelLifecycleListener listener,
       RemoteAddressImpl remoteAddress,
@@ -174,15 +169,32 @@ public class TransportChannel {
     return bytesWritten;
   }
 
+  /**
+   * Writes the remaining bytes of the given buffers with a single gathering write.
+   *
+   * @return the number of bytes written, or -1 if the channel failed and was closed
+   */
+  public long write(ByteBuffer[] buffers, int offset, int length) {
+    long bytesWritten = -1;
+
+    try {
+      bytesWritten = media.write(buffers, offset, length);
+    } catch (IOException e) {
+      doClose();
+    }
+
+    return bytesWritten;
+  }
+
   public int getStreamId() {
     return remoteAddress.getStreamId();
   }
 
   public void registerSelector(Selector selector, int ops) {
     try {
+      // the key is cancelled when the channel is closed, no need to keep track of it
       final SelectionKey key = media.register(selector, ops);
       key.attach(this);
-      registeredKeys.add(key);
     } catch (ClosedChannelException e) {
       LangUtil.rethrowUnchecked(e);
     }
@@ -192,7 +204,6 @@ public class TransportChannel {
     final SelectionKey key = media.keyFor(selector);
     if (key != null) {
       key.cancel();
-      registeredKeys.remove(key);
     }
   }
 
@@ -240,15 +251,8 @@ public class TransportChannel {
   protected void doClose() {
     try {
       if (media != null) {
-
-        try {
-          synchronized (registeredKeys) {
-            registeredKeys.forEach(k -> k.cancel());
-            registeredKeys.clear();
-          }
-        } finally {
-          media.close();
-        }
+        // closing the channel cancels all of its selection keys
+        media.close();
       }
 
       allocatedBuffer.close();
@@ -42,6 +42,9 @@ public class TransportContext {
 
   private TransportChannelFactory channelFactory;
 
+  private int receiveBusyPollRounds;
+  private int receiveBatchSize = 1;
+
   public int getMessageMaxLength() {
     return messageMaxLength;
   }
@@ -122,6 +125,22 @@ public class TransportContext {
     return channelFactory;
   }
 
+  public int getReceiveBusyPollRounds() {
+    return receiveBusyPollRounds;
+  }
+
+  public void setReceiveBusyPollRounds(int receiveBusyPollRounds) {
+    this.receiveBusyPollRounds = receiveBusyPollRounds;
+  }
+
+  public int getReceiveBatchSize() {
+    return receiveBatchSize;
+  }
+
+  public void setReceiveBatchSize(int receiveBatchSize) {
+    this.receiveBatchSize = receiveBatchSize;
+  }
+
   public void setSendBuffer(Dispatcher sendBuffer) {
     this.sendBuffer = sendBuffer;
   }
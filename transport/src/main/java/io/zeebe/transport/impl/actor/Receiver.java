@@ -26,7 +26,9 @@ public class Receiver extends Actor {
   private String name;
 
   public Receiver(ActorContext actorContext, TransportContext context) {
-    this.transportPoller = new ReadTransportPoller(actor);
+    this.transportPoller =
+        new ReadTransportPoller(
+            actor, context.getReceiveBusyPollRounds(), context.getReceiveBatchSize());
     this.name = String.format("%s-receiver", context.getName());
     actorContext.setReceiver(this);
   }
@@ -29,13 +29,26 @@ public class ConnectTransportPoller extends TransportPoller {
   protected final List<TransportChannel> channelsToAdd = new ArrayList<>();
   protected final List<TransportChannel> channelsToRemove = new ArrayList<>();
 
+  /**
+   * set while the poller is about to block on the selector; channels which are added or removed
+   * meanwhile must wake it up
+   */
+  private volatile boolean isSelecting;
+
+  private volatile boolean hasPendingChanges;
+
   public void pollBlocking() {
     if (selector.isOpen()) {
+      isSelecting = true;
       try {
-        selector.select();
+        if (!hasPendingChanges) {
+          selector.select();
+        }
       } catch (IOException e) {
         selectedKeySet.reset();
         throw new RuntimeException(e);
+      } finally {
+        isSelecting = false;
       }
     }
   }
@@ -43,6 +56,8 @@ public class ConnectTransportPoller extends TransportPoller {
   public void processKeys() {
     selectedKeySet.forEach(processKeyFn);
 
+    hasPendingChanges = false;
+
     if (selector.isOpen()) {
       for (TransportChannel channel : channelsToAdd) {
         channel.registerSelector(selector, SelectionKey.OP_CONNECT);
@@ -69,11 +84,20 @@ public class ConnectTransportPoller extends TransportPoller {
 
   public void addChannel(TransportChannel channel) {
     channelsToAdd.add(channel);
-    selector.wakeup();
+    onChannelsChanged();
   }
 
   public void removeChannel(TransportChannel channel) {
     channelsToRemove.add(channel);
-    selector.wakeup();
+    onChannelsChanged();
+  }
+
+  private void onChannelsChanged() {
+    hasPendingChanges = true;
+
+    // waking up the selector is a system call, only do it if the poller may be blocked on it
+    if (isSelecting) {
+      selector.wakeup();
+    }
   }
 }
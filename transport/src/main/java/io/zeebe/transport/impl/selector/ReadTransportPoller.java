@@ -27,8 +27,24 @@ import org.agrona.LangUtil;
 import org.agrona.nio.TransportPoller;
 import org.slf4j.Logger;
 
+/**
+ * Polls the channels of a transport for incoming data. If no channel has data available, the poller
+ * busy polls for a configurable number of rounds and then blocks on the selector.
+ */
 public class ReadTransportPoller extends TransportPoller {
   private final ActorControl actor;
+  private final int busyPollRounds;
+  private final int receiveBatchSize;
+
+  /**
+   * set while the poller is about to block on the selector; channels which are added meanwhile
+   * must wake it up
+   */
+  private volatile boolean isSelecting;
+
+  private volatile boolean hasChannelsToAdd;
+
+  private int idlePollRounds;
 
   private static final Logger LOG = Loggers.TRANSPORT_LOGGER;
 
@@ -39,16 +55,31 @@ public class ReadTransportPoller extends TransportPoller {
   protected final Runnable pollNow = this::pollNow;
 
   public ReadTransportPoller(ActorControl actor) {
+    this(actor, 0, 1);
+  }
+
+  /**
+   * @param busyPollRounds the number of rounds to poll without data before blocking
+   * @param receiveBatchSize the maximum number of reads from a channel per round
+   */
+  public ReadTransportPoller(ActorControl actor, int busyPollRounds, int receiveBatchSize) {
     this.actor = actor;
+    this.busyPollRounds = busyPollRounds;
+    this.receiveBatchSize = Math.max(1, receiveBatchSize);
   }
 
   public void pollBlocking() {
     if (selector.isOpen()) {
+      isSelecting = true;
       try {
-        selector.select();
+        if (!hasChannelsToAdd) {
+          selector.select();
+        }
       } catch (IOException e) {
         selectedKeySet.reset();
         throw new RuntimeException(e);
+      } finally {
+        isSelecting = false;
       }
     }
   }
@@ -65,7 +96,7 @@ public class ReadTransportPoller extends TransportPoller {
     if (channels.size() <= ITERATION_THRESHOLD) {
       for (int i = 0; i < channels.size(); i++) {
         final TransportChannel channel = channels.get(i);
-        workCount += channel.receive();
+        workCount += receive(channel);
       }
     } else {
       try {
@@ -77,15 +108,36 @@ public class ReadTransportPoller extends TransportPoller {
       }
     }
 
-    if (workCount == 0) {
+    if (workCount > 0) {
+      idlePollRounds = 0;
+      actor.yield();
+    } else if (idlePollRounds < busyPollRounds) {
+      idlePollRounds++;
+      actor.yield();
+    } else {
+      idlePollRounds = 0;
       actor.done();
       actor.runBlocking(this::pollBlocking, this::pollBlockingEnded);
-    } else {
-      actor.yield();
     }
   }
 
+  private int receive(TransportChannel channel) {
+    int workCount = 0;
+
+    for (int i = 0; i < receiveBatchSize; i++) {
+      final int received = channel.receive();
+      if (received == 0) {
+        break;
+      }
+      workCount += received;
+    }
+
+    return workCount;
+  }
+
   private void maintainChannels() {
+    hasChannelsToAdd = false;
+
     for (int i = 0; i < channelsToAdd.size(); i++) {
       final TransportChannel channel = channelsToAdd.get(i);
       try {
@@ -107,7 +159,7 @@ public class ReadTransportPoller extends TransportPoller {
 
     if (key != null && key.isValid()) {
       final TransportChannel channel = (TransportChannel) key.attachment();
-      workCount = channel.receive();
+      workCount = receive(channel);
     }
 
     return workCount;
@@ -115,7 +167,12 @@ public class ReadTransportPoller extends TransportPoller {
 
   public void addChannel(TransportChannel channel) {
     channelsToAdd.add(channel);
-    selector.wakeup();
+    hasChannelsToAdd = true;
+
+    // waking up the selector is a system call, only do it if the poller may be blocked on it
+    if (isSelecting) {
+      selector.wakeup();
+    }
   }
 
   public void removeChannel(TransportChannel channel) {
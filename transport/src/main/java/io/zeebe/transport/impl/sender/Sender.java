@@ -24,6 +24,7 @@ import io.zeebe.transport.impl.RemoteAddressImpl;
 import io.zeebe.transport.impl.TransportChannel;
 import io.zeebe.transport.impl.actor.ActorContext;
 import io.zeebe.transport.impl.memory.TransportMemoryPool;
+import io.zeebe.util.BoundedArrayQueue;
 import io.zeebe.util.ByteValue;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.channel.ConcurrentQueueChannel;
@@ -31,10 +32,11 @@ import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.agrona.DeadlineTimerWheel;
@@ -51,6 +53,14 @@ public class Sender extends Actor implements TimerHandler {
 
   private static final int DEFAULT_BATCH_SIZE = (int) ByteValue.ofKilobytes(128).toBytes();
 
+  /** the maximum number of pending writes per channel; further writes are retried */
+  private static final int MAX_PENDING_WRITES = 1024;
+
+  /** the maximum number of pending writes which are handed to the channel in one write */
+  private static final int MAX_GATHERED_WRITES = 64;
+
+  private static final Duration CHANNEL_BACKPRESSURE_RETRY_DELAY = Duration.ofMillis(1);
+
   private static final Logger LOG = Loggers.TRANSPORT_LOGGER;
 
   private long nextRequestId = 0;
@@ -69,7 +79,7 @@ public class Sender extends Actor implements TimerHandler {
   private final Int2ObjectHashMap<ChannelWriteQueue> channelMap = new Int2ObjectHashMap<>();
   private final List<ChannelWriteQueue> channelList = new ArrayList<>();
 
-  private final Deque<Batch> recycledBuffers = new LinkedList<>();
+  private final Deque<Batch> recycledBuffers = new ArrayDeque<>();
 
   private DeadlineTimerWheel requestTimeouts;
 
@@ -200,7 +210,12 @@ public class Sender extends Actor implements TimerHandler {
         final ChannelWriteQueue sendQueue = channelMap.get(remoteAddress.getStreamId());
         if (sendQueue != null) {
           request.markRemoteAddress(remoteAddress);
-          sendQueue.offer(request);
+
+          if (!sendQueue.offer(request)) {
+            // too many pending writes on the channel, retry
+            actor.runDelayed(
+                CHANNEL_BACKPRESSURE_RETRY_DELAY, () -> submittedRequests.offer(request));
+          }
         } else {
           // channel not open, retry
           actor.runDelayed(Duration.ofMillis(10), () -> submittedRequests.offer(request));
@@ -216,9 +231,17 @@ public class Sender extends Actor implements TimerHandler {
     final int remoteStreamId = message.getRemoteStreamId();
     final ChannelWriteQueue sendQueue = channelMap.get(remoteStreamId);
     if (sendQueue != null) {
-      try {
-        sendQueue.offer(message);
-      } finally {
+      // the message buffer is written without copying and reclaimed once it is written
+      if (sendQueue.offer(message)) {
+        return;
+      }
+
+      if (ActorClock.currentTimeMillis() < message.getDeadline()) {
+        // too many pending writes on the channel, retry
+        actor.runDelayed(
+            CHANNEL_BACKPRESSURE_RETRY_DELAY, () -> submittedMessages.offer(message));
+      } else {
+        LOG.trace("Drop message because the channel has too many pending writes.");
         reclaimMessageBuffer(message.getAllocatedBuffer());
       }
     } else if (ActorClock.currentTimeMillis() < message.getDeadline()) {
@@ -249,106 +272,133 @@ public class Sender extends Actor implements TimerHandler {
   private void sendKeepalives() {
     for (ChannelWriteQueue channelWriteQueue : channelList) {
       if (!channelWriteQueue.hasPending()) {
-        channelWriteQueue
-            .getPendingWrites()
-            .addLast(new ControlMessage(ControlMessages.KEEP_ALIVE));
+        channelWriteQueue.getPendingWrites().offer(new ControlMessage(ControlMessages.KEEP_ALIVE));
       }
     }
 
     sendNext();
   }
 
+  /**
+   * The pending writes of a channel, kept in a bounded ring. Multiple pending writes are handed to
+   * the channel at once with a single gathering write.
+   */
   public class ChannelWriteQueue {
-    private final Deque<Batch> pendingWrites = new LinkedList<>();
+    private final BoundedArrayQueue<PendingWrite> pendingWrites =
+        new BoundedArrayQueue<>(MAX_PENDING_WRITES);
 
-    private final TransportChannel channel;
+    private final ByteBuffer[] gatheredBuffers = new ByteBuffer[MAX_GATHERED_WRITES];
 
-    private Batch currentWrite;
+    private final TransportChannel channel;
 
     public ChannelWriteQueue(TransportChannel channel) {
       this.channel = channel;
     }
 
     public boolean hasPending() {
-      return currentWrite != null || !pendingWrites.isEmpty();
+      return !pendingWrites.isEmpty();
     }
 
     public void write() {
-      if (hasPending()) {
-        if (currentWrite == null) {
-          currentWrite = pendingWrites.poll();
-          currentWrite.prepareWrite();
-        }
+      final int gatheredWrites = Math.min(pendingWrites.size(), MAX_GATHERED_WRITES);
 
-        currentWrite.writeTo(channel);
+      if (gatheredWrites > 0) {
+        for (int i = 0; i < gatheredWrites; i++) {
+          final PendingWrite pendingWrite = pendingWrites.get(i);
+
+          if (!pendingWrite.isWriting) {
+            pendingWrite.prepareWrite();
+          }
 
-        if (!currentWrite.hasRemaining()) {
-          currentWrite.recycle();
-          currentWrite = null;
+          gatheredBuffers[i] = pendingWrite.getWriteBuffer();
         }
-      }
-    }
 
-    public void offer(OutgoingRequest request) {
-      // try to fit into last pending batch
-      final Batch existingBatch = pendingWrites.peekLast();
-
-      if (existingBatch == null || !existingBatch.addToBatch(request, channel)) {
-        // try to recycle existing batch
-        final Iterator<Batch> recycledBuffersIterator = recycledBuffers.iterator();
-        while (recycledBuffersIterator.hasNext()) {
-          final Batch batch = recycledBuffersIterator.next();
-
-          if (batch.addToBatch(request, channel)) {
-            recycledBuffersIterator.remove();
-            pendingWrites.addLast(batch);
-            return;
+        channel.write(gatheredBuffers, 0, gatheredWrites);
+
+        for (int i = 0; i < gatheredWrites; i++) {
+          final PendingWrite pendingWrite = pendingWrites.peek();
+
+          if (pendingWrite.getWriteBuffer().hasRemaining()) {
+            break;
           }
+
+          pendingWrites.poll();
+          pendingWrite.recycle();
         }
 
-        // allocate new batch
-        final Batch batch =
-            new Batch(Math.max(DEFAULT_BATCH_SIZE, request.getRequestBuffer().capacity()));
-        batch.addToBatch(request, channel);
-        pendingWrites.addLast(batch);
+        Arrays.fill(gatheredBuffers, 0, gatheredWrites, null);
       }
     }
 
-    public void offer(OutgoingMessage message) {
+    /** @return false if the request could not be added because of too many pending writes */
+    public boolean offer(OutgoingRequest request) {
       // try to fit into last pending batch
-      Batch batch = pendingWrites.peekLast();
+      final PendingWrite lastWrite = pendingWrites.peekLast();
 
-      if (batch == null || !batch.addToBatch(message)) {
-        boolean hasRecycled = false;
+      if (lastWrite != null && !lastWrite.isWriting && lastWrite.addToBatch(request, channel)) {
+        return true;
+      }
 
-        // try to recycle existing batch
-        final Iterator<Batch> recycledBuffersIterator = recycledBuffers.iterator();
-        while (recycledBuffersIterator.hasNext()) {
-          batch = recycledBuffersIterator.next();
+      if (pendingWrites.size() == pendingWrites.getCapacity()) {
+        return false;
+      }
 
-          if (batch.addToBatch(message)) {
-            recycledBuffersIterator.remove();
-            hasRecycled = true;
-            break;
-          }
-        }
+      // try to recycle existing batch
+      final Iterator<Batch> recycledBuffersIterator = recycledBuffers.iterator();
+      while (recycledBuffersIterator.hasNext()) {
+        final Batch batch = recycledBuffersIterator.next();
 
-        if (!hasRecycled) {
-          // allocate new batch
-          batch = new Batch(Math.max(DEFAULT_BATCH_SIZE, message.getBuffer().capacity()));
-          batch.addToBatch(message);
+        if (batch.addToBatch(request, channel)) {
+          recycledBuffersIterator.remove();
+          pendingWrites.offer(batch);
+          return true;
         }
-
-        pendingWrites.addLast(batch);
       }
+
+      // allocate new batch
+      final Batch batch =
+          new Batch(Math.max(DEFAULT_BATCH_SIZE, request.getRequestBuffer().capacity()));
+      batch.addToBatch(request, channel);
+      pendingWrites.offer(batch);
+
+      return true;
+    }
+
+    /** @return false if the message could not be added because of too many pending writes */
+    public boolean offer(OutgoingMessage message) {
+      return pendingWrites.offer(new MessageWrite(message));
     }
 
-    public Deque<Batch> getPendingWrites() {
+    public BoundedArrayQueue<PendingWrite> getPendingWrites() {
       return pendingWrites;
     }
+
+    void onChannelClosed() {
+      PendingWrite pendingWrite;
+      while ((pendingWrite = pendingWrites.poll()) != null) {
+        pendingWrite.onChannelClosed();
+      }
+    }
+  }
+
+  private abstract static class PendingWrite {
+    /** set once the write is handed to the channel; no more data can be added then */
+    boolean isWriting;
+
+    abstract void prepareWrite();
+
+    abstract ByteBuffer getWriteBuffer();
+
+    boolean addToBatch(OutgoingRequest request, TransportChannel channel) {
+      return false;
+    }
+
+    abstract void recycle();
+
+    abstract void onChannelClosed();
   }
 
-  private class Batch {
+  private class Batch extends PendingWrite {
     final List<OutgoingRequest> requestsInBatch = new ArrayList<>();
 
     final UnsafeBuffer view = new UnsafeBuffer();
@@ -360,6 +410,7 @@ public class Sender extends Actor implements TimerHandler {
       view.wrap(batchBuffer);
     }
 
+    @Override
     public boolean addToBatch(OutgoingRequest request, TransportChannel channel) {
       final DirectBuffer requestBuffer = request.getRequestBuffer();
       final int requestLength = requestBuffer.capacity();
@@ -383,40 +434,29 @@ public class Sender extends Actor implements TimerHandler {
       }
     }
 
-    public boolean addToBatch(OutgoingMessage message) {
-      final DirectBuffer buffer = message.getBuffer();
-      final int requiredLength = buffer.capacity();
-
-      if (writeOffset + requiredLength <= batchBuffer.capacity()) {
-        buffer.getBytes(0, batchBuffer, writeOffset, requiredLength);
-        writeOffset += requiredLength;
-
-        return true;
-      } else {
-        return false;
-      }
-    }
-
-    public boolean writeTo(TransportChannel channel) {
-      return channel.write(batchBuffer) > 0;
-    }
-
+    @Override
     public void prepareWrite() {
+      isWriting = true;
       batchBuffer.position(0);
       batchBuffer.limit(writeOffset);
     }
 
-    public boolean hasRemaining() {
-      return batchBuffer.hasRemaining();
+    @Override
+    ByteBuffer getWriteBuffer() {
+      return batchBuffer;
     }
 
+    @Override
     public void recycle() {
+      isWriting = false;
+      view.setMemory(0, writeOffset, (byte) 0);
       writeOffset = 0;
-      view.setMemory(0, view.capacity(), (byte) 0);
+      batchBuffer.clear();
       requestsInBatch.clear();
       recycledBuffers.push(this);
     }
 
+    @Override
     public void onChannelClosed() {
       requestsInBatch.forEach(Sender.this::submitRequest);
       recycle();
@@ -436,6 +476,40 @@ public class Sender extends Actor implements TimerHandler {
     }
   }
 
+  /** Writes a message straight from its buffer of the message memory pool, without copying it. */
+  private class MessageWrite extends PendingWrite {
+    private final ByteBuffer messageBuffer;
+    private final int messageLength;
+
+    MessageWrite(OutgoingMessage message) {
+      messageBuffer = message.getAllocatedBuffer();
+      messageLength = message.getBuffer().capacity();
+    }
+
+    @Override
+    void prepareWrite() {
+      isWriting = true;
+      messageBuffer.position(0);
+      messageBuffer.limit(messageLength);
+    }
+
+    @Override
+    ByteBuffer getWriteBuffer() {
+      return messageBuffer;
+    }
+
+    @Override
+    void recycle() {
+      reclaimMessageBuffer(messageBuffer);
+    }
+
+    @Override
+    void onChannelClosed() {
+      // messages are not retried
+      reclaimMessageBuffer(messageBuffer);
+    }
+  }
+
   public ActorFuture<ClientResponse> submitRequest(OutgoingRequest request) {
     submittedRequests.add(request);
     return request.getResponseFuture();
@@ -469,7 +543,7 @@ public class Sender extends Actor implements TimerHandler {
           if (sendQueue != null) {
             channelList.remove(sendQueue);
             // re-submit pending requests so that they can be retried
-            sendQueue.pendingWrites.forEach(Batch::onChannelClosed);
+            sendQueue.onChannelClosed();
           }
         });
   }
@@ -99,6 +99,33 @@ public class BoundedArrayQueue<P> implements Iterable<P>, Queue<P> {
     return (P) object;
   }
 
+  /**
+   * @param index the position of the element, counted from the head of the queue
+   * @return the element at the given position, or null if the queue has less elements
+   */
+  @SuppressWarnings("unchecked")
+  public P get(int index) {
+    Object object = null;
+
+    if (index >= 0 && index < size()) {
+      object = array[(int) ((head + index) & mask)];
+    }
+
+    return (P) object;
+  }
+
+  /** @return the most recently added element, or null if the queue is empty */
+  @SuppressWarnings("unchecked")
+  public P peekLast() {
+    Object object = null;
+
+    if (size() > 0) {
+      object = array[(int) ((tail - 1) & mask)];
+    }
+
+    return (P) object;
+  }
+
   public int size() {
     return (int) (tail - head);
   }
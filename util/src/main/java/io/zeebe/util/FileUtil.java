@@ -149,6 +149,7 @@ public class FileUtil {
   }
 
   public static final class SnapshotCopier extends SimpleFileVisitor<Path> {
+    private static final String SST_FILE_SUFFIX = ".sst";
 
     private final Path targetPath;
     private final Path sourcePath;
@@ -176,6 +177,10 @@ public class FileUtil {
     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
       final Path newFile = targetPath.resolve(sourcePath.relativize(file));
 
+      if (isImmutableFile(file) && tryLink(file, newFile)) {
+        return CONTINUE;
+      }
+
       try {
         Files.copy(file, newFile);
       } catch (IOException ioException) {
@@ -185,6 +190,21 @@ public class FileUtil {
       return CONTINUE;
     }
 
+    /** SST files are never modified, so the snapshot and the runtime can share them. */
+    private static boolean isImmutableFile(Path file) {
+      return file.getFileName().toString().endsWith(SST_FILE_SUFFIX);
+    }
+
+    private static boolean tryLink(Path file, Path newFile) {
+      try {
+        Files.createLink(newFile, file);
+        return true;
+      } catch (UnsupportedOperationException | IOException e) {
+        LOG.debug("Failed to link {} to {}, copy it instead.", file, newFile, e);
+        return false;
+      }
+    }
+
     @Override
     public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
       return CONTINUE;
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched;
+
+/**
+ * Strategies of how an {@link ActorThread} waits for work when it has no task to execute. The
+ * strategy is configured per {@link ActorThreadGroup}.
+ */
+public enum ActorIdleStrategy {
+  /** Spins, then yields, then parks with an exponential backoff up to the timer resolution. */
+  BACKOFF,
+
+  /** Spins on the CPU. Lowest latency, but every thread occupies a full core. */
+  BUSY_SPIN,
+
+  /** Yields the CPU to other threads. */
+  YIELD,
+
+  /** Parks the thread until new work is submitted to it. */
+  PARK,
+
+  /**
+   * Spins as long as new work usually takes to arrive and parks otherwise. The expected
+   * inter-arrival time is learned from the previous idle periods of the thread.
+   */
+  ADAPTIVE
+}
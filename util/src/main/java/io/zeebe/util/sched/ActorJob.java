@@ -37,6 +37,9 @@ public class ActorJob {
 
   ActorThread actorThread;
 
+  /** the time when the job was queued, only set if metrics are enabled */
+  long queuedNanos;
+
   private ActorSubscription subscription;
 
   public void onJobAddedToTask(ActorTask task) {
@@ -117,6 +120,7 @@ public class ActorJob {
 
     resultFuture = null;
     subscription = null;
+    queuedNanos = 0;
   }
 
   public void markDone() {
@@ -17,8 +17,10 @@ package io.zeebe.util.sched;
 
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.metrics.ActorSchedulerMetrics;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.concurrent.Future;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
@@ -30,10 +32,21 @@ import java.util.concurrent.atomic.AtomicReference;
 public class ActorScheduler {
   private final AtomicReference<SchedulerState> state = new AtomicReference<>();
   private final ActorExecutor actorTaskExecutor;
+  private final ActorSchedulerMetrics metrics;
 
   public ActorScheduler(ActorSchedulerBuilder builder) {
     state.set(SchedulerState.NEW);
     actorTaskExecutor = builder.getActorExecutor();
+    metrics = builder.getMetrics();
+  }
+
+  /**
+   * @return the collector of the scheduler's metrics which can be registered to export them, or
+   *     <code>null</code> if the metrics are not enabled
+   * @see ActorSchedulerBuilder#setMetricsEnabled(boolean)
+   */
+  public ActorSchedulerMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -57,13 +70,17 @@ public class ActorScheduler {
    *       by the actor.
    * </ul>
    *
-   * Scheduling hints can be created using the {@link SchedulingHints} class.
+   * Additionally, an actor can be pinned to a thread or to a subgroup of threads, e.g. to keep the
+   * actors of one partition on the same cores.
+   *
+   * <p>Scheduling hints can be created using the {@link SchedulingHints} class.
    *
    * @param actor the actor to submit
    * @param schedulingHints additional scheduling hint
    */
   public ActorFuture<Void> submitActor(Actor actor, int schedulingHints) {
     final ActorTask task = actor.actor.task;
+    task.setAffinity(schedulingHints);
 
     final ActorFuture<Void> startingFuture;
     if (SchedulingHints.isCpuBound(schedulingHints)) {
@@ -120,6 +137,13 @@ public class ActorScheduler {
     private int ioBoundThreadsCount = 2;
     private ActorThreadGroup ioBoundActorGroup;
 
+    private int cpuBoundSubgroupSize = 0;
+    private ActorThreadCpuBinder actorThreadCpuBinder;
+
+    private ActorIdleStrategy cpuBoundIdleStrategy = ActorIdleStrategy.BACKOFF;
+    private ActorIdleStrategy ioBoundIdleStrategy = ActorIdleStrategy.BACKOFF;
+    private Duration maxIdleParkPeriod = Duration.ofMillis(100);
+
     private ActorThreadFactory actorThreadFactory;
     private ThreadPoolExecutor blockingTasksRunner;
     private Duration blockingTasksShutdownTime = Duration.ofSeconds(15);
@@ -127,6 +151,9 @@ public class ActorScheduler {
 
     private ActorTimerQueue actorTimerQueue;
 
+    private boolean metricsEnabled = false;
+    private ActorSchedulerMetrics metrics;
+
     public ActorSchedulerBuilder setActorTimerQueue(ActorTimerQueue actorTimerQueue) {
       this.actorTimerQueue = actorTimerQueue;
       return this;
@@ -147,6 +174,51 @@ public class ActorScheduler {
       return this;
     }
 
+    /**
+     * Partitions the CPU-bound threads into subgroups of the given size. Tasks are only stolen
+     * between threads of the same subgroup. By default, all threads form a single subgroup.
+     */
+    public ActorSchedulerBuilder setCpuBoundSubgroupSize(int subgroupSize) {
+      if (subgroupSize <= 0) {
+        throw new IllegalArgumentException(
+            "Expected subgroup size to be greater than 0, but was " + subgroupSize);
+      }
+      this.cpuBoundSubgroupSize = subgroupSize;
+      return this;
+    }
+
+    /** Sets a binder which maps the threads of a subgroup onto a set of CPUs. */
+    public ActorSchedulerBuilder setActorThreadCpuBinder(ActorThreadCpuBinder cpuBinder) {
+      this.actorThreadCpuBinder = cpuBinder;
+      return this;
+    }
+
+    /** Sets how the CPU-bound threads wait for work, see {@link ActorIdleStrategy}. */
+    public ActorSchedulerBuilder setCpuBoundIdleStrategy(ActorIdleStrategy idleStrategy) {
+      this.cpuBoundIdleStrategy = Objects.requireNonNull(idleStrategy);
+      return this;
+    }
+
+    /** Sets how the I/O-bound threads wait for work, see {@link ActorIdleStrategy}. */
+    public ActorSchedulerBuilder setIoBoundIdleStrategy(ActorIdleStrategy idleStrategy) {
+      this.ioBoundIdleStrategy = Objects.requireNonNull(idleStrategy);
+      return this;
+    }
+
+    /**
+     * Sets the longest period an idle thread parks with the {@link ActorIdleStrategy#PARK} and
+     * {@link ActorIdleStrategy#ADAPTIVE} strategies. Threads with scheduled timers park at most for
+     * the resolution of the timers.
+     */
+    public ActorSchedulerBuilder setMaxIdleParkPeriod(Duration maxIdleParkPeriod) {
+      if (maxIdleParkPeriod.isNegative() || maxIdleParkPeriod.isZero()) {
+        throw new IllegalArgumentException(
+            "Expected max idle park period to be positive, but was " + maxIdleParkPeriod);
+      }
+      this.maxIdleParkPeriod = maxIdleParkPeriod;
+      return this;
+    }
+
     public ActorSchedulerBuilder setActorThreadFactory(ActorThreadFactory actorThreadFactory) {
       this.actorThreadFactory = actorThreadFactory;
       return this;
@@ -157,6 +229,15 @@ public class ActorScheduler {
       return this;
     }
 
+    /**
+     * Collect metrics about the actor threads (busy and idle time, steals, timer lag) and the
+     * actors (job wait time, job run time, queue depth). This adds a few clock reads per job.
+     */
+    public ActorSchedulerBuilder setMetricsEnabled(boolean metricsEnabled) {
+      this.metricsEnabled = metricsEnabled;
+      return this;
+    }
+
     public ActorSchedulerBuilder setSchedulerName(String schedulerName) {
       this.schedulerName = schedulerName;
       return this;
@@ -182,6 +263,26 @@ public class ActorScheduler {
       return ioBoundThreadsCount;
     }
 
+    public int getCpuBoundSubgroupSize() {
+      return cpuBoundSubgroupSize > 0 ? cpuBoundSubgroupSize : cpuBoundThreadsCount;
+    }
+
+    public ActorIdleStrategy getCpuBoundIdleStrategy() {
+      return cpuBoundIdleStrategy;
+    }
+
+    public ActorIdleStrategy getIoBoundIdleStrategy() {
+      return ioBoundIdleStrategy;
+    }
+
+    public Duration getMaxIdleParkPeriod() {
+      return maxIdleParkPeriod;
+    }
+
+    public ActorThreadCpuBinder getActorThreadCpuBinder() {
+      return actorThreadCpuBinder;
+    }
+
     public double[] getPriorityQuotas() {
       return Arrays.copyOf(priorityQuotas, priorityQuotas.length);
     }
@@ -202,6 +303,10 @@ public class ActorScheduler {
       return actorExecutor;
     }
 
+    public ActorSchedulerMetrics getMetrics() {
+      return metrics;
+    }
+
     public ActorThreadGroup getCpuBoundActorThreads() {
       return cpuBoundActorGroup;
     }
@@ -241,6 +346,12 @@ public class ActorScheduler {
       }
     }
 
+    private void initMetrics() {
+      if (metricsEnabled && metrics == null) {
+        metrics = new ActorSchedulerMetrics(schedulerName);
+      }
+    }
+
     private void initActorExecutor() {
       if (actorExecutor == null) {
         actorExecutor = new ActorExecutor(this);
@@ -250,6 +361,7 @@ public class ActorScheduler {
     public ActorScheduler build() {
       initActorThreadFactory();
       initBlockingTaskRunner();
+      initMetrics();
       initCpuBoundActorThreadGroup();
       initIoBoundActorThreadGroup();
       initActorExecutor();
@@ -267,6 +379,22 @@ public class ActorScheduler {
         ActorTimerQueue timerQueue);
   }
 
+  /**
+   * Binds actor threads onto CPU sets. The JDK provides no API to set the affinity of a thread, so
+   * implementations usually delegate to a native library or to the operating system.
+   */
+  @FunctionalInterface
+  public interface ActorThreadCpuBinder {
+    /**
+     * Invoked on the actor thread itself, before it executes any task.
+     *
+     * @param thread the thread to bind
+     * @param threadGroupName the name of the thread group of the thread
+     * @param subgroup the subgroup of the thread within its thread group
+     */
+    void bind(ActorThread thread, String threadGroupName, int subgroup);
+  }
+
   public static class DefaultActorThreadFactory implements ActorThreadFactory {
     @Override
     public ActorThread newThread(
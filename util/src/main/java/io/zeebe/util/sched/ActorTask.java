@@ -20,6 +20,7 @@ import static org.agrona.UnsafeAccess.UNSAFE;
 import io.zeebe.util.Loggers;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
+import io.zeebe.util.sched.metrics.ActorTaskMetrics;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
@@ -104,6 +105,9 @@ public class ActorTask {
 
   private ActorSubscription[] subscriptions = new ActorSubscription[0];
 
+  /** only set if metrics are enabled */
+  private ActorTaskMetrics metrics;
+
   boolean shouldYield;
 
   /**
@@ -111,6 +115,9 @@ public class ActorTask {
    */
   private int priority = ActorPriority.REGULAR.getPriorityClass();
 
+  /** the hints which pin the task to a thread or to a subgroup, see {@link SchedulingHints} */
+  private int affinity;
+
   public ActorTask(Actor actor) {
     this.actor = actor;
   }
@@ -120,6 +127,10 @@ public class ActorTask {
       ActorExecutor actorExecutor, ActorThreadGroup actorThreadGroup) {
     this.actorExecutor = actorExecutor;
     this.actorThreadGroup = actorThreadGroup;
+    this.metrics =
+        actorThreadGroup != null && actorThreadGroup.getMetrics() != null
+            ? actorThreadGroup.getMetrics().getTaskMetrics(actor.getName())
+            : null;
     // reset previous state to allow re-scheduling
     this.closeFuture.close();
     this.closeFuture.setAwaitingResult();
@@ -153,6 +164,10 @@ public class ActorTask {
     // get reference to jobs queue
     final Queue<ActorJob> submittedJobs = this.submittedJobs;
 
+    if (metrics != null) {
+      job.queuedNanos = System.nanoTime();
+    }
+
     // add job to queue
     if (submittedJobs.offer(job)) {
       if (submittedJobs != this.submittedJobs) {
@@ -161,6 +176,10 @@ public class ActorTask {
         // we have to manually fail the job to make sure does not get lost
         failJob(job);
       } else {
+        if (metrics != null) {
+          metrics.jobSubmitted();
+        }
+
         // wakeup task if waiting
         tryWakeup();
       }
@@ -174,7 +193,11 @@ public class ActorTask {
 
     boolean resubmit = false;
     while (!resubmit && (currentJob != null || poll())) {
-      currentJob.execute(runner);
+      if (metrics != null) {
+        executeCurrentJobWithMetrics(runner);
+      } else {
+        currentJob.execute(runner);
+      }
 
       switch (currentJob.schedulingState) {
         case TERMINATED:
@@ -220,6 +243,20 @@ public class ActorTask {
     return resubmit;
   }
 
+  private void executeCurrentJobWithMetrics(ActorThread runner) {
+    final ActorJob job = currentJob;
+    final long startNanos = System.nanoTime();
+
+    if (job.queuedNanos > 0) {
+      metrics.recordJobWaitTime(startNanos - job.queuedNanos);
+      job.queuedNanos = 0;
+    }
+
+    job.execute(runner);
+
+    metrics.recordJobRunTime(System.nanoTime() - startNanos);
+  }
+
   private boolean onAllJobsDone() {
     boolean resubmit = false;
 
@@ -308,6 +345,10 @@ public class ActorTask {
     ActorJob j;
 
     while ((j = activeJobsQueue.poll()) != null) {
+      if (metrics != null) {
+        metrics.jobPolled();
+      }
+
       // cancel and discard jobs
       failJob(j);
     }
@@ -443,6 +484,10 @@ public class ActorTask {
         final ActorJob job = subscription.getJob();
         job.schedulingState = TaskSchedulingState.QUEUED;
 
+        if (metrics != null) {
+          job.queuedNanos = System.nanoTime();
+        }
+
         if (currentJob == null) {
           currentJob = job;
         } else {
@@ -486,6 +531,10 @@ public class ActorTask {
     while (lifecyclePhase == ActorLifecyclePhase.STARTED && !submittedJobs.isEmpty()) {
       final ActorJob job = submittedJobs.poll();
       if (job != null) {
+        if (metrics != null) {
+          metrics.jobPolled();
+        }
+
         if (currentJob == null) {
           currentJob = job;
         } else {
@@ -540,6 +589,14 @@ public class ActorTask {
     this.priority = priority;
   }
 
+  public int getAffinity() {
+    return affinity;
+  }
+
+  public void setAffinity(int affinity) {
+    this.affinity = affinity;
+  }
+
   public ActorExecutor getActorExecutor() {
     return actorExecutor;
   }
@@ -588,6 +645,8 @@ public class ActorTask {
   }
 
   public void setUpdatedSchedulingHints(int hints) {
+    affinity = hints;
+
     if (SchedulingHints.isCpuBound(hints)) {
       priority = SchedulingHints.getPriority(hints);
       actorThreadGroup = actorExecutor.getCpuBoundThreads();
@@ -601,6 +660,10 @@ public class ActorTask {
   }
 
   public void insertJob(ActorJob job) {
+    if (metrics != null) {
+      job.queuedNanos = System.nanoTime();
+    }
+
     fastLaneJobs.addFirst(job);
   }
 }
@@ -31,15 +31,17 @@
 package io.zeebe.util.sched;
 
 import io.zeebe.util.BoundedArrayQueue;
+import io.zeebe.util.Loggers;
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.clock.DefaultActorClock;
+import io.zeebe.util.sched.metrics.ActorThreadMetrics;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import org.agrona.UnsafeAccess;
-import org.agrona.concurrent.BackoffIdleStrategy;
 import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
+import org.agrona.hints.ThreadHints;
 import org.slf4j.MDC;
 import sun.misc.Unsafe;
 
@@ -47,10 +49,19 @@ import sun.misc.Unsafe;
 public class ActorThread extends Thread implements Consumer<Runnable> {
   static final Unsafe UNSAFE = UnsafeAccess.UNSAFE;
 
+  private static final int MAX_SPINS = 100;
+  private static final int MAX_YIELDS = 100;
+  private static final long MIN_PARK_PERIOD_NS = 1;
+  /** the resolution of the timers, threads with scheduled timers park at most that long */
+  private static final long TIMER_PARK_PERIOD_NS = TimeUnit.MILLISECONDS.toNanos(1);
+  /** upper bound of the idle period for which the adaptive strategy spins */
+  private static final long MAX_ADAPTIVE_SPIN_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
   private volatile ActorThreadState state;
 
   private static final long STATE_OFFSET;
 
+  private final CompletableFuture<Void> startFuture = new CompletableFuture<>();
   private final CompletableFuture<Void> terminationFuture = new CompletableFuture<>();
 
   public final ManyToManyConcurrentArrayQueue<Runnable> submittedCallbacks =
@@ -74,6 +85,7 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
 
   private final BoundedArrayQueue<ActorJob> jobs = new BoundedArrayQueue<>(2048);
   private final ActorThreadGroup actorThreadGroup;
+  private final ActorThreadMetrics metrics;
 
   protected ActorTaskRunnerIdleStrategy idleStrategy = new ActorTaskRunnerIdleStrategy();
 
@@ -93,10 +105,32 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
     this.timerJobQueue = timerQueue != null ? timerQueue : new ActorTimerQueue(this.clock);
     this.actorThreadGroup = threadGroup;
     this.taskScheduler = taskScheduler;
+
+    if (threadGroup != null && threadGroup.getMetrics() != null) {
+      metrics = threadGroup.getMetrics().newThreadMetrics(name);
+      timerJobQueue.setMetrics(metrics);
+    } else {
+      metrics = null;
+    }
   }
 
   @Override
   public void run() {
+    if (actorThreadGroup != null) {
+      try {
+        actorThreadGroup.onThreadStarted(this);
+      } catch (Exception e) {
+        Loggers.ACTOR_LOGGER.error("Failed to start actor thread '{}'", getName(), e);
+
+        state = ActorThreadState.TERMINATED;
+        terminationFuture.complete(null);
+        startFuture.completeExceptionally(e);
+        return;
+      }
+    }
+
+    startFuture.complete(null);
+
     idleStrategy.init();
 
     while (state == ActorThreadState.RUNNING) {
@@ -163,20 +197,41 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
   }
 
   protected class ActorTaskRunnerIdleStrategy {
-    final BackoffIdleStrategy backoff =
-        new BackoffIdleStrategy(100, 100, 1, TimeUnit.MILLISECONDS.toNanos(1));
+    ActorIdleStrategy strategy = ActorIdleStrategy.BACKOFF;
+    long maxParkPeriodNs = TIMER_PARK_PERIOD_NS;
+
+    /**
+     * set before the thread parks; submitters only unpark the thread if it is set, so that threads
+     * which are spinning are not woken up needlessly
+     */
+    volatile boolean mayPark;
+
     boolean isIdle;
 
     long idleTimeStart;
     long busyTimeStart;
 
+    int idleRounds;
+    long parkPeriodNs = MIN_PARK_PERIOD_NS;
+
+    /** moving average of the previous idle periods, used by the adaptive strategy */
+    long averageIdleNs;
+
     void init() {
+      if (actorThreadGroup != null) {
+        strategy = actorThreadGroup.getIdleStrategy();
+        maxParkPeriodNs = actorThreadGroup.getMaxParkPeriodNs();
+      }
+
       isIdle = true;
-      idleTimeStart = System.nanoTime();
+      clock.update();
+      idleTimeStart = clock.getNanoTime();
     }
 
     public void hintWorkAvailable() {
-      LockSupport.unpark(ActorThread.this);
+      if (mayPark) {
+        LockSupport.unpark(ActorThread.this);
+      }
     }
 
     protected void onIdle() {
@@ -184,17 +239,98 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
         clock.update();
         idleTimeStart = clock.getNanoTime();
         isIdle = true;
+
+        if (metrics != null) {
+          metrics.addBusyTime(idleTimeStart - busyTimeStart);
+        }
       }
 
-      backoff.idle();
+      switch (strategy) {
+        case BUSY_SPIN:
+          ThreadHints.onSpinWait();
+          break;
+        case YIELD:
+          Thread.yield();
+          break;
+        case PARK:
+          park(getMaxParkPeriodNs());
+          break;
+        case ADAPTIVE:
+          adaptiveIdle();
+          break;
+        case BACKOFF:
+        default:
+          backoffIdle();
+          break;
+      }
+    }
+
+    private void backoffIdle() {
+      if (idleRounds < MAX_SPINS) {
+        idleRounds++;
+        ThreadHints.onSpinWait();
+      } else if (idleRounds < MAX_SPINS + MAX_YIELDS) {
+        idleRounds++;
+        Thread.yield();
+      } else {
+        park(parkPeriodNs);
+        parkPeriodNs = Math.min(parkPeriodNs << 1, TIMER_PARK_PERIOD_NS);
+      }
+    }
+
+    private void adaptiveIdle() {
+      // spin if work usually arrives within a short period, otherwise yield the CPU right away
+      final long spinBudgetNs = averageIdleNs <= MAX_ADAPTIVE_SPIN_NS ? averageIdleNs << 1 : 0;
+      final long idleNs = clock.getNanoTime() - idleTimeStart;
+
+      if (idleNs < spinBudgetNs) {
+        ThreadHints.onSpinWait();
+      } else if (idleRounds < MAX_YIELDS) {
+        idleRounds++;
+        Thread.yield();
+      } else {
+        park(parkPeriodNs);
+        parkPeriodNs = Math.min(parkPeriodNs << 1, getMaxParkPeriodNs());
+      }
+    }
+
+    /** threads with scheduled timers must wake up in time to process them */
+    private long getMaxParkPeriodNs() {
+      if (timerJobQueue.timerCount() > 0) {
+        return Math.min(TIMER_PARK_PERIOD_NS, maxParkPeriodNs);
+      } else {
+        return maxParkPeriodNs;
+      }
+    }
+
+    private void park(long parkPeriodNs) {
+      if (!mayPark) {
+        // announce the intent to park and look for work once more before actually parking: work
+        // which is submitted concurrently is then either found or the submitter unparks the thread
+        mayPark = true;
+      } else {
+        LockSupport.parkNanos(parkPeriodNs);
+      }
     }
 
     protected void onTaskExecuted() {
-      backoff.reset();
+      idleRounds = 0;
+      parkPeriodNs = MIN_PARK_PERIOD_NS;
+
+      if (mayPark) {
+        mayPark = false;
+      }
 
       if (isIdle) {
         busyTimeStart = clock.getNanoTime();
         isIdle = false;
+
+        final long idleTime = busyTimeStart - idleTimeStart;
+        averageIdleNs += (idleTime - averageIdleNs) >> 3;
+
+        if (metrics != null) {
+          metrics.addIdleTime(idleTime);
+        }
       }
     }
   }
@@ -244,6 +380,13 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
     jobs.offer(j);
   }
 
+  /** Called by the work stealing group when this thread took a task from another thread. */
+  void onTaskStolen() {
+    if (metrics != null) {
+      metrics.incrementSteals();
+    }
+  }
+
   public int getRunnerId() {
     return threadId;
   }
@@ -258,9 +401,18 @@ public class ActorThread extends Thread implements Consumer<Runnable> {
     }
   }
 
+  /**
+   * @return a future which is completed when the thread is ready to execute tasks, or completed
+   *     exceptionally if the thread failed to start
+   */
+  public CompletableFuture<Void> getStartFuture() {
+    return startFuture;
+  }
+
   public CompletableFuture<Void> close() {
     if (UNSAFE.compareAndSwapObject(
         this, STATE_OFFSET, ActorThreadState.RUNNING, ActorThreadState.TERMINATING)) {
+      LockSupport.unpark(this);
       return terminationFuture;
     } else {
       throw new IllegalStateException("Cannot stop runner, not in state 'RUNNING'.");
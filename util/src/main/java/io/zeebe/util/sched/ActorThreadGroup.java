@@ -16,27 +16,62 @@
 package io.zeebe.util.sched;
 
 import io.zeebe.util.sched.ActorScheduler.ActorSchedulerBuilder;
+import io.zeebe.util.sched.ActorScheduler.ActorThreadCpuBinder;
+import io.zeebe.util.sched.metrics.ActorSchedulerMetrics;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A thread group is a group of threads which process the same kind of tasks (ie. blocking I/O vs.
- * CPU bound).
+ * CPU bound). The threads of a group can be partitioned into subgroups of consecutive threads.
+ * Tasks are only stolen between the threads of the same subgroup, and tasks can be pinned to a
+ * thread or a subgroup (see {@link SchedulingHints#pinToThread(int, int)} and {@link
+ * SchedulingHints#pinToSubgroup(int, int)}).
  */
 public abstract class ActorThreadGroup {
   protected final String groupName;
 
   protected int numOfThreads;
+  protected final int subgroupSize;
+  protected final int numOfSubgroups;
 
   protected final ActorThread[] threads;
   protected final MultiLevelWorkstealingGroup tasks;
+  protected final ActorSchedulerMetrics metrics;
+  protected final ActorThreadCpuBinder cpuBinder;
+  protected final ActorIdleStrategy idleStrategy;
+  protected final long maxParkPeriodNs;
 
   public ActorThreadGroup(
       String groupName, int numOfThreads, int numOfQueuesPerThread, ActorSchedulerBuilder builder) {
+    this(
+        groupName,
+        numOfThreads,
+        numOfQueuesPerThread,
+        numOfThreads,
+        ActorIdleStrategy.BACKOFF,
+        builder);
+  }
+
+  public ActorThreadGroup(
+      String groupName,
+      int numOfThreads,
+      int numOfQueuesPerThread,
+      int subgroupSize,
+      ActorIdleStrategy idleStrategy,
+      ActorSchedulerBuilder builder) {
     this.groupName = groupName;
     this.numOfThreads = numOfThreads;
+    this.subgroupSize = Math.max(1, Math.min(subgroupSize, numOfThreads));
+    this.numOfSubgroups = (numOfThreads + this.subgroupSize - 1) / this.subgroupSize;
+    this.metrics = builder.getMetrics();
+    this.cpuBinder = builder.getActorThreadCpuBinder();
+    this.idleStrategy = idleStrategy;
+    this.maxParkPeriodNs = builder.getMaxIdleParkPeriod().toNanos();
 
-    this.tasks = new MultiLevelWorkstealingGroup(numOfThreads, numOfQueuesPerThread);
+    this.tasks =
+        new MultiLevelWorkstealingGroup(numOfThreads, numOfQueuesPerThread, this.subgroupSize);
 
     threads = new ActorThread[numOfThreads];
 
@@ -64,12 +99,49 @@ public abstract class ActorThreadGroup {
 
   public void submit(ActorTask actorTask) {
     final int level = getLevel(actorTask);
+    final int affinity = actorTask.getAffinity();
+
+    if (SchedulingHints.hasThreadAffinity(affinity)) {
+      submitPinned(actorTask, level, SchedulingHints.getAffinityIndex(affinity) % numOfThreads);
+    } else if (SchedulingHints.hasSubgroupAffinity(affinity)) {
+      submitToSubgroup(
+          actorTask, level, SchedulingHints.getAffinityIndex(affinity) % numOfSubgroups);
+    } else {
+      submitToSubgroup(actorTask, level, -1);
+    }
+  }
+
+  private void submitPinned(ActorTask actorTask, int level, int threadId) {
+    tasks.submitPinned(actorTask, level, threadId);
+
+    final ActorThread current = ActorThread.current();
+    if (current != threads[threadId]) {
+      threads[threadId].hintWorkAvailable();
+    }
+  }
 
+  /**
+   * Submits the task to the current thread if it belongs to the given subgroup, otherwise to a
+   * random thread of the subgroup.
+   *
+   * @param subgroup the subgroup, or -1 if the task can be executed by any thread of the group
+   */
+  private void submitToSubgroup(ActorTask actorTask, int level, int subgroup) {
     final ActorThread current = ActorThread.current();
-    if (current != null && current.getActorThreadGroup() == this) {
+    if (current != null
+        && current.getActorThreadGroup() == this
+        && (subgroup < 0 || getSubgroup(current.getRunnerId()) == subgroup)) {
       tasks.submit(actorTask, level, current.getRunnerId());
     } else {
-      final int threadId = ThreadLocalRandom.current().nextInt(numOfThreads);
+      final int threadId;
+      if (subgroup < 0) {
+        threadId = ThreadLocalRandom.current().nextInt(numOfThreads);
+      } else {
+        final int subgroupStart = subgroup * subgroupSize;
+        final int numOfSiblings = Math.min(subgroupSize, numOfThreads - subgroupStart);
+        threadId = subgroupStart + ThreadLocalRandom.current().nextInt(numOfSiblings);
+      }
+
       tasks.submit(actorTask, level, threadId);
       threads[threadId].hintWorkAvailable();
     }
@@ -77,10 +149,39 @@ public abstract class ActorThreadGroup {
 
   protected abstract int getLevel(ActorTask actorTask);
 
+  /** Invoked by each thread of the group when it starts, before it executes any task. */
+  void onThreadStarted(ActorThread thread) {
+    if (cpuBinder != null) {
+      cpuBinder.bind(thread, groupName, getSubgroup(thread.getRunnerId()));
+    }
+  }
+
+  public ActorIdleStrategy getIdleStrategy() {
+    return idleStrategy;
+  }
+
+  /** @return the longest period an idle thread of the group parks, if it has no timers */
+  public long getMaxParkPeriodNs() {
+    return maxParkPeriodNs;
+  }
+
+  public int getSubgroup(int threadId) {
+    return threadId / subgroupSize;
+  }
+
+  public int getNumOfSubgroups() {
+    return numOfSubgroups;
+  }
+
   public String getGroupName() {
     return groupName;
   }
 
+  /** @return the metrics of the scheduler, or <code>null</code> if not enabled */
+  public ActorSchedulerMetrics getMetrics() {
+    return metrics;
+  }
+
   public int getNumOfThreads() {
     return numOfThreads;
   }
@@ -89,6 +190,25 @@ public abstract class ActorThreadGroup {
     for (ActorThread actorThread : threads) {
       actorThread.start();
     }
+
+    if (cpuBinder != null) {
+      // the binding was explicitly configured, don't run the threads unbound if it fails
+      awaitThreadsStarted();
+    }
+  }
+
+  private void awaitThreadsStarted() {
+    for (ActorThread actorThread : threads) {
+      try {
+        actorThread.getStartFuture().join();
+      } catch (CompletionException e) {
+        throw new IllegalStateException(
+            String.format(
+                "Expected to bind actor thread '%s' of group '%s' to its CPUs, but failed",
+                actorThread.getName(), groupName),
+            e.getCause());
+      }
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -16,58 +16,326 @@
 package io.zeebe.util.sched;
 
 import io.zeebe.util.sched.clock.ActorClock;
+import io.zeebe.util.sched.metrics.ActorThreadMetrics;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
-import org.agrona.DeadlineTimerWheel;
-import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.BitUtil;
 
-public class ActorTimerQueue extends DeadlineTimerWheel {
-  private static final int DEFAULT_TICKS_PER_WHEEL = 32;
-  private final Long2ObjectHashMap<TimerSubscription> timerJobMap = new Long2ObjectHashMap<>();
+/**
+ * Hierarchical timer wheel with a resolution of one millisecond.
+ *
+ * <p>The first level has one slot per tick; each slot of a higher level spans a full rotation of
+ * the level below. Timers are kept in intrusive, doubly-linked lists of {@link TimerSubscription
+ * TimerSubscriptions}, so that scheduling and cancelling a timer is O(1) and does not allocate.
+ * Once the wheel enters the range of a higher level slot, its timers are cascaded into the lower
+ * levels.
+ *
+ * <p>All timers which share a tick are kept in the same slot and are expired as one batch: the
+ * timers are marked as expired first and the actors are then woken up once per batch, regardless of
+ * the number of their expired timers.
+ *
+ * <p>The wheel starts at the time of the first scheduled timer or poll, and advances straight to
+ * the next occupied slot. If the clock goes backwards, the wheel is restarted at the current time.
+ *
+ * <p>Not thread-safe, must only be accessed by the owning {@link ActorThread}.
+ */
+public class ActorTimerQueue {
+  private static final int DEFAULT_TICKS_PER_WHEEL = 256;
 
-  private final TimerHandler timerHandler =
-      new TimerHandler() {
-        @Override
-        public boolean onTimerExpiry(TimeUnit timeUnit, long now, long timerId) {
-          final TimerSubscription timer = timerJobMap.remove(timerId);
+  private static final int LEVELS = 4;
+  private static final int SLOT_BITS_PER_HIGHER_LEVEL = 6;
 
-          if (timer != null) {
-            timer.onTimerExpired(timeUnit, now);
-          }
+  /** the number of bits of a tick which select the slot of each level */
+  private final int[] levelShifts = new int[LEVELS];
 
-          return true;
-        }
-      };
+  private final int[] levelMasks = new int[LEVELS];
+  private final TimerSubscription[][] slots = new TimerSubscription[LEVELS][];
+  private final int[] levelTimerCounts = new int[LEVELS];
+
+  /** timers are only scheduled relative to this tick; it is the last processed tick */
+  private long currentTick;
+
+  private boolean isStarted;
+
+  private long timerCount;
+
+  /** the actors to wake up after a batch of timers is expired */
+  private ActorTask[] expiredTasks = new ActorTask[16];
+
+  private ActorThreadMetrics metrics;
 
   public ActorTimerQueue(ActorClock clock) {
     this(clock, DEFAULT_TICKS_PER_WHEEL);
   }
 
+  /**
+   * @param clock the clock of the owning thread, the wheel is started lazily with its time
+   * @param ticksPerWheel the number of slots of the first level, must be a power of two
+   */
   public ActorTimerQueue(ActorClock clock, int ticksPerWheel) {
-    super(TimeUnit.MILLISECONDS, clock.getTimeMillis(), 1, ticksPerWheel);
+    if (!BitUtil.isPowerOfTwo(ticksPerWheel)) {
+      throw new IllegalArgumentException(
+          "Expected ticks per wheel to be a power of two, but was " + ticksPerWheel);
+    }
+
+    int shift = 0;
+    for (int level = 0; level < LEVELS; level++) {
+      final int slotCount = level == 0 ? ticksPerWheel : 1 << SLOT_BITS_PER_HIGHER_LEVEL;
+
+      levelShifts[level] = shift;
+      levelMasks[level] = slotCount - 1;
+      slots[level] = new TimerSubscription[slotCount];
+
+      shift += Integer.numberOfTrailingZeros(slotCount);
+    }
   }
 
   public void processExpiredTimers(ActorClock clock) {
-    int timersProcessed = 0;
+    final long now = clock.getTimeMillis();
+
+    if (!isStarted || now < currentTick) {
+      restart(now);
+    }
+
+    // timers which were scheduled with a deadline in the past
+    expireSlot(currentTick, now);
+
+    while (timerCount > 0) {
+      final long nextTick = nextOccupiedTick();
+      if (nextTick > now) {
+        break;
+      }
 
-    do {
-      timersProcessed = poll(clock.getTimeMillis(), timerHandler, Integer.MAX_VALUE);
-    } while (timersProcessed > 0);
+      currentTick = nextTick;
+      cascade(currentTick);
+      expireSlot(currentTick, now);
+    }
+
+    // no slot is occupied up to now, so the timers stay in their slots
+    currentTick = now;
   }
 
   public void schedule(TimerSubscription timer, ActorClock now) {
     final long deadline =
-        now.getTimeMillis() + timeUnit().convert(timer.getDeadline(), timer.getTimeUnit());
+        now.getTimeMillis()
+            + TimeUnit.MILLISECONDS.convert(timer.getDeadline(), timer.getTimeUnit());
+
+    remove(timer);
 
-    final long timerId = scheduleTimer(deadline);
-    timer.setTimerId(timerId);
+    if (!isStarted) {
+      restart(now.getTimeMillis());
+    }
 
-    timerJobMap.put(timerId, timer);
+    timer.setTimerDeadline(deadline);
+    add(timer);
+    timerCount++;
   }
 
   public void remove(TimerSubscription timer) {
-    final long timerId = timer.getTimerId();
+    if (timer.timerLevel >= 0) {
+      unlink(timer);
+      timerCount--;
+    }
+  }
+
+  /** @return the number of scheduled timers */
+  public long timerCount() {
+    return timerCount;
+  }
+
+  void setMetrics(ActorThreadMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  private void add(TimerSubscription timer) {
+    // a timer with an elapsed deadline is added to the current tick, its deadline is kept
+    final long tick = Math.max(timer.getTimerDeadline(), currentTick);
+    final long delta = tick - currentTick;
+
+    int level = 0;
+    while (level < LEVELS - 1 && delta >>> levelShifts[level + 1] != 0) {
+      level++;
+    }
+
+    final long slotTick;
+    if (level == LEVELS - 1 && delta >>> (levelShifts[level] + SLOT_BITS_PER_HIGHER_LEVEL) != 0) {
+      // beyond the range of the wheel: park the timer in the last slot, it is re-added on cascade
+      slotTick = currentTick + ((long) levelMasks[level] << levelShifts[level]);
+    } else {
+      slotTick = tick;
+    }
+
+    final int slot = (int) (slotTick >>> levelShifts[level]) & levelMasks[level];
+    final TimerSubscription head = slots[level][slot];
+
+    timer.timerLevel = level;
+    timer.timerSlot = slot;
+    timer.timerPrev = null;
+    timer.timerNext = head;
+    if (head != null) {
+      head.timerPrev = timer;
+    }
+
+    slots[level][slot] = timer;
+    levelTimerCounts[level]++;
+  }
+
+  /** starts the wheel at the given tick and re-adds all timers relative to it */
+  private void restart(long tick) {
+    // collect the timers in a list linked by their next pointers
+    TimerSubscription timers = null;
+    for (int level = 0; level < LEVELS; level++) {
+      final TimerSubscription[] levelSlots = slots[level];
+
+      for (int slot = 0; slot < levelSlots.length; slot++) {
+        TimerSubscription timer = levelSlots[slot];
+        levelSlots[slot] = null;
+
+        while (timer != null) {
+          final TimerSubscription next = timer.timerNext;
+          timer.timerNext = timers;
+          timers = timer;
+          timer = next;
+        }
+      }
+
+      levelTimerCounts[level] = 0;
+    }
+
+    currentTick = tick;
+    isStarted = true;
+
+    while (timers != null) {
+      final TimerSubscription next = timers.timerNext;
+      add(timers);
+      timers = next;
+    }
+  }
+
+  /**
+   * @return the next tick after the current one at which a first level slot expires or a higher
+   *     level slot is cascaded, or {@link Long#MAX_VALUE} if no slot is occupied
+   */
+  private long nextOccupiedTick() {
+    long nextTick = Long.MAX_VALUE;
+
+    if (levelTimerCounts[0] > 0) {
+      for (int i = 1; i <= levelMasks[0]; i++) {
+        if (slots[0][(int) (currentTick + i) & levelMasks[0]] != null) {
+          nextTick = currentTick + i;
+          break;
+        }
+      }
+    }
+
+    for (int level = 1; level < LEVELS; level++) {
+      if (levelTimerCounts[level] > 0) {
+        final long currentSlot = currentTick >>> levelShifts[level];
+
+        for (int i = 1; i <= levelMasks[level] + 1; i++) {
+          if (slots[level][(int) (currentSlot + i) & levelMasks[level]] != null) {
+            nextTick = Math.min(nextTick, (currentSlot + i) << levelShifts[level]);
+            break;
+          }
+        }
+      }
+    }
+
+    return nextTick;
+  }
+
+  private void unlink(TimerSubscription timer) {
+    final int level = timer.timerLevel;
+    final TimerSubscription prev = timer.timerPrev;
+    final TimerSubscription next = timer.timerNext;
+
+    if (prev != null) {
+      prev.timerNext = next;
+    } else {
+      slots[level][timer.timerSlot] = next;
+    }
+
+    if (next != null) {
+      next.timerPrev = prev;
+    }
+
+    timer.timerLevel = -1;
+    timer.timerPrev = null;
+    timer.timerNext = null;
+    levelTimerCounts[level]--;
+  }
+
+  /** moves the timers of the higher level slots which start at the given tick to lower levels */
+  private void cascade(long tick) {
+    int level = 1;
+    while (level < LEVELS && (tick & ((1L << levelShifts[level]) - 1)) == 0) {
+      level++;
+    }
+
+    // cascade top-down, so that timers can move down multiple levels at once
+    for (int l = level - 1; l > 0; l--) {
+      final int slot = (int) (tick >>> levelShifts[l]) & levelMasks[l];
+
+      TimerSubscription timer = slots[l][slot];
+      slots[l][slot] = null;
+
+      while (timer != null) {
+        final TimerSubscription next = timer.timerNext;
+        levelTimerCounts[l]--;
+
+        add(timer);
+        timer = next;
+      }
+    }
+  }
+
+  private void expireSlot(long tick, long now) {
+    final int slot = (int) tick & levelMasks[0];
+
+    TimerSubscription timer = slots[0][slot];
+    if (timer == null) {
+      return;
+    }
+
+    // detach the batch; timers which are scheduled meanwhile are expired with the next batch
+    slots[0][slot] = null;
+
+    int expiredTaskCount = 0;
+    while (timer != null) {
+      final TimerSubscription next = timer.timerNext;
+
+      timer.timerLevel = -1;
+      timer.timerPrev = null;
+      timer.timerNext = null;
+      levelTimerCounts[0]--;
+
+      if (timer.getTimerDeadline() > now) {
+        add(timer);
+        timer = next;
+        continue;
+      }
+
+      timerCount--;
+
+      if (metrics != null) {
+        metrics.recordTimerLag(now - timer.getTimerDeadline());
+      }
+
+      final ActorTask task = timer.onTimerExpired();
+      if (task != null && (expiredTaskCount == 0 || expiredTasks[expiredTaskCount - 1] != task)) {
+        if (expiredTaskCount == expiredTasks.length) {
+          expiredTasks = Arrays.copyOf(expiredTasks, expiredTaskCount << 1);
+        }
+        expiredTasks[expiredTaskCount++] = task;
+      }
+
+      timer = next;
+    }
 
-    timerJobMap.remove(timerId);
-    cancelTimer(timerId);
+    // wake up the actors only after all timers of the batch are expired
+    for (int i = 0; i < expiredTaskCount; i++) {
+      expiredTasks[i].tryWakeup();
+      expiredTasks[i] = null;
+    }
   }
 }
@@ -25,6 +25,8 @@ public class CpuThreadGroup extends ActorThreadGroup {
         String.format("%s-%s", builder.getSchedulerName(), "zb-actors"),
         builder.getCpuBoundActorThreadCount(),
         builder.getPriorityQuotas().length,
+        builder.getCpuBoundSubgroupSize(),
+        builder.getCpuBoundIdleStrategy(),
         builder);
   }
 
@@ -24,6 +24,8 @@ public class IoThreadGroup extends ActorThreadGroup {
         String.format("%s-%s", builder.getSchedulerName(), "zb-fs-workers"),
         builder.getIoBoundActorThreadCount(),
         1,
+        builder.getIoBoundActorThreadCount(),
+        builder.getIoBoundIdleStrategy(),
         builder);
   }
 
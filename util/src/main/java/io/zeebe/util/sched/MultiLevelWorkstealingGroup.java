@@ -23,9 +23,13 @@ public class MultiLevelWorkstealingGroup {
   private final WorkStealingGroup[] workStealingGroups;
 
   public MultiLevelWorkstealingGroup(int numOfThreads, int levels) {
+    this(numOfThreads, levels, numOfThreads);
+  }
+
+  public MultiLevelWorkstealingGroup(int numOfThreads, int levels, int subgroupSize) {
     workStealingGroups = new WorkStealingGroup[levels];
     for (int i = 0; i < levels; i++) {
-      workStealingGroups[i] = new WorkStealingGroup(numOfThreads);
+      workStealingGroups[i] = new WorkStealingGroup(numOfThreads, subgroupSize);
     }
   }
 
@@ -36,4 +40,8 @@ public class MultiLevelWorkstealingGroup {
   public void submit(ActorTask task, int level, int threadId) {
     workStealingGroups[level].submit(task, threadId);
   }
+
+  public void submitPinned(ActorTask task, int level, int threadId) {
+    workStealingGroups[level].submitPinned(task, threadId);
+  }
 }
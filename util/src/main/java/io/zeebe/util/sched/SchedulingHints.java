@@ -15,7 +15,23 @@
  */
 package io.zeebe.util.sched;
 
+/**
+ * Encodes scheduling hints into a single int. The lowest bit distinguishes CPU- from I/O-bound
+ * actors, the following bits hold the priority class. Optionally, an actor can be pinned to a
+ * single thread or to a subgroup of threads of its thread group; the index of the thread or
+ * subgroup is stored in the upper half of the hints.
+ */
 public class SchedulingHints {
+  private static final int IO_BOUND_BIT = 1;
+
+  private static final int PRIORITY_SHIFT = 1;
+  private static final int PRIORITY_MASK = 0x7F;
+
+  private static final int THREAD_AFFINITY_BIT = 1 << 8;
+  private static final int SUBGROUP_AFFINITY_BIT = 1 << 9;
+
+  private static final int AFFINITY_SHIFT = 16;
+  private static final int AFFINITY_MASK = 0x7FFF;
 
   public static int ioBound() {
     int hints = 0;
@@ -35,26 +51,74 @@ public class SchedulingHints {
   }
 
   public static int setCpuBound(int hints) {
-    return hints & ~1;
+    return hints & ~IO_BOUND_BIT;
   }
 
   public static int setIoBound(int hints) {
-    return hints | 1;
+    return hints | IO_BOUND_BIT;
   }
 
   public static boolean isCpuBound(int hints) {
-    return (hints & ~1) == hints;
+    return (hints & IO_BOUND_BIT) == 0;
   }
 
   public static boolean isIoBound(int hints) {
-    return (hints & 1) == hints;
+    return (hints & IO_BOUND_BIT) != 0;
   }
 
   public static int setPriority(short priority, int hints) {
-    return hints | (priority << 1);
+    return hints | ((priority & PRIORITY_MASK) << PRIORITY_SHIFT);
   }
 
   public static short getPriority(int hints) {
-    return (short) (hints >> 1);
+    return (short) ((hints >> PRIORITY_SHIFT) & PRIORITY_MASK);
+  }
+
+  /**
+   * Pins the actor to a single thread of its thread group. The actor is always executed by this
+   * thread and is never stolen by another one.
+   *
+   * @param threadId the id of the thread, taken modulo the number of threads of the group
+   * @param hints the hints to extend
+   */
+  public static int pinToThread(int threadId, int hints) {
+    return setAffinity(THREAD_AFFINITY_BIT, threadId, hints);
+  }
+
+  /**
+   * Pins the actor to a subgroup of threads of its thread group. The actor is only executed by
+   * threads of this subgroup. This can be used to keep the actors of one partition on the same
+   * cores.
+   *
+   * @param subgroup the index of the subgroup, taken modulo the number of subgroups of the group
+   * @param hints the hints to extend
+   */
+  public static int pinToSubgroup(int subgroup, int hints) {
+    return setAffinity(SUBGROUP_AFFINITY_BIT, subgroup, hints);
+  }
+
+  public static boolean hasThreadAffinity(int hints) {
+    return (hints & THREAD_AFFINITY_BIT) != 0;
+  }
+
+  public static boolean hasSubgroupAffinity(int hints) {
+    return (hints & SUBGROUP_AFFINITY_BIT) != 0;
+  }
+
+  /** @return the index of the thread or subgroup the actor is pinned to */
+  public static int getAffinityIndex(int hints) {
+    return (hints >>> AFFINITY_SHIFT) & AFFINITY_MASK;
+  }
+
+  private static int setAffinity(int affinityBit, int index, int hints) {
+    if (index < 0 || index > AFFINITY_MASK) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected affinity index to be in [0, %d], but was %d", AFFINITY_MASK, index));
+    }
+
+    final int withoutAffinity =
+        hints & ~(THREAD_AFFINITY_BIT | SUBGROUP_AFFINITY_BIT | (AFFINITY_MASK << AFFINITY_SHIFT));
+    return withoutAffinity | affinityBit | (index << AFFINITY_SHIFT);
   }
 }
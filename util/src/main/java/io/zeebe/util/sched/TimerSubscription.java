@@ -27,9 +27,15 @@ public class TimerSubscription implements ActorSubscription, ScheduledTimer, Run
   private final long deadline;
   private final boolean isRecurring;
 
-  private long timerId = -1L;
+  private long timerDeadline;
   private ActorThread thread;
 
+  // intrusive links of the timer wheel, only accessed by the thread which owns the timer
+  TimerSubscription timerPrev;
+  TimerSubscription timerNext;
+  int timerLevel = -1;
+  int timerSlot;
+
   public TimerSubscription(ActorJob job, long deadline, TimeUnit timeUnit, boolean isRecurring) {
     this.job = job;
     task = job.getTask();
@@ -62,12 +68,13 @@ public class TimerSubscription implements ActorSubscription, ScheduledTimer, Run
     }
   }
 
-  public void setTimerId(long timerId) {
-    this.timerId = timerId;
+  /** @param timerDeadline the absolute deadline in the time unit of the timer queue */
+  void setTimerDeadline(long timerDeadline) {
+    this.timerDeadline = timerDeadline;
   }
 
-  public long getTimerId() {
-    return timerId;
+  long getTimerDeadline() {
+    return timerDeadline;
   }
 
   @Override
@@ -98,10 +105,18 @@ public class TimerSubscription implements ActorSubscription, ScheduledTimer, Run
     return timeUnit;
   }
 
-  public void onTimerExpired(TimeUnit timeUnit, long now) {
+  /**
+   * Marks the timer as expired. The task is not woken up, so that the timer queue can wake it up
+   * once for all timers which expire together.
+   *
+   * @return the task to wake up, or <code>null</code> if the timer was canceled
+   */
+  ActorTask onTimerExpired() {
     if (!isCanceled) {
       isDone = true;
-      task.tryWakeup();
+      return task;
+    } else {
+      return null;
     }
   }
 
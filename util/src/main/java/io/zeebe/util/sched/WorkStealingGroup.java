@@ -19,16 +19,36 @@ import static io.zeebe.util.sched.ActorTask.TaskSchedulingState.QUEUED;
 
 import java.util.concurrent.ThreadLocalRandom;
 
-/** Workstealing group maintains a queue per thread. */
+/**
+ * Workstealing group maintains a queue per thread. Threads are partitioned into subgroups of
+ * consecutive threads; a thread only steals from the siblings of its own subgroup. Additionally,
+ * each thread maintains a queue of tasks which are pinned to it and which are never stolen.
+ */
 public class WorkStealingGroup {
   private final int numOfThreads;
+  private final int subgroupSize;
   private final ActorTaskQueue[] taskQueues;
+  private final ActorTaskQueue[] pinnedTaskQueues;
+
+  /**
+   * alternates the order in which a thread polls its own queues, so that neither pinned nor regular
+   * tasks can starve; each element is only accessed by its thread
+   */
+  private final boolean[] preferPinnedTasks;
 
   public WorkStealingGroup(int numOfThreads) {
+    this(numOfThreads, numOfThreads);
+  }
+
+  public WorkStealingGroup(int numOfThreads, int subgroupSize) {
     this.numOfThreads = numOfThreads;
+    this.subgroupSize = Math.max(1, Math.min(subgroupSize, numOfThreads));
     this.taskQueues = new ActorTaskQueue[numOfThreads];
+    this.pinnedTaskQueues = new ActorTaskQueue[numOfThreads];
+    this.preferPinnedTasks = new boolean[numOfThreads];
     for (int i = 0; i < numOfThreads; i++) {
       taskQueues[i] = new ActorTaskQueue();
+      pinnedTaskQueues[i] = new ActorTaskQueue();
     }
   }
 
@@ -43,6 +63,18 @@ public class WorkStealingGroup {
     taskQueues[threadId].append(task);
   }
 
+  /**
+   * Submit the task into the provided thread's queue of pinned tasks. The task is not visible to
+   * other threads of the group.
+   *
+   * @param task the task to submit
+   * @param threadId the id of the thread which should execute the task
+   */
+  public void submitPinned(ActorTask task, int threadId) {
+    task.schedulingState = QUEUED;
+    pinnedTaskQueues[threadId].append(task);
+  }
+
   /**
    * Attempts to acquire the next task to execute
    *
@@ -50,7 +82,23 @@ public class WorkStealingGroup {
    */
   protected ActorTask getNextTask() {
     final ActorThread currentThread = ActorThread.current();
-    ActorTask nextTask = taskQueues[currentThread.getRunnerId()].pop();
+    final int runnerId = currentThread.getRunnerId();
+
+    final boolean preferPinned = preferPinnedTasks[runnerId];
+    preferPinnedTasks[runnerId] = !preferPinned;
+
+    ActorTask nextTask;
+    if (preferPinned) {
+      nextTask = pinnedTaskQueues[runnerId].pop();
+      if (nextTask == null) {
+        nextTask = taskQueues[runnerId].pop();
+      }
+    } else {
+      nextTask = taskQueues[runnerId].pop();
+      if (nextTask == null) {
+        nextTask = pinnedTaskQueues[runnerId].pop();
+      }
+    }
 
     if (nextTask == null) {
       nextTask = trySteal(currentThread);
@@ -81,16 +129,22 @@ public class WorkStealingGroup {
      * However, the calculation of the random and the handling also needs additional compute time.
      * Experimental verification of the effectiveness of the optimization has not been conducted yet.
      * Also, the optimization only makes sense if the system uses at least 3 runners.
+     *
+     * Only the siblings of the runner's subgroup are considered as victims, so that tasks do not
+     * migrate to cores which do not share caches with the ones of the subgroup.
      */
-    final int offset = ThreadLocalRandom.current().nextInt(numOfThreads);
+    final int subgroupStart = (currentThread.getRunnerId() / subgroupSize) * subgroupSize;
+    final int numOfSiblings = Math.min(subgroupSize, numOfThreads - subgroupStart);
+    final int offset = ThreadLocalRandom.current().nextInt(numOfSiblings);
 
-    for (int i = offset; i < offset + numOfThreads; i++) {
-      final int runnerId = i % numOfThreads;
+    for (int i = offset; i < offset + numOfSiblings; i++) {
+      final int runnerId = subgroupStart + (i % numOfSiblings);
 
       if (runnerId != currentThread.getRunnerId()) {
         final ActorTask stolenActor = taskQueues[runnerId].trySteal();
 
         if (stolenActor != null) {
+          currentThread.onTaskStolen();
           return stolenActor;
         }
       }
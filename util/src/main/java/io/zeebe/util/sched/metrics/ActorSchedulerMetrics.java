@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Prometheus collector for the metrics of an actor scheduler. The actor threads and tasks only
+ * update their metric objects; the samples are created when the collector is scraped.
+ *
+ * <p>Register the collector of a scheduler with {@link #register()} to export the metrics.
+ */
+public class ActorSchedulerMetrics extends Collector {
+
+  private static final String NAMESPACE = "zeebe_actor_";
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private static final List<String> THREAD_LABELS = Arrays.asList("scheduler", "thread");
+  private static final List<String> ACTOR_LABELS = Arrays.asList("scheduler", "actor");
+
+  private final String schedulerName;
+  private final List<ActorThreadMetrics> threadMetrics = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<String, ActorTaskMetrics> taskMetrics = new ConcurrentHashMap<>();
+
+  public ActorSchedulerMetrics(String schedulerName) {
+    this.schedulerName = schedulerName;
+  }
+
+  public ActorThreadMetrics newThreadMetrics(String threadName) {
+    final ActorThreadMetrics metrics = new ActorThreadMetrics(threadName);
+    threadMetrics.add(metrics);
+    return metrics;
+  }
+
+  /** @return the metrics shared by all actors with the given name */
+  public ActorTaskMetrics getTaskMetrics(String actorName) {
+    return taskMetrics.computeIfAbsent(actorName, ActorTaskMetrics::new);
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    final List<MetricFamilySamples> samples = new ArrayList<>();
+
+    final CounterMetricFamily busyTime =
+        new CounterMetricFamily(
+            NAMESPACE + "thread_busy_seconds_total",
+            "Time the actor thread spent executing actor tasks",
+            THREAD_LABELS);
+    final CounterMetricFamily idleTime =
+        new CounterMetricFamily(
+            NAMESPACE + "thread_idle_seconds_total",
+            "Time the actor thread spent waiting for actor tasks",
+            THREAD_LABELS);
+    final CounterMetricFamily steals =
+        new CounterMetricFamily(
+            NAMESPACE + "thread_steals_total",
+            "Number of actor tasks the actor thread stole from other threads",
+            THREAD_LABELS);
+    final List<MetricFamilySamples.Sample> timerLag = new ArrayList<>();
+
+    for (ActorThreadMetrics thread : threadMetrics) {
+      final List<String> labels = Arrays.asList(schedulerName, thread.getThreadName());
+      busyTime.addMetric(labels, thread.getBusyNanos() / NANOS_PER_SECOND);
+      idleTime.addMetric(labels, thread.getIdleNanos() / NANOS_PER_SECOND);
+      steals.addMetric(labels, thread.getSteals());
+      addHistogramSamples(
+          timerLag, NAMESPACE + "timer_lag_seconds", labels, thread.getTimerLag(), THREAD_LABELS);
+    }
+
+    samples.add(busyTime);
+    samples.add(idleTime);
+    samples.add(steals);
+    samples.add(
+        new MetricFamilySamples(
+            NAMESPACE + "timer_lag_seconds",
+            Type.HISTOGRAM,
+            "Time between the deadline of a timer and the time it expired",
+            timerLag));
+
+    final GaugeMetricFamily queueDepth =
+        new GaugeMetricFamily(
+            NAMESPACE + "job_queue_depth",
+            "Number of submitted jobs which are not yet picked up by the actor",
+            ACTOR_LABELS);
+    final List<MetricFamilySamples.Sample> waitTime = new ArrayList<>();
+    final List<MetricFamilySamples.Sample> runTime = new ArrayList<>();
+
+    for (ActorTaskMetrics task : taskMetrics.values()) {
+      final List<String> labels = Arrays.asList(schedulerName, task.getActorName());
+      queueDepth.addMetric(labels, task.getQueueDepth());
+      addHistogramSamples(
+          waitTime, NAMESPACE + "job_wait_seconds", labels, task.getJobWaitTime(), ACTOR_LABELS);
+      addHistogramSamples(
+          runTime, NAMESPACE + "job_run_seconds", labels, task.getJobRunTime(), ACTOR_LABELS);
+    }
+
+    samples.add(queueDepth);
+    samples.add(
+        new MetricFamilySamples(
+            NAMESPACE + "job_wait_seconds",
+            Type.HISTOGRAM,
+            "Time a job waited in the queue of the actor before it was executed",
+            waitTime));
+    samples.add(
+        new MetricFamilySamples(
+            NAMESPACE + "job_run_seconds",
+            Type.HISTOGRAM,
+            "Time of a single execution of a job of the actor",
+            runTime));
+
+    return samples;
+  }
+
+  private static void addHistogramSamples(
+      List<MetricFamilySamples.Sample> samples,
+      String name,
+      List<String> labelValues,
+      LatencyHistogram histogram,
+      List<String> labelNames) {
+    final List<String> bucketLabelNames = new ArrayList<>(labelNames);
+    bucketLabelNames.add("le");
+
+    for (int i = 0; i < histogram.getBucketCount(); i++) {
+      final long bound = histogram.getBucketBound(i);
+      final double upperBound =
+          bound == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : bound / NANOS_PER_SECOND;
+
+      final List<String> bucketLabelValues = new ArrayList<>(labelValues);
+      bucketLabelValues.add(doubleToGoString(upperBound));
+
+      samples.add(
+          new MetricFamilySamples.Sample(
+              name + "_bucket",
+              bucketLabelNames,
+              bucketLabelValues,
+              histogram.getCumulativeCount(i)));
+    }
+
+    samples.add(
+        new MetricFamilySamples.Sample(
+            name + "_count", labelNames, labelValues, histogram.getCount()));
+    samples.add(
+        new MetricFamilySamples.Sample(
+            name + "_sum", labelNames, labelValues, histogram.getSumNanos() / NANOS_PER_SECOND));
+  }
+}
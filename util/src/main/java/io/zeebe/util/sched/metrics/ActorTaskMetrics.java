@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the jobs of all actors with the same name. Actors with the same name can run on
+ * different threads at the same time, so all values are updated atomically.
+ */
+public class ActorTaskMetrics {
+
+  private final String actorName;
+
+  private final LatencyHistogram jobWaitTime = new LatencyHistogram();
+  private final LatencyHistogram jobRunTime = new LatencyHistogram();
+  private final AtomicLong submittedJobs = new AtomicLong();
+  private final AtomicLong polledJobs = new AtomicLong();
+
+  public ActorTaskMetrics(String actorName) {
+    this.actorName = actorName;
+  }
+
+  /** @param nanos the time between queuing a job and starting to execute it */
+  public void recordJobWaitTime(long nanos) {
+    jobWaitTime.record(nanos);
+  }
+
+  /** @param nanos the time of a single execution of a job */
+  public void recordJobRunTime(long nanos) {
+    jobRunTime.record(nanos);
+  }
+
+  public void jobSubmitted() {
+    submittedJobs.incrementAndGet();
+  }
+
+  public void jobPolled() {
+    polledJobs.incrementAndGet();
+  }
+
+  public String getActorName() {
+    return actorName;
+  }
+
+  public LatencyHistogram getJobWaitTime() {
+    return jobWaitTime;
+  }
+
+  public LatencyHistogram getJobRunTime() {
+    return jobRunTime;
+  }
+
+  /** @return the number of externally submitted jobs which are not yet picked up by the actor */
+  public long getQueueDepth() {
+    return Math.max(0, submittedJobs.get() - polledJobs.get());
+  }
+}
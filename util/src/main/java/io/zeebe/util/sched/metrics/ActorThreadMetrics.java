@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Metrics of a single actor thread. The times are only written by the thread itself. */
+public class ActorThreadMetrics {
+
+  private final String threadName;
+
+  private final AtomicLong busyNanos = new AtomicLong();
+  private final AtomicLong idleNanos = new AtomicLong();
+  private final AtomicLong steals = new AtomicLong();
+  private final LatencyHistogram timerLag = new LatencyHistogram();
+
+  public ActorThreadMetrics(String threadName) {
+    this.threadName = threadName;
+  }
+
+  public void addBusyTime(long nanos) {
+    busyNanos.lazySet(busyNanos.get() + nanos);
+  }
+
+  public void addIdleTime(long nanos) {
+    idleNanos.lazySet(idleNanos.get() + nanos);
+  }
+
+  public void incrementSteals() {
+    steals.lazySet(steals.get() + 1);
+  }
+
+  /** @param lagMillis the time between the deadline of a timer and its expiry */
+  public void recordTimerLag(long lagMillis) {
+    timerLag.record(TimeUnit.MILLISECONDS.toNanos(lagMillis));
+  }
+
+  public String getThreadName() {
+    return threadName;
+  }
+
+  public long getBusyNanos() {
+    return busyNanos.get();
+  }
+
+  public long getIdleNanos() {
+    return idleNanos.get();
+  }
+
+  public long getSteals() {
+    return steals.get();
+  }
+
+  public LatencyHistogram getTimerLag() {
+    return timerLag;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds with fixed bucket bounds. Recording a value doesn't
+ * allocate and can be done concurrently; the counts are cumulated only when the histogram is read.
+ */
+public class LatencyHistogram {
+
+  /** Upper bounds of the buckets in nanoseconds, the last bucket is unbounded. */
+  static final long[] BUCKET_BOUNDS = {
+    TimeUnit.MICROSECONDS.toNanos(1),
+    TimeUnit.MICROSECONDS.toNanos(5),
+    TimeUnit.MICROSECONDS.toNanos(10),
+    TimeUnit.MICROSECONDS.toNanos(50),
+    TimeUnit.MICROSECONDS.toNanos(100),
+    TimeUnit.MICROSECONDS.toNanos(500),
+    TimeUnit.MILLISECONDS.toNanos(1),
+    TimeUnit.MILLISECONDS.toNanos(5),
+    TimeUnit.MILLISECONDS.toNanos(10),
+    TimeUnit.MILLISECONDS.toNanos(50),
+    TimeUnit.MILLISECONDS.toNanos(100),
+    TimeUnit.MILLISECONDS.toNanos(500),
+    TimeUnit.SECONDS.toNanos(1),
+    TimeUnit.SECONDS.toNanos(5),
+    TimeUnit.SECONDS.toNanos(10)
+  };
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+  private final AtomicLong sumNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    final long value = Math.max(0, nanos);
+
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS.length && value > BUCKET_BOUNDS[bucket]) {
+      bucket++;
+    }
+
+    counts.incrementAndGet(bucket);
+    sumNanos.addAndGet(value);
+  }
+
+  public int getBucketCount() {
+    return counts.length();
+  }
+
+  /**
+   * @return the upper bound of the given bucket in nanoseconds, or {@link Long#MAX_VALUE} for the
+   *     last bucket
+   */
+  public long getBucketBound(int bucket) {
+    return bucket < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[bucket] : Long.MAX_VALUE;
+  }
+
+  /** @return the number of recorded values which are less than or equal to the bucket's bound */
+  public long getCumulativeCount(int bucket) {
+    long count = 0;
+    for (int i = 0; i <= bucket; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  public long getCount() {
+    return getCumulativeCount(counts.length() - 1);
+  }
+
+  public long getSumNanos() {
+    return sumNanos.get();
+  }
+}
@@ -57,4 +57,35 @@ public class BoundedArrayQueueTest {
       assertThat(queueHead).isEqualTo(i);
     }
   }
+
+  @Test
+  public void shouldGetElementsByPositionAfterWrapAround() {
+    // given
+    final BoundedArrayQueue<Integer> queue = new BoundedArrayQueue<>(4);
+
+    for (int i = 0; i < 6; i++) {
+      queue.add(i);
+      if (i < 3) {
+        queue.poll();
+      }
+    }
+
+    // then
+    assertThat(queue.size()).isEqualTo(3);
+    assertThat(queue.get(0)).isEqualTo(3);
+    assertThat(queue.get(1)).isEqualTo(4);
+    assertThat(queue.get(2)).isEqualTo(5);
+    assertThat(queue.get(3)).isNull();
+    assertThat(queue.peekLast()).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldPeekLastOfEmptyQueue() {
+    // given
+    final BoundedArrayQueue<Integer> queue = new BoundedArrayQueue<>(4);
+
+    // then
+    assertThat(queue.peekLast()).isNull();
+    assertThat(queue.get(0)).isNull();
+  }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.util.sched.clock.ControlledActorClock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ActorTimerQueueTest {
+
+  private final ControlledActorClock clock = new ControlledActorClock();
+  private final ActorTask task = new ActorTask(new Actor() {});
+
+  private ActorTimerQueue timerQueue;
+  private long startTime;
+
+  @Before
+  public void setUp() {
+    clock.pinCurrentTime();
+    startTime = clock.getTimeMillis();
+    timerQueue = new ActorTimerQueue(clock);
+  }
+
+  @Test
+  public void shouldExpireTimerAtDeadline() {
+    // given
+    final TimerSubscription timer = scheduleTimer(Duration.ofMillis(10));
+
+    // when
+    advanceTo(startTime + 9);
+
+    // then
+    assertThat(timer.poll()).isFalse();
+
+    // when
+    advanceTo(startTime + 10);
+
+    // then
+    assertThat(timer.poll()).isTrue();
+    assertThat(timerQueue.timerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldExpireTimerWithElapsedDeadline() {
+    // given
+    final TimerSubscription timer = scheduleTimer(Duration.ZERO);
+
+    // when
+    timerQueue.processExpiredTimers(clock);
+
+    // then
+    assertThat(timer.poll()).isTrue();
+  }
+
+  @Test
+  public void shouldExpireTimersOfAllLevels() {
+    // given
+    final Duration[] delays = {
+      Duration.ofMillis(300),
+      Duration.ofSeconds(20),
+      Duration.ofMinutes(30),
+      Duration.ofHours(10),
+      Duration.ofDays(3)
+    };
+
+    final TimerSubscription[] timers = new TimerSubscription[delays.length];
+    for (int i = 0; i < delays.length; i++) {
+      timers[i] = scheduleTimer(delays[i]);
+    }
+
+    for (int i = 0; i < delays.length; i++) {
+      final long deadline = startTime + delays[i].toMillis();
+
+      // when
+      advanceTo(deadline - 1);
+
+      // then
+      assertThat(timers[i].poll()).isFalse();
+
+      // when
+      advanceTo(deadline);
+
+      // then
+      assertThat(timers[i].poll()).isTrue();
+      assertThat(timerQueue.timerCount()).isEqualTo(delays.length - i - 1);
+    }
+  }
+
+  @Test
+  public void shouldExpireTimersSharingTheSameTick() {
+    // given
+    final TimerSubscription timer1 = scheduleTimer(Duration.ofMillis(500));
+    final TimerSubscription timer2 = scheduleTimer(Duration.ofMillis(500));
+    final TimerSubscription timer3 = scheduleTimer(Duration.ofMillis(501));
+
+    // when
+    advanceTo(startTime + 500);
+
+    // then
+    assertThat(timer1.poll()).isTrue();
+    assertThat(timer2.poll()).isTrue();
+    assertThat(timer3.poll()).isFalse();
+  }
+
+  @Test
+  public void shouldNotExpireRemovedTimer() {
+    // given
+    final TimerSubscription timer1 = scheduleTimer(Duration.ofSeconds(20));
+    final TimerSubscription timer2 = scheduleTimer(Duration.ofSeconds(20));
+
+    // when
+    timerQueue.remove(timer1);
+    advanceTo(startTime + Duration.ofSeconds(20).toMillis());
+
+    // then
+    assertThat(timer1.poll()).isFalse();
+    assertThat(timer2.poll()).isTrue();
+    assertThat(timerQueue.timerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldIgnoreRemovalOfExpiredTimer() {
+    // given
+    final TimerSubscription timer1 = scheduleTimer(Duration.ofMillis(1));
+    final TimerSubscription timer2 = scheduleTimer(Duration.ofMillis(2));
+    advanceTo(startTime + 1);
+
+    // when
+    timerQueue.remove(timer1);
+
+    // then
+    assertThat(timerQueue.timerCount()).isEqualTo(1);
+    advanceTo(startTime + 2);
+    assertThat(timer2.poll()).isTrue();
+  }
+
+  @Test
+  public void shouldStartWheelWithFirstTimer() {
+    // given
+    clock.setCurrentTime(0);
+    timerQueue = new ActorTimerQueue(clock);
+    clock.setCurrentTime(startTime);
+
+    final TimerSubscription timer = scheduleTimer(Duration.ofMillis(10));
+
+    // when
+    advanceTo(startTime + 10);
+
+    // then
+    assertThat(timer.poll()).isTrue();
+  }
+
+  @Test
+  public void shouldExpireTimerIfClockGoesBackwards() {
+    // given
+    final TimerSubscription timer = scheduleTimer(Duration.ofMillis(10));
+    advanceTo(startTime + 5);
+
+    // when
+    advanceTo(startTime - Duration.ofMinutes(1).toMillis());
+
+    // then
+    assertThat(timer.poll()).isFalse();
+
+    // when
+    advanceTo(startTime + 10);
+
+    // then
+    assertThat(timer.poll()).isTrue();
+    assertThat(timerQueue.timerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldExpireTimerAfterLargeClockJump() {
+    // given
+    final TimerSubscription timer = scheduleTimer(Duration.ofSeconds(20));
+    final TimerSubscription laterTimer = scheduleTimer(Duration.ofDays(400));
+
+    // when
+    advanceTo(startTime + Duration.ofDays(365).toMillis());
+
+    // then
+    assertThat(timer.poll()).isTrue();
+    assertThat(laterTimer.poll()).isFalse();
+
+    // when
+    advanceTo(startTime + Duration.ofDays(400).toMillis());
+
+    // then
+    assertThat(laterTimer.poll()).isTrue();
+  }
+
+  private TimerSubscription scheduleTimer(Duration delay) {
+    final ActorJob job = new ActorJob();
+    job.onJobAddedToTask(task);
+
+    final TimerSubscription timer =
+        new TimerSubscription(job, delay.toMillis(), TimeUnit.MILLISECONDS, false);
+    timerQueue.schedule(timer, clock);
+    return timer;
+  }
+
+  private void advanceTo(long time) {
+    clock.setCurrentTime(time);
+    timerQueue.processExpiredTimers(clock);
+  }
+}
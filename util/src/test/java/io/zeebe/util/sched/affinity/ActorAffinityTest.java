@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.affinity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorPriority;
+import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.ActorThread;
+import io.zeebe.util.sched.FutureUtil;
+import io.zeebe.util.sched.SchedulingHints;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ActorAffinityTest {
+
+  private static final int THREAD_COUNT = 4;
+  private static final int SUBGROUP_SIZE = 2;
+
+  private final Map<String, Integer> boundSubgroups = new ConcurrentHashMap<>();
+  private final CountDownLatch threadsBound = new CountDownLatch(THREAD_COUNT);
+
+  private ActorScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler =
+        ActorScheduler.newActorScheduler()
+            .setSchedulerName("test")
+            .setCpuBoundActorThreadCount(THREAD_COUNT)
+            .setIoBoundActorThreadCount(1)
+            .setCpuBoundSubgroupSize(SUBGROUP_SIZE)
+            .setActorThreadCpuBinder(
+                (thread, groupName, subgroup) -> {
+                  if (groupName.endsWith("zb-actors")) {
+                    boundSubgroups.put(thread.getName(), subgroup);
+                    threadsBound.countDown();
+                  }
+                })
+            .build();
+    scheduler.start();
+  }
+
+  @After
+  public void tearDown() {
+    FutureUtil.join(scheduler.stop());
+  }
+
+  @Test
+  public void shouldEncodeAffinityInSchedulingHints() {
+    // when
+    final int hints = SchedulingHints.pinToSubgroup(3, SchedulingHints.cpuBound(ActorPriority.LOW));
+
+    // then
+    assertThat(SchedulingHints.isCpuBound(hints)).isTrue();
+    assertThat(SchedulingHints.getPriority(hints)).isEqualTo(ActorPriority.LOW.getPriorityClass());
+    assertThat(SchedulingHints.hasSubgroupAffinity(hints)).isTrue();
+    assertThat(SchedulingHints.hasThreadAffinity(hints)).isFalse();
+    assertThat(SchedulingHints.getAffinityIndex(hints)).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldReplaceAffinityInSchedulingHints() {
+    // given
+    final int hints = SchedulingHints.pinToSubgroup(3, SchedulingHints.ioBound());
+
+    // when
+    final int pinnedHints = SchedulingHints.pinToThread(5, hints);
+
+    // then
+    assertThat(SchedulingHints.isIoBound(pinnedHints)).isTrue();
+    assertThat(SchedulingHints.hasSubgroupAffinity(pinnedHints)).isFalse();
+    assertThat(SchedulingHints.hasThreadAffinity(pinnedHints)).isTrue();
+    assertThat(SchedulingHints.getAffinityIndex(pinnedHints)).isEqualTo(5);
+  }
+
+  @Test
+  public void shouldRejectNegativeAffinityIndex() {
+    assertThatThrownBy(() -> SchedulingHints.pinToThread(-1, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void shouldRunPinnedActorOnlyOnItsThread() {
+    // given
+    final RecordingActor actor = new RecordingActor();
+    final int hints =
+        SchedulingHints.pinToThread(3, SchedulingHints.cpuBound(ActorPriority.REGULAR));
+
+    // when
+    FutureUtil.join(scheduler.submitActor(actor, hints));
+    runJobs(actor);
+
+    // then
+    assertThat(actor.runnerIds).containsOnly(3);
+  }
+
+  @Test
+  public void shouldRunActorOnlyOnThreadsOfItsSubgroup() {
+    // given
+    final List<RecordingActor> actors = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      actors.add(new RecordingActor());
+    }
+
+    // when
+    for (RecordingActor actor : actors) {
+      final int hints =
+          SchedulingHints.pinToSubgroup(1, SchedulingHints.cpuBound(ActorPriority.REGULAR));
+      FutureUtil.join(scheduler.submitActor(actor, hints));
+    }
+    actors.forEach(this::runJobs);
+
+    // then
+    for (RecordingActor actor : actors) {
+      assertThat(actor.runnerIds).isSubsetOf(2, 3);
+    }
+  }
+
+  @Test
+  public void shouldWrapAffinityIndex() {
+    // given
+    final RecordingActor actor = new RecordingActor();
+    final int hints =
+        SchedulingHints.pinToThread(
+            THREAD_COUNT + 1, SchedulingHints.cpuBound(ActorPriority.REGULAR));
+
+    // when
+    FutureUtil.join(scheduler.submitActor(actor, hints));
+    runJobs(actor);
+
+    // then
+    assertThat(actor.runnerIds).containsOnly(1);
+  }
+
+  @Test
+  public void shouldBindThreadsToSubgroups() throws InterruptedException {
+    // when
+    assertThat(threadsBound.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // then
+    assertThat(boundSubgroups)
+        .containsEntry("test-zb-actors-0", 0)
+        .containsEntry("test-zb-actors-1", 0)
+        .containsEntry("test-zb-actors-2", 1)
+        .containsEntry("test-zb-actors-3", 1);
+  }
+
+  @Test
+  public void shouldFailToStartIfThreadCannotBeBound() {
+    // given
+    final ActorScheduler failingScheduler =
+        ActorScheduler.newActorScheduler()
+            .setSchedulerName("failing")
+            .setCpuBoundActorThreadCount(1)
+            .setIoBoundActorThreadCount(1)
+            .setActorThreadCpuBinder(
+                (thread, groupName, subgroup) -> {
+                  throw new UnsupportedOperationException("no native affinity library");
+                })
+            .build();
+
+    // when - then
+    try {
+      assertThatThrownBy(failingScheduler::start)
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("failing-zb-actors-0")
+          .hasCauseInstanceOf(UnsupportedOperationException.class);
+    } finally {
+      FutureUtil.join(failingScheduler.stop());
+    }
+  }
+
+  private void runJobs(RecordingActor actor) {
+    final List<ActorFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(actor.record());
+    }
+    futures.forEach(FutureUtil::join);
+  }
+
+  private static class RecordingActor extends Actor {
+    private final Set<Integer> runnerIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected void onActorStarting() {
+      runnerIds.add(ActorThread.current().getRunnerId());
+    }
+
+    ActorFuture<Void> record() {
+      return actor.call(
+          () -> {
+            runnerIds.add(ActorThread.current().getRunnerId());
+          });
+    }
+  }
+}
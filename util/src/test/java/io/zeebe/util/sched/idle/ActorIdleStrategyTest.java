@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.idle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorIdleStrategy;
+import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.FutureUtil;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class ActorIdleStrategyTest {
+
+  /** idle threads must be woken up explicitly, they would not notice new work in time otherwise */
+  private static final Duration MAX_PARK_PERIOD = Duration.ofMinutes(1);
+
+  @Parameters(name = "{0}")
+  public static Object[] idleStrategies() {
+    return ActorIdleStrategy.values();
+  }
+
+  @Parameter public ActorIdleStrategy idleStrategy;
+
+  private ActorScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler =
+        ActorScheduler.newActorScheduler()
+            .setCpuBoundActorThreadCount(2)
+            .setIoBoundActorThreadCount(1)
+            .setCpuBoundIdleStrategy(idleStrategy)
+            .setIoBoundIdleStrategy(idleStrategy)
+            .setMaxIdleParkPeriod(MAX_PARK_PERIOD)
+            .build();
+    scheduler.start();
+  }
+
+  @After
+  public void tearDown() {
+    if (scheduler != null) {
+      FutureUtil.join(scheduler.stop());
+    }
+  }
+
+  @Test
+  public void shouldExecuteJobSubmittedToIdleThread() throws Exception {
+    // given
+    final TestActor actor = new TestActor();
+    FutureUtil.join(scheduler.submitActor(actor));
+    awaitIdleThreads();
+
+    // when
+    final ActorFuture<Void> future = actor.doSomething();
+
+    // then
+    future.get(5, TimeUnit.SECONDS);
+    assertThat(future).isDone();
+  }
+
+  @Test
+  public void shouldTriggerTimerOfIdleThread() throws Exception {
+    // given
+    final TestActor actor = new TestActor();
+    FutureUtil.join(scheduler.submitActor(actor));
+
+    // when
+    final CompletableFuture<Void> timerTriggered = actor.runDelayed(Duration.ofMillis(10));
+
+    // then
+    timerTriggered.get(5, TimeUnit.SECONDS);
+    assertThat(timerTriggered).isDone();
+  }
+
+  @Test
+  public void shouldStopIdleThreads() throws Exception {
+    // given
+    awaitIdleThreads();
+
+    // when
+    final Future<Void> stopFuture = scheduler.stop();
+    scheduler = null;
+
+    // then
+    stopFuture.get(5, TimeUnit.SECONDS);
+    assertThat(stopFuture).isDone();
+  }
+
+  private static void awaitIdleThreads() throws InterruptedException {
+    // give the threads time to run through the spinning and yielding phases
+    Thread.sleep(100);
+  }
+
+  private static class TestActor extends Actor {
+
+    ActorFuture<Void> doSomething() {
+      return actor.call(
+          () -> {
+            // noop
+          });
+    }
+
+    CompletableFuture<Void> runDelayed(Duration delay) {
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      actor.call(
+          () -> {
+            actor.runDelayed(delay, () -> future.complete(null));
+          });
+      return future;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.FutureUtil;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ActorSchedulerMetricsTest {
+
+  private ActorScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler =
+        ActorScheduler.newActorScheduler()
+            .setSchedulerName("test")
+            .setCpuBoundActorThreadCount(2)
+            .setIoBoundActorThreadCount(1)
+            .setMetricsEnabled(true)
+            .build();
+    scheduler.start();
+  }
+
+  @After
+  public void tearDown() {
+    FutureUtil.join(scheduler.stop());
+  }
+
+  @Test
+  public void shouldNotCreateMetricsIfDisabled() {
+    // given
+    final ActorScheduler schedulerWithoutMetrics = ActorScheduler.newActorScheduler().build();
+
+    // then
+    assertThat(schedulerWithoutMetrics.getMetrics()).isNull();
+  }
+
+  @Test
+  public void shouldCollectJobMetricsPerActor() {
+    // given
+    final CountingActor actor = new CountingActor();
+    FutureUtil.join(scheduler.submitActor(actor));
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      FutureUtil.join(actor.increment());
+    }
+
+    // then
+    final List<MetricFamilySamples> samples = scheduler.getMetrics().collect();
+    assertThat(sampleValue(samples, "zeebe_actor_job_run_seconds_count", "counting"))
+        .hasValueSatisfying(count -> assertThat(count).isGreaterThanOrEqualTo(10));
+    assertThat(sampleValue(samples, "zeebe_actor_job_wait_seconds_count", "counting"))
+        .hasValueSatisfying(count -> assertThat(count).isGreaterThanOrEqualTo(10));
+    assertThat(sampleValue(samples, "zeebe_actor_job_queue_depth", "counting")).contains(0d);
+  }
+
+  @Test
+  public void shouldCollectThreadMetrics() {
+    // given
+    final CountingActor actor = new CountingActor();
+    FutureUtil.join(scheduler.submitActor(actor));
+
+    // when
+    FutureUtil.join(actor.increment());
+
+    // then
+    final List<MetricFamilySamples> samples = scheduler.getMetrics().collect();
+    assertThat(samples)
+        .extracting(family -> family.name)
+        .contains(
+            "zeebe_actor_thread_busy_seconds_total",
+            "zeebe_actor_thread_idle_seconds_total",
+            "zeebe_actor_thread_steals_total",
+            "zeebe_actor_timer_lag_seconds");
+    assertThat(
+            samples.stream()
+                .filter(family -> family.name.equals("zeebe_actor_thread_busy_seconds_total"))
+                .flatMap(family -> family.samples.stream()))
+        .hasSize(3);
+  }
+
+  private static Optional<Double> sampleValue(
+      List<MetricFamilySamples> families, String sampleName, String actorName) {
+    return families.stream()
+        .flatMap(family -> family.samples.stream())
+        .filter(sample -> sample.name.equals(sampleName))
+        .filter(sample -> sample.labelValues.contains(actorName))
+        .map(sample -> sample.value)
+        .findFirst();
+  }
+
+  private static class CountingActor extends Actor {
+    private int count;
+
+    @Override
+    public String getName() {
+      return "counting";
+    }
+
+    ActorFuture<Void> increment() {
+      return actor.call(
+          () -> {
+            count++;
+          });
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.sched.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void shouldRecordIntoBuckets() {
+    // when
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(1));
+    histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+
+    // then
+    assertThat(histogram.getCumulativeCount(0)).isEqualTo(1);
+    assertThat(histogram.getCumulativeCount(1)).isEqualTo(2);
+    assertThat(histogram.getCumulativeCount(6)).isEqualTo(2);
+    assertThat(histogram.getCumulativeCount(7)).isEqualTo(3);
+    assertThat(histogram.getCount()).isEqualTo(3);
+    assertThat(histogram.getSumNanos())
+        .isEqualTo(TimeUnit.MICROSECONDS.toNanos(4) + TimeUnit.MILLISECONDS.toNanos(2));
+  }
+
+  @Test
+  public void shouldRecordLargeValuesInLastBucket() {
+    // when
+    histogram.record(TimeUnit.MINUTES.toNanos(1));
+
+    // then
+    final int lastBucket = histogram.getBucketCount() - 1;
+    assertThat(histogram.getBucketBound(lastBucket)).isEqualTo(Long.MAX_VALUE);
+    assertThat(histogram.getCumulativeCount(lastBucket - 1)).isEqualTo(0);
+    assertThat(histogram.getCumulativeCount(lastBucket)).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRecordNegativeValuesAsZero() {
+    // when
+    histogram.record(-5);
+
+    // then
+    assertThat(histogram.getCumulativeCount(0)).isEqualTo(1);
+    assertThat(histogram.getSumNanos()).isEqualTo(0);
+  }
+}
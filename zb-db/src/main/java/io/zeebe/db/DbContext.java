@@ -110,4 +110,12 @@ public interface DbContext {
    * @return the transaction object
    */
   ZeebeDbTransaction getCurrentTransaction();
+
+  /**
+   * Registers a listener which is notified whenever a transaction of this context is committed or
+   * rolled back.
+   *
+   * @param listener the listener to register
+   */
+  void addTransactionListener(TransactionListener listener);
 }
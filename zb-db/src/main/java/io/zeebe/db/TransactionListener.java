@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db;
+
+/**
+ * Is notified when the transaction of a {@link DbContext} ends. The listener is called after the
+ * transaction was committed or rolled back, on the thread which ended the transaction.
+ */
+public interface TransactionListener {
+
+  /** Called after the changes of the transaction were committed. */
+  void onCommit();
+
+  /** Called after the changes of the transaction were discarded. */
+  void onRollback();
+}
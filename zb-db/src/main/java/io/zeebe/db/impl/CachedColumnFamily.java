@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl;
+
+import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.DbContext;
+import io.zeebe.db.DbKey;
+import io.zeebe.db.DbValue;
+import io.zeebe.db.KeyValuePairVisitor;
+import io.zeebe.db.TransactionListener;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Read-through cache in front of a column family. Looked up values are kept in a LRU cache which
+ * is bounded by the size of the cached keys and values, so repeated lookups of the same keys do
+ * not have to go to the database.
+ *
+ * <p>Writes are first recorded per transaction of the given context and only applied to the cache
+ * when the transaction is committed, or discarded when it is rolled back. Within the transaction,
+ * lookups see the uncommitted writes like the underlying column family does. The cache assumes
+ * that all writes to the column family go through this instance; writes with another context
+ * evict the written key, but lookups with another context bypass the cache.
+ *
+ * <p>Iterations are not cached and are passed to the underlying column family.
+ */
+public final class CachedColumnFamily<KeyType extends DbKey, ValueType extends DbValue>
+    implements ColumnFamily<KeyType, ValueType>, TransactionListener {
+
+  /** Approximate memory used by a cached entry besides its key and value. */
+  private static final int ENTRY_OVERHEAD = 64;
+
+  private static final byte[] DELETED = new byte[0];
+
+  private final ColumnFamily<KeyType, ValueType> columnFamily;
+  private final DbContext context;
+  private final ValueType valueInstance;
+  private final long maxCacheSize;
+
+  private final LinkedHashMap<DirectBuffer, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<DirectBuffer, byte[]> uncommittedWrites = new HashMap<>();
+  private long cacheSize;
+
+  private final ExpandableArrayBuffer keyBuffer = new ExpandableArrayBuffer();
+  private final ExpandableArrayBuffer valueBuffer = new ExpandableArrayBuffer();
+  private final UnsafeBuffer keyView = new UnsafeBuffer(0, 0);
+  private final UnsafeBuffer valueView = new UnsafeBuffer(0, 0);
+
+  /**
+   * @param columnFamily the column family to cache
+   * @param context the context the column family was created with
+   * @param valueInstance the value instance the column family was created with
+   * @param maxCacheSize the maximum size of the cached keys and values in bytes
+   */
+  public CachedColumnFamily(
+      ColumnFamily<KeyType, ValueType> columnFamily,
+      DbContext context,
+      ValueType valueInstance,
+      long maxCacheSize) {
+    this.columnFamily = columnFamily;
+    this.context = context;
+    this.valueInstance = valueInstance;
+    this.maxCacheSize = maxCacheSize;
+
+    context.addTransactionListener(this);
+  }
+
+  @Override
+  public void put(KeyType key, ValueType value) {
+    put(context, key, value);
+  }
+
+  @Override
+  public void put(DbContext dbContext, KeyType key, ValueType value) {
+    if (dbContext == context) {
+      uncommittedWrites.put(copyKey(key), copyValue(value));
+    } else {
+      evict(key);
+    }
+
+    columnFamily.put(dbContext, key, value);
+  }
+
+  @Override
+  public ValueType get(KeyType key) {
+    return get(context, key, valueInstance);
+  }
+
+  @Override
+  public ValueType get(DbContext dbContext, KeyType key, ValueType value) {
+    if (dbContext != context) {
+      return columnFamily.get(dbContext, key, value);
+    }
+
+    final byte[] cachedValue = lookup(key);
+    if (cachedValue == null) {
+      final ValueType result = columnFamily.get(dbContext, key, value);
+      if (result != null) {
+        cache(copyKey(key), copyValue(result));
+      }
+      return result;
+    } else if (cachedValue == DELETED) {
+      return null;
+    }
+
+    valueView.wrap(cachedValue);
+    value.wrap(valueView, 0, cachedValue.length);
+    return value;
+  }
+
+  @Override
+  public void forEach(Consumer<ValueType> consumer) {
+    columnFamily.forEach(consumer);
+  }
+
+  @Override
+  public void forEach(BiConsumer<KeyType, ValueType> consumer) {
+    columnFamily.forEach(consumer);
+  }
+
+  @Override
+  public void whileTrue(KeyValuePairVisitor<KeyType, ValueType> visitor) {
+    columnFamily.whileTrue(visitor);
+  }
+
+  @Override
+  public void whileTrue(
+      DbContext dbContext,
+      KeyValuePairVisitor<KeyType, ValueType> visitor,
+      KeyType key,
+      ValueType value) {
+    columnFamily.whileTrue(dbContext, visitor, key, value);
+  }
+
+  @Override
+  public void whileEqualPrefix(DbKey keyPrefix, BiConsumer<KeyType, ValueType> visitor) {
+    columnFamily.whileEqualPrefix(keyPrefix, visitor);
+  }
+
+  @Override
+  public void whileEqualPrefix(DbKey keyPrefix, KeyValuePairVisitor<KeyType, ValueType> visitor) {
+    columnFamily.whileEqualPrefix(keyPrefix, visitor);
+  }
+
+  @Override
+  public void delete(KeyType key) {
+    delete(context, key);
+  }
+
+  @Override
+  public void delete(DbContext dbContext, KeyType key) {
+    if (dbContext == context) {
+      uncommittedWrites.put(copyKey(key), DELETED);
+    } else {
+      evict(key);
+    }
+
+    columnFamily.delete(dbContext, key);
+  }
+
+  @Override
+  public boolean exists(KeyType key) {
+    final byte[] cachedValue = lookup(key);
+    if (cachedValue == null) {
+      return columnFamily.exists(key);
+    }
+    return cachedValue != DELETED;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return columnFamily.isEmpty();
+  }
+
+  @Override
+  public boolean isEmpty(DbContext dbContext) {
+    return columnFamily.isEmpty(dbContext);
+  }
+
+  @Override
+  public void onCommit() {
+    for (Entry<DirectBuffer, byte[]> write : uncommittedWrites.entrySet()) {
+      if (write.getValue() == DELETED) {
+        remove(write.getKey());
+      } else {
+        cache(write.getKey(), write.getValue());
+      }
+    }
+    uncommittedWrites.clear();
+  }
+
+  @Override
+  public void onRollback() {
+    uncommittedWrites.clear();
+  }
+
+  /**
+   * @return the value written in the current transaction or the cached value, {@link #DELETED} if
+   *     the key was deleted in the current transaction, or null if the key is not cached
+   */
+  private byte[] lookup(KeyType key) {
+    key.write(keyBuffer, 0);
+    keyView.wrap(keyBuffer, 0, key.getLength());
+
+    final byte[] uncommittedValue = uncommittedWrites.get(keyView);
+    return uncommittedValue != null ? uncommittedValue : cache.get(keyView);
+  }
+
+  private void cache(DirectBuffer key, byte[] value) {
+    final long entrySize = sizeOf(key, value);
+    if (entrySize > maxCacheSize) {
+      remove(key);
+      return;
+    }
+
+    final byte[] previousValue = cache.put(key, value);
+    if (previousValue != null) {
+      cacheSize -= sizeOf(key, previousValue);
+    }
+    cacheSize += entrySize;
+
+    final Iterator<Entry<DirectBuffer, byte[]>> leastRecentlyUsed = cache.entrySet().iterator();
+    while (cacheSize > maxCacheSize && leastRecentlyUsed.hasNext()) {
+      final Entry<DirectBuffer, byte[]> entry = leastRecentlyUsed.next();
+      cacheSize -= sizeOf(entry.getKey(), entry.getValue());
+      leastRecentlyUsed.remove();
+    }
+  }
+
+  private void evict(KeyType key) {
+    key.write(keyBuffer, 0);
+    keyView.wrap(keyBuffer, 0, key.getLength());
+    remove(keyView);
+  }
+
+  private void remove(DirectBuffer key) {
+    final byte[] previousValue = cache.remove(key);
+    if (previousValue != null) {
+      cacheSize -= sizeOf(key, previousValue);
+    }
+  }
+
+  private DirectBuffer copyKey(KeyType key) {
+    final int length = key.getLength();
+    key.write(keyBuffer, 0);
+    final byte[] bytes = new byte[length];
+    keyBuffer.getBytes(0, bytes);
+    return new UnsafeBuffer(bytes);
+  }
+
+  private byte[] copyValue(ValueType value) {
+    final int length = value.getLength();
+    value.write(valueBuffer, 0);
+    final byte[] bytes = new byte[length];
+    valueBuffer.getBytes(0, bytes);
+    return bytes;
+  }
+
+  private static long sizeOf(DirectBuffer key, byte[] value) {
+    return ENTRY_OVERHEAD + key.capacity() + value.length;
+  }
+}
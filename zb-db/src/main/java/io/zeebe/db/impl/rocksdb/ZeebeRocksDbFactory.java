@@ -20,12 +20,19 @@ import io.zeebe.db.impl.rocksdb.transaction.ZeebeTransactionDb;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.CompactionPriority;
 import org.rocksdb.DBOptions;
+import org.rocksdb.Filter;
+import org.rocksdb.LRUCache;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
@@ -37,14 +44,44 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
   }
 
   private final Class<ColumnFamilyType> columnFamilyTypeClass;
+  private final ZeebeRocksDbProfile profile;
+  private final boolean useWriteBatch;
 
-  private ZeebeRocksDbFactory(Class<ColumnFamilyType> columnFamilyTypeClass) {
+  private ZeebeRocksDbFactory(
+      Class<ColumnFamilyType> columnFamilyTypeClass,
+      ZeebeRocksDbProfile profile,
+      boolean useWriteBatch) {
     this.columnFamilyTypeClass = columnFamilyTypeClass;
+    this.profile = profile;
+    this.useWriteBatch = useWriteBatch;
   }
 
   public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
       ZeebeDbFactory<ColumnFamilyType> newFactory(Class<ColumnFamilyType> columnFamilyTypeClass) {
-    return new ZeebeRocksDbFactory(columnFamilyTypeClass);
+    return newFactory(columnFamilyTypeClass, ZeebeRocksDbProfile.defaultProfile());
+  }
+
+  public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
+      ZeebeDbFactory<ColumnFamilyType> newFactory(
+          Class<ColumnFamilyType> columnFamilyTypeClass, ZeebeRocksDbProfile profile) {
+    return new ZeebeRocksDbFactory<>(columnFamilyTypeClass, profile, false);
+  }
+
+  /**
+   * Creates a factory which opens a plain RocksDB instead of an optimistic transaction database.
+   * The changes of a transaction are collected in an indexed write batch and written on commit,
+   * see {@link ZeebeTransactionDb#openWriteBatchDb}.
+   */
+  public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
+      ZeebeDbFactory<ColumnFamilyType> newWriteBatchFactory(
+          Class<ColumnFamilyType> columnFamilyTypeClass) {
+    return newWriteBatchFactory(columnFamilyTypeClass, ZeebeRocksDbProfile.defaultProfile());
+  }
+
+  public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
+      ZeebeDbFactory<ColumnFamilyType> newWriteBatchFactory(
+          Class<ColumnFamilyType> columnFamilyTypeClass, ZeebeRocksDbProfile profile) {
+    return new ZeebeRocksDbFactory<>(columnFamilyTypeClass, profile, true);
   }
 
   @Override
@@ -52,7 +89,7 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
     return open(
         pathName,
         Arrays.stream(columnFamilyTypeClass.getEnumConstants())
-            .map(c -> c.name().toLowerCase().getBytes())
+            .map(c -> ZeebeRocksDbProfile.columnFamilyName(c).getBytes())
             .collect(Collectors.toList()));
   }
 
@@ -63,12 +100,21 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
     try {
       final List<AutoCloseable> closeables = new ArrayList<>();
 
-      // column family options have to be closed as last
-      final ColumnFamilyOptions columnFamilyOptions = createColumnFamilyOptions();
-      closeables.add(columnFamilyOptions);
+      // the block cache and the filter are shared by the column family options and have to be
+      // closed after them
+      final Cache blockCache = new LRUCache(profile.getBlockCacheSize());
+      closeables.add(blockCache);
+      final Filter bloomFilter =
+          profile.getBloomFilterBitsPerKey() > 0
+              ? new BloomFilter(profile.getBloomFilterBitsPerKey(), false)
+              : null;
+      if (bloomFilter != null) {
+        closeables.add(bloomFilter);
+      }
 
+      // column family options have to be closed as last
       final List<ColumnFamilyDescriptor> columnFamilyDescriptors =
-          createFamilyDescriptors(columnFamilyNames, columnFamilyOptions);
+          createFamilyDescriptors(columnFamilyNames, blockCache, bloomFilter, closeables);
       final DBOptions dbOptions =
           new DBOptions()
               .setCreateMissingColumnFamilies(true)
@@ -77,13 +123,31 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
               .setParanoidChecks(true);
       closeables.add(dbOptions);
 
-      db =
-          ZeebeTransactionDb.openTransactionalDb(
-              dbOptions,
-              dbDirectory.getAbsolutePath(),
-              columnFamilyDescriptors,
-              closeables,
-              columnFamilyTypeClass);
+      final EnumMap<ColumnFamilyType, Integer> prefixLengths =
+          new EnumMap<>(columnFamilyTypeClass);
+      for (ColumnFamilyType columnFamily : columnFamilyTypeClass.getEnumConstants()) {
+        prefixLengths.put(columnFamily, profile.getPrefixLength(columnFamily));
+      }
+
+      if (useWriteBatch) {
+        db =
+            ZeebeTransactionDb.openWriteBatchDb(
+                dbOptions,
+                dbDirectory.getAbsolutePath(),
+                columnFamilyDescriptors,
+                closeables,
+                columnFamilyTypeClass,
+                prefixLengths);
+      } else {
+        db =
+            ZeebeTransactionDb.openTransactionalDb(
+                dbOptions,
+                dbDirectory.getAbsolutePath(),
+                columnFamilyDescriptors,
+                closeables,
+                columnFamilyTypeClass,
+                prefixLengths);
+      }
 
     } catch (final RocksDBException e) {
       throw new RuntimeException("Unexpected error occurred trying to open the database", e);
@@ -92,11 +156,26 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
   }
 
   private List<ColumnFamilyDescriptor> createFamilyDescriptors(
-      List<byte[]> columnFamilyNames, ColumnFamilyOptions columnFamilyOptions) {
+      List<byte[]> columnFamilyNames,
+      Cache blockCache,
+      Filter bloomFilter,
+      List<AutoCloseable> closeables) {
     final List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
 
     if (columnFamilyNames != null && columnFamilyNames.size() > 0) {
+      // column families with the same prefix length share their options
+      final Int2ObjectHashMap<ColumnFamilyOptions> optionsByPrefixLength =
+          new Int2ObjectHashMap<>();
+
       for (byte[] name : columnFamilyNames) {
+        final int prefixLength = profile.getPrefixLength(new String(name));
+        ColumnFamilyOptions columnFamilyOptions = optionsByPrefixLength.get(prefixLength);
+        if (columnFamilyOptions == null) {
+          columnFamilyOptions = createColumnFamilyOptions(blockCache, bloomFilter, prefixLength);
+          optionsByPrefixLength.put(prefixLength, columnFamilyOptions);
+          closeables.add(columnFamilyOptions);
+        }
+
         final ColumnFamilyDescriptor columnFamilyDescriptor =
             new ColumnFamilyDescriptor(name, columnFamilyOptions);
         columnFamilyDescriptors.add(columnFamilyDescriptor);
@@ -105,9 +184,31 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
     return columnFamilyDescriptors;
   }
 
-  private static ColumnFamilyOptions createColumnFamilyOptions() {
+  private ColumnFamilyOptions createColumnFamilyOptions(
+      Cache blockCache, Filter bloomFilter, int prefixLength) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig()
+            .setBlockCache(blockCache)
+            .setBlockSize(profile.getBlockSize())
+            .setCacheIndexAndFilterBlocks(true)
+            .setPinL0FilterAndIndexBlocksInCache(true)
+            .setWholeKeyFiltering(true);
+    if (bloomFilter != null) {
+      tableConfig.setFilterPolicy(bloomFilter);
+    }
+
     // Options which are used on all column families
-    return new ColumnFamilyOptions()
-        .setCompactionPriority(CompactionPriority.OldestSmallestSeqFirst);
+    final ColumnFamilyOptions columnFamilyOptions =
+        new ColumnFamilyOptions()
+            .setCompactionPriority(CompactionPriority.OldestSmallestSeqFirst)
+            .setWriteBufferSize(profile.getWriteBufferSize())
+            .setMaxWriteBufferNumber(profile.getMaxWriteBufferNumber())
+            .setTableFormatConfig(tableConfig);
+
+    if (prefixLength > 0) {
+      columnFamilyOptions.useFixedLengthPrefixExtractor(prefixLength);
+    }
+
+    return columnFamilyOptions;
   }
 }
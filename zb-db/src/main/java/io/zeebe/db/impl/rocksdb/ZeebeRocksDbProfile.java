@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb;
+
+import io.zeebe.util.ByteValue;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Performance profile of a RocksDB database created by the {@link ZeebeRocksDbFactory}.
+ *
+ * <p>All column families of a database share one LRU block cache. SST files are written with
+ * bloom filters, so point lookups skip files which do not contain the key. Column families can
+ * additionally be configured with a fixed length prefix extractor, which should match the length
+ * of the first component of their composite keys. Prefix iterations with a prefix of at least that
+ * length then only read SST files and blocks which contain the prefix.
+ */
+public final class ZeebeRocksDbProfile {
+
+  public static final long DEFAULT_BLOCK_CACHE_SIZE = ByteValue.ofMegabytes(64).toBytes();
+  public static final long DEFAULT_BLOCK_SIZE = ByteValue.ofKilobytes(4).toBytes();
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
+  public static final long DEFAULT_WRITE_BUFFER_SIZE = ByteValue.ofMegabytes(64).toBytes();
+  public static final int DEFAULT_MAX_WRITE_BUFFER_NUMBER = 2;
+
+  private final Map<String, Integer> prefixLengths = new HashMap<>();
+  private long blockCacheSize = DEFAULT_BLOCK_CACHE_SIZE;
+  private long blockSize = DEFAULT_BLOCK_SIZE;
+  private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+  private long writeBufferSize = DEFAULT_WRITE_BUFFER_SIZE;
+  private int maxWriteBufferNumber = DEFAULT_MAX_WRITE_BUFFER_NUMBER;
+
+  public static ZeebeRocksDbProfile defaultProfile() {
+    return new ZeebeRocksDbProfile();
+  }
+
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  /** Sets the size in bytes of the LRU block cache which is shared by all column families. */
+  public ZeebeRocksDbProfile setBlockCacheSize(final long blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+    return this;
+  }
+
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  /** Sets the approximate size in bytes of the uncompressed data blocks of SST files. */
+  public ZeebeRocksDbProfile setBlockSize(final long blockSize) {
+    this.blockSize = blockSize;
+    return this;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /** Sets the number of bloom filter bits per key; a value of zero disables bloom filters. */
+  public ZeebeRocksDbProfile setBloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public long getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  /** Sets the size in bytes of a memtable of a column family before it is flushed. */
+  public ZeebeRocksDbProfile setWriteBufferSize(final long writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+    return this;
+  }
+
+  public int getMaxWriteBufferNumber() {
+    return maxWriteBufferNumber;
+  }
+
+  /** Sets the maximum number of memtables of a column family, including the active one. */
+  public ZeebeRocksDbProfile setMaxWriteBufferNumber(final int maxWriteBufferNumber) {
+    this.maxWriteBufferNumber = maxWriteBufferNumber;
+    return this;
+  }
+
+  /**
+   * Returns the length of the fixed prefix extractor of the given column family.
+   *
+   * @return the prefix length, or zero if the column family has no prefix extractor
+   */
+  public int getPrefixLength(final Enum<?> columnFamily) {
+    return getPrefixLength(columnFamilyName(columnFamily));
+  }
+
+  int getPrefixLength(final String columnFamilyName) {
+    return prefixLengths.getOrDefault(columnFamilyName, 0);
+  }
+
+  /**
+   * Configures a fixed length prefix extractor for the given column family. The length should
+   * match the encoded length of the first component of the column family's composite keys, e.g.
+   * {@link Long#BYTES} for keys starting with a {@link io.zeebe.db.impl.DbLong}.
+   */
+  public ZeebeRocksDbProfile setPrefixLength(final Enum<?> columnFamily, final int prefixLength) {
+    if (prefixLength <= 0) {
+      throw new IllegalArgumentException(
+          "Expected prefix length to be greater than zero, but was " + prefixLength);
+    }
+
+    prefixLengths.put(columnFamilyName(columnFamily), prefixLength);
+    return this;
+  }
+
+  static String columnFamilyName(final Enum<?> columnFamily) {
+    return columnFamily.name().toLowerCase();
+  }
+}
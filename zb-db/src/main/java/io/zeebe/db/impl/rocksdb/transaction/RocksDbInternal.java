@@ -35,6 +35,7 @@ import org.rocksdb.RocksObject;
 import org.rocksdb.Status;
 import org.rocksdb.Status.Code;
 import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatchWithIndex;
 
 public class RocksDbInternal {
   static final EnumSet<Code> RECOVERABLE_ERROR_CODES =
@@ -46,6 +47,10 @@ public class RocksDbInternal {
   static Method getWithHandle;
   static Method removeWithHandle;
 
+  static Method batchPutWithHandle;
+  static Method batchGetWithHandle;
+  static Method batchRemoveWithHandle;
+
   static Method seekMethod;
 
   static {
@@ -65,6 +70,10 @@ public class RocksDbInternal {
     getWithHandle();
     removeWithHandle();
 
+    batchPutWithHandle();
+    batchGetWithHandle();
+    batchRemoveWithHandle();
+
     seekWithHandle();
   }
 
@@ -111,6 +120,42 @@ public class RocksDbInternal {
     removeWithHandle.setAccessible(true);
   }
 
+  //    final native void put(final long handle, final byte[] key, final int keyLen,
+  //      final byte[] value, final int valueLen, final long cfHandle)
+
+  private static void batchPutWithHandle() throws NoSuchMethodException {
+    batchPutWithHandle =
+        WriteBatchWithIndex.class.getDeclaredMethod(
+            "put", Long.TYPE, byte[].class, Integer.TYPE, byte[].class, Integer.TYPE, Long.TYPE);
+    batchPutWithHandle.setAccessible(true);
+  }
+
+  //    private native byte[] getFromBatchAndDB(final long handle, final long dbHandle,
+  //      final long readOptHandle, final byte[] key, final int keyLength, final long cfHandle)
+
+  private static void batchGetWithHandle() throws NoSuchMethodException {
+    batchGetWithHandle =
+        WriteBatchWithIndex.class.getDeclaredMethod(
+            "getFromBatchAndDB",
+            Long.TYPE,
+            Long.TYPE,
+            Long.TYPE,
+            byte[].class,
+            Integer.TYPE,
+            Long.TYPE);
+    batchGetWithHandle.setAccessible(true);
+  }
+
+  //    final native void delete(final long handle, final byte[] key, final int keyLen,
+  //      final long cfHandle)
+
+  private static void batchRemoveWithHandle() throws NoSuchMethodException {
+    batchRemoveWithHandle =
+        WriteBatchWithIndex.class.getDeclaredMethod(
+            "delete", Long.TYPE, byte[].class, Integer.TYPE, Long.TYPE);
+    batchRemoveWithHandle.setAccessible(true);
+  }
+
   private static void seekWithHandle() throws NoSuchMethodException {
     seekMethod =
         RocksIterator.class.getDeclaredMethod("seek0", long.class, byte[].class, int.class);
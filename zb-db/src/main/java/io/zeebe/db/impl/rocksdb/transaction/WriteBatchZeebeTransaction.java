@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb.transaction;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchWithIndex;
+import org.rocksdb.WriteOptions;
+
+/**
+ * Transaction which buffers its changes in an indexed {@link WriteBatchWithIndex} on top of a plain
+ * {@link RocksDB}. Reads and iterators see the uncommitted changes of the batch merged with the
+ * database state, so read-your-writes is preserved. Since the database has a single writer, no
+ * conflict checking is done; on commit the batch is written atomically to the database.
+ */
+public class WriteBatchZeebeTransaction extends ZeebeTransaction {
+
+  private final RocksDB db;
+  private final WriteOptions writeOptions;
+  private final WriteBatchWithIndex batch;
+  private final long dbHandle;
+  private final long batchHandle;
+
+  public WriteBatchZeebeTransaction(RocksDB db, WriteOptions writeOptions) {
+    this.db = db;
+    this.writeOptions = writeOptions;
+    // overwrite keys, otherwise the iterators with base can't handle multiple updates of one key
+    this.batch = new WriteBatchWithIndex(true);
+    try {
+      dbHandle = RocksDbInternal.nativeHandle.getLong(db);
+      batchHandle = RocksDbInternal.nativeHandle.getLong(batch);
+    } catch (Exception ex) {
+      batch.close();
+      throw new RuntimeException(ex);
+    }
+  }
+
+  @Override
+  public void put(long columnFamilyHandle, byte[] key, int keyLength, byte[] value, int valueLength)
+      throws Exception {
+    RocksDbInternal.batchPutWithHandle.invoke(
+        batch, batchHandle, key, keyLength, value, valueLength, columnFamilyHandle);
+  }
+
+  @Override
+  public byte[] get(long columnFamilyHandle, long readOptionsHandle, byte[] key, int keyLength)
+      throws Exception {
+    return (byte[])
+        RocksDbInternal.batchGetWithHandle.invoke(
+            batch, batchHandle, dbHandle, readOptionsHandle, key, keyLength, columnFamilyHandle);
+  }
+
+  @Override
+  public void delete(long columnFamilyHandle, byte[] key, int keyLength) throws Exception {
+    RocksDbInternal.batchRemoveWithHandle.invoke(
+        batch, batchHandle, key, keyLength, columnFamilyHandle);
+  }
+
+  @Override
+  public RocksIterator newIterator(ReadOptions options, ColumnFamilyHandle handle) {
+    return batch.newIteratorWithBase(handle, db.newIterator(handle, options));
+  }
+
+  @Override
+  protected void commitChanges() throws RocksDBException {
+    try {
+      if (batch.count() > 0) {
+        db.write(writeOptions, batch);
+      }
+    } finally {
+      batch.clear();
+    }
+  }
+
+  @Override
+  protected void rollbackChanges() {
+    batch.clear();
+  }
+
+  @Override
+  public void close() {
+    batch.close();
+  }
+}
@@ -17,50 +17,44 @@ package io.zeebe.db.impl.rocksdb.transaction;
 
 import static io.zeebe.db.impl.rocksdb.transaction.RocksDbInternal.isRocksDbExceptionRecoverable;
 
+import io.zeebe.db.TransactionListener;
 import io.zeebe.db.TransactionOperation;
 import io.zeebe.db.ZeebeDbException;
 import io.zeebe.db.ZeebeDbTransaction;
+import java.util.ArrayList;
+import java.util.List;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
-import org.rocksdb.Transaction;
 
-public class ZeebeTransaction implements ZeebeDbTransaction, AutoCloseable {
+/**
+ * Base class of the transactions handed out by {@link ZeebeTransactionDb}. Implementations only
+ * have to provide the raw read/write operations and how changes are committed or discarded; the
+ * transaction bookkeeping, error translation and listener notification is shared.
+ */
+public abstract class ZeebeTransaction implements ZeebeDbTransaction, AutoCloseable {
 
-  private final Transaction transaction;
-  private final long nativeHandle;
+  private final List<TransactionListener> listeners = new ArrayList<>();
   private boolean inCurrentTransaction;
 
-  public ZeebeTransaction(Transaction transaction) {
-    this.transaction = transaction;
-    try {
-      nativeHandle = RocksDbInternal.nativeHandle.getLong(transaction);
-    } catch (Exception ex) {
-      throw new RuntimeException(ex);
-    }
-  }
+  public abstract void put(
+      long columnFamilyHandle, byte[] key, int keyLength, byte[] value, int valueLength)
+      throws Exception;
 
-  public void put(long columnFamilyHandle, byte[] key, int keyLength, byte[] value, int valueLength)
-      throws Exception {
-    RocksDbInternal.putWithHandle.invoke(
-        transaction, nativeHandle, key, keyLength, value, valueLength, columnFamilyHandle, false);
-  }
+  public abstract byte[] get(
+      long columnFamilyHandle, long readOptionsHandle, byte[] key, int keyLength) throws Exception;
 
-  public byte[] get(long columnFamilyHandle, long readOptionsHandle, byte[] key, int keyLength)
-      throws Exception {
-    return (byte[])
-        RocksDbInternal.getWithHandle.invoke(
-            transaction, nativeHandle, readOptionsHandle, key, keyLength, columnFamilyHandle);
-  }
+  public abstract void delete(long columnFamilyHandle, byte[] key, int keyLength) throws Exception;
 
-  public void delete(long columnFamilyHandle, byte[] key, int keyLength) throws Exception {
-    RocksDbInternal.removeWithHandle.invoke(
-        transaction, nativeHandle, key, keyLength, columnFamilyHandle, false);
-  }
+  public abstract RocksIterator newIterator(ReadOptions options, ColumnFamilyHandle handle);
 
-  public RocksIterator newIterator(ReadOptions options, ColumnFamilyHandle handle) {
-    return transaction.getIterator(options, handle);
+  protected abstract void commitChanges() throws RocksDBException;
+
+  protected abstract void rollbackChanges() throws RocksDBException;
+
+  void addListener(TransactionListener listener) {
+    listeners.add(listener);
   }
 
   void resetTransaction() {
@@ -86,7 +80,10 @@ public class ZeebeTransaction implements ZeebeDbTransaction, AutoCloseable {
 
   void commitInternal() throws RocksDBException {
     inCurrentTransaction = false;
-    transaction.commit();
+    commitChanges();
+    for (int i = 0; i < listeners.size(); i++) {
+      listeners.get(i).onCommit();
+    }
   }
 
   @Override
@@ -104,7 +101,10 @@ public class ZeebeTransaction implements ZeebeDbTransaction, AutoCloseable {
 
   void rollbackInternal() throws RocksDBException {
     inCurrentTransaction = false;
-    transaction.rollback();
+    rollbackChanges();
+    for (int i = 0; i < listeners.size(); i++) {
+      listeners.get(i).onRollback();
+    }
   }
 
   @Override
@@ -120,7 +120,6 @@ public class ZeebeTransaction implements ZeebeDbTransaction, AutoCloseable {
     }
   }
 
-  public void close() {
-    transaction.close();
-  }
+  @Override
+  public abstract void close();
 }
@@ -33,7 +33,9 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.rocksdb.Checkpoint;
 import org.rocksdb.ColumnFamilyDescriptor;
@@ -41,10 +43,10 @@ import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.DBOptions;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.RocksObject;
-import org.rocksdb.Transaction;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 
@@ -63,24 +65,97 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
           final List<AutoCloseable> closables,
           Class<ColumnFamilyNames> columnFamilyTypeClass)
           throws RocksDBException {
-    final EnumMap<ColumnFamilyNames, Long> columnFamilyMap = new EnumMap<>(columnFamilyTypeClass);
+    return openTransactionalDb(
+        options,
+        path,
+        columnFamilyDescriptors,
+        closables,
+        columnFamilyTypeClass,
+        new EnumMap<>(columnFamilyTypeClass));
+  }
 
+  /**
+   * Opens the database with the lengths of the fixed prefix extractors of its column families.
+   * Prefix iterations over a column family only make use of the prefix extractor if the prefix is
+   * at least as long as the extracted prefix; column families without a length have no extractor.
+   */
+  public static <ColumnFamilyNames extends Enum<ColumnFamilyNames>>
+      ZeebeTransactionDb<ColumnFamilyNames> openTransactionalDb(
+          final DBOptions options,
+          final String path,
+          final List<ColumnFamilyDescriptor> columnFamilyDescriptors,
+          final List<AutoCloseable> closables,
+          Class<ColumnFamilyNames> columnFamilyTypeClass,
+          EnumMap<ColumnFamilyNames, Integer> prefixLengths)
+          throws RocksDBException {
     final List<ColumnFamilyHandle> handles = new ArrayList<>();
     final OptimisticTransactionDB optimisticTransactionDB =
         OptimisticTransactionDB.open(options, path, columnFamilyDescriptors, handles);
     closables.add(optimisticTransactionDB);
 
+    return newDb(
+        optimisticTransactionDB,
+        writeOptions ->
+            new OptimisticZeebeTransaction(optimisticTransactionDB.beginTransaction(writeOptions)),
+        handles,
+        closables,
+        columnFamilyTypeClass,
+        prefixLengths);
+  }
+
+  /**
+   * Opens a plain RocksDB database, without the transaction layer. The changes of a context are
+   * buffered in an indexed write batch, which is read through on gets and iterations and written
+   * atomically on commit. This avoids the conflict tracking and snapshot overhead of optimistic
+   * transactions, which is not needed as long as the contexts are not used concurrently to write
+   * the same keys.
+   */
+  public static <ColumnFamilyNames extends Enum<ColumnFamilyNames>>
+      ZeebeTransactionDb<ColumnFamilyNames> openWriteBatchDb(
+          final DBOptions options,
+          final String path,
+          final List<ColumnFamilyDescriptor> columnFamilyDescriptors,
+          final List<AutoCloseable> closables,
+          Class<ColumnFamilyNames> columnFamilyTypeClass,
+          EnumMap<ColumnFamilyNames, Integer> prefixLengths)
+          throws RocksDBException {
+    final List<ColumnFamilyHandle> handles = new ArrayList<>();
+    final RocksDB db = RocksDB.open(options, path, columnFamilyDescriptors, handles);
+    closables.add(db);
+
+    return newDb(
+        db,
+        writeOptions -> new WriteBatchZeebeTransaction(db, writeOptions),
+        handles,
+        closables,
+        columnFamilyTypeClass,
+        prefixLengths);
+  }
+
+  private static <ColumnFamilyNames extends Enum<ColumnFamilyNames>>
+      ZeebeTransactionDb<ColumnFamilyNames> newDb(
+          final RocksDB db,
+          final Function<WriteOptions, ZeebeTransaction> transactionFactory,
+          final List<ColumnFamilyHandle> handles,
+          final List<AutoCloseable> closables,
+          Class<ColumnFamilyNames> columnFamilyTypeClass,
+          EnumMap<ColumnFamilyNames, Integer> prefixLengths) {
+    final EnumMap<ColumnFamilyNames, Long> columnFamilyMap = new EnumMap<>(columnFamilyTypeClass);
+
     final ColumnFamilyNames[] enumConstants = columnFamilyTypeClass.getEnumConstants();
     final Long2ObjectHashMap<ColumnFamilyHandle> handleToEnumMap = new Long2ObjectHashMap<>();
+    final Long2LongHashMap prefixLengthByHandle = new Long2LongHashMap(0);
     for (int i = 0; i < handles.size(); i++) {
       final ColumnFamilyHandle columnFamilyHandle = handles.get(i);
       closables.add(columnFamilyHandle);
       columnFamilyMap.put(enumConstants[i], getNativeHandle(columnFamilyHandle));
       handleToEnumMap.put(getNativeHandle(handles.get(i)), handles.get(i));
+      prefixLengthByHandle.put(
+          getNativeHandle(columnFamilyHandle), prefixLengths.getOrDefault(enumConstants[i], 0));
     }
 
     return new ZeebeTransactionDb<>(
-        optimisticTransactionDB, columnFamilyMap, handleToEnumMap, closables);
+        db, transactionFactory, columnFamilyMap, handleToEnumMap, prefixLengthByHandle, closables);
   }
 
   private static long getNativeHandle(final RocksObject object) {
@@ -92,28 +167,38 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
     }
   }
 
-  private final OptimisticTransactionDB optimisticTransactionDB;
+  private final RocksDB db;
+  private final Function<WriteOptions, ZeebeTransaction> transactionFactory;
   private final List<AutoCloseable> closables;
 
   private final EnumMap<ColumnFamilyNames, Long> columnFamilyMap;
   private final Long2ObjectHashMap<ColumnFamilyHandle> handelToEnumMap;
+  private final Long2LongHashMap prefixLengths;
 
   private final ReadOptions prefixReadOptions;
+  private final ReadOptions totalOrderReadOptions;
   private final ReadOptions defaultReadOptions;
   private final WriteOptions defaultWriteOptions;
 
   protected ZeebeTransactionDb(
-      OptimisticTransactionDB optimisticTransactionDB,
+      RocksDB db,
+      Function<WriteOptions, ZeebeTransaction> transactionFactory,
       EnumMap<ColumnFamilyNames, Long> columnFamilyMap,
       Long2ObjectHashMap<ColumnFamilyHandle> handelToEnumMap,
+      Long2LongHashMap prefixLengths,
       List<AutoCloseable> closables) {
-    this.optimisticTransactionDB = optimisticTransactionDB;
+    this.db = db;
+    this.transactionFactory = transactionFactory;
     this.columnFamilyMap = columnFamilyMap;
     this.handelToEnumMap = handelToEnumMap;
+    this.prefixLengths = prefixLengths;
     this.closables = closables;
 
     prefixReadOptions = new ReadOptions().setPrefixSameAsStart(true).setTotalOrderSeek(false);
     closables.add(prefixReadOptions);
+    // iterations which are not bound to a prefix must not be restricted by a prefix extractor
+    totalOrderReadOptions = new ReadOptions().setTotalOrderSeek(true);
+    closables.add(totalOrderReadOptions);
     defaultReadOptions = new ReadOptions();
     closables.add(defaultReadOptions);
     defaultWriteOptions = new WriteOptions();
@@ -247,7 +332,7 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
         context,
         transaction -> {
           try (RocksIterator iterator =
-              newIterator(columnFamilyHandle, context, defaultReadOptions)) {
+              newIterator(columnFamilyHandle, context, totalOrderReadOptions)) {
             for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
               context.wrapKeyView(iterator.key());
               context.wrapValueView(iterator.value());
@@ -267,7 +352,7 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
         context,
         transaction -> {
           try (RocksIterator iterator =
-              newIterator(columnFamilyHandle, context, defaultReadOptions)) {
+              newIterator(columnFamilyHandle, context, totalOrderReadOptions)) {
             boolean shouldVisitNext = true;
             for (iterator.seekToFirst(); iterator.isValid() && shouldVisitNext; iterator.next()) {
               shouldVisitNext = visit(context, keyInstance, valueInstance, visitor, iterator);
@@ -316,8 +401,9 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
             ensureInOpenTransaction(
                 context,
                 transaction -> {
+                  final ReadOptions readOptions = prefixReadOptions(columnFamilyHandle, prefix);
                   try (RocksIterator iterator =
-                      newIterator(columnFamilyHandle, context, prefixReadOptions)) {
+                      newIterator(columnFamilyHandle, context, readOptions)) {
                     prefix.write(prefixKeyBuffer, 0);
                     final int prefixLength = prefix.getLength();
 
@@ -348,6 +434,18 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
                 }));
   }
 
+  /**
+   * The prefix extractor can only be used to seek if the prefix covers the complete extracted
+   * prefix; otherwise the iterator would stop at the first key with a different extracted prefix,
+   * even if it still starts with the given prefix.
+   */
+  private ReadOptions prefixReadOptions(long columnFamilyHandle, DbKey prefix) {
+    final long prefixLength = prefixLengths.get(columnFamilyHandle);
+    return prefixLength > 0 && prefix.getLength() >= prefixLength
+        ? prefixReadOptions
+        : totalOrderReadOptions;
+  }
+
   private <KeyType extends DbKey, ValueType extends DbValue> boolean visit(
       DbContext context,
       KeyType keyInstance,
@@ -371,7 +469,7 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
         context,
         transaction -> {
           try (RocksIterator iterator =
-              newIterator(columnFamilyHandle, context, defaultReadOptions)) {
+              newIterator(columnFamilyHandle, context, totalOrderReadOptions)) {
             iterator.seekToFirst();
             final boolean hasEntry = iterator.isValid();
             isEmpty.set(!hasEntry);
@@ -382,7 +480,7 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
 
   @Override
   public void createSnapshot(File snapshotDir) {
-    try (Checkpoint checkpoint = Checkpoint.create(optimisticTransactionDB)) {
+    try (Checkpoint checkpoint = Checkpoint.create(db)) {
       try {
         checkpoint.createCheckpoint(snapshotDir.getAbsolutePath());
       } catch (RocksDBException rocksException) {
@@ -393,8 +491,7 @@ public class ZeebeTransactionDb<ColumnFamilyNames extends Enum<ColumnFamilyNames
 
   @Override
   public DbContext createContext() {
-    final Transaction transaction = optimisticTransactionDB.beginTransaction(defaultWriteOptions);
-    final ZeebeTransaction zeebeTransaction = new ZeebeTransaction(transaction);
+    final ZeebeTransaction zeebeTransaction = transactionFactory.apply(defaultWriteOptions);
     closables.add(zeebeTransaction);
     return new DefaultDbContext(zeebeTransaction);
   }
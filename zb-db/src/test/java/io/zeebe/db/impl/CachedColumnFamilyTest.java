@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.DbContext;
+import io.zeebe.db.ZeebeDb;
+import io.zeebe.db.ZeebeDbFactory;
+import io.zeebe.db.ZeebeDbTransaction;
+import java.io.File;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachedColumnFamilyTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ZeebeDbFactory<DefaultColumnFamily> dbFactory =
+      DefaultZeebeDbFactory.getDefaultFactory(DefaultColumnFamily.class);
+
+  private ZeebeDb<DefaultColumnFamily> zeebeDb;
+  private DbContext dbContext;
+  private ColumnFamily<DbLong, DbLong> columnFamily;
+  private ColumnFamily<DbLong, DbLong> cachedColumnFamily;
+  private DbLong key;
+  private DbLong value;
+
+  @Before
+  public void setup() throws Exception {
+    final File pathName = temporaryFolder.newFolder();
+    zeebeDb = dbFactory.createDb(pathName);
+    dbContext = zeebeDb.createContext();
+
+    key = new DbLong();
+    value = new DbLong();
+    columnFamily = zeebeDb.createColumnFamily(DefaultColumnFamily.DEFAULT, dbContext, key, value);
+    cachedColumnFamily = new CachedColumnFamily<>(columnFamily, dbContext, value, 1024);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    zeebeDb.close();
+  }
+
+  @Test
+  public void shouldGetPutValue() {
+    // given
+    put(1, 10);
+
+    // when
+    key.wrapLong(1);
+    final DbLong result = cachedColumnFamily.get(key);
+
+    // then
+    assertThat(result.getValue()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldGetValueWrittenToDatabase() {
+    // given
+    key.wrapLong(1);
+    value.wrapLong(10);
+    columnFamily.put(key, value);
+
+    // when
+    final DbLong result = cachedColumnFamily.get(key);
+
+    // then
+    assertThat(result.getValue()).isEqualTo(10);
+    assertThat(cachedColumnFamily.exists(key)).isTrue();
+  }
+
+  @Test
+  public void shouldNotGetDeletedValue() {
+    // given
+    put(1, 10);
+    key.wrapLong(1);
+    cachedColumnFamily.get(key);
+
+    // when
+    cachedColumnFamily.delete(key);
+
+    // then
+    assertThat(cachedColumnFamily.get(key)).isNull();
+    assertThat(cachedColumnFamily.exists(key)).isFalse();
+  }
+
+  @Test
+  public void shouldSeeUncommittedWritesInTransaction() throws Exception {
+    // given
+    put(1, 10);
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+
+    // when
+    transaction.run(() -> put(1, 20));
+
+    // then
+    key.wrapLong(1);
+    assertThat(cachedColumnFamily.get(key).getValue()).isEqualTo(20);
+    transaction.commit();
+    assertThat(cachedColumnFamily.get(key).getValue()).isEqualTo(20);
+  }
+
+  @Test
+  public void shouldDiscardWritesOnRollback() throws Exception {
+    // given
+    put(1, 10);
+    key.wrapLong(1);
+    cachedColumnFamily.get(key);
+
+    // when
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+    transaction.run(
+        () -> {
+          put(1, 20);
+          put(2, 30);
+        });
+    transaction.rollback();
+
+    // then
+    key.wrapLong(1);
+    assertThat(cachedColumnFamily.get(key).getValue()).isEqualTo(10);
+    key.wrapLong(2);
+    assertThat(cachedColumnFamily.get(key)).isNull();
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntries() {
+    // given
+    for (int i = 0; i < 100; i++) {
+      put(i, i);
+    }
+
+    // when
+    key.wrapLong(0);
+    value.wrapLong(-1);
+    columnFamily.put(key, value);
+
+    // then - the first entry was evicted and is read from the database again
+    assertThat(cachedColumnFamily.get(key).getValue()).isEqualTo(-1);
+    key.wrapLong(99);
+    assertThat(cachedColumnFamily.get(key).getValue()).isEqualTo(99);
+  }
+
+  private void put(long keyValue, long valueValue) {
+    key.wrapLong(keyValue);
+    value.wrapLong(valueValue);
+    cachedColumnFamily.put(key, value);
+  }
+}
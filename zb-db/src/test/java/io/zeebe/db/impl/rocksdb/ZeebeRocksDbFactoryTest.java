@@ -17,10 +17,16 @@ package io.zeebe.db.impl.rocksdb;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
 import io.zeebe.db.ZeebeDbFactory;
+import io.zeebe.db.impl.DbCompositeKey;
+import io.zeebe.db.impl.DbLong;
+import io.zeebe.db.impl.DbNil;
 import io.zeebe.db.impl.DefaultColumnFamily;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -66,4 +72,67 @@ public class ZeebeRocksDbFactoryTest {
     firstDb.close();
     secondDb.close();
   }
+
+  @Test
+  public void shouldIterateOverPrefixWithPrefixExtractor() throws Exception {
+    // given
+    final ZeebeRocksDbProfile profile =
+        ZeebeRocksDbProfile.defaultProfile()
+            .setPrefixLength(DefaultColumnFamily.DEFAULT, Long.BYTES);
+    final ZeebeDb<DefaultColumnFamily> db =
+        ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class, profile)
+            .createDb(temporaryFolder.newFolder());
+
+    // when
+    final List<Long> visited = visitKeysWithPrefix(db, 2);
+
+    // then
+    assertThat(visited).containsExactly(1L, 2L);
+    db.close();
+  }
+
+  @Test
+  public void shouldIterateOverPrefixShorterThanPrefixExtractor() throws Exception {
+    // given
+    final ZeebeRocksDbProfile profile =
+        ZeebeRocksDbProfile.defaultProfile()
+            .setPrefixLength(DefaultColumnFamily.DEFAULT, 2 * Long.BYTES);
+    final ZeebeDb<DefaultColumnFamily> db =
+        ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class, profile)
+            .createDb(temporaryFolder.newFolder());
+
+    // when
+    final List<Long> visited = visitKeysWithPrefix(db, 2);
+
+    // then
+    assertThat(visited).containsExactly(1L, 2L);
+    db.close();
+  }
+
+  private static List<Long> visitKeysWithPrefix(
+      final ZeebeDb<DefaultColumnFamily> db, final long prefix) {
+    final DbLong firstKey = new DbLong();
+    final DbLong secondKey = new DbLong();
+    final DbCompositeKey<DbLong, DbLong> compositeKey = new DbCompositeKey<>(firstKey, secondKey);
+    final ColumnFamily<DbCompositeKey<DbLong, DbLong>, DbNil> columnFamily =
+        db.createColumnFamily(
+            DefaultColumnFamily.DEFAULT, db.createContext(), compositeKey, DbNil.INSTANCE);
+
+    for (long first = 1; first <= 3; first++) {
+      for (long second = 1; second <= 2; second++) {
+        firstKey.wrapLong(first);
+        secondKey.wrapLong(second);
+        columnFamily.put(compositeKey, DbNil.INSTANCE);
+      }
+    }
+
+    final List<Long> visited = new ArrayList<>();
+    firstKey.wrapLong(prefix);
+    columnFamily.whileEqualPrefix(
+        firstKey,
+        (key, value) -> {
+          visited.add(key.getSecond().getValue());
+        });
+    return visited;
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.DbContext;
+import io.zeebe.db.ZeebeDb;
+import io.zeebe.db.ZeebeDbFactory;
+import io.zeebe.db.ZeebeDbTransaction;
+import io.zeebe.db.impl.DbLong;
+import io.zeebe.db.impl.rocksdb.ZeebeRocksDbFactory;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriteBatchZeebeTransactionTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ZeebeDbFactory<ColumnFamilies> dbFactory =
+      ZeebeRocksDbFactory.newWriteBatchFactory(ColumnFamilies.class);
+
+  private ZeebeDb<ColumnFamilies> zeebeDb;
+  private DbContext dbContext;
+  private ColumnFamily<DbLong, DbLong> columnFamily;
+  private DbLong key;
+  private DbLong value;
+
+  private enum ColumnFamilies {
+    DEFAULT, // rocksDB needs a default column family
+    ONE
+  }
+
+  @Before
+  public void setup() throws Exception {
+    final File pathName = temporaryFolder.newFolder();
+    zeebeDb = dbFactory.createDb(pathName);
+    dbContext = zeebeDb.createContext();
+
+    key = new DbLong();
+    value = new DbLong();
+    columnFamily = zeebeDb.createColumnFamily(ColumnFamilies.ONE, dbContext, key, value);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    zeebeDb.close();
+  }
+
+  @Test
+  public void shouldWriteOnCommit() {
+    // given
+    key.wrapLong(1);
+    value.wrapLong(10);
+
+    // when
+    dbContext.runInTransaction(() -> columnFamily.put(key, value));
+
+    // then
+    assertThat(columnFamily.get(key).getValue()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldReadOwnWrites() throws Exception {
+    // given
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+
+    // when
+    transaction.run(
+        () -> {
+          key.wrapLong(1);
+          value.wrapLong(10);
+          columnFamily.put(key, value);
+        });
+
+    // then
+    transaction.run(() -> assertThat(columnFamily.get(key).getValue()).isEqualTo(10));
+  }
+
+  @Test
+  public void shouldNotSeeUncommittedWritesFromOtherContext() throws Exception {
+    // given
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+    transaction.run(
+        () -> {
+          key.wrapLong(1);
+          value.wrapLong(10);
+          columnFamily.put(key, value);
+        });
+
+    // when
+    final DbContext otherContext = zeebeDb.createContext();
+    final ColumnFamily<DbLong, DbLong> otherColumnFamily =
+        zeebeDb.createColumnFamily(ColumnFamilies.ONE, otherContext, new DbLong(), new DbLong());
+    final DbLong otherKey = new DbLong();
+    otherKey.wrapLong(1);
+
+    // then
+    assertThat(otherColumnFamily.exists(otherKey)).isFalse();
+    transaction.commit();
+    assertThat(otherColumnFamily.exists(otherKey)).isTrue();
+  }
+
+  @Test
+  public void shouldDiscardWritesOnRollback() throws Exception {
+    // given
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+    transaction.run(
+        () -> {
+          key.wrapLong(1);
+          value.wrapLong(10);
+          columnFamily.put(key, value);
+        });
+
+    // when
+    transaction.rollback();
+
+    // then
+    key.wrapLong(1);
+    assertThat(columnFamily.exists(key)).isFalse();
+  }
+
+  @Test
+  public void shouldIterateOverUncommittedChanges() throws Exception {
+    // given
+    dbContext.runInTransaction(
+        () -> {
+          for (int i = 1; i <= 3; i++) {
+            key.wrapLong(i);
+            value.wrapLong(i * 10);
+            columnFamily.put(key, value);
+          }
+        });
+
+    final ZeebeDbTransaction transaction = dbContext.getCurrentTransaction();
+    transaction.run(
+        () -> {
+          key.wrapLong(2);
+          columnFamily.delete(key);
+          key.wrapLong(3);
+          value.wrapLong(33);
+          columnFamily.put(key, value);
+          key.wrapLong(4);
+          value.wrapLong(40);
+          columnFamily.put(key, value);
+        });
+
+    // when
+    final List<Long> values = new ArrayList<>();
+    transaction.run(() -> columnFamily.forEach(v -> values.add(v.getValue())));
+
+    // then
+    assertThat(values).containsExactly(10L, 33L, 40L);
+  }
+
+  @Test
+  public void shouldOverwriteKeyInSameTransaction() {
+    // given
+    key.wrapLong(1);
+
+    // when
+    dbContext.runInTransaction(
+        () -> {
+          value.wrapLong(10);
+          columnFamily.put(key, value);
+          value.wrapLong(20);
+          columnFamily.put(key, value);
+        });
+
+    // then
+    final List<Long> values = new ArrayList<>();
+    columnFamily.forEach(v -> values.add(v.getValue()));
+    assertThat(values).containsExactly(20L);
+  }
+}